@@ -1,8 +1,17 @@
 package ch.epfl.javions;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
 /**
  * La classe Crc24 du paquetage principal, publique, finale et immuable,
  * représente un calculateur de CRC de 24 bits.
+ * <p>
+ * Le CRC est calculé par tranches de 8 octets (slicing-by-8) : chaque tranche est lue comme un long,
+ * et le CRC de chacun de ses octets, décalé du nombre d'octets qui le suivent, est lu dans l'une des 8 tables.
+ * Une éventuelle tranche de 4 octets est traitée de même, puis les derniers octets un par un.
  *
  * @author Adam AIT BOUSSELHAM (356365)
  * @author Abdellah JANATI IDRISSI (362341)
@@ -16,10 +25,16 @@ public final class Crc24 {
 
     private static final int CRC_START = 0;
     private static final int CRC_SIZE = 24;
+    private static final int CRC_MASK = (1 << CRC_SIZE) - 1;
     private static final int TOP_BIT = CRC_SIZE - Byte.BYTES;
     private static final int TOP_BYTE = CRC_SIZE - Byte.SIZE;
     private static final int TABLE_SIZE = 256;
-    private final int[] table = new int[TABLE_SIZE];
+    private static final int SLICES = Long.BYTES;
+    private static final int BYTE_MASK = 0xFF;
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_VIEW = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    /* Les 8 tables, l'une après l'autre : la table k contient le CRC de chaque octet suivi de k octets nuls. */
+    private final int[] table = new int[SLICES * TABLE_SIZE];
 
     /**
      * Constructeur public de la classe Crc24 (appelle la méthode buildTable() pour
@@ -59,23 +74,96 @@ public final class Crc24 {
     }
 
     /**
-     * Méthode privée pour construire la table.
+     * Méthode privée pour construire les tables.
      *
-     * @param generator le générateur du Crc utilisé pour générer la table.
+     * @param generator le générateur du Crc utilisé pour générer les tables.
      */
     private void buildTable(int generator) {
         for (int i = 0; i < TABLE_SIZE; i++) {
             table[i] = crc_bitwise(generator, new byte[]{(byte) i});
         }
+        /* Ajouter un octet nul à un message revient à décaler son CRC d'un octet, modulo le générateur. */
+        for (int i = TABLE_SIZE; i < table.length; i++) {
+            int previous = table[i - TABLE_SIZE];
+            table[i] = ((previous << Byte.SIZE) & CRC_MASK) ^ table[previous >>> TOP_BYTE];
+        }
     }
 
     /**
-     * Méthode principale de la classe Crc24 travaillant octet par octet.
+     * Méthode principale de la classe Crc24, qui calcule le CRC de tous les octets donnés.
      *
      * @param bytes message de bytes ADS-B.
      * @return le CRC24 du tableau de bits donné.
      */
     public int crc(byte[] bytes) {
+        return crc(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Méthode qui calcule le CRC d'une partie des octets donnés, sans les copier.
+     *
+     * @param bytes  le tableau contenant le message.
+     * @param offset l'index du premier octet du message.
+     * @param length le nombre d'octets du message.
+     * @return le CRC24 des octets donnés.
+     * @throws IndexOutOfBoundsException si les octets du message ne sont pas tous dans le tableau.
+     */
+    public int crc(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        int end = offset + length;
+        int crc = 0;
+        int i = offset;
+
+        /* Tranches de 8 octets : le CRC courant est combiné avec les 3 premiers octets de la tranche */
+        for (; end - i >= SLICES; i += SLICES) {
+            long word = (long) LONG_VIEW.get(bytes, i) ^ ((long) crc << (Long.SIZE - CRC_SIZE));
+            crc = table[7 * TABLE_SIZE + (int) (word >>> 56)]
+                    ^ table[6 * TABLE_SIZE + ((int) (word >>> 48) & BYTE_MASK)]
+                    ^ table[5 * TABLE_SIZE + ((int) (word >>> 40) & BYTE_MASK)]
+                    ^ table[4 * TABLE_SIZE + ((int) (word >>> 32) & BYTE_MASK)]
+                    ^ table[3 * TABLE_SIZE + ((int) (word >>> 24) & BYTE_MASK)]
+                    ^ table[2 * TABLE_SIZE + ((int) (word >>> 16) & BYTE_MASK)]
+                    ^ table[TABLE_SIZE + ((int) (word >>> 8) & BYTE_MASK)]
+                    ^ table[(int) word & BYTE_MASK];
+        }
+
+        /* Tranche de 4 octets, lue comme un int */
+        if (end - i >= Integer.BYTES) {
+            int word = (int) INT_VIEW.get(bytes, i) ^ (crc << Byte.SIZE);
+            crc = table[3 * TABLE_SIZE + (word >>> 24)]
+                    ^ table[2 * TABLE_SIZE + ((word >>> 16) & BYTE_MASK)]
+                    ^ table[TABLE_SIZE + ((word >>> 8) & BYTE_MASK)]
+                    ^ table[word & BYTE_MASK];
+            i += Integer.BYTES;
+        }
+
+        /* Octets restants, un par un */
+        for (; i < end; ++i) {
+            crc = ((crc << Byte.SIZE) & CRC_MASK) ^ table[((crc >>> TOP_BYTE) ^ bytes[i]) & BYTE_MASK];
+        }
+        return crc;
+    }
+
+    /**
+     * Méthode qui retourne le CRC d'un message, connaissant le CRC de tous ses octets sauf le dernier,
+     * ce qui permet de calculer le CRC d'un message au fur et à mesure que ses octets sont connus.
+     *
+     * @param crc  le CRC des octets précédant le dernier octet (0 s'il n'y en a aucun).
+     * @param b    le dernier octet du message.
+     * @return le CRC24 du message.
+     */
+    public int update(int crc, byte b) {
+        return ((crc << Byte.SIZE) & CRC_MASK) ^ table[((crc >>> TOP_BYTE) ^ b) & BYTE_MASK];
+    }
+
+    /**
+     * Méthode qui calcule le CRC des octets donnés octet par octet, avec la première table uniquement
+     * (version de référence, pour les tests et les mesures de performance).
+     *
+     * @param bytes message de bytes ADS-B.
+     * @return le CRC24 du tableau de bits donné.
+     */
+    int crcBytewise(byte[] bytes) {
         int crc = 0;
 
         /* Première boucle traitant les octets du message */
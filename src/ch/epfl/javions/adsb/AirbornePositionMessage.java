@@ -35,6 +35,14 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
     private static final int Q1_MULTIPLIER_25 = 25, Q0_MULTIPLIER_100 = 100, Q0_MULTIPLIER_500 = 500;
     private static final int FORMAT_START = 34, FORMAT_SIZE = 1;
     private static final int NORMALIZED_FACTOR = -17;
+    /* L'altitude (en mètres) correspondant à chacune des 4096 valeurs de l'attribut ALT, NaN si elle est invalide. */
+    private static final double[] ALTITUDES = new double[1 << ALT_SIZE];
+
+    static {
+        for (int inputALT = 0; inputALT < ALTITUDES.length; ++inputALT) {
+            ALTITUDES[inputALT] = decodeAltitude(inputALT);
+        }
+    }
 
     /**
      * Constructeur compact de AirbornePositionMessage
@@ -61,20 +69,39 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
      */
     public static AirbornePositionMessage of(RawMessage rawMessage) {
         long payload = rawMessage.payload();
+        double altitude = altitude(payload);
+        if (Double.isNaN(altitude)) {
+            return null;
+        }
+        return new AirbornePositionMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
+                altitude, parity(payload), x(payload), y(payload));
+    }
 
-        int inputALT = Bits.extractUInt(payload, ALT_START, ALT_SIZE);
-
-        int parity = Bits.extractUInt(payload, FORMAT_START, FORMAT_SIZE);
-        double latitude = Bits.extractUInt(payload, LAT_CPR_START, LAT_CPR_SIZE);
-        double longitude = Bits.extractUInt(payload, LON_CPR_START, LON_CPR_SIZE);
+    /**
+     * Méthode qui retourne l'altitude contenue dans la charge utile d'un message de positionnement en vol.
+     *
+     * @param payload La charge utile du message.
+     * @return l'altitude (en mètres), ou NaN si elle est invalide.
+     */
+    static double altitude(long payload) {
+        return ALTITUDES[Bits.extractUInt(payload, ALT_START, ALT_SIZE)];
+    }
 
+    /**
+     * Méthode qui décode la valeur donnée de l'attribut ALT. Elle n'est utilisée que pour construire
+     * la table des altitudes.
+     *
+     * @param inputALT La valeur (12 bits) de l'attribut ALT.
+     * @return l'altitude (en mètres), ou NaN si elle est invalide.
+     */
+    static double decodeAltitude(int inputALT) {
         double altitude;
 
         /* Selon la valeur du bit d'index Q, on calcule l'altitude différemment. */
         if (Bits.testBit(inputALT, Q_INDEX)) { /* Cas où Q = 1 */
 
-            int leftAltitudeBits = Bits.extractUInt(payload, LEFT_ALT_START, LEFT_ALT_SIZE) << Q_INDEX;
-            int rightAltitudeBits = Bits.extractUInt(payload, RIGHT_ALT_START, RIGHT_ALT_SIZE);
+            int leftAltitudeBits = Bits.extractUInt(inputALT, LEFT_ALT_START - ALT_START, LEFT_ALT_SIZE) << Q_INDEX;
+            int rightAltitudeBits = Bits.extractUInt(inputALT, RIGHT_ALT_START - ALT_START, RIGHT_ALT_SIZE);
             int altitudeValue = leftAltitudeBits | rightAltitudeBits;
 
             altitude = altitudeValue * Q1_MULTIPLIER_25 - BASE_ALTITUDE_Q_1;
@@ -88,7 +115,7 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
             m500Feet = convertGrayToBinary(m500Feet);
 
             if (areLSBSNotValid(m100Feet)) {
-                return null;
+                return Double.NaN;
             }
 
             if (m100Feet == 7) m100Feet = 5;
@@ -96,9 +123,39 @@ public record AirbornePositionMessage(long timeStampNs, IcaoAddress icaoAddress,
 
             altitude = (m500Feet * Q0_MULTIPLIER_500) + (m100Feet * Q0_MULTIPLIER_100) - BASE_ALTITUDE_Q_0;
         }
-        return new AirbornePositionMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
-                Units.convertFrom(altitude, Units.Length.FOOT), parity,
-                Math.scalb(longitude, NORMALIZED_FACTOR), Math.scalb(latitude, NORMALIZED_FACTOR));
+        return Units.convertFrom(altitude, Units.Length.FOOT);
+    }
+
+    /**
+     * Méthode qui retourne la parité contenue dans la charge utile d'un message de positionnement en vol.
+     *
+     * @param payload La charge utile du message.
+     * @return la parité du message (0 s'il est pair, 1 s'il est impair).
+     */
+    static int parity(long payload) {
+        return Bits.extractUInt(payload, FORMAT_START, FORMAT_SIZE);
+    }
+
+    /**
+     * Méthode qui retourne la longitude locale et normalisée contenue dans la charge utile
+     * d'un message de positionnement en vol.
+     *
+     * @param payload La charge utile du message.
+     * @return la longitude locale et normalisée, comprise entre 0 (inclus) et 1 (exclus).
+     */
+    static double x(long payload) {
+        return Math.scalb((double) Bits.extractUInt(payload, LON_CPR_START, LON_CPR_SIZE), NORMALIZED_FACTOR);
+    }
+
+    /**
+     * Méthode qui retourne la latitude locale et normalisée contenue dans la charge utile
+     * d'un message de positionnement en vol.
+     *
+     * @param payload La charge utile du message.
+     * @return la latitude locale et normalisée, comprise entre 0 (inclus) et 1 (exclus).
+     */
+    static double y(long payload) {
+        return Math.scalb((double) Bits.extractUInt(payload, LAT_CPR_START, LAT_CPR_SIZE), NORMALIZED_FACTOR);
     }
 
     /**
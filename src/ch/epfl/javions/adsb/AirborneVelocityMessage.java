@@ -53,102 +53,122 @@ public record AirborneVelocityMessage(long timeStampNs, IcaoAddress icaoAddress,
      * déplacement ne peuvent pas être déterminés.
      */
     public static AirborneVelocityMessage of(RawMessage rawMessage) {
+        long payload = rawMessage.payload();
+        double speed = speed(payload);
+        if (Double.isNaN(speed)) {
+            return null;
+        }
+        return new AirborneVelocityMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
+                speed, trackOrHeading(payload));
+    }
+
+    /**
+     * Méthode qui retourne la vitesse contenue dans la charge utile d'un message de vitesse en vol.
+     *
+     * @param payload La charge utile du message.
+     * @return la vitesse (en mètres par seconde), ou NaN si le sous-type du message est invalide,
+     * ou si la vitesse ou la direction de déplacement ne peuvent pas être déterminés.
+     */
+    static double speed(long payload) {
 
         /* On commence par extraire l'attribut ST du message pour savoir comment interpréter
          * les 22 bits commençant au bit 21 (MESSAGE_START). */
-        int subType = Bits.extractUInt(rawMessage.payload(), ST_START, ST_SIZE);
-
-        double speed;
-        double trackOrHeading = 0;
+        int subType = Bits.extractUInt(payload, ST_START, ST_SIZE);
 
         /* On vérifie si le message est un message à interpréter comme un Ground Speed message */
         if (isSubTypeGroundSpeed(subType)) {
 
-            int directionEastWest = Bits.extractUInt(rawMessage.payload(), DEW_START, D_SIZE);
-            int directionNorthSouth = Bits.extractUInt(rawMessage.payload(), DNS_START, D_SIZE);
-            int velocityEastWest = Bits.extractUInt(rawMessage.payload(), VEW_START, V_SIZE);
-            int velocityNorthSouth = Bits.extractUInt(rawMessage.payload(), VNS_START, V_SIZE);
+            int velocityEastWest = Bits.extractUInt(payload, VEW_START, V_SIZE);
+            int velocityNorthSouth = Bits.extractUInt(payload, VNS_START, V_SIZE);
 
             /* Si les attributs VNS ou VEW valent 0, on ne peut pas calculer la norme de la vitesse
-             * puisque les attributs VNS et VEW indiquent la valeur absolue de la vitesse (+1).
-             * On retourne donc null. */
+             * puisque les attributs VNS et VEW indiquent la valeur absolue de la vitesse (+1). */
             if (velocityNorthSouth == 0 || velocityEastWest == 0) {
-                return null;
+                return Double.NaN;
             }
 
-            speed = Math.hypot(velocityEastWest - 1, velocityNorthSouth - 1);
-
-            /* Selon les valeurs des attributs DNS et/ou DEW on calcule la route de l'aéronef (track) correspondant */
-            switch (directionNorthSouth) {
-                case 0 -> {
-                    switch (directionEastWest) {
-                        case 0 -> trackOrHeading = Math.atan2(velocityEastWest - 1, velocityNorthSouth - 1);
-                        case 1 -> trackOrHeading = Math.atan2(-(velocityEastWest - 1), velocityNorthSouth - 1);
-                    }
-                }
-                case 1 -> {
-                    switch (directionEastWest) {
-                        case 0 -> trackOrHeading = Math.atan2(velocityEastWest - 1, -(velocityNorthSouth - 1));
-                        case 1 -> trackOrHeading = Math.atan2(-(velocityEastWest - 1), -(velocityNorthSouth - 1));
-                    }
-                }
-            }
+            double speed = Math.hypot(velocityEastWest - 1, velocityNorthSouth - 1);
 
             /* On convertit enfin la vitesse de Nœuds en mètres par secondes si le sous-type vaut 1
-             * Sinon la vitesse est convertie d'une unité qui correspond à 4 nœuds en mètres par secondes.
-             * L'angle passé en argument de AirborneVelocityMessage est enfin recentré entre 0 et 2π
-             * grâce à la méthode statique refocusTrackOrHeading(). */
+             * Sinon la vitesse est convertie d'une unité qui correspond à 4 nœuds en mètres par secondes. */
             if (subType == 1) {
-                speed = Units.convert(speed, Units.Speed.KNOT, Units.Speed.METER_PER_SECOND);
+                return Units.convert(speed, Units.Speed.KNOT, Units.Speed.METER_PER_SECOND);
             } else {
-                speed = Units.convert(speed, Units.Speed.KNOT * 4, Units.Speed.METER_PER_SECOND);
+                return Units.convert(speed, Units.Speed.KNOT * 4, Units.Speed.METER_PER_SECOND);
             }
-            return new AirborneVelocityMessage(rawMessage.timeStampNs(),
-                    rawMessage.icaoAddress(),
-                    speed,
-                    refocusTrackOrHeading(trackOrHeading));
         }
 
         /* On vérifie si le message est un message à interpréter comme un Air Speed message */
         if (isSubTypeAirSpeed(subType)) {
 
-            /* On extrait le bit SH, s'il vaut 0 alors le cap (heading) de l'aéronef est inconnu.
-             * On retourne donc null */
-            int statusHeading = Bits.extractUInt(rawMessage.payload(), SH_START, SH_SIZE);
+            /* On extrait le bit SH, s'il vaut 0 alors le cap (heading) de l'aéronef est inconnu. */
+            int statusHeading = Bits.extractUInt(payload, SH_START, SH_SIZE);
             if (!Bits.testBit(statusHeading)) {
-                return null;
+                return Double.NaN;
             }
 
-            int heading = Bits.extractUInt(rawMessage.payload(), HDG_START, HDG_SIZE);
-            int airSpeed = Bits.extractUInt(rawMessage.payload(), AS_START, AS_SIZE);
+            int airSpeed = Bits.extractUInt(payload, AS_START, AS_SIZE);
 
             /* L'attribut AS correspond à la vitesse de l'aéronef (+1).
-             * S'il vaut 0, on ne peut pas calculer la vitesse, on retourne donc null. */
+             * S'il vaut 0, on ne peut pas calculer la vitesse. */
             if (airSpeed == 0) {
-                return null;
+                return Double.NaN;
             }
 
-            trackOrHeading = Units.convertFrom(Math.scalb(heading, -10), Units.Angle.TURN);
-
             /* On convertit enfin la vitesse de Nœuds en mètres par secondes si le sous-type vaut 3
-             * Sinon la vitesse est convertie d'une unité qui correspond à 4 nœuds en mètres par secondes.
-             * L'angle passé en argument de AirborneVelocityMessage est enfin recentré entre 0 et 2π
-             * grâce à la méthode statique refocusTrackOrHeading(). */
+             * Sinon la vitesse est convertie d'une unité qui correspond à 4 nœuds en mètres par secondes. */
             if (subType == 3) {
-                speed = Units.convert(airSpeed - 1, Units.Speed.KNOT, Units.Speed.METER_PER_SECOND);
+                return Units.convert(airSpeed - 1, Units.Speed.KNOT, Units.Speed.METER_PER_SECOND);
             } else {
-                speed = Units.convert(airSpeed - 1, Units.Speed.KNOT * 4, Units.Speed.METER_PER_SECOND);
+                return Units.convert(airSpeed - 1, Units.Speed.KNOT * 4, Units.Speed.METER_PER_SECOND);
             }
-
-            return new AirborneVelocityMessage(rawMessage.timeStampNs(),
-                    rawMessage.icaoAddress(),
-                    speed,
-                    refocusTrackOrHeading(trackOrHeading));
         }
 
         /* Si l'attribut ST (sous-type) extrait du message ne correspond ni à un Ground Speed message,
-         * ni à un Air Speed message, le sous-type est invalide, on retourne donc null. */
-        return null;
+         * ni à un Air Speed message, le sous-type est invalide. */
+        return Double.NaN;
+    }
+
+    /**
+     * Méthode qui retourne la route ou le cap contenu dans la charge utile d'un message de vitesse en vol,
+     * dont la vitesse est valide (voir speed()).
+     *
+     * @param payload La charge utile du message.
+     * @return la route (Ground Speed) ou le cap (Air Speed), en radians, recentré entre 0 et 2π.
+     */
+    static double trackOrHeading(long payload) {
+        int subType = Bits.extractUInt(payload, ST_START, ST_SIZE);
+        double trackOrHeading = 0;
+
+        if (isSubTypeGroundSpeed(subType)) {
+
+            int directionEastWest = Bits.extractUInt(payload, DEW_START, D_SIZE);
+            int directionNorthSouth = Bits.extractUInt(payload, DNS_START, D_SIZE);
+            int velocityEastWest = Bits.extractUInt(payload, VEW_START, V_SIZE);
+            int velocityNorthSouth = Bits.extractUInt(payload, VNS_START, V_SIZE);
+
+            /* Selon les valeurs des attributs DNS et/ou DEW on calcule la route de l'aéronef (track) correspondant */
+            switch (directionNorthSouth) {
+                case 0 -> {
+                    switch (directionEastWest) {
+                        case 0 -> trackOrHeading = Math.atan2(velocityEastWest - 1, velocityNorthSouth - 1);
+                        case 1 -> trackOrHeading = Math.atan2(-(velocityEastWest - 1), velocityNorthSouth - 1);
+                    }
+                }
+                case 1 -> {
+                    switch (directionEastWest) {
+                        case 0 -> trackOrHeading = Math.atan2(velocityEastWest - 1, -(velocityNorthSouth - 1));
+                        case 1 -> trackOrHeading = Math.atan2(-(velocityEastWest - 1), -(velocityNorthSouth - 1));
+                    }
+                }
+            }
+        } else {
+            int heading = Bits.extractUInt(payload, HDG_START, HDG_SIZE);
+            trackOrHeading = Units.convertFrom(Math.scalb(heading, -10), Units.Angle.TURN);
+        }
+
+        /* L'angle est enfin recentré entre 0 et 2π grâce à la méthode statique refocusTrackOrHeading(). */
+        return refocusTrackOrHeading(trackOrHeading);
     }
 
     /**
@@ -48,26 +48,71 @@ public record AircraftIdentificationMessage(long timeStampNs, IcaoAddress icaoAd
      * ou null si au moins un des caractères de l'indicatif qu'il contient est invalide.
      */
     public static AircraftIdentificationMessage of(RawMessage rawMessage) {
+        long payload = rawMessage.payload();
+        CallSign callSign = callSign(payload);
+        if (callSign == null) {
+            return null;
+        }
+        return new AircraftIdentificationMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
+                category(payload), callSign);
+    }
+
+    /**
+     * Méthode qui retourne la catégorie contenue dans la charge utile d'un message d'identification.
+     *
+     * @param payload La charge utile du message.
+     * @return la catégorie de l'aéronef.
+     */
+    static int category(long payload) {
+        int leftCategoryBits = (RawMessage.LENGTH - RawMessage.typeCode(payload)) << 4;
+        int rightCategoryBits = Bits.extractUInt(payload, CA_START, CA_SIZE);
+        return leftCategoryBits | rightCategoryBits;
+    }
 
-        int leftCategoryBits = (RawMessage.LENGTH - rawMessage.typeCode()) << 4;
-        int rightCategoryBits = Bits.extractUInt(rawMessage.payload(), CA_START, CA_SIZE);
-        int category = leftCategoryBits | rightCategoryBits;
+    /**
+     * Méthode qui vérifie, sans rien allouer, que tous les caractères de l'indicatif contenu dans la charge utile
+     * d'un message d'identification sont valides.
+     *
+     * @param payload La charge utile du message.
+     * @return Vrai si tous les caractères de l'indicatif sont valides, faux sinon.
+     */
+    static boolean hasValidCallSign(long payload) {
+        for (int i = 42; i >= 0; i -= CALL_SIGN_CHAR_SIZE) {
+            if (callSignChar(Bits.extractUInt(payload, i, CALL_SIGN_CHAR_SIZE)) == 0) return false;
+        }
+        return true;
+    }
 
+    /**
+     * Méthode qui retourne l'indicatif contenu dans la charge utile d'un message d'identification.
+     *
+     * @param payload La charge utile du message.
+     * @return l'indicatif, ou null si au moins un de ses caractères est invalide.
+     */
+    static CallSign callSign(long payload) {
         StringBuilder callSignID = new StringBuilder();
 
         for (int i = 42; i >= 0; i -= CALL_SIGN_CHAR_SIZE) {
-            int callSignInt = Bits.extractUInt(rawMessage.payload(), i, CALL_SIGN_CHAR_SIZE);
-
-            if (LETTER_START <= callSignInt && callSignInt <= LETTER_END) {
-                callSignID.append((char) (callSignInt + ASCII_LETTER_OFFSET));
-            } else if (NUMBER_START <= callSignInt && callSignInt <= NUMBER_END || callSignInt == ESCAPE_NUMBER) {
-                callSignID.append((char) callSignInt);
-            } else return null;
+            char c = callSignChar(Bits.extractUInt(payload, i, CALL_SIGN_CHAR_SIZE));
+            if (c == 0) return null;
+            callSignID.append(c);
         }
 
-        CallSign callSign = new CallSign(callSignID.toString().stripTrailing());
+        return new CallSign(callSignID.toString().stripTrailing());
+    }
 
-        return new AircraftIdentificationMessage(rawMessage.timeStampNs(), rawMessage.icaoAddress(),
-                category, callSign);
+    /**
+     * Méthode qui retourne le caractère d'un indicatif correspondant au code (6 bits) donné.
+     *
+     * @param callSignInt Le code du caractère.
+     * @return le caractère (lettre, chiffre ou espace), ou 0 si le code est invalide.
+     */
+    private static char callSignChar(int callSignInt) {
+        if (LETTER_START <= callSignInt && callSignInt <= LETTER_END) {
+            return (char) (callSignInt + ASCII_LETTER_OFFSET);
+        } else if (NUMBER_START <= callSignInt && callSignInt <= NUMBER_END || callSignInt == ESCAPE_NUMBER) {
+            return (char) callSignInt;
+        }
+        return 0;
     }
 }
\ No newline at end of file
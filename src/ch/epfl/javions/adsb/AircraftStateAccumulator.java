@@ -9,6 +9,16 @@ import java.util.Objects;
  * autrement dit un objet accumulant les messages ADS-B provenant d'un seul aéronef
  * afin de déterminer son état au cours du temps.
  * AircraftStateAccumulator est générique, son paramètre de type, nommé T ci-dessous, est borné par AircraftStateSetter.
+ * <p>
+ * La position de l'aéronef est décodée à partir d'une paire de messages de parités opposées lorsque c'est possible.
+ * Sinon, chaque message de positionnement est décodé localement (voir CprDecoder.decodeLocalPosition()),
+ * par rapport à la dernière position de l'aéronef si elle date de moins d'une minute, ou à défaut
+ * par rapport à la position du récepteur, si elle est connue.
+ * <p>
+ * Chaque position décodée est soumise à un filtre de plausibilité (PositionFilter), et n'est transmise à l'état
+ * modifiable que si elle est acceptée ; les positions rejetées sont comptées. Après trois rejets consécutifs,
+ * la dernière position acceptée est considérée comme aberrante et oubliée, afin qu'une première position
+ * erronée ne bloque pas indéfiniment les suivantes.
  *
  * @param <T> L'état modifiable de l'aéronef passé à son constructeur (borné par AircraftStateSetter).
  *
@@ -17,8 +27,16 @@ import java.util.Objects;
  */
 public final class AircraftStateAccumulator<T extends AircraftStateSetter> {
     private static final long TIME_STAMP_NS_TEN_SEC = 10_000_000_000L;
+    private static final long TIME_STAMP_NS_ONE_MIN = 60_000_000_000L;
+    private static final int MAX_CONSECUTIVE_REJECTIONS = 3;
     private final T stateSetter;
+    private final GeoPos receiverPosition;
+    private final PositionFilter positionFilter;
     private final AirbornePositionMessage[] lastMessages = new AirbornePositionMessage[2];
+    private GeoPos lastPosition = null;
+    private long lastPositionTimeStampNs;
+    private int rejectedPositions = 0;
+    private int consecutiveRejections = 0;
 
     /**
      * Constructeur de la classe AircraftStateAccumulator.
@@ -29,7 +47,35 @@ public final class AircraftStateAccumulator<T extends AircraftStateSetter> {
      * @throws NullPointerException Si L'état modifiable passé en argument est null.
      */
     public AircraftStateAccumulator(T stateSetter) {
+        this(stateSetter, null);
+    }
+
+    /**
+     * Constructeur de la classe AircraftStateAccumulator, connaissant la position du récepteur, qui sert
+     * de référence pour décoder la position de l'aéronef à partir d'un seul message, tant qu'aucune position
+     * récente de l'aéronef n'est connue.
+     *
+     * @param stateSetter      L'état modifiable de l'aéronef.
+     * @param receiverPosition La position du récepteur, ou null si elle est inconnue.
+     * @throws NullPointerException Si L'état modifiable passé en argument est null.
+     */
+    public AircraftStateAccumulator(T stateSetter, GeoPos receiverPosition) {
+        this(stateSetter, receiverPosition, PositionFilter.ACCEPT_ALL);
+    }
+
+    /**
+     * Constructeur de la classe AircraftStateAccumulator, connaissant la position du récepteur et le filtre
+     * de plausibilité auquel les positions décodées sont soumises.
+     *
+     * @param stateSetter      L'état modifiable de l'aéronef.
+     * @param receiverPosition La position du récepteur, ou null si elle est inconnue.
+     * @param positionFilter   Le filtre de plausibilité des positions décodées.
+     * @throws NullPointerException Si L'état modifiable ou le filtre passés en argument sont null.
+     */
+    public AircraftStateAccumulator(T stateSetter, GeoPos receiverPosition, PositionFilter positionFilter) {
         this.stateSetter = Objects.requireNonNull(stateSetter);
+        this.receiverPosition = receiverPosition;
+        this.positionFilter = Objects.requireNonNull(positionFilter);
     }
 
     /**
@@ -41,6 +87,15 @@ public final class AircraftStateAccumulator<T extends AircraftStateSetter> {
         return stateSetter;
     }
 
+    /**
+     * Méthode publique retournant le nombre de positions décodées rejetées par le filtre de plausibilité.
+     *
+     * @return le nombre de positions rejetées.
+     */
+    public int rejectedPositions() {
+        return rejectedPositions;
+    }
+
     /**
      * Méthode publique qui met à jour l'état modifiable en fonction du message donné.
      *
@@ -61,9 +116,13 @@ public final class AircraftStateAccumulator<T extends AircraftStateSetter> {
                 /* On mémorise le dernier message reçu dans son index du tableau correspondant
                  * (lastMessages[0] si le message est pair, sinon lastMessages[1] s'il est impair). */
                 setParityMessage(apm);
-                if (canPositionBeDetermined(lastMessages[apm.parity() ^ 1], apm)) {
-                    GeoPos pos = getPos(apm.parity(), apm);
-                    if (pos != null) stateSetter.setPosition(pos);
+                GeoPos pos = canPositionBeDetermined(lastMessages[apm.parity() ^ 1], apm)
+                        ? getPos(apm.parity(), apm)
+                        : getLocalPos(apm);
+                if (pos != null && isPlausible(pos, apm.timeStampNs())) {
+                    stateSetter.setPosition(pos);
+                    lastPosition = pos;
+                    lastPositionTimeStampNs = apm.timeStampNs();
                 }
             }
             case AirborneVelocityMessage avm -> {
@@ -123,4 +182,43 @@ public final class AircraftStateAccumulator<T extends AircraftStateSetter> {
         }
     }
 
+    /**
+     * Méthode privée permettant d'avoir la position (GeoPos) d'un AirbornePositionMessage seul, décodée localement
+     * par rapport à la dernière position de l'aéronef si elle date de moins d'une minute (l'aéronef ne pouvant
+     * alors s'être éloigné de plus d'une demi-zone), ou sinon par rapport à la position du récepteur.
+     *
+     * @param apm Le AirbornePositionMessage.
+     * @return La position (GeoPos) du message, ou null si aucune position de référence n'est disponible.
+     */
+    private GeoPos getLocalPos(AirbornePositionMessage apm) {
+        GeoPos reference = lastPosition != null && apm.timeStampNs() - lastPositionTimeStampNs <= TIME_STAMP_NS_ONE_MIN
+                ? lastPosition
+                : receiverPosition;
+        return reference == null ? null : CprDecoder.decodeLocalPosition(apm.x(), apm.y(), apm.parity(), reference);
+    }
+
+    /**
+     * Méthode privée qui soumet la position décodée donnée au filtre de plausibilité, et compte les rejets.
+     *
+     * @param pos         La position décodée.
+     * @param timeStampNs L'horodatage de la position décodée.
+     * @return Vrai si la position est acceptée, faux sinon.
+     */
+    private boolean isPlausible(GeoPos pos, long timeStampNs) {
+        boolean plausible = positionFilter.isPlausible(lastPosition, lastPositionTimeStampNs, pos, timeStampNs);
+        if (!plausible && lastPosition != null && consecutiveRejections + 1 >= MAX_CONSECUTIVE_REJECTIONS
+                && positionFilter.isPlausible(null, 0, pos, timeStampNs)) {
+            /* Les rejets ne sont dus qu'à la dernière position acceptée, qui est donc probablement elle-même
+             * aberrante : on l'oublie. Sinon (p. ex. hors de portée), on la garde comme référence. */
+            lastPosition = null;
+            plausible = true;
+        }
+        if (plausible) {
+            consecutiveRejections = 0;
+        } else {
+            rejectedPositions += 1;
+            consecutiveRejections += 1;
+        }
+        return plausible;
+    }
 }
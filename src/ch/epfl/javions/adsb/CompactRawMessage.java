@@ -0,0 +1,213 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+import static ch.epfl.javions.Crc24.GENERATOR;
+
+/**
+ * L'enregistrement CompactRawMessage représente un message ADS-B brut de manière compacte : ses 112 bits
+ * sont stockés dans deux entiers de type long, si bien qu'il ne nécessite qu'un seul objet, au lieu
+ * d'un RawMessage, de sa ByteString et de son tableau d'octets.
+ *
+ * @param timeStampNs Le temps d'arrivée (en nanosecondes) du message.
+ * @param high        Les 8 premiers octets du message (le premier octet étant celui de poids fort).
+ * @param low         Les 6 derniers octets du message, dans les 48 bits de poids faible.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public record CompactRawMessage(long timeStampNs, long high, long low) {
+    private static final Crc24 Crc24 = new Crc24(GENERATOR);
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final int HIGH_BYTES = Long.BYTES;
+    private static final int LOW_BYTES = RawMessage.LENGTH - HIGH_BYTES;
+    private static final int LOW_SIZE = LOW_BYTES * Byte.SIZE;
+    private static final int DF_START = 59;
+    private static final int ICAO_START = 32, ICAO_SIZE = 24;
+    private static final int ME_HIGH_SIZE = 32, ME_LOW_START = 24;
+    private static final long ME_HIGH_MASK = (1L << ME_HIGH_SIZE) - 1;
+
+    /**
+     * Constructeur compact de l'enregistrement CompactRawMessage.
+     *
+     * @throws IllegalArgumentException si le temps d'arrivée est négatif, ou si les 16 bits de poids fort
+     *                                  de low ne sont pas nuls.
+     */
+    public CompactRawMessage {
+        Preconditions.checkArgument(timeStampNs >= 0);
+        Preconditions.checkArgument(low >>> LOW_SIZE == 0);
+    }
+
+    /**
+     * Crée un objet CompactRawMessage à partir d'un temps d'arrivée et des octets du message.
+     *
+     * @param timeStampNs Le temps d'arrivée (en nanosecondes) du message.
+     * @param bytes       Les octets du message.
+     * @return Un CompactRawMessage si le CRC du message est valide (égal à 0), null sinon.
+     * @throws IllegalArgumentException si la longueur du message n'est pas égale à RawMessage.LENGTH.
+     */
+    public static CompactRawMessage of(long timeStampNs, byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+        return Crc24.crc(bytes) == 0 ? new CompactRawMessage(timeStampNs, high(bytes), low(bytes)) : null;
+    }
+
+    /**
+     * Crée un objet CompactRawMessage identique au message brut donné.
+     *
+     * @param message Le message brut.
+     * @return Le message compact correspondant.
+     */
+    public static CompactRawMessage of(RawMessage message) {
+        ByteString bytes = message.bytes();
+        /* bytesInRange() ne retourne que 7 octets au plus : le premier octet est ajouté séparément */
+        long high = ((long) bytes.byteAt(0) << (Byte.SIZE * (HIGH_BYTES - 1))) | bytes.bytesInRange(1, HIGH_BYTES);
+        return new CompactRawMessage(message.timeStampNs(), high, bytes.bytesInRange(HIGH_BYTES, RawMessage.LENGTH));
+    }
+
+    /**
+     * Retourne le message brut identique à ce message compact.
+     *
+     * @return le message brut.
+     */
+    public RawMessage toRawMessage() {
+        return new RawMessage(timeStampNs, new ByteString(bytes(high, low)));
+    }
+
+    /**
+     * Retourne l'octet (non signé) d'index donné du message.
+     *
+     * @param index L'index de l'octet.
+     * @return l'octet d'index donné, entre 0 et 255.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et RawMessage.LENGTH (exclu).
+     */
+    public int byteAt(int index) {
+        return byteAt(high, low, index);
+    }
+
+    /**
+     * Retourne le downlink format (DF) du message.
+     *
+     * @return le downlink format (DF) du message.
+     */
+    public int downLinkFormat() {
+        return downLinkFormat(high);
+    }
+
+    /**
+     * Retourne la valeur (24 bits) de l'adresse ICAO du message.
+     *
+     * @return la valeur de l'adresse ICAO du message.
+     */
+    public int icaoAddress() {
+        return icaoAddress(high);
+    }
+
+    /**
+     * Retourne la charge utile du message (ME).
+     *
+     * @return la charge utile du message (ME).
+     */
+    public long payload() {
+        return payload(high, low);
+    }
+
+    /**
+     * Retourne le code de type (typecode) du message.
+     *
+     * @return le code de type (un entier) extrait de la charge utile (payload) du message.
+     */
+    public int typeCode() {
+        return RawMessage.typeCode(payload());
+    }
+
+    /**
+     * Retourne les 8 premiers octets du message donné, le premier octet étant celui de poids fort.
+     *
+     * @param bytes Les octets du message.
+     * @return les 8 premiers octets du message.
+     */
+    static long high(byte[] bytes) {
+        return (long) LONG_VIEW.get(bytes, 0);
+    }
+
+    /**
+     * Retourne les 6 derniers octets du message donné, dans les 48 bits de poids faible.
+     *
+     * @param bytes Les octets du message.
+     * @return les 6 derniers octets du message.
+     */
+    static long low(byte[] bytes) {
+        /* Les 8 derniers octets, dont les 2 premiers appartiennent déjà à high */
+        return (long) LONG_VIEW.get(bytes, RawMessage.LENGTH - Long.BYTES) & ((1L << LOW_SIZE) - 1);
+    }
+
+    /**
+     * Retourne les octets du message stocké dans les deux entiers donnés.
+     *
+     * @param high Les 8 premiers octets du message.
+     * @param low  Les 6 derniers octets du message.
+     * @return les octets du message.
+     */
+    static byte[] bytes(long high, long low) {
+        byte[] bytes = new byte[RawMessage.LENGTH];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) byteAt(high, low, i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Retourne l'octet (non signé) d'index donné du message stocké dans les deux entiers donnés.
+     *
+     * @param high  Les 8 premiers octets du message.
+     * @param low   Les 6 derniers octets du message.
+     * @param index L'index de l'octet.
+     * @return l'octet d'index donné.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et RawMessage.LENGTH (exclu).
+     */
+    static int byteAt(long high, long low, int index) {
+        Objects.checkIndex(index, RawMessage.LENGTH);
+        return index < HIGH_BYTES
+                ? (int) (high >>> (Byte.SIZE * (HIGH_BYTES - 1 - index))) & 0xFF
+                : (int) (low >>> (Byte.SIZE * (RawMessage.LENGTH - 1 - index))) & 0xFF;
+    }
+
+    /**
+     * Retourne le downlink format (DF) du message dont les 8 premiers octets sont donnés.
+     *
+     * @param high Les 8 premiers octets du message.
+     * @return le downlink format du message.
+     */
+    static int downLinkFormat(long high) {
+        return (int) (high >>> DF_START);
+    }
+
+    /**
+     * Retourne la valeur de l'adresse ICAO du message dont les 8 premiers octets sont donnés.
+     *
+     * @param high Les 8 premiers octets du message.
+     * @return la valeur (24 bits) de l'adresse ICAO.
+     */
+    static int icaoAddress(long high) {
+        return (int) (high >>> ICAO_START) & ((1 << ICAO_SIZE) - 1);
+    }
+
+    /**
+     * Retourne la charge utile (ME) du message stocké dans les deux entiers donnés.
+     *
+     * @param high Les 8 premiers octets du message.
+     * @param low  Les 6 derniers octets du message.
+     * @return la charge utile du message.
+     */
+    static long payload(long high, long low) {
+        /* Octets 4 à 7 (fin de high) suivis des octets 8 à 10 (début de low) */
+        return ((high & ME_HIGH_MASK) << ME_LOW_START) | (low >>> ME_LOW_START);
+    }
+}
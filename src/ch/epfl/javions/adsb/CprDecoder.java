@@ -6,6 +6,10 @@ import ch.epfl.javions.Units;
 
 /**
  * La classe CprDecoder (non instanciable) représente un décodeur de position CPR.
+ * <p>
+ * Le nombre de zones de longitude, fonction en escalier de la latitude, est obtenu par une recherche
+ * dichotomique dans la table de ses latitudes de transition, calculée une fois pour toutes à partir
+ * de la formule trigonométrique.
  *
  * @author Adam AIT BOUSSELHAM (356365)
  * @author Abdellah JANATI IDRISSI (362341)
@@ -15,6 +19,13 @@ public final class CprDecoder {
     private static final double EVEN_LATITUDE_ZONES_WIDTH = 1d / EVEN_LATITUDE_ZONES;
     private static final int ODD_LATITUDE_ZONES = 59;
     private static final double ODD_LATITUDE_ZONES_WIDTH = 1d / ODD_LATITUDE_ZONES;
+    private static final int CPR_BITS = 17;
+    private static final double QUARTER_TURN = 0.25d;
+    /* Le nombre de zones de longitude du découpage pair à l'équateur. */
+    private static final int EQUATOR_LONGITUDE_ZONES = computeLongitudeZones(0);
+    /* Les latitudes de transition (en tours, croissantes) : l'élément d'index i est la plus petite latitude
+     * positive à laquelle le nombre de zones de longitude vaut au plus EQUATOR_LONGITUDE_ZONES - 1 - i. */
+    private static final double[] LONGITUDE_ZONES_TRANSITIONS = longitudeZonesTransitions();
 
     /**
      * Constructeur privé de la classe CprDecoder (non instanciable).
@@ -54,19 +65,9 @@ public final class CprDecoder {
         oddLatitudeTurn = computeLatitudeTurn(ODD_LATITUDE_ZONES_WIDTH, ODD_LATITUDE_ZONES, latitudeZoneNumber, y1);
 
         /* On calcule ensuite le nombre de zones de longitude dans le découpage
-         * pair avec les deux latitudes (paire et impaire). */
-        double AEven = computeA(evenLatitudeTurn);
-        double AOdd = computeA(oddLatitudeTurn);
-
-        double evenLongitudeZoneValue = computeLongitudeZoneValue(AEven);
-        double oddLongitudeZoneValue = computeLongitudeZoneValue(AOdd);
-
-        int evenLongitudeZone;
-        /* La méthode Double.compare() retourne 0 si les deux valeurs sont égales (même si c'est deux NaN).*/
-        if (Double.compare(evenLongitudeZoneValue, oddLongitudeZoneValue) == 0) {
-            if (areLongitudeZoneValuesNaN(AEven, AOdd)) evenLongitudeZone = 1;
-            else evenLongitudeZone = (int) evenLongitudeZoneValue;
-        } else return null;
+         * pair avec les deux latitudes (paire et impaire), qui doivent être égaux. */
+        int evenLongitudeZone = longitudeZones(evenLatitudeTurn);
+        if (evenLongitudeZone != longitudeZones(oddLatitudeTurn)) return null;
 
         int oddLongitudeZone = evenLongitudeZone - 1;
 
@@ -81,6 +82,159 @@ public final class CprDecoder {
                 geoPosOf(oddLongitudeTurn, oddLatitudeTurn);
     }
 
+    /**
+     * Méthode statique qui décode localement la position contenue dans un seul message de positionnement,
+     * au moyen d'une position de référence (p. ex. celle du récepteur, ou la dernière position connue de l'aéronef).
+     * La position décodée est celle, parmi les positions compatibles avec le message, qui est la plus proche
+     * de la référence ; elle n'est donc correcte que si l'aéronef se trouve à moins d'une demi-zone
+     * (environ 300 km en latitude) de la référence.
+     *
+     * @param x         La longitude locale (normalisée) du message.
+     * @param y         La latitude locale (normalisée) du message.
+     * @param parity    La parité du message (0 pour pair, 1 pour impair).
+     * @param reference La position de référence.
+     * @return La position géographique correspondant aux arguments de la méthode,
+     * ou null si la latitude décodée n'est pas valide (comprise entre -90° et 90°).
+     * @throws IllegalArgumentException si la parité n'est pas égale à 0 ou 1.
+     * @throws NullPointerException     si la position de référence est nulle.
+     */
+    public static GeoPos decodeLocalPosition(double x, double y, int parity, GeoPos reference) {
+        Preconditions.checkArgument(parity == 0 || parity == 1);
+        double referenceLongitudeTurn = Units.convert(reference.longitudeT32(), Units.Angle.T32, Units.Angle.TURN);
+        double referenceLatitudeTurn = Units.convert(reference.latitudeT32(), Units.Angle.T32, Units.Angle.TURN);
+
+        /* On choisit la zone de latitude dans laquelle la latitude locale est la plus proche de la référence. */
+        double latitudeZoneWidth = parity == 0 ? EVEN_LATITUDE_ZONES_WIDTH : ODD_LATITUDE_ZONES_WIDTH;
+        double latitudeZoneNumber = Math.floor(referenceLatitudeTurn / latitudeZoneWidth - y + 0.5);
+        double latitudeTurn = latitudeZoneWidth * (latitudeZoneNumber + y);
+
+        /* Puis la zone de longitude, dont le nombre dépend de la latitude décodée et de la parité. */
+        int longitudeZones = Math.max(longitudeZones(latitudeTurn) - parity, 1);
+        double longitudeZoneNumber = Math.floor(referenceLongitudeTurn * longitudeZones - x + 0.5);
+        double longitudeTurn = (longitudeZoneNumber + x) / longitudeZones;
+
+        /* La longitude est enfin ramenée entre -0,5 (inclus) et 0,5 (exclus) tour. */
+        return geoPosOf(longitudeTurn - Math.floor(longitudeTurn + 0.5), latitudeTurn);
+    }
+
+    /**
+     * Méthode statique qui décode une position à partir des valeurs brutes (17 bits) des attributs LAT-CPR
+     * et LON-CPR de deux messages de positionnement, telles qu'elles figurent dans leur charge utile.
+     * Le résultat est identique à celui de decodePosition() appelée avec ces valeurs normalisées.
+     *
+     * @param rawX0      La longitude locale brute d'un message pair.
+     * @param rawY0      La latitude locale brute d'un message pair.
+     * @param rawX1      La longitude locale brute d'un message impair.
+     * @param rawY1      La latitude locale brute d'un message impair.
+     * @param mostRecent l'index du message le plus récent (0 pour pair, 1 pour impair).
+     * @return La position géographique correspondant aux arguments de la méthode, ou null (voir decodePosition()).
+     * @throws IllegalArgumentException si l'index du message le plus récent (mostRecent) n'est pas égal à 0 ou 1,
+     *                                  ou si l'une des valeurs brutes n'est pas comprise entre 0 et 2^17 (exclu).
+     */
+    public static GeoPos decodeRawPosition(int rawX0, int rawY0, int rawX1, int rawY1, int mostRecent) {
+        Preconditions.checkArgument(mostRecent == 0 || mostRecent == 1);
+        Preconditions.checkArgument(((rawX0 | rawY0 | rawX1 | rawY1) >>> CPR_BITS) == 0);
+
+        /* Le numéro de la zone de latitude est calculé en nombres entiers (exacts), puis arrondi
+         * comme dans decodePosition(). */
+        int latitudeZoneNumber = roundedCpr(ODD_LATITUDE_ZONES * rawY0 - EVEN_LATITUDE_ZONES * rawY1);
+        double y0 = Math.scalb((double) rawY0, -CPR_BITS), y1 = Math.scalb((double) rawY1, -CPR_BITS);
+        double evenLatitudeTurn = computeLatitudeTurn(EVEN_LATITUDE_ZONES_WIDTH, EVEN_LATITUDE_ZONES, latitudeZoneNumber, y0);
+        double oddLatitudeTurn = computeLatitudeTurn(ODD_LATITUDE_ZONES_WIDTH, ODD_LATITUDE_ZONES, latitudeZoneNumber, y1);
+
+        int evenLongitudeZone = longitudeZones(evenLatitudeTurn);
+        if (evenLongitudeZone != longitudeZones(oddLatitudeTurn)) return null;
+
+        double x0 = Math.scalb((double) rawX0, -CPR_BITS), x1 = Math.scalb((double) rawX1, -CPR_BITS);
+        double evenLongitudeTurn = refocusingOf(x0);
+        double oddLongitudeTurn = refocusingOf(x1);
+        if (evenLongitudeZone > 1) {
+            int oddLongitudeZone = evenLongitudeZone - 1;
+            int longitudeZoneNumber = roundedCpr(oddLongitudeZone * rawX0 - evenLongitudeZone * rawX1);
+            evenLongitudeTurn = computeLongitudeTurn(evenLongitudeZone, longitudeZoneNumber, x0);
+            oddLongitudeTurn = computeLongitudeTurn(oddLongitudeZone, longitudeZoneNumber, x1);
+        }
+
+        return mostRecent == 0 ?
+                geoPosOf(evenLongitudeTurn, evenLatitudeTurn) :
+                geoPosOf(oddLongitudeTurn, oddLatitudeTurn);
+    }
+
+    /**
+     * Méthode statique qui divise la valeur donnée par 2^17 et arrondit le résultat à l'entier le plus proche
+     * (les demis étant arrondis à l'entier pair, comme par Math.rint()).
+     *
+     * @param value La valeur à diviser, combinaison entière de valeurs CPR brutes.
+     * @return Le quotient arrondi.
+     */
+    private static int roundedCpr(int value) {
+        int quotient = value >> CPR_BITS;
+        int remainder = value & ((1 << CPR_BITS) - 1);
+        int half = 1 << (CPR_BITS - 1);
+        return remainder > half || (remainder == half && (quotient & 1) == 1) ? quotient + 1 : quotient;
+    }
+
+    /**
+     * Méthode statique qui retourne le nombre de zones de longitude du découpage pair à la latitude donnée,
+     * au moyen de la table des latitudes de transition.
+     *
+     * @param latitudeTurn La latitude en tours, comprise entre -0,5 et 0,5.
+     * @return Le nombre de zones de longitude, identique à celui retourné par computeLongitudeZones().
+     */
+    static int longitudeZones(double latitudeTurn) {
+        /* Le nombre de zones ne dépend que du carré du cosinus de la latitude, symétrique par rapport
+         * à 0 et à un quart de tour. */
+        double absoluteLatitude = Math.abs(latitudeTurn);
+        if (absoluteLatitude > QUARTER_TURN) absoluteLatitude = 2 * QUARTER_TURN - absoluteLatitude;
+
+        /* Recherche dichotomique du nombre de latitudes de transition inférieures ou égales à la latitude. */
+        int low = 0, high = LONGITUDE_ZONES_TRANSITIONS.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (LONGITUDE_ZONES_TRANSITIONS[middle] <= absoluteLatitude) low = middle + 1;
+            else high = middle;
+        }
+        return EQUATOR_LONGITUDE_ZONES - low;
+    }
+
+    /**
+     * Méthode statique qui calcule les latitudes de transition du nombre de zones de longitude, en cherchant
+     * par dichotomie, pour chaque nombre de zones, le plus petit nombre à virgule flottante positif auquel
+     * computeLongitudeZones() retourne un nombre inférieur.
+     *
+     * @return Les latitudes de transition (en tours), croissantes.
+     */
+    private static double[] longitudeZonesTransitions() {
+        double[] transitions = new double[EQUATOR_LONGITUDE_ZONES - 1];
+        long low = Double.doubleToLongBits(0);
+        for (int i = 0; i < transitions.length; ++i) {
+            int zones = EQUATOR_LONGITUDE_ZONES - 1 - i;
+            /* Les nombres à virgule flottante positifs sont ordonnés comme leur représentation binaire. */
+            long high = Double.doubleToLongBits(QUARTER_TURN);
+            while (high - low > 1) {
+                long middle = (low + high) >>> 1;
+                if (computeLongitudeZones(Double.longBitsToDouble(middle)) <= zones) high = middle;
+                else low = middle;
+            }
+            transitions[i] = Double.longBitsToDouble(high);
+        }
+        return transitions;
+    }
+
+    /**
+     * Méthode statique qui calcule, au moyen des fonctions trigonométriques, le nombre de zones de longitude
+     * du découpage pair à la latitude donnée. Elle n'est utilisée que pour construire la table des latitudes
+     * de transition.
+     *
+     * @param latitudeTurn La latitude en tours.
+     * @return Le nombre de zones de longitude, 1 à proximité des pôles.
+     */
+    static int computeLongitudeZones(double latitudeTurn) {
+        double longitudeZoneValue = computeLongitudeZoneValue(computeA(latitudeTurn));
+        /* La valeur est NaN lorsque la latitude est trop proche des pôles pour que l'arc cosinus soit défini. */
+        return Double.isNaN(longitudeZoneValue) ? 1 : (int) longitudeZoneValue;
+    }
+
     /**
      * Méthode qui renvoie un Objet GeoPos (la position de l'aéronef au moment de l'envoi du message)
      * si la latitude de l'aéronef est valide.
@@ -107,19 +261,6 @@ public final class CprDecoder {
         return coordinate >= 0.5d ? (coordinate - 1d) : coordinate;
     }
 
-    /**
-     * Méthode statique qui permet de savoir si le nombre de zones de longitude dans le découpage
-     * pair avec les deux latitudes (paire et impaire) sont tous les deux des NaN (Not a Number)
-     *
-     * @param AEven La constante A calculé avec la latitude paire.
-     * @param AOdd  La constante A calculé avec la latitude impaire
-     * @return Vrai si les deux nombres de zones de longitudes dans le découpage
-     * pair avec les deux latitudes (paire et impaire) sont tous les deux des NaN, faux sinon.
-     */
-    private static boolean areLongitudeZoneValuesNaN(double AEven, double AOdd) {
-        return Double.isNaN(Math.acos(1 - AEven)) && Double.isNaN(Math.acos(1 - AOdd));
-    }
-
     /**
      * Méthode statique qui permet de calculer le dénominateur A lors du calcul du nombre de zones de longitude
      * (paires ou impaires).
@@ -0,0 +1,179 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * La classe ErrorCorrector, du sous-paquetage adsb, publique, finale et immuable, représente un correcteur
+ * d'erreurs de transmission des messages ADS-B bruts, au moyen de leur CRC.
+ * <p>
+ * Le CRC étant linéaire, le CRC (syndrome) d'un message reçu avec des bits inversés est égal au OU exclusif
+ * des CRC des messages ne contenant que chacun de ces bits. Une table, triée par syndrome, associe donc à chaque
+ * syndrome le ou les bits inversés correspondants. Les syndromes ambigus (partagés par plusieurs erreurs)
+ * ne sont pas corrigés, pas plus que les bits du downlink format (DF), afin qu'un message d'un autre format
+ * ne soit jamais transformé en message ADS-B.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class ErrorCorrector {
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    private static final int MESSAGE_BITS = RawMessage.LENGTH * Byte.SIZE;
+    private static final int FIRST_CORRECTABLE_BIT = 5;
+    private static final int BIT_INDEX_SIZE = 16;
+    private static final int NO_BIT = (1 << BIT_INDEX_SIZE) - 1;
+
+    /**
+     * Correcteur des messages dont un bit a été inversé.
+     */
+    public static final ErrorCorrector SINGLE_BIT = new ErrorCorrector(1);
+
+    /**
+     * Correcteur des messages dont un ou deux bits ont été inversés.
+     */
+    public static final ErrorCorrector TWO_BITS = new ErrorCorrector(2);
+
+    private final int maxFlippedBits;
+    /* Table triée dont chaque entrée contient un syndrome (bits 32 à 55), l'index du premier bit inversé
+     * (bits 16 à 31) et celui du second bit inversé, ou NO_BIT (bits 0 à 15). */
+    private final long[] table;
+
+    /**
+     * Constructeur privé de la classe ErrorCorrector, qui construit la table des syndromes.
+     *
+     * @param maxFlippedBits le nombre maximal de bits inversés corrigés (1 ou 2).
+     */
+    private ErrorCorrector(int maxFlippedBits) {
+        this.maxFlippedBits = maxFlippedBits;
+
+        int[] syndromes = new int[MESSAGE_BITS];
+        for (int bit = FIRST_CORRECTABLE_BIT; bit < MESSAGE_BITS; ++bit) {
+            byte[] bytes = new byte[RawMessage.LENGTH];
+            flip(bytes, bit);
+            syndromes[bit] = CRC24.crc(bytes);
+        }
+
+        int correctableBits = MESSAGE_BITS - FIRST_CORRECTABLE_BIT;
+        int entriesCount = correctableBits
+                + (maxFlippedBits == 2 ? correctableBits * (correctableBits - 1) / 2 : 0);
+        long[] entries = new long[entriesCount];
+        int index = 0;
+        for (int i = FIRST_CORRECTABLE_BIT; i < MESSAGE_BITS; ++i) {
+            entries[index++] = entry(syndromes[i], i, NO_BIT);
+            if (maxFlippedBits == 2) {
+                for (int j = i + 1; j < MESSAGE_BITS; ++j) {
+                    entries[index++] = entry(syndromes[i] ^ syndromes[j], i, j);
+                }
+            }
+        }
+        Arrays.sort(entries);
+        table = withoutAmbiguousEntries(entries);
+    }
+
+    /**
+     * Méthode qui retourne le nombre maximal de bits inversés que ce correcteur corrige.
+     *
+     * @return le nombre maximal de bits inversés corrigés.
+     */
+    public int maxFlippedBits() {
+        return maxFlippedBits;
+    }
+
+    /**
+     * Méthode qui corrige, si possible, les bits inversés du message brut donné, en place.
+     *
+     * @param bytes les octets du message brut.
+     * @return le nombre de bits corrigés (0 si le CRC du message est déjà valide),
+     * ou -1 si le message ne peut pas être corrigé (auquel cas il n'est pas modifié).
+     * @throws IllegalArgumentException si la longueur du message n'est pas égale à RawMessage.LENGTH.
+     */
+    public int correct(byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+        return correct(bytes, CRC24.crc(bytes));
+    }
+
+    /**
+     * Méthode qui corrige, si possible, les bits inversés du message brut donné, en place, connaissant
+     * déjà son CRC (p. ex. calculé au fur et à mesure de sa démodulation).
+     *
+     * @param bytes    les octets du message brut.
+     * @param syndrome le CRC du message.
+     * @return le nombre de bits corrigés (0 si le CRC du message est déjà valide),
+     * ou -1 si le message ne peut pas être corrigé (auquel cas il n'est pas modifié).
+     * @throws IllegalArgumentException si la longueur du message n'est pas égale à RawMessage.LENGTH.
+     */
+    public int correct(byte[] bytes, int syndrome) {
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+        if (syndrome == 0) return 0;
+
+        int index = find(syndrome);
+        if (index < 0) return -1;
+
+        int firstBit = (int) (table[index] >>> BIT_INDEX_SIZE) & NO_BIT;
+        int secondBit = (int) table[index] & NO_BIT;
+        flip(bytes, firstBit);
+        if (secondBit == NO_BIT) return 1;
+        flip(bytes, secondBit);
+        return 2;
+    }
+
+    /**
+     * Méthode qui recherche (par dichotomie) l'entrée de la table ayant le syndrome donné.
+     *
+     * @param syndrome le syndrome recherché.
+     * @return l'index de l'entrée ayant ce syndrome, ou -1 s'il n'y en a aucune.
+     */
+    private int find(int syndrome) {
+        int low = 0, high = table.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleSyndrome = (int) (table[middle] >>> Integer.SIZE);
+            if (middleSyndrome < syndrome) low = middle + 1;
+            else if (middleSyndrome > syndrome) high = middle - 1;
+            else return middle;
+        }
+        return -1;
+    }
+
+    /**
+     * Méthode qui retourne l'entrée de la table correspondant au syndrome et aux bits donnés.
+     *
+     * @param syndrome  le syndrome.
+     * @param firstBit  l'index du premier bit inversé.
+     * @param secondBit l'index du second bit inversé, ou NO_BIT.
+     * @return l'entrée de la table.
+     */
+    private static long entry(int syndrome, int firstBit, int secondBit) {
+        return ((long) syndrome << Integer.SIZE) | ((long) firstBit << BIT_INDEX_SIZE) | secondBit;
+    }
+
+    /**
+     * Méthode qui retire d'une table triée toutes les entrées dont le syndrome n'est pas unique.
+     *
+     * @param entries la table triée.
+     * @return la table triée, sans entrées ambiguës.
+     */
+    private static long[] withoutAmbiguousEntries(long[] entries) {
+        long[] unique = new long[entries.length];
+        int count = 0;
+        for (int i = 0; i < entries.length; ) {
+            int j = i + 1;
+            while (j < entries.length && (entries[j] >>> Integer.SIZE) == (entries[i] >>> Integer.SIZE)) ++j;
+            if (j == i + 1) unique[count++] = entries[i];
+            i = j;
+        }
+        return Arrays.copyOf(unique, count);
+    }
+
+    /**
+     * Méthode qui inverse le bit d'index donné (0 étant le bit de poids fort du premier octet) du message donné.
+     *
+     * @param bytes le message.
+     * @param bit   l'index du bit à inverser.
+     */
+    private static void flip(byte[] bytes, int bit) {
+        bytes[bit / Byte.SIZE] ^= (byte) (1 << (Byte.SIZE - 1 - bit % Byte.SIZE));
+    }
+}
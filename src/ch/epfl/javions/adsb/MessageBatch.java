@@ -0,0 +1,308 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.Objects;
+
+/**
+ * La classe MessageBatch, du sous-paquetage adsb, publique et finale, représente un lot de messages ADS-B
+ * analysés, de capacité fixe, stockés en colonnes : chaque attribut des messages est placé dans un tableau
+ * de type primitif, si bien que l'analyse d'un lot (voir MessageParser.parse(RawMessageBatch, MessageBatch))
+ * n'alloue aucun objet.
+ * <p>
+ * Les attributs qui n'existent pas pour le type d'un message valent NaN (attributs réels), -1 (parité
+ * et catégorie) ou 0 (indicatif).
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class MessageBatch {
+
+    /**
+     * L'énumération Kind représente le type d'un message du lot.
+     */
+    public enum Kind {
+        /**
+         * Message d'identification et de catégorie (AircraftIdentificationMessage).
+         */
+        IDENTIFICATION,
+        /**
+         * Message de positionnement en vol (AirbornePositionMessage).
+         */
+        POSITION,
+        /**
+         * Message de vitesse en vol (AirborneVelocityMessage).
+         */
+        VELOCITY
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final byte[] kinds;
+    private final long[] timeStampsNs;
+    private final int[] icaoAddresses;
+    private final double[] altitudes;
+    private final byte[] parities;
+    private final double[] xs, ys;
+    private final double[] speeds, tracksOrHeadings;
+    private final int[] categories;
+    private final long[] callSigns;
+    private int size = 0;
+
+    /**
+     * Constructeur public de la classe MessageBatch, qui crée un lot vide de capacité donnée.
+     *
+     * @param capacity Le nombre maximal de messages du lot.
+     * @throws IllegalArgumentException si la capacité n'est pas strictement positive.
+     */
+    public MessageBatch(int capacity) {
+        Preconditions.checkArgument(capacity > 0);
+        kinds = new byte[capacity];
+        timeStampsNs = new long[capacity];
+        icaoAddresses = new int[capacity];
+        altitudes = new double[capacity];
+        parities = new byte[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        speeds = new double[capacity];
+        tracksOrHeadings = new double[capacity];
+        categories = new int[capacity];
+        callSigns = new long[capacity];
+    }
+
+    /**
+     * Méthode qui retourne le nombre maximal de messages du lot.
+     *
+     * @return la capacité du lot.
+     */
+    public int capacity() {
+        return kinds.length;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de messages du lot.
+     *
+     * @return le nombre de messages du lot.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Méthode qui vide le lot.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Méthode qui ajoute au lot un message d'identification.
+     *
+     * @param timeStampNs Le temps d'arrivée du message.
+     * @param icaoAddress La valeur de l'adresse ICAO de l'expéditeur.
+     * @param category    La catégorie de l'aéronef.
+     * @param callSign    La charge utile du message, qui contient l'indicatif (voir callSign()).
+     */
+    void addIdentification(long timeStampNs, int icaoAddress, int category, long callSign) {
+        int i = add(Kind.IDENTIFICATION, timeStampNs, icaoAddress);
+        categories[i] = category;
+        callSigns[i] = callSign;
+    }
+
+    /**
+     * Méthode qui ajoute au lot un message de positionnement en vol.
+     *
+     * @param timeStampNs Le temps d'arrivée du message.
+     * @param icaoAddress La valeur de l'adresse ICAO de l'expéditeur.
+     * @param altitude    L'altitude de l'aéronef, en mètres.
+     * @param parity      La parité du message.
+     * @param x           La longitude locale et normalisée.
+     * @param y           La latitude locale et normalisée.
+     */
+    void addPosition(long timeStampNs, int icaoAddress, double altitude, int parity, double x, double y) {
+        int i = add(Kind.POSITION, timeStampNs, icaoAddress);
+        altitudes[i] = altitude;
+        parities[i] = (byte) parity;
+        xs[i] = x;
+        ys[i] = y;
+    }
+
+    /**
+     * Méthode qui ajoute au lot un message de vitesse en vol.
+     *
+     * @param timeStampNs    Le temps d'arrivée du message.
+     * @param icaoAddress    La valeur de l'adresse ICAO de l'expéditeur.
+     * @param speed          La vitesse de l'aéronef, en mètres par seconde.
+     * @param trackOrHeading La route ou le cap de l'aéronef, en radians.
+     */
+    void addVelocity(long timeStampNs, int icaoAddress, double speed, double trackOrHeading) {
+        int i = add(Kind.VELOCITY, timeStampNs, icaoAddress);
+        speeds[i] = speed;
+        tracksOrHeadings[i] = trackOrHeading;
+    }
+
+    /**
+     * Méthode qui ajoute au lot un message dont seuls les attributs communs sont connus, les autres valant
+     * NaN, -1 ou 0.
+     *
+     * @param kind        Le type du message.
+     * @param timeStampNs Le temps d'arrivée du message.
+     * @param icaoAddress La valeur de l'adresse ICAO de l'expéditeur.
+     * @return l'index du message ajouté.
+     */
+    private int add(Kind kind, long timeStampNs, int icaoAddress) {
+        if (size == kinds.length) throw new IllegalStateException();
+        int i = size++;
+        kinds[i] = (byte) kind.ordinal();
+        timeStampsNs[i] = timeStampNs;
+        icaoAddresses[i] = icaoAddress;
+        altitudes[i] = xs[i] = ys[i] = speeds[i] = tracksOrHeadings[i] = Double.NaN;
+        parities[i] = -1;
+        categories[i] = -1;
+        callSigns[i] = 0;
+        return i;
+    }
+
+    /**
+     * Méthode qui retourne le type du message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return le type du message.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public Kind kind(int index) {
+        return KINDS[kinds[Objects.checkIndex(index, size)]];
+    }
+
+    /**
+     * Méthode qui retourne le temps d'arrivée du message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return le temps d'arrivée (en nanosecondes) du message.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public long timeStampNs(int index) {
+        return timeStampsNs[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne la valeur de l'adresse ICAO de l'expéditeur du message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return la valeur (24 bits) de l'adresse ICAO (voir IcaoAddress.of()).
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public int icaoAddress(int index) {
+        return icaoAddresses[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne l'altitude contenue dans le message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return l'altitude (en mètres), ou NaN si le message n'est pas un message de positionnement.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public double altitude(int index) {
+        return altitudes[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne la parité du message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return la parité (0 ou 1), ou -1 si le message n'est pas un message de positionnement.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public int parity(int index) {
+        return parities[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne la longitude locale et normalisée contenue dans le message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return la longitude locale, ou NaN si le message n'est pas un message de positionnement.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public double x(int index) {
+        return xs[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne la latitude locale et normalisée contenue dans le message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return la latitude locale, ou NaN si le message n'est pas un message de positionnement.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public double y(int index) {
+        return ys[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne la vitesse contenue dans le message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return la vitesse (en mètres par seconde), ou NaN si le message n'est pas un message de vitesse.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public double speed(int index) {
+        return speeds[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne la route ou le cap contenu dans le message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return la route ou le cap (en radians), ou NaN si le message n'est pas un message de vitesse.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public double trackOrHeading(int index) {
+        return tracksOrHeadings[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne la catégorie contenue dans le message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return la catégorie, ou -1 si le message n'est pas un message d'identification.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public int category(int index) {
+        return categories[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne l'indicatif contenu dans le message d'index donné. Celui-ci n'étant stocké que sous
+     * la forme de la charge utile du message, il est décodé (et alloué) à chaque appel.
+     *
+     * @param index L'index du message.
+     * @return l'indicatif, ou null si le message n'est pas un message d'identification.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public CallSign callSign(int index) {
+        return kind(index) == Kind.IDENTIFICATION ? AircraftIdentificationMessage.callSign(callSigns[index]) : null;
+    }
+
+    /**
+     * Méthode qui retourne le message d'index donné, sous la forme de l'enregistrement correspondant à son type.
+     *
+     * @param index L'index du message.
+     * @return le message d'index donné.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public Message message(int index) {
+        IcaoAddress address = IcaoAddress.of(icaoAddress(index));
+        long timeStampNs = timeStampsNs[index];
+        return switch (kind(index)) {
+            case IDENTIFICATION -> new AircraftIdentificationMessage(timeStampNs, address,
+                    categories[index], callSign(index));
+            case POSITION -> new AirbornePositionMessage(timeStampNs, address,
+                    altitudes[index], parities[index], xs[index], ys[index]);
+            case VELOCITY -> new AirborneVelocityMessage(timeStampNs, address,
+                    speeds[index], tracksOrHeadings[index]);
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package ch.epfl.javions.adsb;
 
+import ch.epfl.javions.Preconditions;
+
 /**
  * La classe MessageParser publique et non instanciable, permet de transformer les messages ADS-B bruts
  * en messages d'un des trois types (AircraftIdentificationMessage, AirbornePositionMessage ou AirborneVelocityMessage).
@@ -51,4 +53,59 @@ public final class MessageParser {
 
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Méthode statique publique qui analyse chacun des messages bruts du lot donné, et ajoute au lot de
+     * messages donné ceux qui correspondent à l'un des trois types de messages, exactement comme parse(RawMessage),
+     * mais sans allouer aucun objet.
+     *
+     * @param rawMessages Le lot de messages bruts à analyser.
+     * @param messages    Le lot auquel les messages analysés sont ajoutés.
+     * @return Le nombre de messages ajoutés au lot de messages.
+     * @throws IllegalArgumentException si la capacité restante du lot de messages est inférieure au nombre
+     *                                  de messages bruts.
+     */
+    public static int parse(RawMessageBatch rawMessages, MessageBatch messages) {
+        int count = rawMessages.size();
+        Preconditions.checkArgument(messages.capacity() - messages.size() >= count);
+        int initialSize = messages.size();
+
+        for (int i = 0; i < count; ++i) {
+            long high = rawMessages.high(i);
+            long payload = CompactRawMessage.payload(high, rawMessages.low(i));
+            long timeStampNs = rawMessages.timeStampNs(i);
+            int icaoAddress = CompactRawMessage.icaoAddress(high);
+
+            switch (RawMessage.typeCode(payload)) {
+
+                case 1, 2, 3, 4 -> {
+                    if (AircraftIdentificationMessage.hasValidCallSign(payload)) {
+                        messages.addIdentification(timeStampNs, icaoAddress,
+                                AircraftIdentificationMessage.category(payload), payload);
+                    }
+                }
+
+                case 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 20, 21, 22 -> {
+                    double altitude = AirbornePositionMessage.altitude(payload);
+                    if (!Double.isNaN(altitude)) {
+                        messages.addPosition(timeStampNs, icaoAddress, altitude,
+                                AirbornePositionMessage.parity(payload),
+                                AirbornePositionMessage.x(payload), AirbornePositionMessage.y(payload));
+                    }
+                }
+
+                case 19 -> {
+                    double speed = AirborneVelocityMessage.speed(payload);
+                    if (!Double.isNaN(speed)) {
+                        messages.addVelocity(timeStampNs, icaoAddress, speed,
+                                AirborneVelocityMessage.trackOrHeading(payload));
+                    }
+                }
+
+                default -> {
+                }
+            }
+        }
+        return messages.size() - initialSize;
+    }
+}
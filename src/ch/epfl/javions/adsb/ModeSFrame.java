@@ -0,0 +1,179 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+import static ch.epfl.javions.Crc24.GENERATOR;
+
+/**
+ * L'enregistrement ModeSFrame représente une trame Mode S brute, courte (56 bits) ou longue (112 bits),
+ * de l'un des downlink formats (DF) 0, 4, 5, 11, 16, 17, 18, 20 ou 21.
+ * <p>
+ * Le champ de parité des trames DF11, DF17 et DF18 (PI) est le CRC du reste de la trame (combiné, pour
+ * DF11, avec l'identifiant de l'interrogateur), et leur adresse ICAO figure en clair dans la trame.
+ * Celui des autres formats (AP) est le CRC combiné avec l'adresse ICAO, qui est donc retrouvée en combinant
+ * à nouveau ce champ avec le CRC : comme n'importe quel bruit produit alors une adresse, ces trames ne sont valides que si leur
+ * adresse a déjà été vue dans une trame DF11, DF17 ou DF18.
+ *
+ * @param timeStampNs Le temps d'arrivée (en nanosecondes) de la trame.
+ * @param bytes       Les octets de la trame.
+ * @param icaoAddress L'adresse ICAO de l'émetteur de la trame.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public record ModeSFrame(long timeStampNs, ByteString bytes, IcaoAddress icaoAddress) {
+
+    /**
+     * La longueur en octets des trames courtes (56 bits).
+     */
+    public static final int SHORT_LENGTH = 7;
+
+    /**
+     * La longueur en octets des trames longues (112 bits).
+     */
+    public static final int LONG_LENGTH = RawMessage.LENGTH;
+
+    private static final Crc24 Crc24 = new Crc24(GENERATOR);
+    private static final int DF_START = 3;
+    private static final int DF_COUNT = 1 << 5;
+    private static final int ICAO_START = 1, ICAO_END = 3 + 1;
+    private static final int PARITY_LENGTH = 3;
+    /* Les bits de parité d'une trame DF11 peuvent contenir l'identifiant (7 bits) de l'interrogateur. */
+    private static final int INTERROGATOR_MASK = (1 << 7) - 1;
+    private static final int DF_ALL_CALL_REPLY = 11, DF_EXTENDED_SQUITTER = 17, DF_EXTENDED_SQUITTER_NON_TRANSPONDER = 18;
+
+    /* Longueur des trames de chaque downlink format, 0 pour les formats non pris en charge. */
+    private static final byte[] LENGTHS = new byte[DF_COUNT];
+
+    static {
+        for (int df : new int[]{0, 4, 5, 11}) LENGTHS[df] = SHORT_LENGTH;
+        for (int df : new int[]{16, 17, 18, 20, 21}) LENGTHS[df] = LONG_LENGTH;
+    }
+
+    /**
+     * Constructeur compact de l'enregistrement ModeSFrame.
+     *
+     * @throws IllegalArgumentException si le temps d'arrivée est négatif, ou si la longueur de la trame
+     *                                  ne correspond pas à son downlink format.
+     * @throws NullPointerException     si l'adresse ICAO est nulle.
+     */
+    public ModeSFrame {
+        Preconditions.checkArgument(timeStampNs >= 0);
+        Preconditions.checkArgument(bytes.size() != 0 && bytes.size() == size((byte) bytes.byteAt(0)));
+        Objects.requireNonNull(icaoAddress);
+    }
+
+    /**
+     * Retourne la longueur de la trame en fonction de son premier octet.
+     *
+     * @param byte0 Le premier octet de la trame.
+     * @return La longueur de la trame (SHORT_LENGTH ou LONG_LENGTH) si son downlink format est pris en charge,
+     * 0 sinon.
+     */
+    public static int size(byte byte0) {
+        return LENGTHS[(byte0 & 0xFF) >>> DF_START];
+    }
+
+    /**
+     * Vérifie si la trame de premier octet donné est un squitter étendu (DF17 ou DF18), dont le champ de parité
+     * est le CRC du reste de la trame, et dont les erreurs de transmission peuvent donc être corrigées.
+     *
+     * @param byte0 Le premier octet de la trame.
+     * @return Vrai si le downlink format de la trame est 17 ou 18, faux sinon.
+     */
+    public static boolean isExtendedSquitter(byte byte0) {
+        int df = (byte0 & 0xFF) >>> DF_START;
+        return df == DF_EXTENDED_SQUITTER || df == DF_EXTENDED_SQUITTER_NON_TRANSPONDER;
+    }
+
+    /**
+     * Crée une trame à partir d'un temps d'arrivée et de ses octets, si son champ de parité est valide.
+     * Les adresses des trames DF11, DF17 et DF18 valides sont ajoutées aux adresses connues, et celles
+     * des autres trames doivent y figurer.
+     *
+     * @param timeStampNs    Le temps d'arrivée (en nanosecondes) de la trame.
+     * @param bytes          Les octets de la trame.
+     * @param knownAddresses Les adresses ICAO connues, indexées par leur valeur (24 bits).
+     * @return La trame si elle est valide, null sinon.
+     * @throws IllegalArgumentException si la longueur de la trame ne correspond pas à son downlink format.
+     */
+    public static ModeSFrame of(long timeStampNs, byte[] bytes, BitSet knownAddresses) {
+        Preconditions.checkArgument(bytes.length != 0 && bytes.length == size(bytes[0]));
+
+        int overlay = parityOverlay(bytes);
+        int address;
+        switch ((bytes[0] & 0xFF) >>> DF_START) {
+            case DF_ALL_CALL_REPLY -> {
+                if ((overlay & ~INTERROGATOR_MASK) != 0) return null;
+                address = address(bytes);
+                /* Seules les réponses aux interrogations sans identifiant ont une parité entièrement vérifiée. */
+                if (overlay == 0) knownAddresses.set(address);
+            }
+            case DF_EXTENDED_SQUITTER, DF_EXTENDED_SQUITTER_NON_TRANSPONDER -> {
+                if (overlay != 0) return null;
+                address = address(bytes);
+                knownAddresses.set(address);
+            }
+            default -> {
+                if (!knownAddresses.get(overlay)) return null;
+                address = overlay;
+            }
+        }
+        return new ModeSFrame(timeStampNs, new ByteString(bytes), IcaoAddress.of(address));
+    }
+
+    /**
+     * Retourne le downlink format (DF) de la trame.
+     *
+     * @return le downlink format (DF) de la trame.
+     */
+    public int downLinkFormat() {
+        return bytes.byteAt(0) >>> DF_START;
+    }
+
+    /**
+     * Retourne le message ADS-B brut correspondant à la trame, s'il s'agit d'une trame DF17.
+     *
+     * @return le message ADS-B brut, ou null si la trame n'est pas une trame DF17.
+     */
+    public RawMessage rawMessage() {
+        return downLinkFormat() == DF_EXTENDED_SQUITTER ? new RawMessage(timeStampNs, bytes) : null;
+    }
+
+    /**
+     * Retourne la valeur combinée avec le CRC dans le champ de parité de la trame donnée, c.-à-d. le OU exclusif
+     * du CRC des octets précédant ce champ et de ce champ : 0 si la parité est valide, l'identifiant de
+     * l'interrogateur (DF11) ou l'adresse ICAO (AP) sinon.
+     *
+     * @param bytes Les octets de la trame.
+     * @return La valeur (24 bits) combinée avec le CRC.
+     */
+    private static int parityOverlay(byte[] bytes) {
+        int parityStart = bytes.length - PARITY_LENGTH;
+        int parity = 0;
+        for (int i = parityStart; i < bytes.length; ++i) {
+            parity = (parity << Byte.SIZE) | (bytes[i] & 0xFF);
+        }
+        return Crc24.crc(bytes, 0, parityStart) ^ parity;
+    }
+
+    /**
+     * Retourne l'adresse ICAO (24 bits) figurant en clair dans la trame donnée.
+     *
+     * @param bytes Les octets de la trame.
+     * @return L'adresse ICAO de la trame.
+     */
+    private static int address(byte[] bytes) {
+        int address = 0;
+        for (int i = ICAO_START; i < ICAO_END; ++i) {
+            address = (address << Byte.SIZE) | (bytes[i] & 0xFF);
+        }
+        return address;
+    }
+}
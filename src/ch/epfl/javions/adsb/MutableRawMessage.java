@@ -0,0 +1,145 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Preconditions;
+
+/**
+ * La classe MutableRawMessage, du sous-paquetage adsb, publique et finale, représente un message ADS-B brut
+ * modifiable, stocké de la même manière qu'un CompactRawMessage.
+ * <p>
+ * Un même objet peut ainsi être réutilisé pour chacun des messages d'un flot (p. ex. par
+ * AdsbDemodulator.nextMessage(MutableRawMessage)), sans aucune allocation. Un message devant être conservé
+ * au-delà du message suivant doit être copié au moyen de toCompactRawMessage() ou de toRawMessage().
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class MutableRawMessage {
+    private long timeStampNs = 0;
+    private long high = 0, low = 0;
+
+    /**
+     * Méthode qui remplace le message par celui dont le temps d'arrivée et les octets sont donnés.
+     * Le CRC du message n'est pas vérifié.
+     *
+     * @param timeStampNs Le temps d'arrivée (en nanosecondes) du message.
+     * @param bytes       Les octets du message.
+     * @return ce message.
+     * @throws IllegalArgumentException si le temps d'arrivée est négatif, ou si la longueur du message
+     *                                  n'est pas égale à RawMessage.LENGTH.
+     */
+    public MutableRawMessage set(long timeStampNs, byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == RawMessage.LENGTH);
+        return set(timeStampNs, CompactRawMessage.high(bytes), CompactRawMessage.low(bytes));
+    }
+
+    /**
+     * Méthode qui remplace le message par celui dont le temps d'arrivée et les bits sont donnés.
+     *
+     * @param timeStampNs Le temps d'arrivée (en nanosecondes) du message.
+     * @param high        Les 8 premiers octets du message.
+     * @param low         Les 6 derniers octets du message, dans les 48 bits de poids faible.
+     * @return ce message.
+     * @throws IllegalArgumentException si le temps d'arrivée est négatif, ou si les 16 bits de poids fort
+     *                                  de low ne sont pas nuls.
+     */
+    public MutableRawMessage set(long timeStampNs, long high, long low) {
+        Preconditions.checkArgument(timeStampNs >= 0);
+        Preconditions.checkArgument(low >>> ((RawMessage.LENGTH - Long.BYTES) * Byte.SIZE) == 0);
+        this.timeStampNs = timeStampNs;
+        this.high = high;
+        this.low = low;
+        return this;
+    }
+
+    /**
+     * Retourne le temps d'arrivée (en nanosecondes) du message.
+     *
+     * @return le temps d'arrivée du message.
+     */
+    public long timeStampNs() {
+        return timeStampNs;
+    }
+
+    /**
+     * Retourne les 8 premiers octets du message, le premier octet étant celui de poids fort.
+     *
+     * @return les 8 premiers octets du message.
+     */
+    public long high() {
+        return high;
+    }
+
+    /**
+     * Retourne les 6 derniers octets du message, dans les 48 bits de poids faible.
+     *
+     * @return les 6 derniers octets du message.
+     */
+    public long low() {
+        return low;
+    }
+
+    /**
+     * Retourne l'octet (non signé) d'index donné du message.
+     *
+     * @param index L'index de l'octet.
+     * @return l'octet d'index donné, entre 0 et 255.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et RawMessage.LENGTH (exclu).
+     */
+    public int byteAt(int index) {
+        return CompactRawMessage.byteAt(high, low, index);
+    }
+
+    /**
+     * Retourne le downlink format (DF) du message.
+     *
+     * @return le downlink format (DF) du message.
+     */
+    public int downLinkFormat() {
+        return CompactRawMessage.downLinkFormat(high);
+    }
+
+    /**
+     * Retourne la valeur (24 bits) de l'adresse ICAO du message.
+     *
+     * @return la valeur de l'adresse ICAO du message.
+     */
+    public int icaoAddress() {
+        return CompactRawMessage.icaoAddress(high);
+    }
+
+    /**
+     * Retourne la charge utile du message (ME).
+     *
+     * @return la charge utile du message (ME).
+     */
+    public long payload() {
+        return CompactRawMessage.payload(high, low);
+    }
+
+    /**
+     * Retourne le code de type (typecode) du message.
+     *
+     * @return le code de type (un entier) extrait de la charge utile (payload) du message.
+     */
+    public int typeCode() {
+        return RawMessage.typeCode(payload());
+    }
+
+    /**
+     * Retourne une copie immuable et compacte du message.
+     *
+     * @return le message compact identique à ce message.
+     */
+    public CompactRawMessage toCompactRawMessage() {
+        return new CompactRawMessage(timeStampNs, high, low);
+    }
+
+    /**
+     * Retourne une copie immuable du message, sous la forme d'un message brut.
+     *
+     * @return le message brut identique à ce message.
+     */
+    public RawMessage toRawMessage() {
+        return toCompactRawMessage().toRawMessage();
+    }
+}
@@ -0,0 +1,105 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * Interface représentant un filtre de plausibilité des positions décodées d'un aéronef, utilisé par
+ * AircraftStateAccumulator pour rejeter les positions aberrantes (p. ex. dues à l'appariement de deux messages
+ * de positionnement incompatibles) avant qu'elles ne soient transmises à l'état modifiable de l'aéronef.
+ * <p>
+ * Le filtre ne reçoit que la dernière position acceptée de l'aéronef et son horodatage, mémorisés par
+ * l'accumulateur, si bien qu'il n'a pas à stocker (ni à allouer) d'état propre à chaque aéronef.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+@FunctionalInterface
+public interface PositionFilter {
+
+    /**
+     * Filtre acceptant toutes les positions.
+     */
+    PositionFilter ACCEPT_ALL = (lastPosition, lastTimeStampNs, position, timeStampNs) -> true;
+
+    /**
+     * Le rayon moyen de la Terre, en mètres.
+     */
+    double EARTH_RADIUS = 6_371_000d;
+
+    /**
+     * Méthode qui détermine si la position décodée d'un aéronef est plausible.
+     *
+     * @param lastPosition    La dernière position acceptée de l'aéronef, ou null s'il n'y en a aucune.
+     * @param lastTimeStampNs L'horodatage (en nanosecondes) de la dernière position acceptée, à ignorer si elle
+     *                        est nulle.
+     * @param position        La position décodée de l'aéronef.
+     * @param timeStampNs     L'horodatage (en nanosecondes) de la position décodée.
+     * @return Vrai si la position est plausible, faux si elle doit être rejetée.
+     */
+    boolean isPlausible(GeoPos lastPosition, long lastTimeStampNs, GeoPos position, long timeStampNs);
+
+    /**
+     * Méthode retournant un filtre qui n'accepte que les positions acceptées à la fois par ce filtre et par
+     * le filtre donné.
+     *
+     * @param that L'autre filtre.
+     * @return Le filtre combiné.
+     * @throws NullPointerException Si l'autre filtre est nul.
+     */
+    default PositionFilter and(PositionFilter that) {
+        Objects.requireNonNull(that);
+        return (lastPosition, lastTimeStampNs, position, timeStampNs) ->
+                isPlausible(lastPosition, lastTimeStampNs, position, timeStampNs)
+                        && that.isPlausible(lastPosition, lastTimeStampNs, position, timeStampNs);
+    }
+
+    /**
+     * Méthode retournant un filtre qui rejette les positions situées à plus de la distance donnée du récepteur.
+     *
+     * @param receiverPosition La position du récepteur.
+     * @param maxDistance      La portée du récepteur, en mètres.
+     * @return Le filtre de portée.
+     * @throws NullPointerException     Si la position du récepteur est nulle.
+     * @throws IllegalArgumentException Si la portée n'est pas strictement positive.
+     */
+    static PositionFilter maxRange(GeoPos receiverPosition, double maxDistance) {
+        Objects.requireNonNull(receiverPosition);
+        Preconditions.checkArgument(maxDistance > 0);
+        return (lastPosition, lastTimeStampNs, position, timeStampNs) ->
+                distance(receiverPosition, position) <= maxDistance;
+    }
+
+    /**
+     * Méthode retournant un filtre qui rejette les positions impliquant, depuis la dernière position acceptée,
+     * un déplacement plus rapide que la vitesse donnée. Une tolérance de 100 mètres absorbe l'imprécision
+     * des positions CPR, et toute position est acceptée en l'absence de position précédente.
+     *
+     * @param maxSpeed La vitesse maximale plausible, en mètres par seconde.
+     * @return Le filtre de vitesse.
+     * @throws IllegalArgumentException Si la vitesse n'est pas strictement positive.
+     */
+    static PositionFilter maxSpeed(double maxSpeed) {
+        Preconditions.checkArgument(maxSpeed > 0);
+        double tolerance = 100d;
+        return (lastPosition, lastTimeStampNs, position, timeStampNs) -> lastPosition == null
+                || distance(lastPosition, position) <= maxSpeed * Math.abs(timeStampNs - lastTimeStampNs) * 1e-9 + tolerance;
+    }
+
+    /**
+     * Méthode retournant la distance orthodromique entre deux positions (formule de haversine).
+     *
+     * @param from La première position.
+     * @param to   La seconde position.
+     * @return La distance entre les deux positions, en mètres.
+     */
+    static double distance(GeoPos from, GeoPos to) {
+        double sinHalfLatitude = Math.sin((to.latitude() - from.latitude()) / 2);
+        double sinHalfLongitude = Math.sin((to.longitude() - from.longitude()) / 2);
+        double a = sinHalfLatitude * sinHalfLatitude
+                + Math.cos(from.latitude()) * Math.cos(to.latitude()) * sinHalfLongitude * sinHalfLongitude;
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -6,8 +6,6 @@ import ch.epfl.javions.Crc24;
 import ch.epfl.javions.Preconditions;
 import ch.epfl.javions.aircraft.IcaoAddress;
 
-import java.util.HexFormat;
-
 import static ch.epfl.javions.Crc24.GENERATOR;
 
 /**
@@ -31,7 +29,7 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
     private static final int DF_CA_START = 0, DF_CA_END = 0 + 1;
     private static final int DF_START = 3, DF_SIZE = 5;
     private static final int ME_START = 4, ME_END = 10 + 1;
-    private static final int ICAO_START = 1, ICAO_END = 3 + 1, ICAO_SIZE = 6;
+    private static final int ICAO_START = 1, ICAO_END = 3 + 1;
     private static final int TYPE_CODE_START = 51, TYPE_CODE_SIZE = 5;
 
     /**
@@ -92,8 +90,7 @@ public record RawMessage(long timeStampNs, ByteString bytes) {
      * @return l'adresse ICAO du message.
      */
     public IcaoAddress icaoAddress() {
-        return new IcaoAddress(HexFormat.of().withUpperCase()
-                .toHexDigits(bytes.bytesInRange(ICAO_START, ICAO_END), ICAO_SIZE));
+        return IcaoAddress.of((int) bytes.bytesInRange(ICAO_START, ICAO_END));
     }
 
     /**
@@ -0,0 +1,155 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Preconditions;
+
+import java.util.Objects;
+
+/**
+ * La classe RawMessageBatch, du sous-paquetage adsb, publique et finale, représente un lot de messages ADS-B
+ * bruts de capacité fixe, stockés en colonnes : les temps d'arrivée et les deux moitiés de chaque message
+ * (au format de CompactRawMessage) sont placés dans trois tableaux de type long.
+ * <p>
+ * Un même lot peut être rempli (p. ex. par AdsbDemodulator.nextMessages(RawMessageBatch)), analysé au moyen
+ * de MessageParser.parse(RawMessageBatch, MessageBatch), puis vidé et réutilisé, sans aucune allocation.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class RawMessageBatch {
+    private final long[] timeStampsNs;
+    private final long[] highs;
+    private final long[] lows;
+    private int size = 0;
+
+    /**
+     * Constructeur public de la classe RawMessageBatch, qui crée un lot vide de capacité donnée.
+     *
+     * @param capacity Le nombre maximal de messages du lot.
+     * @throws IllegalArgumentException si la capacité n'est pas strictement positive.
+     */
+    public RawMessageBatch(int capacity) {
+        Preconditions.checkArgument(capacity > 0);
+        this.timeStampsNs = new long[capacity];
+        this.highs = new long[capacity];
+        this.lows = new long[capacity];
+    }
+
+    /**
+     * Méthode qui retourne le nombre maximal de messages du lot.
+     *
+     * @return la capacité du lot.
+     */
+    public int capacity() {
+        return timeStampsNs.length;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de messages du lot.
+     *
+     * @return le nombre de messages du lot.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Méthode qui vérifie si le lot est plein.
+     *
+     * @return Vrai si le lot contient autant de messages que sa capacité, faux sinon.
+     */
+    public boolean isFull() {
+        return size == timeStampsNs.length;
+    }
+
+    /**
+     * Méthode qui vide le lot.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Méthode qui ajoute au lot le message dont le temps d'arrivée et les bits sont donnés.
+     *
+     * @param timeStampNs Le temps d'arrivée (en nanosecondes) du message.
+     * @param high        Les 8 premiers octets du message.
+     * @param low         Les 6 derniers octets du message, dans les 48 bits de poids faible.
+     * @throws IllegalStateException    si le lot est plein.
+     * @throws IllegalArgumentException si le temps d'arrivée est négatif, ou si les 16 bits de poids fort
+     *                                  de low ne sont pas nuls.
+     */
+    public void add(long timeStampNs, long high, long low) {
+        if (isFull()) throw new IllegalStateException();
+        Preconditions.checkArgument(timeStampNs >= 0);
+        Preconditions.checkArgument(low >>> ((RawMessage.LENGTH - Long.BYTES) * Byte.SIZE) == 0);
+        timeStampsNs[size] = timeStampNs;
+        highs[size] = high;
+        lows[size] = low;
+        size += 1;
+    }
+
+    /**
+     * Méthode qui ajoute au lot une copie du message modifiable donné.
+     *
+     * @param message Le message à ajouter.
+     * @throws IllegalStateException si le lot est plein.
+     */
+    public void add(MutableRawMessage message) {
+        add(message.timeStampNs(), message.high(), message.low());
+    }
+
+    /**
+     * Méthode qui ajoute au lot le message brut donné.
+     *
+     * @param message Le message à ajouter.
+     * @throws IllegalStateException si le lot est plein.
+     */
+    public void add(RawMessage message) {
+        CompactRawMessage compact = CompactRawMessage.of(message);
+        add(compact.timeStampNs(), compact.high(), compact.low());
+    }
+
+    /**
+     * Méthode qui retourne le temps d'arrivée du message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return le temps d'arrivée (en nanosecondes) du message.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public long timeStampNs(int index) {
+        return timeStampsNs[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne les 8 premiers octets du message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return les 8 premiers octets du message, le premier octet étant celui de poids fort.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public long high(int index) {
+        return highs[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne les 6 derniers octets du message d'index donné.
+     *
+     * @param index L'index du message.
+     * @return les 6 derniers octets du message, dans les 48 bits de poids faible.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public long low(int index) {
+        return lows[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Méthode qui retourne le message d'index donné, sous la forme d'un message brut.
+     *
+     * @param index L'index du message.
+     * @return le message brut d'index donné.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    public RawMessage rawMessage(int index) {
+        return new CompactRawMessage(timeStampNs(index), highs[index], lows[index]).toRawMessage();
+    }
+}
@@ -0,0 +1,34 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * Interface représentant une source des informations des aéronefs, sur laquelle repose AircraftDatabase
+ * (lecture directe du fichier ZIP, index en mémoire, etc.).
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+@FunctionalInterface
+interface AircraftDataSource {
+
+    /**
+     * Retourne les informations de l'aéronef d'adresse ICAO donnée.
+     *
+     * @param address l'adresse ICAO de l'aéronef, non nulle.
+     * @return les informations de l'aéronef, ou null si la source n'en contient aucune.
+     * @throws IOException si une erreur se produit lors de l'accès à la source.
+     */
+    AircraftData get(IcaoAddress address) throws IOException;
+
+    /**
+     * Retourne l'ensemble des adresses ICAO (indexées par leur valeur) des aéronefs de la source, si elle
+     * les connaît sans avoir à relire le fichier ZIP.
+     *
+     * @return l'ensemble des adresses des aéronefs, ou null si la source ne les connaît pas.
+     */
+    default BitSet addresses() {
+        return null;
+    }
+}
@@ -1,7 +1,14 @@
 package ch.epfl.javions.aircraft;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Enumeration;
+import java.util.HexFormat;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -11,6 +18,17 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * fichiers CSV.
  * La base de données peut être interrogée avec une adresse ICAO, ce qui renvoie les informations de l'aéronef
  * (AircraftData) associées à cette adresse.
+ * <p>
+ * Une base de données construite au moyen du constructeur lit le fichier ZIP à chaque interrogation, tandis que
+ * celle retournée par loadIndexed() le charge une fois pour toutes dans un index en mémoire (AircraftIndex), et celle
+ * retournée par openCompiled() le compile dans un fichier binaire projeté en mémoire (CompiledAircraftDatabase).
+ * Entre ces extrêmes, celle retournée par openSharded() ne garde en mémoire, dans la limite d'un budget, que les
+ * fichiers CSV les plus sollicités (ShardCache).
+ * <p>
+ * Chacune d'entre elles peut de plus être dotée, au moyen de withPresenceFilter(), de l'ensemble des adresses
+ * des aéronefs qu'elle contient (2^24 bits, soit 2 Mo), qui permet de répondre immédiatement aux interrogations
+ * concernant des aéronefs absents de la base de données, sans aucun accès au fichier. Le nombre d'interrogations,
+ * d'aéronefs trouvés et d'absences détectées par ce filtre sont comptés (voir statistics()).
  *
  * @author Adam AIT BOUSSELHAM (356365)
  * @author Abdellah JANATI IDRISSI (362341)
@@ -18,7 +36,13 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public final class AircraftDatabase {
 
     private static final String SEPARATOR = ",";
+    private static final int ADDRESS_LENGTH = 6;
+    private static final String ENTRY_EXTENSION = ".csv";
     private final String fileName;
+    private final AircraftDataSource source;
+    /* L'ensemble des adresses des aéronefs de la base de données, ou null en l'absence de filtre. */
+    private final BitSet presence;
+    private final LongAdder lookups = new LongAdder(), hits = new LongAdder(), filteredMisses = new LongAdder();
 
     /**
      * Construit une base de données d'aéronefs à partir du nom de fichier spécifié.
@@ -28,6 +52,66 @@ public final class AircraftDatabase {
      */
     public AircraftDatabase(String fileName) {
         this.fileName = Objects.requireNonNull(fileName);
+        this.source = address -> scan(fileName, address);
+        this.presence = null;
+    }
+
+    /**
+     * Construit une base de données d'aéronefs reposant sur la source donnée.
+     *
+     * @param fileName le nom du fichier ZIP contenant la base de données.
+     * @param source   la source des informations des aéronefs.
+     * @param presence l'ensemble des adresses des aéronefs de la base de données, ou null.
+     */
+    private AircraftDatabase(String fileName, AircraftDataSource source, BitSet presence) {
+        this.fileName = Objects.requireNonNull(fileName);
+        this.source = source;
+        this.presence = presence;
+    }
+
+    /**
+     * Charge la totalité de la base de données contenue dans le fichier spécifié dans un index en mémoire,
+     * qui répond ensuite à chaque interrogation par une recherche dichotomique, sans accès au fichier.
+     *
+     * @param fileName le nom du fichier ZIP contenant la base de données.
+     * @return la base de données indexée.
+     * @throws IOException          si une erreur se produit lors de la lecture du fichier ZIP.
+     * @throws NullPointerException si le nom de fichier est nul.
+     */
+    public static AircraftDatabase loadIndexed(String fileName) throws IOException {
+        return new AircraftDatabase(fileName, AircraftIndex.load(fileName), null);
+    }
+
+    /**
+     * Ouvre la base de données contenue dans le fichier spécifié sous sa forme compilée, stockée dans le fichier
+     * binaire donné et projetée en mémoire, qui répond à chaque interrogation par une recherche dichotomique dans
+     * ce fichier. Celui-ci est (re)compilé au préalable s'il n'existe pas ou s'il est plus ancien que le fichier ZIP ;
+     * sinon, l'ouverture ne lit aucune donnée.
+     *
+     * @param fileName     le nom du fichier ZIP contenant la base de données.
+     * @param compiledFile le chemin du fichier binaire contenant la base de données compilée.
+     * @return la base de données compilée.
+     * @throws IOException          si une erreur se produit lors de la compilation ou de l'ouverture des fichiers.
+     * @throws NullPointerException si le nom de fichier ou le chemin du fichier compilé est nul.
+     */
+    public static AircraftDatabase openCompiled(String fileName, Path compiledFile) throws IOException {
+        return new AircraftDatabase(fileName, CompiledAircraftDatabase.open(fileName, compiledFile), null);
+    }
+
+    /**
+     * Ouvre la base de données contenue dans le fichier spécifié, dont chaque fichier CSV (shard) est lu et gardé
+     * en mémoire la première fois qu'un de ses aéronefs est recherché, les plus sollicités étant de plus préchargés
+     * en arrière-plan. La taille totale (estimée) des fichiers CSV en mémoire est limitée par le budget donné,
+     * les moins sollicités étant supprimés lorsqu'il est dépassé.
+     *
+     * @param fileName     le nom du fichier ZIP contenant la base de données.
+     * @param memoryBudget la taille totale maximale (estimée, en octets) des fichiers CSV en mémoire.
+     * @return la base de données.
+     * @throws NullPointerException     si le nom de fichier est nul.
+     * @throws IllegalArgumentException si le budget n'est pas strictement positif.
+     */
+    public static AircraftDatabase openSharded(String fileName, long memoryBudget) {
+        return new AircraftDatabase(fileName, ShardCache.inBackground(fileName, memoryBudget), null);
     }
 
     /**
@@ -40,13 +124,57 @@ public final class AircraftDatabase {
      *                              CSV de la base de données.
      * @throws NullPointerException si l'adresse ICAO est nulle.
      */
-
     public AircraftData get(IcaoAddress address) throws IOException {
         Objects.requireNonNull(address);
+        lookups.increment();
+        if (presence != null && !presence.get(address.value())) {
+            filteredMisses.increment();
+            return null;
+        }
+        AircraftData data = source.get(address);
+        if (data != null) hits.increment();
+        return data;
+    }
+
+    /**
+     * Retourne une base de données identique à celle-ci (dont les statistiques sont toutefois nulles), dotée de
+     * l'ensemble des adresses des aéronefs qu'elle contient. Cet ensemble est obtenu de l'index ou du fichier compilé
+     * s'il y en a un, et en lisant une fois la totalité du fichier ZIP sinon.
+     *
+     * @return la base de données dotée du filtre des adresses absentes.
+     * @throws IOException si une erreur se produit lors de la lecture du fichier ZIP.
+     */
+    public AircraftDatabase withPresenceFilter() throws IOException {
+        BitSet addresses = source.addresses();
+        if (addresses == null) {
+            BitSet set = new BitSet(IcaoAddress.VALUES_COUNT);
+            readLines(fileName, line -> set.set(addressOf(line)));
+            addresses = set;
+        }
+        return new AircraftDatabase(fileName, source, addresses);
+    }
+
+    /**
+     * Retourne les statistiques des interrogations de la base de données depuis sa création.
+     *
+     * @return les statistiques des interrogations.
+     */
+    public LookupStatistics statistics() {
+        return new LookupStatistics(lookups.sum(), hits.sum(), filteredMisses.sum());
+    }
 
+    /**
+     * Recherche les informations d'un aéronef en parcourant le fichier CSV du fichier ZIP qui le contient.
+     *
+     * @param fileName le nom du fichier ZIP contenant la base de données.
+     * @param address  l'adresse ICAO de l'aéronef à rechercher.
+     * @return les informations de l'aéronef, null si aucune information n'a été trouvée.
+     * @throws IOException si une erreur se produit lors de l'accès au fichier ZIP.
+     */
+    static AircraftData scan(String fileName, IcaoAddress address) throws IOException {
         try (ZipFile zipFile = new ZipFile(fileName)) {
 
-            String entry = address.string().substring(address.string().length() - 2) + ".csv";
+            String entry = entryName(address);
             /* Ouvre le fichier CSV correspondant à l'adresse courante dans le fichier ZIP */
             try (InputStream inputStream = zipFile.getInputStream(zipFile.getEntry(entry));
                  Reader reader = new InputStreamReader(inputStream, UTF_8);
@@ -55,21 +183,17 @@ public final class AircraftDatabase {
 
                 /* Parcourir toutes les lignes du fichier CSV */
                 while ((line = bufferedReader.readLine()) != null) {
-                    String[] fields = line.split(SEPARATOR, -1);
-                    IcaoAddress currentAddress = new IcaoAddress(fields[0]);
+                    /* La valeur de l'adresse ICAO (les 6 premiers caractères de la ligne) est lue directement,
+                     * sans découper la ligne ni créer d'adresse */
+                    int currentAddress = addressOf(line);
 
                     /* Si l'adresse ICAO correspond, créer un objet AircraftData avec les informations de
                      * l'aéronef et le retourner */
-                    if (currentAddress.string().compareTo(address.string()) == 0) {
-                        AircraftRegistration registration = new AircraftRegistration(fields[1]);
-                        AircraftTypeDesignator typeDesignator = new AircraftTypeDesignator(fields[2]);
-                        String model = fields[3];
-                        AircraftDescription description = new AircraftDescription(fields[4]);
-                        WakeTurbulenceCategory wakeTurbulenceCategory = WakeTurbulenceCategory.of(fields[5]);
-                        return new AircraftData(registration, typeDesignator, model, description, wakeTurbulenceCategory);
+                    if (currentAddress == address.value()) {
+                        return parse(line);
                     }
                     /* Si l'adresse ICAO recherchée est inférieure à l'adresse courante, sortir de la boucle */
-                    else if (currentAddress.string().compareTo(address.string()) > 0) {
+                    else if (currentAddress > address.value()) {
                         break;
                     }
                 }
@@ -77,4 +201,97 @@ public final class AircraftDatabase {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Lit toutes les lignes de tous les fichiers CSV du fichier ZIP donné, dans un ordre quelconque.
+     *
+     * @param fileName le nom du fichier ZIP contenant la base de données.
+     * @param action   l'action à effectuer pour chaque ligne.
+     * @throws IOException          si une erreur se produit lors de la lecture du fichier ZIP.
+     * @throws NullPointerException si le nom de fichier est nul.
+     */
+    static void readLines(String fileName, Consumer<String> action) throws IOException {
+        try (ZipFile zipFile = new ZipFile(Objects.requireNonNull(fileName))) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!isDataEntry(entry.getName())) continue;
+
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(zipFile.getInputStream(entry), UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        action.accept(line);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Retourne le nom du fichier CSV du fichier ZIP contenant l'aéronef d'adresse donnée, formé des deux derniers
+     * chiffres hexadécimaux de l'adresse.
+     *
+     * @param address l'adresse ICAO de l'aéronef.
+     * @return le nom du fichier CSV.
+     */
+    static String entryName(IcaoAddress address) {
+        return address.string().substring(ADDRESS_LENGTH - 2) + ENTRY_EXTENSION;
+    }
+
+    /**
+     * Retourne la valeur de l'adresse ICAO figurant au début d'une ligne d'un fichier CSV de la base de données.
+     *
+     * @param line la ligne.
+     * @return la valeur (24 bits) de l'adresse ICAO.
+     */
+    static int addressOf(String line) {
+        return HexFormat.fromHexDigits(line, 0, ADDRESS_LENGTH);
+    }
+
+    /**
+     * Retourne les informations de l'aéronef figurant sur une ligne d'un fichier CSV de la base de données.
+     *
+     * @param line la ligne.
+     * @return les informations de l'aéronef.
+     */
+    static AircraftData parse(String line) {
+        String[] fields = line.split(SEPARATOR, -1);
+        AircraftRegistration registration = new AircraftRegistration(fields[1]);
+        AircraftTypeDesignator typeDesignator = new AircraftTypeDesignator(fields[2]);
+        String model = fields[3];
+        AircraftDescription description = new AircraftDescription(fields[4]);
+        WakeTurbulenceCategory wakeTurbulenceCategory = WakeTurbulenceCategory.of(fields[5]);
+        return new AircraftData(registration, typeDesignator, model, description, wakeTurbulenceCategory);
+    }
+
+    /**
+     * Vérifie si l'entrée donnée du fichier ZIP est l'un des fichiers CSV de la base de données.
+     *
+     * @param entryName le nom de l'entrée.
+     * @return vrai si l'entrée est un fichier CSV, faux sinon.
+     */
+    static boolean isDataEntry(String entryName) {
+        return entryName.endsWith(ENTRY_EXTENSION);
+    }
+
+    /**
+     * Enregistrement LookupStatistics représentant les statistiques des interrogations d'une base de données.
+     *
+     * @param lookups        le nombre d'interrogations.
+     * @param hits           le nombre d'interrogations ayant trouvé un aéronef.
+     * @param filteredMisses le nombre d'interrogations concernant un aéronef absent, détecté comme tel par le filtre
+     *                       des adresses, sans accès au fichier.
+     */
+    public record LookupStatistics(long lookups, long hits, long filteredMisses) {
+
+        /**
+         * Retourne le nombre d'interrogations n'ayant trouvé aucun aéronef, qu'elles aient été filtrées ou non.
+         *
+         * @return le nombre d'interrogations infructueuses.
+         */
+        public long misses() {
+            return lookups - hits;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * La classe AircraftDatabaseCompiler, du sous-paquetage aircraft, publique et finale, est un programme compilant
+ * une base de données d'aéronefs (fichier ZIP) dans le format binaire lu par AircraftDatabase.openCompiled().
+ * <p>
+ * Il prend en arguments le nom du fichier ZIP et celui du fichier compilé, et ne recompile ce dernier que s'il
+ * n'existe pas ou s'il est plus ancien que le fichier ZIP (sauf si l'option --force précède les arguments).
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class AircraftDatabaseCompiler {
+    private static final String FORCE_OPTION = "--force";
+    private static final String USAGE = "Utilisation : AircraftDatabaseCompiler [--force] <fichier ZIP> <fichier compilé>";
+
+    private AircraftDatabaseCompiler() {}
+
+    /**
+     * Méthode main du programme.
+     *
+     * @param args Les arguments du programme : l'option --force (facultative), le nom du fichier ZIP et celui
+     *             du fichier compilé.
+     * @throws IOException Si une erreur se produit lors de la lecture du fichier ZIP ou de l'écriture
+     *                     du fichier compilé.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean force = args.length == 3 && args[0].equals(FORCE_OPTION);
+        if (args.length != (force ? 3 : 2)) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        String zipFileName = args[args.length - 2];
+        Path compiledFile = Path.of(args[args.length - 1]);
+
+        if (!force && CompiledAircraftDatabase.isUpToDate(zipFileName, compiledFile)) {
+            System.out.println(compiledFile + " est à jour");
+            return;
+        }
+        long start = System.nanoTime();
+        CompiledAircraftDatabase.compile(zipFileName, compiledFile);
+        System.out.printf("%s compilé en %d ms%n", compiledFile, (System.nanoTime() - start) / 1_000_000);
+    }
+}
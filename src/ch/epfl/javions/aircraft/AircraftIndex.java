@@ -0,0 +1,241 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * La classe AircraftIndex, du sous-paquetage aircraft, non publique, finale et immuable, représente la totalité
+ * d'une base de données d'aéronefs chargée en mémoire sous forme de colonnes.
+ * <p>
+ * Les valeurs des adresses ICAO sont stockées, triées, dans un tableau d'entiers, dans lequel un aéronef est
+ * recherché par dichotomie. Chacun de ses autres attributs est stocké sous la forme d'un index dans un tableau
+ * (pool) de valeurs distinctes, déjà validées : les types, modèles et descriptions, partagés par de nombreux
+ * aéronefs, ne sont ainsi stockés qu'une seule fois.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+final class AircraftIndex implements AircraftDataSource {
+    private static final WakeTurbulenceCategory[] CATEGORIES = WakeTurbulenceCategory.values();
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final int REGISTRATION = 1, TYPE_DESIGNATOR = 2, MODEL = 3, DESCRIPTION = 4,
+            CATEGORY = 5, FIELDS_COUNT = 6;
+
+    private final int[] addresses;
+    private final int[] registrations, typeDesignators, models, descriptions;
+    private final byte[] categories;
+    private final AircraftRegistration[] registrationPool;
+    private final AircraftTypeDesignator[] typeDesignatorPool;
+    private final String[] modelPool;
+    private final AircraftDescription[] descriptionPool;
+
+    /**
+     * Constructeur privé de la classe AircraftIndex, à partir de colonnes triées par adresse.
+     */
+    private AircraftIndex(int[] addresses, int[] registrations, int[] typeDesignators, int[] models,
+                          int[] descriptions, byte[] categories, AircraftRegistration[] registrationPool,
+                          AircraftTypeDesignator[] typeDesignatorPool, String[] modelPool,
+                          AircraftDescription[] descriptionPool) {
+        this.addresses = addresses;
+        this.registrations = registrations;
+        this.typeDesignators = typeDesignators;
+        this.models = models;
+        this.descriptions = descriptions;
+        this.categories = categories;
+        this.registrationPool = registrationPool;
+        this.typeDesignatorPool = typeDesignatorPool;
+        this.modelPool = modelPool;
+        this.descriptionPool = descriptionPool;
+    }
+
+    /**
+     * Charge en mémoire la totalité de la base de données contenue dans le fichier ZIP donné.
+     *
+     * @param fileName le nom du fichier ZIP contenant la base de données.
+     * @return l'index de la base de données.
+     * @throws IOException          si une erreur se produit lors de la lecture du fichier ZIP.
+     * @throws NullPointerException si le nom de fichier est nul.
+     */
+    static AircraftIndex load(String fileName) throws IOException {
+        Builder builder = new Builder();
+        AircraftDatabase.readLines(fileName, builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Retourne les informations de l'aéronef d'adresse ICAO donnée, recherché par dichotomie.
+     *
+     * @param address l'adresse ICAO de l'aéronef.
+     * @return les informations de l'aéronef, ou null si l'index n'en contient aucune.
+     */
+    @Override
+    public AircraftData get(IcaoAddress address) {
+        int i = Arrays.binarySearch(addresses, address.value());
+        return i < 0 ? null : data(i);
+    }
+
+    /**
+     * Retourne l'ensemble des adresses ICAO des aéronefs de l'index.
+     *
+     * @return l'ensemble des adresses des aéronefs, indexées par leur valeur.
+     */
+    @Override
+    public BitSet addresses() {
+        BitSet set = new BitSet(IcaoAddress.VALUES_COUNT);
+        for (int address : addresses) set.set(address);
+        return set;
+    }
+
+    /**
+     * Retourne la valeur de l'adresse ICAO de l'aéronef d'index donné, les aéronefs étant triés par adresse.
+     *
+     * @param index l'index de l'aéronef.
+     * @return la valeur (24 bits) de l'adresse ICAO de l'aéronef.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    int address(int index) {
+        return addresses[index];
+    }
+
+    /**
+     * Retourne les informations de l'aéronef d'index donné, les aéronefs étant triés par adresse.
+     *
+     * @param index l'index de l'aéronef.
+     * @return les informations de l'aéronef.
+     * @throws IndexOutOfBoundsException si l'index n'est pas compris entre 0 et size() (exclu).
+     */
+    AircraftData data(int index) {
+        return new AircraftData(registrationPool[registrations[index]], typeDesignatorPool[typeDesignators[index]],
+                modelPool[models[index]], descriptionPool[descriptions[index]], CATEGORIES[categories[index]]);
+    }
+
+    /**
+     * Retourne le nombre d'aéronefs de l'index.
+     *
+     * @return le nombre d'aéronefs.
+     */
+    int size() {
+        return addresses.length;
+    }
+
+    /**
+     * Retourne le nombre de valeurs distinctes stockées dans les pools de l'index, toutes colonnes confondues.
+     *
+     * @return le nombre de valeurs distinctes.
+     */
+    int pooledValuesCount() {
+        return registrationPool.length + typeDesignatorPool.length + modelPool.length + descriptionPool.length;
+    }
+
+    /**
+     * Pool des valeurs distinctes d'une colonne, associant à chacune d'entre elles son index.
+     *
+     * @param <T> le type des valeurs (validées) de la colonne.
+     */
+    private static final class Pool<T> {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+        private final Function<String, T> validator;
+
+        private Pool(Function<String, T> validator) {
+            this.validator = validator;
+        }
+
+        private int indexOf(String field) {
+            Integer index = indices.get(field);
+            if (index == null) {
+                index = values.size();
+                values.add(validator.apply(field));
+                indices.put(field, index);
+            }
+            return index;
+        }
+
+        private T[] toArray(T[] array) {
+            return values.toArray(array);
+        }
+    }
+
+    /**
+     * Bâtisseur d'un index, auquel les lignes des fichiers CSV sont ajoutées dans un ordre quelconque.
+     */
+    private static final class Builder {
+        private final Pool<AircraftRegistration> registrationPool = new Pool<>(AircraftRegistration::new);
+        private final Pool<AircraftTypeDesignator> typeDesignatorPool = new Pool<>(AircraftTypeDesignator::new);
+        private final Pool<String> modelPool = new Pool<>(Function.identity());
+        private final Pool<AircraftDescription> descriptionPool = new Pool<>(AircraftDescription::new);
+        private final String[] fields = new String[FIELDS_COUNT];
+        private int[] addresses = new int[INITIAL_CAPACITY];
+        private int[] registrations = new int[INITIAL_CAPACITY], typeDesignators = new int[INITIAL_CAPACITY],
+                models = new int[INITIAL_CAPACITY], descriptions = new int[INITIAL_CAPACITY];
+        private byte[] categories = new byte[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private void add(String line) {
+            split(line);
+            if (size == addresses.length) grow();
+            addresses[size] = AircraftDatabase.addressOf(line);
+            registrations[size] = registrationPool.indexOf(fields[REGISTRATION]);
+            typeDesignators[size] = typeDesignatorPool.indexOf(fields[TYPE_DESIGNATOR]);
+            models[size] = modelPool.indexOf(fields[MODEL]);
+            descriptions[size] = descriptionPool.indexOf(fields[DESCRIPTION]);
+            categories[size] = (byte) WakeTurbulenceCategory.of(fields[CATEGORY]).ordinal();
+            ++size;
+        }
+
+        /* Découpe la ligne dans fields, sans expression régulière ; les champs manquants sont vides. */
+        private void split(String line) {
+            int start = 0;
+            for (int i = 0; i < FIELDS_COUNT; ++i) {
+                int end = line.indexOf(',', start);
+                if (end < 0 || i == FIELDS_COUNT - 1) end = line.length();
+                fields[i] = start <= end ? line.substring(start, end) : "";
+                start = end + 1;
+            }
+        }
+
+        private void grow() {
+            int capacity = addresses.length * 2;
+            addresses = Arrays.copyOf(addresses, capacity);
+            registrations = Arrays.copyOf(registrations, capacity);
+            typeDesignators = Arrays.copyOf(typeDesignators, capacity);
+            models = Arrays.copyOf(models, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+        }
+
+        private AircraftIndex build() {
+            /* Les lignes sont triées par adresse au moyen d'entiers de type long contenant l'adresse (bits 32 à
+             * 55) et l'index de la ligne (bits 0 à 31) ; en cas de doublon, seule la première ligne est gardée,
+             * comme lors de la lecture directe du fichier. */
+            long[] order = new long[size];
+            for (int i = 0; i < size; ++i) order[i] = ((long) addresses[i] << Integer.SIZE) | i;
+            Arrays.sort(order);
+
+            int count = 0;
+            for (int i = 0; i < size; ++i) {
+                if (i == 0 || (order[i] >>> Integer.SIZE) != (order[count - 1] >>> Integer.SIZE))
+                    order[count++] = order[i];
+            }
+
+            int[] sortedAddresses = new int[count];
+            int[] sortedRegistrations = new int[count], sortedTypeDesignators = new int[count],
+                    sortedModels = new int[count], sortedDescriptions = new int[count];
+            byte[] sortedCategories = new byte[count];
+            for (int i = 0; i < count; ++i) {
+                int row = (int) order[i];
+                sortedAddresses[i] = addresses[row];
+                sortedRegistrations[i] = registrations[row];
+                sortedTypeDesignators[i] = typeDesignators[row];
+                sortedModels[i] = models[row];
+                sortedDescriptions[i] = descriptions[row];
+                sortedCategories[i] = categories[row];
+            }
+            return new AircraftIndex(sortedAddresses, sortedRegistrations, sortedTypeDesignators, sortedModels,
+                    sortedDescriptions, sortedCategories, registrationPool.toArray(new AircraftRegistration[0]),
+                    typeDesignatorPool.toArray(new AircraftTypeDesignator[0]), modelPool.toArray(new String[0]),
+                    descriptionPool.toArray(new AircraftDescription[0]));
+        }
+    }
+}
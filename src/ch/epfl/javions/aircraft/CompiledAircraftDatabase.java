@@ -0,0 +1,262 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * La classe CompiledAircraftDatabase, du sous-paquetage aircraft, non publique, finale et immuable, représente
+ * une base de données d'aéronefs compilée dans un fichier binaire, projeté en mémoire (FileChannel.map).
+ * <p>
+ * Le fichier est formé, dans l'ordre (les entiers étant stockés en big endian) :
+ * <ul>
+ *     <li>d'un en-tête de 3 entiers : le nombre magique MAGIC, la version du format et le nombre n d'aéronefs,</li>
+ *     <li>des n valeurs (entiers) des adresses ICAO des aéronefs, triées,</li>
+ *     <li>de 4 entiers par aéronef, dans le même ordre : la position dans le tas (voir ci-dessous) de son
+ *     immatriculation, de son indicateur de type, de son modèle et de sa description,</li>
+ *     <li>d'un octet par aéronef, dans le même ordre : l'index (ordinal) de sa catégorie de turbulence,</li>
+ *     <li>du tas des chaînes, chacune stockée une seule fois sous la forme de sa longueur en octets (entier
+ *     non signé de 16 bits) suivie de ses octets (UTF-8).</li>
+ * </ul>
+ * L'ouverture du fichier ne lit donc rien, les pages étant chargées par le système d'exploitation au fil des
+ * recherches, et partagées par tous les processus qui l'ouvrent. Seules les chaînes de l'aéronef trouvé sont copiées.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+final class CompiledAircraftDatabase implements AircraftDataSource {
+    /* Le nombre magique du format, les caractères ASCII "JVAD". */
+    private static final int MAGIC = 0x4A564144;
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0, VERSION_OFFSET = 4, COUNT_OFFSET = 8, HEADER_SIZE = 12;
+    private static final int STRINGS_PER_AIRCRAFT = 4;
+    private static final int REGISTRATION = 0, TYPE_DESIGNATOR = 1, MODEL = 2, DESCRIPTION = 3;
+    private static final int MAX_STRING_LENGTH = (1 << Short.SIZE) - 1;
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final WakeTurbulenceCategory[] CATEGORIES = WakeTurbulenceCategory.values();
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int stringsOffset, categoriesOffset;
+
+    /**
+     * Constructeur privé de la classe CompiledAircraftDatabase, à partir du contenu (validé) du fichier.
+     *
+     * @param buffer le contenu du fichier.
+     */
+    private CompiledAircraftDatabase(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(COUNT_OFFSET);
+        this.stringsOffset = HEADER_SIZE + count * Integer.BYTES;
+        this.categoriesOffset = stringsOffset + count * STRINGS_PER_AIRCRAFT * Integer.BYTES;
+    }
+
+    /**
+     * Ouvre la base de données compilée dans le fichier donné, après l'avoir (re)compilée à partir du fichier ZIP
+     * donné si elle n'existe pas, si elle est plus ancienne que le fichier ZIP ou si son format n'est pas
+     * celui attendu.
+     *
+     * @param zipFileName  le nom du fichier ZIP contenant la base de données.
+     * @param compiledFile le chemin du fichier compilé.
+     * @return la base de données compilée.
+     * @throws IOException          si une erreur se produit lors de la compilation ou de l'ouverture du fichier.
+     * @throws NullPointerException si le nom du fichier ZIP ou le chemin du fichier compilé est nul.
+     */
+    static CompiledAircraftDatabase open(String zipFileName, Path compiledFile) throws IOException {
+        Objects.requireNonNull(zipFileName);
+        if (isUpToDate(zipFileName, compiledFile)) {
+            CompiledAircraftDatabase database = map(compiledFile);
+            if (database != null) return database;
+        }
+        compile(zipFileName, compiledFile);
+        CompiledAircraftDatabase database = map(compiledFile);
+        if (database == null) throw new IOException("Invalid compiled aircraft database: " + compiledFile);
+        return database;
+    }
+
+    /**
+     * Vérifie si le fichier compilé donné existe et n'est pas plus ancien que le fichier ZIP donné.
+     *
+     * @param zipFileName  le nom du fichier ZIP contenant la base de données.
+     * @param compiledFile le chemin du fichier compilé.
+     * @return vrai si le fichier compilé est à jour, faux sinon.
+     * @throws IOException si une erreur se produit lors de l'accès aux dates de modification des fichiers.
+     */
+    static boolean isUpToDate(String zipFileName, Path compiledFile) throws IOException {
+        return Files.exists(compiledFile)
+                && Files.getLastModifiedTime(compiledFile).compareTo(Files.getLastModifiedTime(Path.of(zipFileName))) >= 0;
+    }
+
+    /**
+     * Compile la base de données contenue dans le fichier ZIP donné dans le fichier donné. Le fichier est d'abord
+     * écrit dans un fichier temporaire (propre à cette compilation) à côté de sa destination, puis renommé, si bien
+     * qu'il n'est jamais visible partiellement écrit ; le fichier temporaire est supprimé en cas d'erreur.
+     *
+     * @param zipFileName  le nom du fichier ZIP contenant la base de données.
+     * @param compiledFile le chemin du fichier compilé.
+     * @throws IOException si une erreur se produit lors de la lecture du fichier ZIP ou de l'écriture du fichier.
+     */
+    static void compile(String zipFileName, Path compiledFile) throws IOException {
+        AircraftIndex index = AircraftIndex.load(zipFileName);
+        int count = index.size();
+
+        /* Construction du tas, chaque chaîne n'y figurant qu'une fois */
+        Map<String, Integer> heapOffsets = new HashMap<>();
+        int heapStart = HEADER_SIZE + count * (Integer.BYTES + STRINGS_PER_AIRCRAFT * Integer.BYTES + Byte.BYTES);
+        int[] strings = new int[count * STRINGS_PER_AIRCRAFT];
+        byte[] categories = new byte[count];
+        ByteArrayOutputStream heap = new ByteArrayOutputStream();
+        for (int i = 0; i < count; ++i) {
+            AircraftData data = index.data(i);
+            String[] fields = new String[STRINGS_PER_AIRCRAFT];
+            fields[REGISTRATION] = data.registration().string();
+            fields[TYPE_DESIGNATOR] = data.typeDesignator().string();
+            fields[MODEL] = data.model();
+            fields[DESCRIPTION] = data.description().string();
+            for (int f = 0; f < STRINGS_PER_AIRCRAFT; ++f) {
+                Integer offset = heapOffsets.get(fields[f]);
+                if (offset == null) {
+                    byte[] bytes = fields[f].getBytes(UTF_8);
+                    if (bytes.length > MAX_STRING_LENGTH) throw new IOException("String too long: " + fields[f]);
+                    offset = heapStart + heap.size();
+                    heap.write(bytes.length >>> Byte.SIZE);
+                    heap.write(bytes.length);
+                    heap.writeBytes(bytes);
+                    heapOffsets.put(fields[f], offset);
+                }
+                strings[i * STRINGS_PER_AIRCRAFT + f] = offset;
+            }
+            categories[i] = (byte) data.wakeTurbulenceCategory().ordinal();
+        }
+
+        /* Chaque compilation écrit dans son propre fichier temporaire, afin que des processus compilant
+         * simultanément la base de données ne mélangent pas leurs écritures. */
+        Path absoluteFile = compiledFile.toAbsolutePath();
+        Path temporaryFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(),
+                TEMPORARY_SUFFIX);
+        try {
+            try (DataOutputStream s = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                s.writeInt(MAGIC);
+                s.writeInt(VERSION);
+                s.writeInt(count);
+                for (int i = 0; i < count; ++i) s.writeInt(index.address(i));
+                for (int offset : strings) s.writeInt(offset);
+                s.write(categories);
+                heap.writeTo(s);
+            }
+            Files.move(temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Projette en mémoire le fichier compilé donné.
+     *
+     * @param compiledFile le chemin du fichier compilé.
+     * @return la base de données compilée, ou null si le fichier n'a pas le format attendu.
+     * @throws IOException si une erreur se produit lors de l'ouverture du fichier.
+     */
+    private static CompiledAircraftDatabase map(Path compiledFile) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(compiledFile, StandardOpenOption.READ)) {
+            /* La projection reste valide après la fermeture du canal */
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE
+                || buffer.getInt(MAGIC_OFFSET) != MAGIC
+                || buffer.getInt(VERSION_OFFSET) != VERSION) return null;
+        long count = buffer.getInt(COUNT_OFFSET);
+        long minSize = HEADER_SIZE + count * (Integer.BYTES + STRINGS_PER_AIRCRAFT * Integer.BYTES + Byte.BYTES);
+        return count >= 0 && buffer.capacity() >= minSize ? new CompiledAircraftDatabase(buffer) : null;
+    }
+
+    /**
+     * Retourne les informations de l'aéronef d'adresse ICAO donnée, recherché par dichotomie dans le fichier.
+     *
+     * @param address l'adresse ICAO de l'aéronef.
+     * @return les informations de l'aéronef, ou null si le fichier n'en contient aucune.
+     */
+    @Override
+    public AircraftData get(IcaoAddress address) {
+        int value = address.value();
+        int low = 0, high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleValue = buffer.getInt(HEADER_SIZE + middle * Integer.BYTES);
+            if (middleValue < value) low = middle + 1;
+            else if (middleValue > value) high = middle - 1;
+            else return data(middle);
+        }
+        return null;
+    }
+
+    /**
+     * Retourne l'ensemble des adresses ICAO des aéronefs du fichier.
+     *
+     * @return l'ensemble des adresses des aéronefs, indexées par leur valeur.
+     */
+    @Override
+    public BitSet addresses() {
+        BitSet set = new BitSet(IcaoAddress.VALUES_COUNT);
+        for (int i = 0; i < count; ++i) set.set(buffer.getInt(HEADER_SIZE + i * Integer.BYTES));
+        return set;
+    }
+
+    /**
+     * Retourne le nombre d'aéronefs du fichier.
+     *
+     * @return le nombre d'aéronefs.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Retourne les informations de l'aéronef d'index donné.
+     *
+     * @param index l'index de l'aéronef.
+     * @return les informations de l'aéronef.
+     */
+    private AircraftData data(int index) {
+        int strings = stringsOffset + index * STRINGS_PER_AIRCRAFT * Integer.BYTES;
+        return new AircraftData(
+                new AircraftRegistration(string(strings, REGISTRATION)),
+                new AircraftTypeDesignator(string(strings, TYPE_DESIGNATOR)),
+                string(strings, MODEL),
+                new AircraftDescription(string(strings, DESCRIPTION)),
+                CATEGORIES[buffer.get(categoriesOffset + index)]);
+    }
+
+    /**
+     * Retourne la chaîne d'index donné parmi celles d'un aéronef, lue dans le tas.
+     *
+     * @param strings la position des positions des chaînes de l'aéronef.
+     * @param field   l'index de la chaîne parmi celles de l'aéronef.
+     * @return la chaîne.
+     */
+    private String string(int strings, int field) {
+        int offset = buffer.getInt(strings + field * Integer.BYTES);
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        byte[] bytes = new byte[length];
+        /* Lecture à une position absolue, sans modifier l'état du tampon partagé par les fils */
+        buffer.get(offset + Short.BYTES, bytes);
+        return new String(bytes, UTF_8);
+    }
+}
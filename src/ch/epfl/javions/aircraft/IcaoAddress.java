@@ -2,32 +2,139 @@ package ch.epfl.javions.aircraft;
 
 import ch.epfl.javions.Preconditions;
 
-import java.util.regex.Pattern;
+import java.util.HexFormat;
 
 
 /**
- * L'enregistrement IcaoAddress, du sous-paquetage aircraft, public,
+ * La classe IcaoAddress, du sous-paquetage aircraft, publique, finale et immuable,
  * représente l'adresse ICAO d'un véhicule aérien.
- *
- * @param string la chaîne contenant la représentation textuelle de l'adresse ICAO.
+ * <p>
+ * L'adresse est stockée sous la forme de sa valeur (un entier de 24 bits), qui sert également à la comparer
+ * et à calculer sa valeur de hachage ; sa représentation textuelle n'est calculée que si elle est demandée.
+ * La méthode of() retourne, pour une valeur donnée, toujours la même instance, mémorisée dans un cache
+ * dont les pages sont allouées au fur et à mesure des adresses rencontrées.
  *
  * @author Adam AIT BOUSSELHAM (356365)
  * @author Abdellah JANATI IDRISSI (362341)
  */
-public record IcaoAddress(String string) {
-    private static final Pattern PATTERN = Pattern.compile("[0-9A-F]{6}");
+public final class IcaoAddress {
+
+    /**
+     * Le nombre d'adresses ICAO distinctes (2^24), les valeurs des adresses étant comprises entre 0 et ce nombre (exclu).
+     */
+    public static final int VALUES_COUNT = 1 << 24;
+    private static final int STRING_LENGTH = 6;
+    private static final int VALUE_SIZE = 24;
+    private static final int PAGE_SIZE_LOG2 = 12;
+    private static final int PAGE_MASK = (1 << PAGE_SIZE_LOG2) - 1;
+    private static final HexFormat HEX_FORMAT = HexFormat.of().withUpperCase();
+    /* Le cache des instances, dont la page d'index i contient les adresses dont les 12 bits de poids fort valent i.
+     * Les accès concurrents sont sans danger : au pire, deux instances égales sont créées pour une même adresse. */
+    private static final IcaoAddress[][] CACHE = new IcaoAddress[1 << (VALUE_SIZE - PAGE_SIZE_LOG2)][];
+
+    private final int value;
+    private String string;
 
     /**
-     * Le constructeur compact de cet enregistrement valide la chaîne qui lui est passée et lève
+     * Constructeur public de la classe IcaoAddress, qui valide la chaîne qui lui est passée et lève
      * "IllegalArgumentException" si elle ne représente pas une adresse ICAO valide.
      *
-     * @throws IllegalArgumentException Si une chaîne n'est pas conforme à une expression régulière
-     *                                  (pour verifier cela on utilise certaines méthodes des classes Pattern
-     *                                  et Matcher ainsi que la méthode checkArgument()).
+     * @param string la chaîne contenant la représentation textuelle de l'adresse ICAO.
+     * @throws IllegalArgumentException Si la chaîne n'est pas formée de 6 chiffres hexadécimaux majuscules.
      * @throws IllegalArgumentException Si cette chaine est vide.
      */
-    public IcaoAddress {
-        Preconditions.checkArgument(PATTERN.matcher(string).matches());
+    public IcaoAddress(String string) {
+        Preconditions.checkArgument(string.length() == STRING_LENGTH);
+        for (int i = 0; i < STRING_LENGTH; ++i) {
+            char c = string.charAt(i);
+            Preconditions.checkArgument(('0' <= c && c <= '9') || ('A' <= c && c <= 'F'));
+        }
+        this.value = HexFormat.fromHexDigits(string);
+        this.string = string;
+    }
+
+    /**
+     * Constructeur privé de la classe IcaoAddress, à partir de la valeur de l'adresse.
+     *
+     * @param value la valeur (24 bits) de l'adresse ICAO.
+     */
+    private IcaoAddress(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Méthode qui retourne l'adresse ICAO de valeur donnée, toujours la même instance pour une même valeur.
+     *
+     * @param value la valeur (24 bits) de l'adresse ICAO.
+     * @return l'adresse ICAO.
+     * @throws IllegalArgumentException si la valeur n'est pas comprise entre 0 et 2^24 (exclu).
+     */
+    public static IcaoAddress of(int value) {
+        Preconditions.checkArgument(value >>> VALUE_SIZE == 0);
+        IcaoAddress[] page = CACHE[value >>> PAGE_SIZE_LOG2];
+        if (page == null) {
+            page = new IcaoAddress[PAGE_MASK + 1];
+            CACHE[value >>> PAGE_SIZE_LOG2] = page;
+        }
+        IcaoAddress address = page[value & PAGE_MASK];
+        if (address == null) {
+            address = new IcaoAddress(value);
+            page[value & PAGE_MASK] = address;
+        }
+        return address;
+    }
+
+    /**
+     * Méthode qui retourne la valeur de l'adresse ICAO.
+     *
+     * @return la valeur (24 bits) de l'adresse ICAO.
+     */
+    public int value() {
+        return value;
     }
 
-}
\ No newline at end of file
+    /**
+     * Méthode qui retourne la représentation textuelle de l'adresse ICAO.
+     *
+     * @return la chaîne de 6 chiffres hexadécimaux majuscules représentant l'adresse ICAO.
+     */
+    public String string() {
+        String s = string;
+        if (s == null) {
+            s = HEX_FORMAT.toHexDigits(value, STRING_LENGTH);
+            string = s;
+        }
+        return s;
+    }
+
+    /**
+     * Override de la méthode equals pour la classe IcaoAddress.
+     *
+     * @param obj L'objet que l'on souhaite comparer à cette adresse.
+     * @return vrai si et seulement si l'objet est une adresse ICAO de même valeur.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof IcaoAddress that && value == that.value;
+    }
+
+    /**
+     * Override de la méthode hashCode pour la classe IcaoAddress.
+     *
+     * @return la valeur de hachage de l'adresse, c.-à-d. sa valeur.
+     */
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    /**
+     * Override de la méthode toString pour la classe IcaoAddress.
+     *
+     * @return la représentation de l'adresse, au même format que celle d'un enregistrement.
+     */
+    @Override
+    public String toString() {
+        return "IcaoAddress[string=" + string() + "]";
+    }
+}
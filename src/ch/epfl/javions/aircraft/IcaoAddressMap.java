@@ -0,0 +1,240 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.javions.Preconditions;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * La classe IcaoAddressMap, du sous-paquetage aircraft, publique et finale, représente une table associative
+ * dont les clefs sont les valeurs (24 bits) des adresses ICAO, sans objet par clef ni par entrée.
+ * <p>
+ * La table est à adressage ouvert et sondage linéaire : les clefs et les valeurs sont stockées dans deux tableaux
+ * parallèles, dont la taille est une puissance de deux, au moins deux fois supérieure au nombre d'entrées.
+ * Les suppressions décalent vers l'arrière les entrées suivantes de la même grappe, si bien que la table
+ * ne contient jamais de marqueurs d'entrées supprimées.
+ *
+ * @param <V> Le type des valeurs de la table.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class IcaoAddressMap<V> {
+    private static final int EMPTY = -1;
+    private static final int ADDRESS_SIZE = 24;
+    private static final int MIN_CAPACITY = 16;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    /**
+     * Constructeur public de la classe IcaoAddressMap, qui crée une table vide.
+     */
+    public IcaoAddressMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Méthode qui retourne le nombre d'entrées de la table.
+     *
+     * @return le nombre d'entrées de la table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Méthode qui retourne la valeur associée à l'adresse donnée.
+     *
+     * @param address La valeur (24 bits) de l'adresse ICAO.
+     * @return la valeur associée à l'adresse, ou null si la table n'en contient aucune.
+     * @throws IllegalArgumentException si l'adresse n'est pas une valeur de 24 bits.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int address) {
+        int slot = slotOf(checkAddress(address));
+        return keys[slot] == EMPTY ? null : (V) values[slot];
+    }
+
+    /**
+     * Méthode qui associe la valeur donnée à l'adresse donnée, en remplaçant la valeur qui lui était
+     * éventuellement associée.
+     *
+     * @param address La valeur (24 bits) de l'adresse ICAO.
+     * @param value   La valeur à associer à l'adresse.
+     * @return la valeur précédemment associée à l'adresse, ou null s'il n'y en avait aucune.
+     * @throws IllegalArgumentException si l'adresse n'est pas une valeur de 24 bits.
+     * @throws NullPointerException     si la valeur est nulle.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int address, V value) {
+        Objects.requireNonNull(value);
+        int slot = slotOf(checkAddress(address));
+        if (keys[slot] == address) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        keys[slot] = address;
+        values[slot] = value;
+        size += 1;
+        /* Le facteur de charge est maintenu au plus à 1/2, afin que les grappes restent courtes. */
+        if (2 * size > keys.length) resize(2 * keys.length);
+        return null;
+    }
+
+    /**
+     * Méthode qui supprime l'entrée de la table associée à l'adresse donnée.
+     *
+     * @param address La valeur (24 bits) de l'adresse ICAO.
+     * @return la valeur qui était associée à l'adresse, ou null s'il n'y en avait aucune.
+     * @throws IllegalArgumentException si l'adresse n'est pas une valeur de 24 bits.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int address) {
+        int slot = slotOf(checkAddress(address));
+        if (keys[slot] == EMPTY) return null;
+        V previous = (V) values[slot];
+        removeSlot(slot);
+        return previous;
+    }
+
+    /**
+     * Méthode qui supprime de la table toutes les entrées dont la valeur satisfait le prédicat donné,
+     * en parcourant une seule fois les tableaux de la table, dans l'ordre, et sans rien allouer.
+     * Le prédicat est appliqué exactement une fois à chaque valeur.
+     * <p>
+     * AircraftStateManager supprimant ses aéronefs un à un au moyen de remove, cette méthode n'a pas d'appelant
+     * dans l'application : elle est gardée comme opération générale de la table.
+     *
+     * @param filter Le prédicat.
+     * @return Vrai si au moins une entrée a été supprimée, faux sinon.
+     * @throws NullPointerException si le prédicat est nul.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super V> filter) {
+        Objects.requireNonNull(filter);
+        int mask = keys.length - 1;
+        /* Le parcours commence juste après une case vide (il y en a toujours une), qu'aucune grappe
+         * ne traverse : les décalages dus aux suppressions ne ramènent donc jamais une entrée dans
+         * une case déjà parcourue. */
+        int start = 0;
+        while (keys[start] != EMPTY) ++start;
+
+        boolean removed = false;
+        for (int i = 1; i <= keys.length; ) {
+            int slot = (start + i) & mask;
+            if (keys[slot] != EMPTY && filter.test((V) values[slot])) {
+                /* La case reçoit éventuellement l'entrée suivante de la grappe, qui doit être examinée. */
+                removeSlot(slot);
+                removed = true;
+            } else {
+                ++i;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Méthode qui supprime toutes les entrées de la table.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Méthode qui retourne la case contenant l'adresse donnée, ou la case vide où elle serait insérée.
+     *
+     * @param address La valeur de l'adresse ICAO.
+     * @return l'index de la case.
+     */
+    private int slotOf(int address) {
+        int mask = keys.length - 1;
+        int slot = home(address, mask);
+        while (keys[slot] != EMPTY && keys[slot] != address) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Méthode qui retourne la case initiale (avant sondage) de l'adresse donnée.
+     *
+     * @param address La valeur de l'adresse ICAO.
+     * @param mask    Le masque des index des cases (leur nombre moins un).
+     * @return l'index de la case initiale.
+     */
+    private static int home(int address, int mask) {
+        /* Hachage de Fibonacci : seuls les bits de poids fort du produit dépendent de tous les bits de l'adresse,
+         * on garde donc les log2(taille) bits de poids le plus fort (mask valant 2^k - 1, il a 32 - k zéros de tête). */
+        return address * HASH_MULTIPLIER >>> Integer.numberOfLeadingZeros(mask);
+    }
+
+    /**
+     * Méthode qui vide la case donnée, puis décale vers l'arrière les entrées suivantes de sa grappe
+     * qui peuvent l'être, afin qu'aucune d'entre elles ne devienne inaccessible.
+     *
+     * @param slot L'index de la case à vider.
+     */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            /* L'entrée peut combler le trou si sa case initiale ne se trouve pas (cycliquement)
+             * strictement entre le trou et elle. */
+            int home = home(keys[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        size -= 1;
+    }
+
+    /**
+     * Méthode qui remplace les tableaux de la table par des tableaux de taille donnée, et y réinsère les entrées.
+     *
+     * @param capacity La nouvelle taille des tableaux, une puissance de deux.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Méthode qui alloue des tableaux vides de taille donnée.
+     *
+     * @param capacity La taille des tableaux, une puissance de deux.
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[capacity];
+    }
+
+    /**
+     * Méthode qui vérifie que la valeur donnée est celle d'une adresse ICAO.
+     *
+     * @param address La valeur à vérifier.
+     * @return la valeur.
+     * @throws IllegalArgumentException si la valeur n'est pas une valeur de 24 bits.
+     */
+    private static int checkAddress(int address) {
+        Preconditions.checkArgument(address >>> ADDRESS_SIZE == 0);
+        return address;
+    }
+}
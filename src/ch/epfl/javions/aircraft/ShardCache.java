@@ -0,0 +1,421 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * La classe ShardCache, du sous-paquetage aircraft, non publique et finale, représente un cache des fichiers CSV
+ * (shards) d'une base de données d'aéronefs, chacun contenant les aéronefs dont l'adresse se termine par les deux
+ * mêmes chiffres hexadécimaux.
+ * <p>
+ * Un shard est lu et analysé en totalité la première fois qu'un de ses aéronefs est recherché, puis conservé en
+ * mémoire sous la forme d'un tableau trié, dans lequel les recherches suivantes se font par dichotomie. La taille
+ * totale (estimée) des shards en mémoire est limitée par un budget : lorsqu'il est dépassé, les shards les plus froids
+ * sont supprimés. La température d'un shard est le nombre de recherches le concernant, divisé par deux à intervalles
+ * réguliers afin de privilégier les recherches récentes.
+ * <p>
+ * Lorsque le budget est atteint, un shard n'est admis en mémoire que s'il est plus chaud que le plus froid des shards
+ * qui s'y trouvent ; sinon, l'aéronef est recherché en parcourant le fichier CSV, comme le fait AircraftDatabase
+ * sans cache. Cela évite que des recherches réparties sur tous les shards, avec un budget trop faible pour les
+ * contenir tous, n'entraînent la lecture complète d'un shard à chaque recherche.
+ * <p>
+ * Périodiquement, ainsi qu'après chaque lecture d'un shard, les shards absents de la mémoire sont préchargés en
+ * arrière-plan, du plus chaud au plus froid, tant que le budget n'est pas atteint, ou s'ils sont plus chauds que
+ * le plus froid des shards en mémoire (qu'ils remplacent alors). Une recherche ne lit donc elle-même un shard que
+ * s'il n'a pas encore été préchargé.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+final class ShardCache implements AircraftDataSource {
+    private static final int SHARDS_COUNT = 1 << Byte.SIZE;
+    private static final int SHARD_MASK = SHARDS_COUNT - 1;
+    /* Nombre de recherches entre deux divisions par deux des températures. */
+    private static final int DECAY_PERIOD = 1 << 12;
+    /* Nombre de recherches entre deux préchargements. */
+    private static final int PREFETCH_PERIOD = 1 << 8;
+    private static final String THREAD_NAME = "aircraft-shard-prefetcher";
+
+    private final String fileName;
+    private final long memoryBudget;
+    private final Executor prefetchExecutor;
+    private final Shard[] shards = new Shard[SHARDS_COUNT];
+    private final List<FutureTask<Shard>> loading = new ArrayList<>(SHARDS_COUNT);
+    private final int[] temperatures = new int[SHARDS_COUNT];
+    private long memoryUsage;
+    private int loadedShardsCount;
+    private long lookupsCount;
+    private boolean prefetchScheduled;
+    private long loadsCount, evictionsCount;
+
+    /**
+     * Constructeur de la classe ShardCache.
+     *
+     * @param fileName         le nom du fichier ZIP contenant la base de données.
+     * @param memoryBudget     la taille totale maximale (estimée, en octets) des shards en mémoire.
+     * @param prefetchExecutor l'exécuteur des préchargements.
+     * @throws NullPointerException     si le nom de fichier ou l'exécuteur est nul.
+     * @throws IllegalArgumentException si le budget n'est pas strictement positif.
+     */
+    ShardCache(String fileName, long memoryBudget, Executor prefetchExecutor) {
+        Preconditions.checkArgument(memoryBudget > 0);
+        this.fileName = Objects.requireNonNull(fileName);
+        this.memoryBudget = memoryBudget;
+        this.prefetchExecutor = Objects.requireNonNull(prefetchExecutor);
+        for (int i = 0; i < SHARDS_COUNT; ++i) loading.add(null);
+    }
+
+    /**
+     * Retourne un cache préchargeant les shards sur son propre fil d'exécution (un fil démon, qui n'empêche pas
+     * l'application de se terminer).
+     *
+     * @param fileName     le nom du fichier ZIP contenant la base de données.
+     * @param memoryBudget la taille totale maximale (estimée, en octets) des shards en mémoire.
+     * @return le cache.
+     * @throws NullPointerException     si le nom de fichier est nul.
+     * @throws IllegalArgumentException si le budget n'est pas strictement positif.
+     */
+    static ShardCache inBackground(String fileName, long memoryBudget) {
+        Executor prefetchExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new ShardCache(fileName, memoryBudget, prefetchExecutor);
+    }
+
+    /**
+     * Retourne les informations de l'aéronef d'adresse ICAO donnée, recherché dans son shard, qui est lu au
+     * préalable s'il n'est pas en mémoire.
+     *
+     * @param address l'adresse ICAO de l'aéronef.
+     * @return les informations de l'aéronef, ou null si la base de données n'en contient aucune.
+     * @throws IOException si une erreur se produit lors de la lecture du shard.
+     */
+    @Override
+    public AircraftData get(IcaoAddress address) throws IOException {
+        int index = address.value() & SHARD_MASK;
+        Shard shard;
+        FutureTask<Shard> task = null;
+        synchronized (this) {
+            temperatures[index] += 1;
+            lookupsCount += 1;
+            if (lookupsCount % DECAY_PERIOD == 0) {
+                for (int i = 0; i < SHARDS_COUNT; ++i) temperatures[i] >>>= 1;
+            }
+            if (lookupsCount % PREFETCH_PERIOD == 0) schedulePrefetch();
+            shard = shards[index];
+            if (shard == null && admits(index)) task = loadingTask(index);
+        }
+        if (shard == null) {
+            if (task == null) return AircraftDatabase.scan(fileName, address);
+            shard = await(task);
+            synchronized (this) {
+                schedulePrefetch();
+            }
+        }
+        return shard.get(address.value());
+    }
+
+    /**
+     * Retourne le nombre de shards en mémoire.
+     *
+     * @return le nombre de shards en mémoire.
+     */
+    synchronized int loadedShardsCount() {
+        return loadedShardsCount;
+    }
+
+    /**
+     * Retourne la taille totale (estimée, en octets) des shards en mémoire.
+     *
+     * @return la taille totale des shards en mémoire.
+     */
+    synchronized long memoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Retourne le nombre de lectures de shards (à la demande ou préchargements) effectuées.
+     *
+     * @return le nombre de lectures de shards.
+     */
+    synchronized long loadsCount() {
+        return loadsCount;
+    }
+
+    /**
+     * Retourne le nombre de shards supprimés de la mémoire afin de respecter le budget.
+     *
+     * @return le nombre de shards supprimés.
+     */
+    synchronized long evictionsCount() {
+        return evictionsCount;
+    }
+
+    /**
+     * Vérifie si le shard d'index donné, absent de la mémoire, doit y être ajouté : s'il est en cours de lecture,
+     * si le budget permet de l'ajouter (d'après la taille moyenne des shards en mémoire) ou s'il est plus chaud que le
+     * plus froid des shards en mémoire. Doit être appelée en détenant le verrou du cache.
+     *
+     * @param index l'index du shard.
+     * @return vrai si le shard doit être ajouté à la mémoire, faux sinon.
+     */
+    private boolean admits(int index) {
+        if (loading.get(index) != null || hasRoomForShard()) return true;
+        int coldest = coldestLoadedShard(-1);
+        return coldest < 0 || temperatures[index] > temperatures[coldest];
+    }
+
+    /**
+     * Vérifie si le budget permet d'ajouter un shard de taille moyenne (celle des shards en mémoire) à la mémoire.
+     * Doit être appelée en détenant le verrou du cache.
+     *
+     * @return vrai si le budget permet d'ajouter un shard, faux sinon.
+     */
+    private boolean hasRoomForShard() {
+        long averageSize = loadedShardsCount == 0 ? 0 : memoryUsage / loadedShardsCount;
+        return memoryUsage + averageSize <= memoryBudget;
+    }
+
+    /**
+     * Retourne la tâche de lecture du shard d'index donné, en la créant si aucune lecture n'est en cours.
+     * Tout fil qui a besoin du shard exécute cette tâche (qui ne fait rien si elle est déjà en cours d'exécution
+     * ou terminée) puis attend son résultat, si bien qu'un shard n'est jamais lu deux fois simultanément.
+     * Doit être appelée en détenant le verrou du cache.
+     *
+     * @param index l'index du shard.
+     * @return la tâche de lecture du shard.
+     */
+    private FutureTask<Shard> loadingTask(int index) {
+        FutureTask<Shard> task = loading.get(index);
+        if (task == null) {
+            task = new FutureTask<>(() -> load(index));
+            loading.set(index, task);
+        }
+        return task;
+    }
+
+    /**
+     * Exécute la tâche de lecture donnée, si ce n'est pas déjà fait, et retourne le shard lu.
+     *
+     * @param task la tâche de lecture du shard.
+     * @return le shard.
+     * @throws IOException si une erreur se produit lors de la lecture du shard.
+     */
+    private static Shard await(FutureTask<Shard> task) throws IOException {
+        task.run();
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) throw ioException;
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new Error(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Lit le shard d'index donné et l'ajoute à la mémoire, en supprimant si nécessaire les shards les plus froids.
+     *
+     * @param index l'index du shard.
+     * @return le shard.
+     * @throws IOException si une erreur se produit lors de la lecture du shard.
+     */
+    private Shard load(int index) throws IOException {
+        Shard shard;
+        try {
+            shard = Shard.read(fileName, index);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                loading.set(index, null);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            loading.set(index, null);
+            shards[index] = shard;
+            memoryUsage += shard.estimatedSize;
+            loadedShardsCount += 1;
+            loadsCount += 1;
+
+            while (memoryUsage > memoryBudget) {
+                int coldest = coldestLoadedShard(index);
+                if (coldest < 0) break;
+                memoryUsage -= shards[coldest].estimatedSize;
+                shards[coldest] = null;
+                loadedShardsCount -= 1;
+                evictionsCount += 1;
+            }
+        }
+        return shard;
+    }
+
+    /**
+     * Retourne l'index du plus froid des shards en mémoire, à l'exception de celui d'index donné.
+     * Doit être appelée en détenant le verrou du cache.
+     *
+     * @param excluded l'index du shard exclu, ou -1.
+     * @return l'index du plus froid des shards en mémoire, ou -1 s'il n'y en a aucun.
+     */
+    private int coldestLoadedShard(int excluded) {
+        int coldest = -1;
+        for (int i = 0; i < SHARDS_COUNT; ++i) {
+            if (i != excluded && shards[i] != null && (coldest < 0 || temperatures[i] < temperatures[coldest]))
+                coldest = i;
+        }
+        return coldest;
+    }
+
+    /**
+     * Fait précharger les shards en arrière-plan, si aucun préchargement n'est déjà prévu.
+     * Doit être appelée en détenant le verrou du cache.
+     */
+    private void schedulePrefetch() {
+        if (prefetchScheduled) return;
+        prefetchScheduled = true;
+        prefetchExecutor.execute(this::prefetch);
+    }
+
+    /**
+     * Précharge les shards absents de la mémoire, du plus chaud au plus froid, tant que le budget n'est pas atteint
+     * ou qu'ils sont plus chauds que le plus froid des shards en mémoire. Chaque shard est préchargé au plus une fois,
+     * afin que le préchargement se termine même si des shards ne cessent de se remplacer.
+     */
+    private void prefetch() {
+        boolean[] visited = new boolean[SHARDS_COUNT];
+        while (true) {
+            FutureTask<Shard> task;
+            synchronized (this) {
+                int candidate = prefetchCandidate(visited);
+                if (candidate < 0) {
+                    prefetchScheduled = false;
+                    return;
+                }
+                visited[candidate] = true;
+                task = loadingTask(candidate);
+            }
+            try {
+                await(task);
+            } catch (IOException | RuntimeException e) {
+                /* L'erreur sera signalée par la prochaine recherche dans ce shard */
+                synchronized (this) {
+                    prefetchScheduled = false;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retourne l'index du prochain shard à précharger : le plus chaud des shards absents de la mémoire, non visités
+     * et dont aucune lecture n'est en cours, s'il doit être ajouté à la mémoire (voir admits()).
+     * Doit être appelée en détenant le verrou du cache.
+     *
+     * @param visited les shards déjà visités par le préchargement en cours.
+     * @return l'index du shard à précharger, ou -1 s'il n'y en a aucun.
+     */
+    private int prefetchCandidate(boolean[] visited) {
+        int hottest = -1;
+        for (int i = 0; i < SHARDS_COUNT; ++i) {
+            if (!visited[i] && shards[i] == null && loading.get(i) == null
+                    && (hottest < 0 || temperatures[i] > temperatures[hottest]))
+                hottest = i;
+        }
+        return hottest >= 0 && admits(hottest) ? hottest : -1;
+    }
+
+    /**
+     * Classe imbriquée Shard représentant le contenu d'un fichier CSV de la base de données, trié par adresse.
+     */
+    private static final class Shard {
+        /* Estimation de la taille des objets (hors caractères des chaînes) représentant un aéronef en mémoire :
+         * l'aéronef, son immatriculation, son indicateur de type, sa description, leurs 4 chaînes et tableaux
+         * d'octets, ainsi que ses entrées dans les tableaux du shard. */
+        private static final int AIRCRAFT_OVERHEAD = 4 * 16 + 4 * 24 + 4 * 16 + Integer.BYTES + Integer.BYTES;
+        private static final int SHARD_OVERHEAD = 64;
+
+        private final int[] addresses;
+        private final AircraftData[] data;
+        private final long estimatedSize;
+
+        private Shard(int[] addresses, AircraftData[] data, long estimatedSize) {
+            this.addresses = addresses;
+            this.data = data;
+            this.estimatedSize = estimatedSize;
+        }
+
+        /**
+         * Lit et analyse le shard d'index donné. En cas de doublon, seule la première ligne d'une adresse est gardée,
+         * comme lors de la lecture directe du fichier ZIP et dans AircraftIndex.
+         *
+         * @param fileName le nom du fichier ZIP contenant la base de données.
+         * @param index    l'index du shard.
+         * @return le shard.
+         * @throws IOException si une erreur se produit lors de la lecture du fichier ZIP.
+         */
+        private static Shard read(String fileName, int index) throws IOException {
+            List<String> lines = new ArrayList<>();
+            try (ZipFile zipFile = new ZipFile(fileName)) {
+                ZipEntry entry = zipFile.getEntry(AircraftDatabase.entryName(IcaoAddress.of(index)));
+                if (entry != null) {
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(zipFile.getInputStream(entry), UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) lines.add(line);
+                    }
+                }
+            }
+
+            /* Les lignes sont triées par adresse au moyen d'entiers de type long contenant l'adresse (bits 32 à
+             * 55) et l'index de la ligne (bits 0 à 31), si bien que la première ligne de chaque adresse précède
+             * ses doublons. */
+            long[] order = new long[lines.size()];
+            for (int i = 0; i < order.length; ++i)
+                order[i] = ((long) AircraftDatabase.addressOf(lines.get(i)) << Integer.SIZE) | i;
+            Arrays.sort(order);
+
+            int[] addresses = new int[order.length];
+            AircraftData[] data = new AircraftData[order.length];
+            int count = 0;
+            long estimatedSize = SHARD_OVERHEAD;
+            for (long key : order) {
+                int address = (int) (key >>> Integer.SIZE);
+                if (count > 0 && addresses[count - 1] == address) continue;
+                String line = lines.get((int) key);
+                addresses[count] = address;
+                data[count] = AircraftDatabase.parse(line);
+                estimatedSize += AIRCRAFT_OVERHEAD + line.length();
+                ++count;
+            }
+            return new Shard(Arrays.copyOf(addresses, count), Arrays.copyOf(data, count), estimatedSize);
+        }
+
+        /**
+         * Retourne les informations de l'aéronef d'adresse de valeur donnée, recherché par dichotomie.
+         *
+         * @param address la valeur de l'adresse ICAO de l'aéronef.
+         * @return les informations de l'aéronef, ou null si le shard n'en contient aucune.
+         */
+        private AircraftData get(int address) {
+            int i = Arrays.binarySearch(addresses, address);
+            return i < 0 ? null : data[i];
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.adsb.ErrorCorrector;
+import ch.epfl.javions.adsb.ModeSFrame;
+import ch.epfl.javions.adsb.MutableRawMessage;
 import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageBatch;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.BitSet;
+import java.util.Objects;
 
 /**
  * La classe AdsbDemodulator du sous-paquetage demodulation, publique et finale, représente un
@@ -13,12 +22,42 @@ import java.io.InputStream;
  * @author Abdellah JANATI IDRISSI (362341)
  */
 public final class AdsbDemodulator {
-    private static final int WINDOW_SIZE = 1200;
+    static final int WINDOW_SIZE = 1200;
     private static final int TIME_STAMP_NS_CONST = 100;
     private static final int FIRST_BYTE_INDEX = 0;
+    /* Le préambule dure 80 échantillons de puissance, et chaque bit 10. */
+    private static final int PREAMBLE_SIZE = 80, BIT_SIZE = 10;
+    private static final int ICAO_ADDRESSES_COUNT = 1 << 24;
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    /* Le plancher de bruit est une moyenne mobile exponentielle de poids 2^-6 de la puissance. */
+    private static final int NOISE_FLOOR_SHIFT = 6;
+    /* Après un saut, la démodulation reprend 3 positions avant le prochain échantillon assez puissant,
+     * afin que les sommes des pics de porteuse y soient recalculées. */
+    private static final int SKIP_MARGIN = 3;
     private final PowerWindow window;
+    /* La position, dans le flot complet d'échantillons de puissance, du premier échantillon lu. */
+    private final long startPosition;
+    /* Le tableau contenant la fenêtre, et l'index de son premier échantillon à la position courante. */
+    private final int[] powerSamples;
+    private int windowStart;
     private final byte[] message = new byte[RawMessage.LENGTH];
+    private final byte[] shortMessage = new byte[ModeSFrame.SHORT_LENGTH];
+    /* Le CRC de la trame en cours de décodage. */
+    private int crc;
+    /* Les fonctions créant les trames démodulées, allouées une fois pour toutes. */
+    private final FrameDecoder<RawMessage> messageDecoder = this::decodeMessage;
+    private final FrameDecoder<ModeSFrame> frameDecoder = this::decodeFrame;
+    private final FrameDecoder<MutableRawMessage> targetDecoder = this::decodeIntoTarget;
+    private MutableRawMessage target = null;
+    private final MutableRawMessage batchMessage = new MutableRawMessage();
     private int sumCarrierPeak, previousSumCarrierPeak, nextSumCarrierPeak;
+    private double noiseFloorFactor = 0;
+    private int noiseFloor = 0;
+    private long skippedPositions = 0;
+    private ErrorCorrector errorCorrector = null;
+    private long correctedMessages = 0;
+    /* Les adresses ICAO vues dans les trames démodulées, allouées lors du premier appel à nextFrame(). */
+    private BitSet knownAddresses = null;
 
     /**
      * Constructeur d'AdsbDemodulator qui prend en entrée un InputStream
@@ -28,7 +67,56 @@ public final class AdsbDemodulator {
      * @throws IOException Si une erreur se produit lors de la lecture du flux.
      */
     public AdsbDemodulator(InputStream stream) throws IOException {
-        window = new PowerWindow(stream, WINDOW_SIZE);
+        this(SamplesSource.of(stream));
+    }
+
+    /**
+     * Constructeur d'AdsbDemodulator qui prend en entrée une source d'échantillons,
+     * ce qui permet p. ex. de démoduler un enregistrement directement depuis sa projection en mémoire
+     * (voir SamplesSource.ofFile()).
+     *
+     * @param source La source des échantillons à démoduler.
+     * @throws IOException Si une erreur se produit lors de la lecture de la source.
+     */
+    public AdsbDemodulator(SamplesSource source) throws IOException {
+        this(source, 0);
+    }
+
+    /**
+     * Constructeur d'AdsbDemodulator démodulant une source qui commence à la position donnée
+     * du flot d'échantillons de puissance, ce qui permet de démoduler un morceau d'enregistrement
+     * avec les mêmes horodatages que si l'enregistrement complet était démodulé.
+     *
+     * @param source        La source des échantillons à démoduler.
+     * @param startPosition La position du premier échantillon de puissance de la source.
+     * @throws IOException Si une erreur se produit lors de la lecture de la source.
+     */
+    AdsbDemodulator(SamplesSource source, long startPosition) throws IOException {
+        this(new PowerWindow(source, WINDOW_SIZE), startPosition);
+    }
+
+    /**
+     * Constructeur d'AdsbDemodulator lisant les échantillons de puissance au moyen du lecteur de lots donné
+     * (p. ex. une file alimentée par un calculateur de puissance s'exécutant sur un autre fil).
+     *
+     * @param powerReader Le lecteur des lots d'échantillons de puissance.
+     * @throws IOException Si une erreur se produit lors de la lecture du premier lot.
+     */
+    AdsbDemodulator(BatchReader<int[]> powerReader) throws IOException {
+        this(new PowerWindow(powerReader, WINDOW_SIZE), 0);
+    }
+
+    /**
+     * Constructeur d'AdsbDemodulator démodulant la fenêtre donnée, dont la première position correspond
+     * à la position donnée du flot d'échantillons de puissance.
+     *
+     * @param window        La fenêtre d'échantillons de puissance.
+     * @param startPosition La position du premier échantillon de puissance de la fenêtre.
+     */
+    private AdsbDemodulator(PowerWindow window, long startPosition) {
+        this.startPosition = startPosition;
+        this.window = window;
+        powerSamples = window.powerSamples();
     }
 
     /**
@@ -39,26 +127,121 @@ public final class AdsbDemodulator {
      * @throws IOException Si une erreur se produit lors de la lecture du flux.
      */
     public RawMessage nextMessage() throws IOException {
-        previousSumCarrierPeak = sumCarrierPeak = 0;
+        return nextMessage(Long.MAX_VALUE);
+    }
+
+    /**
+     * Méthode qui démodule le prochain message ADS-B du flux d'entrée dans le message modifiable donné,
+     * sans rien allouer : le même message peut être réutilisé pour chacun des messages du flux.
+     *
+     * @param target Le message modifiable dans lequel le prochain message est stocké.
+     * @return Vrai si un message a été démodulé, faux s'il n'y a plus de messages à démoduler dans le flux
+     * (auquel cas le message donné n'est pas modifié).
+     * @throws IOException Si une erreur se produit lors de la lecture du flux.
+     * @throws NullPointerException Si le message donné est nul.
+     */
+    public boolean nextMessage(MutableRawMessage target) throws IOException {
+        this.target = Objects.requireNonNull(target);
+        return nextFrame(Long.MAX_VALUE, RawMessage::size, targetDecoder) != null;
+    }
+
+    /**
+     * Méthode qui démodule les prochains messages ADS-B du flux d'entrée et les ajoute au lot donné,
+     * jusqu'à ce que celui-ci soit plein ou que le flux soit épuisé, sans rien allouer.
+     *
+     * @param batch Le lot auquel les messages démodulés sont ajoutés.
+     * @return Le nombre de messages ajoutés au lot, 0 s'il n'y a plus de messages à démoduler dans le flux
+     * (ou si le lot est déjà plein).
+     * @throws IOException Si une erreur se produit lors de la lecture du flux.
+     */
+    public int nextMessages(RawMessageBatch batch) throws IOException {
+        int count = 0;
+        while (!batch.isFull() && nextMessage(batchMessage)) {
+            batch.add(batchMessage);
+            count += 1;
+        }
+        return count;
+    }
+
+    /**
+     * Méthode qui retourne le prochain message ADS-B démodulé avant la position donnée du flot
+     * d'échantillons de puissance. La démodulation s'arrête sur cette position, et peut être poursuivie
+     * exactement comme si elle ne s'était pas arrêtée.
+     *
+     * @param endPosition La position à laquelle la démodulation s'arrête.
+     * @return Le prochain message ADS-B démodulé ou null s'il n'y a plus de
+     * messages à démoduler avant la position donnée.
+     * @throws IOException Si une erreur se produit lors de la lecture du flux.
+     */
+    RawMessage nextMessage(long endPosition) throws IOException {
+        return nextFrame(endPosition, RawMessage::size, messageDecoder);
+    }
+
+    /**
+     * Méthode qui retourne la prochaine trame Mode S démodulée, courte ou longue, de l'un des downlink formats
+     * pris en charge par ModeSFrame (dont les messages ADS-B, de format 17).
+     * Les trames dont le champ de parité est combiné avec l'adresse ICAO ne sont retournées que si cette adresse
+     * a déjà été vue dans une trame précédente de format 11, 17 ou 18.
+     *
+     * @return La prochaine trame Mode S démodulée ou null s'il n'y a plus de
+     * trames à démoduler dans le flux.
+     * @throws IOException Si une erreur se produit lors de la lecture du flux.
+     */
+    public ModeSFrame nextFrame() throws IOException {
+        if (knownAddresses == null) knownAddresses = new BitSet(ICAO_ADDRESSES_COUNT);
+        return nextFrame(Long.MAX_VALUE, ModeSFrame::size, frameDecoder);
+    }
+
+    /**
+     * Méthode qui retourne la prochaine trame démodulée avant la position donnée du flot d'échantillons
+     * de puissance, au moyen des fonctions données.
+     *
+     * @param endPosition La position à laquelle la démodulation s'arrête.
+     * @param sizer       La fonction donnant la longueur d'une trame en fonction de son premier octet,
+     *                    ou 0 si la trame n'est pas prise en charge.
+     * @param decoder     La fonction créant une trame à partir des octets démodulés, si elle est valide.
+     * @param <T>         Le type des trames.
+     * @return La prochaine trame démodulée ou null s'il n'y a plus de trames à démoduler
+     * avant la position donnée.
+     * @throws IOException Si une erreur se produit lors de la lecture du flux.
+     */
+    private <T> T nextFrame(long endPosition, FrameSizer sizer, FrameDecoder<T> decoder) throws IOException {
         /* Parcours de la fenêtre de puissance pour détecter les messages */
-        for (; window.isFull(); window.advance()) {
+        for (; window.isFull() && startPosition + window.position() < endPosition; window.advance()) {
+            windowStart = window.startIndex();
+            /* Si le préfiltre est activé et que le premier pic du préambule est sous le plancher de bruit,
+             * aucun message ne peut commencer ici : on saute jusqu'au prochain échantillon assez puissant. */
+            if (noiseFloorFactor > 0 && !mayStartPreamble()) {
+                int skip = quietLength(endPosition) - SKIP_MARGIN;
+                if (skip > 0) {
+                    skippedPositions += skip;
+                    window.advanceBy(skip - 1);
+                    previousSumCarrierPeak = sumCarrierPeak = 0;
+                    continue;
+                }
+                ++skippedPositions;
+                previousSumCarrierPeak = sumCarrierPeak;
+                sumCarrierPeak = computeNextCarrierSum();
+                continue;
+            }
             /* Calcul de la somme des pics de puissance de porteuse suivante */
             nextSumCarrierPeak = computeNextCarrierSum();
             /* Si un nouveau pic de puissance de porteuse est détecté et que
              * la puissance est suffisante, on décode le message brut */
             if (isPeakDetected()) {
                 if (sumCarrierPeak >= computeTwiceBottomOutSums()) {
-                    /* Si le downlink format (DF) du premier octet correspond à 17
-                     * on décode les octets restant du message brut */
-                    if (RawMessage.size(getByte(FIRST_BYTE_INDEX)) == RawMessage.LENGTH) {
-                        computeRemainingBytes();
-                        RawMessage rawMessage = RawMessage.of((window.position() * TIME_STAMP_NS_CONST), message);
-                        /* Si le CRC du message est égal à 0 (donc un message valide),
-                         * on le retourne et on avance la fenêtre d'échantillons de puissance de 1199 + 1
-                         * (à l'aide de la boucle). */
-                        if (rawMessage != null) {
-                            window.advanceBy(WINDOW_SIZE - 1);
-                            return rawMessage;
+                    /* La longueur de la trame est déterminée par le downlink format (DF) du premier octet :
+                     * si elle est prise en charge, on décode les octets restant de la trame */
+                    int length = sizer.size(getByte(FIRST_BYTE_INDEX));
+                    if (length != 0) {
+                        computeRemainingBytes(length);
+                        T frame = decoder.decode((startPosition + window.position()) * TIME_STAMP_NS_CONST, length);
+                        /* Si la trame est valide, on la retourne et on avance la fenêtre d'échantillons
+                         * de puissance jusqu'à la fin de la trame (à l'aide de la boucle). */
+                        if (frame != null) {
+                            window.advanceBy(PREAMBLE_SIZE + length * Byte.SIZE * BIT_SIZE - 1);
+                            previousSumCarrierPeak = sumCarrierPeak = 0;
+                            return frame;
                         }
                     }
                 }
@@ -71,6 +254,197 @@ public final class AdsbDemodulator {
         return null;
     }
 
+    /**
+     * Méthode qui crée le message ADS-B brut démodulé, en corrigeant si possible ses erreurs de transmission.
+     *
+     * @param timeStampNs Le temps d'arrivée du message.
+     * @param length      La longueur du message (RawMessage.LENGTH).
+     * @return Le message si son CRC est valide (éventuellement après correction), null sinon.
+     */
+    private RawMessage decodeMessage(long timeStampNs, int length) {
+        return isValidMessage() ? new RawMessage(timeStampNs, new ByteString(message)) : null;
+    }
+
+    /**
+     * Méthode qui stocke le message ADS-B brut démodulé dans le message modifiable donné à nextMessage(),
+     * en corrigeant si possible ses erreurs de transmission.
+     *
+     * @param timeStampNs Le temps d'arrivée du message.
+     * @param length      La longueur du message (RawMessage.LENGTH).
+     * @return Le message modifiable si le CRC du message est valide (éventuellement après correction), null sinon.
+     */
+    private MutableRawMessage decodeIntoTarget(long timeStampNs, int length) {
+        return isValidMessage() ? target.set(timeStampNs, message) : null;
+    }
+
+    /**
+     * Méthode qui vérifie le CRC du message ADS-B brut démodulé, en corrigeant si possible
+     * ses erreurs de transmission.
+     *
+     * @return Vrai si le CRC du message est valide, éventuellement après correction, faux sinon.
+     */
+    private boolean isValidMessage() {
+        /* Si le CRC est invalide et que la correction d'erreurs est activée,
+         * on tente de corriger les bits inversés du message, sinon on l'ignore (sans rien allouer) */
+        if (crc != 0) {
+            if (errorCorrector == null || errorCorrector.correct(message, crc) <= 0) return false;
+            ++correctedMessages;
+        }
+        return true;
+    }
+
+    /**
+     * Méthode qui crée la trame Mode S démodulée, en corrigeant si possible les erreurs de transmission
+     * des messages ADS-B.
+     *
+     * @param timeStampNs Le temps d'arrivée de la trame.
+     * @param length      La longueur de la trame.
+     * @return La trame si elle est valide, null sinon.
+     */
+    private ModeSFrame decodeFrame(long timeStampNs, int length) {
+        if (length == ModeSFrame.SHORT_LENGTH) {
+            System.arraycopy(message, 0, shortMessage, 0, ModeSFrame.SHORT_LENGTH);
+            return ModeSFrame.of(timeStampNs, shortMessage, knownAddresses);
+        }
+        ModeSFrame frame = ModeSFrame.of(timeStampNs, message, knownAddresses);
+        if (frame == null && errorCorrector != null && ModeSFrame.isExtendedSquitter(message[FIRST_BYTE_INDEX])
+                && errorCorrector.correct(message, crc) > 0) {
+            frame = ModeSFrame.of(timeStampNs, message, knownAddresses);
+            ++correctedMessages;
+        }
+        return frame;
+    }
+
+    /**
+     * L'interface FrameSizer représente une fonction donnant la longueur d'une trame
+     * en fonction de son premier octet.
+     */
+    @FunctionalInterface
+    private interface FrameSizer {
+        int size(byte byte0);
+    }
+
+    /**
+     * L'interface FrameDecoder représente une fonction créant une trame à partir des octets démodulés.
+     *
+     * @param <T> Le type des trames.
+     */
+    @FunctionalInterface
+    private interface FrameDecoder<T> {
+        T decode(long timeStampNs, int length);
+    }
+
+    /**
+     * Méthode qui active le préfiltre de préambule, qui saute les positions ne pouvant pas contenir
+     * de préambule, car la puissance de leur premier pic est inférieure au plancher de bruit (estimé
+     * par une moyenne mobile de la puissance) multiplié par le facteur donné.
+     * Plus le facteur est grand, plus le préfiltre saute de positions, et plus il risque de manquer
+     * des messages faibles.
+     *
+     * @param factor Le facteur multipliant le plancher de bruit, ou 0 pour désactiver le préfiltre (par défaut).
+     * @throws IllegalArgumentException Si le facteur est négatif ou n'est pas un nombre.
+     */
+    public void setNoiseFloorFactor(double factor) {
+        Preconditions.checkArgument(factor >= 0);
+        noiseFloorFactor = factor;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de positions sautées par le préfiltre de préambule.
+     *
+     * @return Le nombre de positions pour lesquelles aucun préambule n'a été recherché.
+     */
+    public long skippedPositions() {
+        return skippedPositions;
+    }
+
+    /**
+     * Méthode qui active la correction des erreurs de transmission : les messages dont le CRC est invalide
+     * sont corrigés au moyen du correcteur donné, si possible, plutôt que d'être ignorés.
+     *
+     * @param corrector Le correcteur d'erreurs (p. ex. ErrorCorrector.SINGLE_BIT),
+     *                  ou null pour désactiver la correction (par défaut).
+     */
+    public void setErrorCorrector(ErrorCorrector corrector) {
+        errorCorrector = corrector;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de messages démodulés grâce à la correction d'erreurs.
+     *
+     * @return Le nombre de messages dont des bits inversés ont été corrigés.
+     */
+    public long correctedMessages() {
+        return correctedMessages;
+    }
+
+    /**
+     * Méthode qui met à jour le plancher de bruit avec le premier échantillon de la fenêtre, puis vérifie
+     * que ce dernier est assez puissant pour être le premier pic d'un préambule.
+     *
+     * @return Vrai si un préambule peut commencer à la position courante, faux sinon.
+     */
+    private boolean mayStartPreamble() {
+        int power = power(0);
+        noiseFloor += (power - noiseFloor) >> NOISE_FLOOR_SHIFT;
+        return power >= noiseFloor * noiseFloorFactor;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de positions consécutives, à partir de la position courante, dont
+     * l'échantillon est sous le seuil de détection, en parcourant directement la fenêtre (sans dépasser
+     * la position de fin donnée). Le plancher de bruit est mis à jour avec les échantillons parcourus.
+     *
+     * @param endPosition La position à laquelle la démodulation s'arrête.
+     * @return Le nombre de positions consécutives sous le seuil de détection.
+     */
+    private int quietLength(long endPosition) {
+        long remaining = endPosition - (startPosition + window.position());
+        int maxLength = (int) Math.min(WINDOW_SIZE, remaining + SKIP_MARGIN);
+        double threshold = noiseFloor * noiseFloorFactor;
+
+        int length = 1;
+        int floor = noiseFloor;
+        for (; length < maxLength; ++length) {
+            int power = powerSamples[windowStart + length];
+            if (power >= threshold) break;
+            floor += (power - floor) >> NOISE_FLOOR_SHIFT;
+        }
+        noiseFloor = floor;
+        return length;
+    }
+
+    /**
+     * Méthode qui retourne l'état du démodulateur, qui détermine entièrement les messages qu'il démodulera
+     * ensuite : deux démodulateurs d'une même source dans le même état démodulent les mêmes messages.
+     *
+     * @return L'état du démodulateur.
+     */
+    State state() {
+        return new State(startPosition + window.position(), previousSumCarrierPeak, sumCarrierPeak);
+    }
+
+    /**
+     * L'enregistrement State représente l'état d'un démodulateur.
+     *
+     * @param position               La position de la fenêtre dans le flot d'échantillons de puissance.
+     * @param previousSumCarrierPeak La somme des pics de porteuse à la position précédant la précédente.
+     * @param sumCarrierPeak         La somme des pics de porteuse à la position précédente.
+     */
+    record State(long position, int previousSumCarrierPeak, int sumCarrierPeak) {
+    }
+
+    /**
+     * Méthode retournant l'échantillon de puissance d'index i de la fenêtre, sans vérification de l'index
+     * (qui est toujours compris entre 0 et la taille de la fenêtre).
+     *
+     * @param i Index de l'échantillon dans la fenêtre.
+     * @return  L'échantillon de puissance d'index i de la fenêtre.
+     */
+    private int power(int i) {
+        return powerSamples[windowStart + i];
+    }
+
     /**
      * Méthode décodant le bit d'indice i d'un message ADS-B brut.
      *
@@ -78,7 +452,7 @@ public final class AdsbDemodulator {
      * @return  La valeur du bit (1 si la condition est vraie, 0 sinon).
      */
     private boolean decodeBits(int i) {
-        return window.get(80 + (10 * i)) >= window.get(85 + (10 * i));
+        return power(80 + (10 * i)) >= power(85 + (10 * i));
     }
 
     /**
@@ -96,7 +470,7 @@ public final class AdsbDemodulator {
      * @return La somme des pics de porteuse suivante.
      */
     private int computeNextCarrierSum() {
-        return (window.get(1) + window.get(11) + window.get(36) + window.get(46));
+        return (power(1) + power(11) + power(36) + power(46));
     }
 
     /**
@@ -105,7 +479,7 @@ public final class AdsbDemodulator {
      * @return Deux fois la somme des vallées.
      */
     private int computeTwiceBottomOutSums() {
-        return 2 * (window.get(5) + window.get(15) + window.get(20) + window.get(30) + window.get(40));
+        return 2 * (power(5) + power(15) + power(20) + power(30) + power(40));
     }
 
     /**
@@ -128,11 +502,15 @@ public final class AdsbDemodulator {
     }
 
     /**
-     * Méthode calculant les 13 octets restant du message brut.
+     * Méthode calculant les octets restant de la trame de longueur donnée, ainsi que le CRC de la trame,
+     * mis à jour au fur et à mesure que ses octets sont calculés.
+     *
+     * @param length La longueur de la trame.
      */
-    private void computeRemainingBytes() {
-        for (int i = 1; i < RawMessage.LENGTH; ++i) {
-            message[i] = getByte(i);
+    private void computeRemainingBytes(int length) {
+        crc = CRC24.update(0, message[FIRST_BYTE_INDEX]);
+        for (int i = 1; i < length; ++i) {
+            crc = CRC24.update(crc, getByte(i));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package ch.epfl.javions.demodulation;
+
+import java.io.IOException;
+
+/**
+ * L'interface fonctionnelle BatchReader, du sous-paquetage demodulation, représente un producteur de lots
+ * d'échantillons (p. ex. la méthode readBatch() d'un décodeur d'échantillons ou d'un calculateur de puissance),
+ * ce qui permet d'intercaler une file entre deux étapes de la démodulation.
+ *
+ * @param <T> le type des tableaux d'échantillons (short[] ou int[]).
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+@FunctionalInterface
+interface BatchReader<T> {
+
+    /**
+     * Méthode qui remplit le tableau donné avec le lot d'échantillons suivant.
+     * Un lot n'est incomplet qu'à la fin du flot d'échantillons.
+     *
+     * @param batch le tableau d'échantillons qui doit être rempli.
+     * @return le nombre d'échantillons placés dans le tableau, 0 à la fin du flot.
+     * @throws IOException si une erreur se produit lors de la lecture des échantillons.
+     */
+    int readBatch(T batch) throws IOException;
+}
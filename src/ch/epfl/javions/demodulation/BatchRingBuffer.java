@@ -0,0 +1,191 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * La classe BatchRingBuffer, du sous-paquetage demodulation, représente une file bornée, sans verrou,
+ * de lots d'échantillons, entre un unique producteur et un unique consommateur s'exécutant sur des fils différents.
+ * <p>
+ * Les lots sont des tableaux alloués une fois pour toutes : le producteur remplit directement le tableau
+ * de la case libre suivante puis le publie, et le consommateur en copie le contenu.
+ * Lorsque la file est pleine, le producteur attend (contre-pression), ou abandonne le lot s'il le préfère
+ * (débordement) ; les deux situations sont comptées.
+ *
+ * @param <T> le type des tableaux d'échantillons (short[] ou int[]).
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+final class BatchRingBuffer<T> implements BatchReader<T> {
+    /* Nombre d'attentes actives avant que le fil en attente ne soit suspendu. */
+    private static final int SPINS_BEFORE_PARKING = 1 << 10;
+    private static final long PARK_NS = 50_000;
+    private final Object[] batches;
+    private final int[] counts;
+    private final int mask;
+    /* Index (croissants) de la prochaine case à lire par le consommateur et à écrire par le producteur. */
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    /* Compteurs, qui ne sont modifiés que par le producteur. */
+    private volatile long backpressureCount = 0;
+    private volatile long overflowCount = 0;
+    private volatile boolean closed = false;
+    private volatile IOException failure = null;
+
+    /**
+     * Constructeur de la classe BatchRingBuffer, qui alloue les tableaux de chacune des cases de la file.
+     *
+     * @param capacity     le nombre de cases de la file, une puissance de deux.
+     * @param batchFactory la fonction créant le tableau d'une case.
+     * @throws IllegalArgumentException si la capacité n'est pas une puissance de deux strictement positive.
+     */
+    BatchRingBuffer(int capacity, Supplier<T> batchFactory) {
+        Preconditions.checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1);
+        batches = new Object[capacity];
+        for (int i = 0; i < capacity; ++i) {
+            batches[i] = batchFactory.get();
+        }
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Méthode (du producteur) qui retourne le tableau de la case libre suivante, en attendant qu'une case
+     * se libère si la file est pleine.
+     *
+     * @return le tableau à remplir avant d'appeler publish().
+     * @throws InterruptedIOException si le fil est interrompu pendant l'attente.
+     */
+    T nextFreeBatch() throws InterruptedIOException {
+        long t = tail.get();
+        if (t - head.getAcquire() > mask) {
+            ++backpressureCount;
+            for (int attempt = 0; t - head.getAcquire() > mask; ++attempt) {
+                pause(attempt);
+            }
+        }
+        return batch(t);
+    }
+
+    /**
+     * Méthode (du producteur) qui retourne le tableau de la case libre suivante, ou null si la file est pleine,
+     * auquel cas le lot est compté comme abandonné.
+     *
+     * @return le tableau à remplir avant d'appeler publish(), ou null si la file est pleine.
+     */
+    T tryNextFreeBatch() {
+        long t = tail.get();
+        if (t - head.getAcquire() > mask) {
+            ++overflowCount;
+            return null;
+        }
+        return batch(t);
+    }
+
+    /**
+     * Méthode (du producteur) qui publie le lot de la case libre suivante, qui vient d'être rempli.
+     *
+     * @param count le nombre d'échantillons du lot.
+     */
+    void publish(int count) {
+        long t = tail.get();
+        counts[(int) t & mask] = count;
+        tail.setRelease(t + 1);
+    }
+
+    /**
+     * Méthode (du producteur) qui signale la fin du flot : une fois les lots publiés lus,
+     * readBatch() retourne 0.
+     */
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Méthode (du producteur) qui signale une erreur : une fois les lots publiés lus,
+     * readBatch() lève l'exception donnée.
+     *
+     * @param e l'erreur survenue lors de la production des lots.
+     */
+    void fail(IOException e) {
+        failure = e;
+        closed = true;
+    }
+
+    /**
+     * Méthode (du consommateur) qui copie le lot suivant dans le tableau donné, en attendant qu'il soit publié.
+     *
+     * @param batch le tableau d'échantillons qui doit être rempli.
+     * @return le nombre d'échantillons du lot, ou 0 si le producteur a signalé la fin du flot.
+     * @throws IOException si le producteur a signalé une erreur, ou si le fil est interrompu pendant l'attente.
+     */
+    @Override
+    public int readBatch(T batch) throws IOException {
+        long h = head.get();
+        for (int attempt = 0; ; ++attempt) {
+            /* La fin du flot doit être lue avant l'index du producteur, qui la précède. */
+            boolean finished = closed;
+            if (tail.getAcquire() != h) break;
+            if (finished) {
+                if (failure != null) throw failure;
+                return 0;
+            }
+            pause(attempt);
+        }
+
+        int index = (int) h & mask;
+        int count = counts[index];
+        System.arraycopy(batches[index], 0, batch, 0, count);
+        head.setRelease(h + 1);
+        return count;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de fois que le producteur a dû attendre que la file se vide.
+     *
+     * @return le nombre d'attentes du producteur.
+     */
+    long backpressureCount() {
+        return backpressureCount;
+    }
+
+    /**
+     * Méthode qui retourne le nombre de lots abandonnés par le producteur car la file était pleine.
+     *
+     * @return le nombre de lots abandonnés.
+     */
+    long overflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * Méthode qui retourne le tableau de la case d'index donné.
+     *
+     * @param index l'index (croissant) de la case.
+     * @return le tableau de la case.
+     */
+    @SuppressWarnings("unchecked")
+    private T batch(long index) {
+        return (T) batches[(int) index & mask];
+    }
+
+    /**
+     * Méthode qui fait patienter le fil courant : d'abord activement, puis en le suspendant brièvement.
+     *
+     * @param attempt le nombre de fois que le fil a déjà patienté.
+     * @throws InterruptedIOException si le fil est interrompu.
+     */
+    private static void pause(int attempt) throws InterruptedIOException {
+        if (attempt < SPINS_BEFORE_PARKING) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NS);
+            if (Thread.interrupted()) throw new InterruptedIOException();
+        }
+    }
+}
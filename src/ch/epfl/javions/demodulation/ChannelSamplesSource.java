@@ -0,0 +1,44 @@
+package ch.epfl.javions.demodulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * La classe ChannelSamplesSource, du sous-paquetage demodulation, représente une source d'échantillons
+ * lisant ses octets dans un canal, au moyen d'un tampon direct.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+final class ChannelSamplesSource implements SamplesSource {
+    private final ReadableByteChannel channel;
+    private ByteBuffer bytesBuffer = ByteBuffer.allocateDirect(0);
+
+    /**
+     * Constructeur de la classe ChannelSamplesSource.
+     *
+     * @param channel le canal qui fournit les octets.
+     * @throws NullPointerException si le canal est nul.
+     */
+    ChannelSamplesSource(ReadableByteChannel channel) {
+        this.channel = Objects.requireNonNull(channel);
+    }
+
+    @Override
+    public ByteBuffer read(int maxBytes) throws IOException {
+        /* Le tampon n'est réalloué que si le nombre d'octets demandé augmente. */
+        if (bytesBuffer.capacity() < maxBytes) {
+            bytesBuffer = ByteBuffer.allocateDirect(maxBytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        bytesBuffer.clear().limit(maxBytes);
+        /* Comme readNBytes(), on ne s'arrête qu'une fois le tampon plein ou la fin du canal atteinte. */
+        int bytesRead = 0;
+        while (bytesBuffer.hasRemaining() && bytesRead >= 0) {
+            bytesRead = channel.read(bytesBuffer);
+        }
+        return bytesBuffer.flip();
+    }
+}
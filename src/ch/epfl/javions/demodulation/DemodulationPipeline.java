@@ -0,0 +1,150 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+import static ch.epfl.javions.demodulation.PowerWindow.BATCH_SIZE;
+
+/**
+ * La classe DemodulationPipeline du sous-paquetage demodulation, publique et finale, représente un démodulateur
+ * de messages ADS-B dont les étapes s'exécutent en parallèle, chacune sur son propre fil d'exécution :
+ * <ul>
+ *     <li>le décodage des échantillons (SamplesDecoder), sur un fil dédié,</li>
+ *     <li>le calcul des échantillons de puissance (PowerComputer), sur un fil dédié,</li>
+ *     <li>la détection et le décodage des messages (AdsbDemodulator), sur le fil appelant nextMessage().</li>
+ * </ul>
+ * Les étapes sont reliées par des files bornées de lots préalloués (BatchRingBuffer), si bien que la lecture
+ * du flot d'entrée continue pendant que les étapes suivantes sont momentanément ralenties (p. ex. par une pause
+ * de la JVM). Les messages démodulés sont les mêmes que ceux d'un AdsbDemodulator, sauf si la politique de
+ * débordement choisie abandonne des lots.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class DemodulationPipeline {
+    private static final int DEFAULT_CAPACITY = 32;
+    private static final int SAMPLES_BATCH_SIZE = 2 * BATCH_SIZE;
+    private final BatchRingBuffer<short[]> samplesQueue;
+    private final BatchRingBuffer<int[]> powerQueue;
+    private final AdsbDemodulator demodulator;
+
+    /**
+     * L'énumération OverflowPolicy représente le comportement du décodage des échantillons
+     * lorsque la file qui le relie au calcul de puissance est pleine.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Le décodage attend qu'une place se libère (contre-pression) : aucun échantillon n'est perdu,
+         * mais le flot d'entrée n'est plus lu pendant l'attente.
+         */
+        BLOCK,
+        /**
+         * Le lot d'échantillons décodé est abandonné (débordement) : le flot d'entrée continue d'être lu
+         * au rythme de la radio, mais les messages du lot abandonné sont perdus.
+         */
+        DROP
+    }
+
+    /**
+     * Constructeur de DemodulationPipeline qui démarre les étapes de démodulation du flot donné,
+     * avec des files de 32 lots qui ne perdent aucun échantillon (OverflowPolicy.BLOCK).
+     *
+     * @param stream Le flux de données à démoduler.
+     * @throws IOException Si une erreur se produit lors de la lecture du premier lot.
+     */
+    public DemodulationPipeline(InputStream stream) throws IOException {
+        this(stream, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Constructeur de DemodulationPipeline qui démarre les étapes de démodulation du flot donné.
+     *
+     * @param stream   Le flux de données à démoduler.
+     * @param capacity Le nombre de lots de chacune des files reliant les étapes, une puissance de deux.
+     * @param policy   Le comportement du décodage des échantillons lorsque sa file est pleine.
+     * @throws IOException              Si une erreur se produit lors de la lecture du premier lot.
+     * @throws IllegalArgumentException Si la capacité n'est pas une puissance de deux strictement positive.
+     * @throws NullPointerException     Si le flot ou la politique de débordement est nul.
+     */
+    public DemodulationPipeline(InputStream stream, int capacity, OverflowPolicy policy) throws IOException {
+        Preconditions.checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1);
+        Objects.requireNonNull(policy);
+
+        SamplesDecoder decoder = new SamplesDecoder(stream, SAMPLES_BATCH_SIZE);
+        samplesQueue = new BatchRingBuffer<>(capacity, () -> new short[SAMPLES_BATCH_SIZE]);
+        powerQueue = new BatchRingBuffer<>(capacity, () -> new int[BATCH_SIZE]);
+        PowerComputer powerComputer = new PowerComputer(samplesQueue, BATCH_SIZE);
+
+        short[] droppedSamples = policy == OverflowPolicy.DROP ? new short[SAMPLES_BATCH_SIZE] : null;
+        startStage("Javions samples decoder", decoder::readBatch, samplesQueue, droppedSamples);
+        startStage("Javions power computer", powerComputer::readBatch, powerQueue, null);
+        demodulator = new AdsbDemodulator(powerQueue);
+    }
+
+    /**
+     * Méthode qui retourne le prochain message ADS-B démodulé à partir du flux d'entrée.
+     *
+     * @return Le prochain message ADS-B démodulé ou null s'il n'y a plus de
+     * messages à démoduler dans le flux.
+     * @throws IOException Si une erreur se produit lors de la lecture ou du traitement du flux.
+     */
+    public RawMessage nextMessage() throws IOException {
+        return demodulator.nextMessage();
+    }
+
+    /**
+     * Méthode qui retourne le nombre de fois qu'une étape a dû attendre que l'étape suivante
+     * libère une place dans sa file.
+     *
+     * @return Le nombre d'attentes dues à la contre-pression.
+     */
+    public long backpressureCount() {
+        return samplesQueue.backpressureCount() + powerQueue.backpressureCount();
+    }
+
+    /**
+     * Méthode qui retourne le nombre de lots d'échantillons abandonnés car la file du calcul de puissance
+     * était pleine (uniquement avec la politique OverflowPolicy.DROP).
+     *
+     * @return Le nombre de lots d'échantillons abandonnés.
+     */
+    public long overflowCount() {
+        return samplesQueue.overflowCount();
+    }
+
+    /**
+     * Méthode qui démarre une étape, c.-à-d. un fil d'exécution (démon) qui lit des lots au moyen du lecteur
+     * donné et les publie dans la file donnée, jusqu'à la fin du flot.
+     *
+     * @param name         Le nom du fil d'exécution.
+     * @param reader       Le lecteur des lots de l'étape.
+     * @param queue        La file dans laquelle les lots sont publiés.
+     * @param droppedBatch Le tableau dans lequel sont lus les lots abandonnés lorsque la file est pleine,
+     *                     ou null pour attendre qu'une place se libère.
+     * @param <T>          Le type des tableaux d'échantillons.
+     */
+    private static <T> void startStage(String name, BatchReader<T> reader, BatchRingBuffer<T> queue, T droppedBatch) {
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    T batch = droppedBatch == null ? queue.nextFreeBatch() : queue.tryNextFreeBatch();
+                    boolean dropped = batch == null;
+                    int count = reader.readBatch(dropped ? droppedBatch : batch);
+                    if (count == 0) break;
+                    if (!dropped) queue.publish(count);
+                }
+                queue.close();
+            } catch (IOException e) {
+                queue.fail(e);
+            } catch (RuntimeException e) {
+                queue.fail(new IOException(e));
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,76 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * La classe MappedSamplesSource, du sous-paquetage demodulation, représente une source d'échantillons
+ * fournissant les octets d'un fichier projeté en mémoire.
+ * Une projection étant limitée à 2 Go, le fichier est projeté par régions successives.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+final class MappedSamplesSource implements SamplesSource {
+    /* Taille (paire) des régions projetées, soit 1 Go. */
+    private static final int REGION_SIZE = 1 << 30;
+    private final MappedByteBuffer[] regions;
+    private int regionIndex = 0;
+
+    /**
+     * Constructeur de la classe MappedSamplesSource, qui projette en mémoire la totalité du fichier donné.
+     *
+     * @param path le chemin du fichier.
+     * @throws IOException si une erreur se produit lors de l'ouverture ou de la projection du fichier.
+     */
+    MappedSamplesSource(Path path) throws IOException {
+        this(path, 0);
+    }
+
+    /**
+     * Constructeur de la classe MappedSamplesSource, qui projette en mémoire le fichier donné
+     * à partir de l'octet d'index donné (p. ex. pour démoduler un morceau d'un enregistrement).
+     * Le canal est fermé dès la projection terminée, les projections restant valides.
+     *
+     * @param path      le chemin du fichier.
+     * @param startByte l'index du premier octet du fichier à fournir.
+     * @throws IOException              si une erreur se produit lors de l'ouverture ou de la projection du fichier.
+     * @throws IllegalArgumentException si l'index du premier octet est négatif ou impair.
+     */
+    MappedSamplesSource(Path path, long startByte) throws IOException {
+        Preconditions.checkArgument(startByte >= 0 && startByte % Short.BYTES == 0);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = Math.max(0, channel.size() - startByte);
+            regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+            for (int i = 0; i < regions.length; ++i) {
+                long start = (long) i * REGION_SIZE;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        startByte + start, Math.min(REGION_SIZE, size - start));
+            }
+        }
+    }
+
+    @Override
+    public ByteBuffer read(int maxBytes) throws IOException {
+        /* On passe à la région suivante lorsque la région courante est épuisée. */
+        while (regionIndex < regions.length && !regions[regionIndex].hasRemaining()) {
+            ++regionIndex;
+        }
+        if (regionIndex == regions.length) {
+            return ByteBuffer.allocate(0);
+        }
+
+        MappedByteBuffer region = regions[regionIndex];
+        int bytesRead = Math.min(maxBytes, region.remaining());
+        ByteBuffer bytes = region.slice(region.position(), bytesRead).order(ByteOrder.LITTLE_ENDIAN);
+        region.position(region.position() + bytesRead);
+        return bytes;
+    }
+}
@@ -0,0 +1,176 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static ch.epfl.javions.demodulation.AdsbDemodulator.WINDOW_SIZE;
+
+/**
+ * La classe ParallelAdsbDemodulator du sous-paquetage demodulation, publique et non instanciable,
+ * permet de démoduler un enregistrement d'échantillons en parallèle, sur plusieurs cœurs.
+ * <p>
+ * L'enregistrement est découpé en morceaux, démodulés indépendamment (depuis la projection en mémoire
+ * du fichier) par un démodulateur commençant au début du morceau et s'arrêtant une fenêtre après sa fin.
+ * Les morceaux se chevauchent donc d'une fenêtre.
+ * <p>
+ * Les messages sont ensuite fusionnés dans l'ordre. L'état d'un démodulateur déterminant entièrement
+ * les messages qu'il démodulera ensuite, lorsque le démodulateur d'un morceau, arrivé à la fin du
+ * chevauchement, est dans le même état que celui du morceau suivant à cette même position, les messages
+ * suivants sont ceux du morceau suivant. Sinon (p. ex. si un message commence dans le chevauchement),
+ * la démodulation du morceau courant est simplement poursuivie, séquentiellement, jusqu'à la fin du
+ * morceau suivant. Le résultat est donc toujours identique à celui d'un démodulateur séquentiel.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class ParallelAdsbDemodulator {
+    /* Nombre minimal d'échantillons de puissance par morceau. */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    /* Nombre de morceaux par cœur, pour équilibrer la charge entre les cœurs. */
+    private static final int CHUNKS_PER_THREAD = 4;
+    /* Nombre d'échantillons de puissance lus avant le début d'un morceau, afin que les échantillons de puissance
+     * du morceau soient calculés à partir des mêmes échantillons que lors d'une démodulation séquentielle. */
+    private static final int WARM_UP_SIZE = 3;
+    /* Nombre d'octets des échantillons nécessaires au calcul d'un échantillon de puissance. */
+    private static final int POWER_SAMPLE_BYTES = 2 * Short.BYTES;
+
+    /**
+     * Constructeur privé de la classe ParallelAdsbDemodulator (non instanciable).
+     */
+    private ParallelAdsbDemodulator() {
+    }
+
+    /**
+     * Méthode qui démodule en parallèle, au moyen du groupe de fils d'exécution donné, tous les messages
+     * de l'enregistrement d'échantillons donné.
+     *
+     * @param path le chemin de l'enregistrement (p. ex. un fichier .bin de la radio).
+     * @param pool le groupe de fils d'exécution utilisé pour démoduler les morceaux de l'enregistrement.
+     * @return la liste des messages démodulés, identique à celle que produirait un AdsbDemodulator
+     * lisant l'enregistrement du début à la fin.
+     * @throws IOException si une erreur se produit lors de la lecture de l'enregistrement.
+     */
+    public static List<RawMessage> demodulate(Path path, ForkJoinPool pool) throws IOException {
+        long powerSamplesCount = Files.size(path) / POWER_SAMPLE_BYTES;
+        long chunksCount = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, (powerSamplesCount + chunksCount - 1) / chunksCount);
+        return demodulate(path, pool, chunkSize);
+    }
+
+    /**
+     * Méthode qui démodule en parallèle l'enregistrement donné, découpé en morceaux de la taille donnée.
+     *
+     * @param path      le chemin de l'enregistrement.
+     * @param pool      le groupe de fils d'exécution utilisé pour démoduler les morceaux de l'enregistrement.
+     * @param chunkSize le nombre d'échantillons de puissance de chaque morceau.
+     * @return la liste des messages démodulés.
+     * @throws IOException              si une erreur se produit lors de la lecture de l'enregistrement.
+     * @throws IllegalArgumentException si la taille des morceaux n'est pas strictement positive.
+     */
+    static List<RawMessage> demodulate(Path path, ForkJoinPool pool, long chunkSize) throws IOException {
+        Preconditions.checkArgument(chunkSize > 0);
+
+        long powerSamplesCount = Files.size(path) / POWER_SAMPLE_BYTES;
+        List<Callable<Chunk>> tasks = new ArrayList<>();
+        for (long start = 0; start == 0 || start < powerSamplesCount; start += chunkSize) {
+            long chunkStart = start;
+            long endPosition = start + chunkSize < powerSamplesCount ? start + chunkSize + WINDOW_SIZE : Long.MAX_VALUE;
+            tasks.add(() -> demodulateChunk(path, chunkStart, endPosition));
+        }
+
+        List<Chunk> chunks = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Chunk> future : pool.invokeAll(tasks)) {
+                chunks.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new Error(e.getCause());
+        }
+        return merge(chunks);
+    }
+
+    /**
+     * Méthode qui démodule un morceau de l'enregistrement, commençant à la position donnée.
+     * Les messages situés dans la première fenêtre du morceau (qui chevauche le morceau précédent)
+     * sont ignorés, et seul l'état du démodulateur à la fin de cette fenêtre est mémorisé.
+     *
+     * @param path        le chemin de l'enregistrement.
+     * @param start       la position du premier échantillon de puissance du morceau.
+     * @param endPosition la position à laquelle la démodulation du morceau s'arrête.
+     * @return le morceau démodulé.
+     * @throws IOException si une erreur se produit lors de la lecture de l'enregistrement.
+     */
+    private static Chunk demodulateChunk(Path path, long start, long endPosition) throws IOException {
+        long warmUpStart = Math.max(0, start - WARM_UP_SIZE);
+        AdsbDemodulator demodulator = new AdsbDemodulator(
+                new MappedSamplesSource(path, warmUpStart * POWER_SAMPLE_BYTES), warmUpStart);
+
+        if (start > 0) {
+            /* Les messages du chevauchement sont ceux du morceau précédent. */
+            while (demodulator.nextMessage(start + WINDOW_SIZE) != null) {
+            }
+        }
+        AdsbDemodulator.State startState = demodulator.state();
+
+        List<RawMessage> messages = new ArrayList<>();
+        RawMessage message;
+        while ((message = demodulator.nextMessage(endPosition)) != null) {
+            messages.add(message);
+        }
+        return new Chunk(startState, messages, demodulator, endPosition);
+    }
+
+    /**
+     * Méthode qui fusionne les messages des morceaux démodulés, en passant d'un morceau au suivant
+     * lorsque leurs démodulateurs sont dans le même état à la fin de leur chevauchement.
+     *
+     * @param chunks les morceaux démodulés, dans l'ordre.
+     * @return la liste des messages de l'enregistrement.
+     * @throws IOException si une erreur se produit lors de la poursuite de la démodulation d'un morceau.
+     */
+    private static List<RawMessage> merge(List<Chunk> chunks) throws IOException {
+        List<RawMessage> messages = new ArrayList<>(chunks.get(0).messages());
+        AdsbDemodulator demodulator = chunks.get(0).demodulator();
+
+        for (Chunk chunk : chunks.subList(1, chunks.size())) {
+            if (demodulator.state().equals(chunk.startState())) {
+                messages.addAll(chunk.messages());
+                demodulator = chunk.demodulator();
+            } else {
+                RawMessage message;
+                while ((message = demodulator.nextMessage(chunk.endPosition())) != null) {
+                    messages.add(message);
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * L'enregistrement Chunk représente un morceau démodulé de l'enregistrement.
+     *
+     * @param startState  l'état du démodulateur du morceau à la fin du chevauchement avec le morceau précédent.
+     * @param messages    les messages démodulés entre la fin du chevauchement et la fin du morceau.
+     * @param demodulator le démodulateur du morceau, arrêté à la fin du morceau.
+     * @param endPosition la position à laquelle le démodulateur du morceau s'est arrêté.
+     */
+    private record Chunk(AdsbDemodulator.State startState, List<RawMessage> messages,
+                         AdsbDemodulator demodulator, long endPosition) {
+    }
+}
@@ -4,6 +4,7 @@ import ch.epfl.javions.Preconditions;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
 
 /**
  * La classe PowerComputer du sous-paquetage demodulation, publique et finale, représente un
@@ -14,29 +15,57 @@ import java.io.InputStream;
  * @author Abdellah JANATI IDRISSI (362341)
  */
 public final class PowerComputer {
-    private static final int CIRCULAR_BUFFER_SIZE = 8;
-    private final short[] circularBuffer = new short[CIRCULAR_BUFFER_SIZE];
+    /* Les sommes dont la valeur absolue (à un près) tient sur ce nombre de bits ont des carrés dont la somme
+     * tient sur 31 bits : -2^15, dont la valeur absolue à un près tient sur 15 bits, n'en fait pas partie. */
+    private static final int MAX_EXACT_SUM_BITS = 14;
     private final short[] powerBuffer;
-    private final SamplesDecoder decoder;
+    private final BatchReader<short[]> samplesReader;
     private final int batchSize;
+    /* Les trois derniers échantillons pairs (en phase) et impairs (en quadrature) déjà traités,
+     * du plus récent au plus ancien, qui tiennent lieu de tableau circulaire. */
+    private int inPhase1, inPhase2, inPhase3;
+    private int quadrature1, quadrature2, quadrature3;
 
     /**
      * Le constructeur de la classe initialise un flot d'entrée (grâce au stream entré en argument),
      * une instance de la classe SamplesDecoder (qui utilise le flot d'entrée passé en argument),
      * une taille de lot (batchSize), et un tableau où sont stockés tous les échantillons produits par l'instance
-     * de SamplesDecoder (powerBuffer) ainsi qu'un tableau circulaire où sont stockés les 8 derniers échantillons décodés
-     * grâce à l'instance SamplesDecoder (circularBuffer) pour calculer les nouveaux échantillons de puissance.
+     * de SamplesDecoder (powerBuffer).
      *
      * @param stream    le flux d'entrée qui fournit les données à démoduler.
      * @param batchSize la taille de lot, c'est-à-dire le nombre d'échantillons à démoduler à la fois.
      * @throws IllegalArgumentException si la taille des lots n'est un multiple de 8 strictement positif.
      */
     public PowerComputer(InputStream stream, int batchSize) {
+        this(SamplesSource.of(stream), batchSize);
+    }
+
+    /**
+     * Constructeur de la classe lisant les octets des échantillons dans la source donnée
+     * (p. ex. un fichier projeté en mémoire).
+     *
+     * @param source    la source qui fournit les octets des échantillons à démoduler.
+     * @param batchSize la taille de lot, c'est-à-dire le nombre d'échantillons à démoduler à la fois.
+     * @throws IllegalArgumentException si la taille des lots n'est un multiple de 8 strictement positif.
+     */
+    public PowerComputer(SamplesSource source, int batchSize) {
+        this(new SamplesDecoder(source, batchSize * 2, SamplesDecoder.Conversion.BULK)::readBatch, batchSize);
+    }
+
+    /**
+     * Constructeur de la classe lisant les échantillons au moyen du lecteur de lots donné
+     * (p. ex. une file alimentée par un décodeur d'échantillons s'exécutant sur un autre fil).
+     *
+     * @param samplesReader le lecteur des lots d'échantillons, de taille 2 * batchSize.
+     * @param batchSize     la taille de lot, c'est-à-dire le nombre d'échantillons à démoduler à la fois.
+     * @throws IllegalArgumentException si la taille des lots n'est un multiple de 8 strictement positif.
+     */
+    PowerComputer(BatchReader<short[]> samplesReader, int batchSize) {
 
         Preconditions.checkArgument((batchSize > 0) && ((batchSize % Byte.SIZE) == 0));
 
         this.batchSize = batchSize;
-        decoder = new SamplesDecoder(stream, batchSize * 2);
+        this.samplesReader = Objects.requireNonNull(samplesReader);
         powerBuffer = new short[batchSize * 2];
     }
 
@@ -44,7 +73,7 @@ public final class PowerComputer {
      * Méthode qui lit depuis le décodeur d'échantillons le nombre d'échantillons nécessaire au calcul d'un lot
      * d'échantillons de puissance, puis les calcule au moyen de la formule de calcul de Puissance, les place dans le
      * tableau passé en argument.
-     * La méthode stocke également les huits derniers échantillons de SamplesDecoder dans un tableau circulaire
+     * La méthode mémorise également les derniers échantillons de SamplesDecoder
      * pour pouvoir calculer les nouveaux échantillons de puissance.
      *
      * @param batch le tableau d'échantillons de puissances qui doit être rempli.
@@ -58,18 +87,86 @@ public final class PowerComputer {
 
         Preconditions.checkArgument(batch.length == batchSize);
 
-        int samplesRead = decoder.readBatch(powerBuffer);
+        int samplesRead = samplesReader.readBatch(powerBuffer);
+        return computePowers(powerBuffer, samplesRead, batch);
+    }
 
-        int bufferIndex = 0;
-        for (int i = 0; i < samplesRead; i += 2) {
-            circularBuffer[bufferIndex % Byte.SIZE] = powerBuffer[i];
-            circularBuffer[(bufferIndex + 1) % Byte.SIZE] = powerBuffer[i + 1];
-            bufferIndex += 2;
-            double power = Math.pow(circularBuffer[0] - circularBuffer[2] + circularBuffer[4] - circularBuffer[6], 2)
-                         + Math.pow(circularBuffer[1] - circularBuffer[3] + circularBuffer[5] - circularBuffer[7], 2);
-            batch[i / 2] = (int) power;
+    /**
+     * Méthode qui calcule les échantillons de puissance correspondant aux échantillons donnés, en arithmétique
+     * entière et sans allocation.
+     * Les signes de la formule de calcul de puissance alternant d'un échantillon de puissance au suivant,
+     * et les sommes étant élevées au carré, il suffit de garder en mémoire les trois derniers échantillons pairs
+     * et impairs, du plus récent au plus ancien.
+     * Pour des échantillons de 12 bits, chaque somme est bornée par 2^13 et le calcul sur 32 bits est exact.
+     * Si une somme atteint 2^14 (échantillons hors de la plage de 12 bits), le lot est recalculé sur 64 bits
+     * avec saturation, comme le faisait la conversion d'un double en int.
+     *
+     * @param samples      les échantillons produits par le décodeur.
+     * @param samplesCount le nombre d'échantillons à traiter.
+     * @param batch        le tableau d'échantillons de puissances qui doit être rempli.
+     * @return le nombre d'échantillons de puissances calculés.
+     */
+    int computePowers(short[] samples, int samplesCount, int[] batch) {
+        int i1 = inPhase1, i2 = inPhase2, i3 = inPhase3;
+        int q1 = quadrature1, q2 = quadrature2, q3 = quadrature3;
+
+        int powersCount = samplesCount / 2;
+        /* Union des bits des valeurs absolues (à un près) des sommes, pour détecter un éventuel débordement. */
+        int magnitudes = 0;
+        for (int i = 0; i < powersCount; ++i) {
+            int i0 = samples[2 * i];
+            int q0 = samples[2 * i + 1];
+            int inPhase = i0 - i1 + i2 - i3;
+            int quadrature = q0 - q1 + q2 - q3;
+            magnitudes |= (inPhase ^ (inPhase >> 31)) | (quadrature ^ (quadrature >> 31));
+            batch[i] = inPhase * inPhase + quadrature * quadrature;
+
+            i3 = i2;
+            i2 = i1;
+            i1 = i0;
+            q3 = q2;
+            q2 = q1;
+            q1 = q0;
         }
 
-        return samplesRead / 2;
+        if ((magnitudes >>> MAX_EXACT_SUM_BITS) != 0) {
+            computeSaturatedPowers(samples, powersCount, batch);
+        }
+
+        inPhase1 = i1;
+        inPhase2 = i2;
+        inPhase3 = i3;
+        quadrature1 = q1;
+        quadrature2 = q2;
+        quadrature3 = q3;
+        return powersCount;
+    }
+
+    /**
+     * Méthode qui recalcule sur 64 bits, avec saturation, les échantillons de puissance d'un lot
+     * dont une somme atteint 2^14. L'état mémorisé doit être celui du début du lot.
+     *
+     * @param samples     les échantillons produits par le décodeur.
+     * @param powersCount le nombre d'échantillons de puissance à calculer.
+     * @param batch       le tableau d'échantillons de puissances qui doit être rempli.
+     */
+    private void computeSaturatedPowers(short[] samples, int powersCount, int[] batch) {
+        long i1 = inPhase1, i2 = inPhase2, i3 = inPhase3;
+        long q1 = quadrature1, q2 = quadrature2, q3 = quadrature3;
+
+        for (int i = 0; i < powersCount; ++i) {
+            long i0 = samples[2 * i];
+            long q0 = samples[2 * i + 1];
+            long inPhase = i0 - i1 + i2 - i3;
+            long quadrature = q0 - q1 + q2 - q3;
+            batch[i] = (int) Math.min(inPhase * inPhase + quadrature * quadrature, Integer.MAX_VALUE);
+
+            i3 = i2;
+            i2 = i1;
+            i1 = i0;
+            q3 = q2;
+            q2 = q1;
+            q1 = q0;
+        }
     }
-}
\ No newline at end of file
+}
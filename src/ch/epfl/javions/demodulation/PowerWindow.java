@@ -15,17 +15,22 @@ import java.util.Objects;
  */
 
 public final class PowerWindow {
-    private static final int BATCH_SIZE = 1 << 16;
+    static final int BATCH_SIZE = 1 << 16;
     private final int windowSize;
-    private final PowerComputer powerComputer;
+    private final BatchReader<int[]> powerReader;
+    /* Le lot courant, suivi d'une copie des windowSize premiers échantillons du lot suivant :
+     * la fenêtre y est toujours contiguë, de l'index startIndex (inclus) à startIndex + windowSize (exclu). */
+    private final int[] powerSamples;
+    /* Le lot suivant, lu dès que la fenêtre déborde du lot courant. */
+    private final int[] nextPowerSamples = new int[BATCH_SIZE];
+    private boolean nextBatchRead = false;
     private long position = 0;
-    private int[] powerSamples = new int[BATCH_SIZE];
-    private int[] powerSamplesBis = new int[BATCH_SIZE];
+    private int startIndex = 0;
     private int powerSamplesRead;
 
     /**
      * Constructeur public de la classe PowerWindow qui initialise la taille de la fenêtre,
-     * l'instance de PowerComputer, cree nos deux tableaux d'échantillons de puissance et initialise
+     * l'instance de PowerComputer, crée nos deux tableaux d'échantillons de puissance et initialise
      * le tableau principal d'échantillons de puissance grâce à la méthode readBatch().
      *
      * @param stream     flot d'entrée.
@@ -34,12 +39,40 @@ public final class PowerWindow {
      * @throws IllegalArgumentException si la taille de la fenêtre est négative, nulle ou dépasse 2^16.
      */
     public PowerWindow(InputStream stream, int windowSize) throws IOException {
+        this(SamplesSource.of(stream), windowSize);
+    }
+
+    /**
+     * Constructeur de la classe PowerWindow lisant les octets des échantillons dans la source donnée
+     * (p. ex. un fichier projeté en mémoire).
+     *
+     * @param source     la source qui fournit les octets des échantillons.
+     * @param windowSize Taille de la fenêtre de puissance.
+     * @throws IOException              si une erreur se produit lors de la lecture de la source.
+     * @throws IllegalArgumentException si la taille de la fenêtre est négative, nulle ou dépasse 2^16.
+     */
+    public PowerWindow(SamplesSource source, int windowSize) throws IOException {
+        this(new PowerComputer(source, BATCH_SIZE)::readBatch, windowSize);
+    }
+
+    /**
+     * Constructeur de la classe PowerWindow lisant les échantillons de puissance au moyen du lecteur de lots donné
+     * (p. ex. une file alimentée par un calculateur de puissance s'exécutant sur un autre fil).
+     *
+     * @param powerReader le lecteur des lots d'échantillons de puissance, de taille BATCH_SIZE.
+     * @param windowSize  Taille de la fenêtre de puissance.
+     * @throws IOException              si une erreur se produit lors de la lecture du premier lot.
+     * @throws IllegalArgumentException si la taille de la fenêtre est négative, nulle ou dépasse 2^16.
+     */
+    PowerWindow(BatchReader<int[]> powerReader, int windowSize) throws IOException {
 
         Preconditions.checkArgument((windowSize > 0) && (windowSize <= BATCH_SIZE));
 
         this.windowSize = windowSize;
-        this.powerComputer = new PowerComputer(stream, BATCH_SIZE);
-        powerSamplesRead = powerComputer.readBatch(powerSamples);
+        this.powerReader = Objects.requireNonNull(powerReader);
+        this.powerSamples = new int[BATCH_SIZE + windowSize];
+        powerSamplesRead = powerReader.readBatch(nextPowerSamples);
+        System.arraycopy(nextPowerSamples, 0, powerSamples, 0, BATCH_SIZE);
     }
 
     /**
@@ -80,11 +113,29 @@ public final class PowerWindow {
 
         Objects.checkIndex(i, windowSize);
 
-        if ((position + i) % BATCH_SIZE < i) {
-            return powerSamplesBis[(int) ((position + i) % BATCH_SIZE)];
-        } else {
-            return powerSamples[(int) ((position + i) % BATCH_SIZE)];
-        }
+        return powerSamples[startIndex + i];
+    }
+
+    /**
+     * Méthode qui retourne, sans copie ni vérification, le tableau dans lequel se trouve la fenêtre :
+     * l'échantillon d'index i de la fenêtre est à l'index startIndex() + i de ce tableau.
+     * Le tableau retourné est toujours le même, mais son contenu n'est valide que jusqu'au prochain
+     * déplacement de la fenêtre, et il ne doit pas être modifié.
+     *
+     * @return le tableau contenant la fenêtre d'échantillons de puissance.
+     */
+    int[] powerSamples() {
+        return powerSamples;
+    }
+
+    /**
+     * Méthode qui retourne l'index, dans le tableau retourné par powerSamples(), du premier échantillon
+     * de la fenêtre.
+     *
+     * @return l'index du premier échantillon de la fenêtre.
+     */
+    int startIndex() {
+        return startIndex;
     }
 
     /**
@@ -93,24 +144,13 @@ public final class PowerWindow {
      * @throws IOException en cas d'erreur d'entrée/sortie lors de la lecture du flux de données.
      */
     public void advance() throws IOException {
-
-        if (position % BATCH_SIZE < BATCH_SIZE - 1) {
-            if ((position + windowSize) % BATCH_SIZE >= BATCH_SIZE - 1) {
-                powerSamplesRead += powerComputer.readBatch(powerSamplesBis);
-            }
-        } else {
-            int[] tempTab = powerSamples;
-            powerSamples = powerSamplesBis;
-            powerSamplesBis = tempTab;
-        }
-
-        ++position;
-        --powerSamplesRead;
+        advanceBy(1);
     }
 
     /**
      * Méthode qui permet de déplacer la fenêtre de puissance d'un nombre donné (offset)
      * d'échantillon vers la droite.
+     * Hormis la lecture des lots d'échantillons traversés, ce déplacement se fait en temps constant.
      *
      * @throws IOException              en cas d'erreur d'entrée/sortie lors de la lecture du flux de données.
      * @throws IllegalArgumentException si le nombre donné d'échantillon par lequel on déplace la fenêtre est nul.
@@ -119,8 +159,35 @@ public final class PowerWindow {
 
         Preconditions.checkArgument(offset >= 0);
 
-        for (int i = 0; i < offset; ++i) {
-            advance();
+        position += offset;
+        /* Tant que la fenêtre quitte le lot courant, le lot suivant devient le lot courant. */
+        while (offset >= BATCH_SIZE - startIndex) {
+            readNextBatch();
+            System.arraycopy(nextPowerSamples, 0, powerSamples, 0, BATCH_SIZE);
+            nextBatchRead = false;
+            offset -= BATCH_SIZE - startIndex;
+            powerSamplesRead -= BATCH_SIZE - startIndex;
+            startIndex = 0;
+        }
+        startIndex += offset;
+        powerSamplesRead -= offset;
+
+        if (startIndex + windowSize > BATCH_SIZE) {
+            readNextBatch();
+        }
+    }
+
+    /**
+     * Méthode qui lit le lot suivant, s'il ne l'a pas déjà été, et en recopie le début à la suite
+     * du lot courant, afin que la fenêtre reste contiguë.
+     *
+     * @throws IOException en cas d'erreur d'entrée/sortie lors de la lecture du flux de données.
+     */
+    private void readNextBatch() throws IOException {
+        if (!nextBatchRead) {
+            powerSamplesRead += powerReader.readBatch(nextPowerSamples);
+            System.arraycopy(nextPowerSamples, 0, powerSamples, BATCH_SIZE, windowSize);
+            nextBatchRead = true;
         }
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import ch.epfl.javions.Preconditions;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 /**
@@ -16,14 +17,31 @@ import java.util.Objects;
  */
 public final class SamplesDecoder {
     private static final int OFFSET = 2048;
-    private final InputStream stream;
+    private final SamplesSource source;
     private final int batchSize;
-    private final byte[] bytesBuffer;
+    private final Conversion conversion;
 
     /**
-     * Le constructeur de la classe initialise un flot d'entrée (grâce au stream entré en argument),
-     * une taille de lot (batchSize) et un tampon (bytesBuffer) pour les données d'entrée (ces deux derniers
-     * grâce à l'argument batchSize).
+     * L'énumération Conversion représente la manière dont les octets lus sont convertis en échantillons.
+     * Les deux conversions produisent exactement les mêmes échantillons.
+     */
+    public enum Conversion {
+        /**
+         * Conversion échantillon par échantillon, en recombinant les deux octets de chaque échantillon.
+         */
+        SCALAR,
+        /**
+         * Conversion par lot, au moyen d'une vue petit-boutiste (little-endian) sur les octets lus :
+         * les échantillons sont copiés d'un bloc, puis le décalage leur est soustrait dans une boucle
+         * que la JVM peut vectoriser.
+         */
+        BULK
+    }
+
+    /**
+     * Le constructeur de la classe initialise une source lisant dans le flot d'entrée (grâce au stream
+     * entré en argument) et une taille de lot (batchSize).
+     * La conversion utilisée est la conversion par lot (Conversion.BULK).
      *
      * @param stream    le flux d'entrée qui fournit les données à démoduler.
      * @param batchSize la taille de lot, c'est-à-dire le nombre d'échantillons à démoduler à la fois.
@@ -31,22 +49,50 @@ public final class SamplesDecoder {
      * @throws NullPointerException     si le flot d'entrée est nul (on utilise la méthode requireNonNull()).
      */
     public SamplesDecoder(InputStream stream, int batchSize) {
+        this(stream, batchSize, Conversion.BULK);
+    }
+
+    /**
+     * Constructeur de la classe permettant de choisir la conversion utilisée pour transformer
+     * les octets lus en échantillons.
+     *
+     * @param stream     le flux d'entrée qui fournit les données à démoduler.
+     * @param batchSize  la taille de lot, c'est-à-dire le nombre d'échantillons à démoduler à la fois.
+     * @param conversion la conversion utilisée (échantillon par échantillon ou par lot).
+     * @throws IllegalArgumentException si la taille de lot n'est pas strictement positive (on utilise la méthode checkArgument()).
+     * @throws NullPointerException     si le flot d'entrée ou la conversion est nul (on utilise la méthode requireNonNull()).
+     */
+    public SamplesDecoder(InputStream stream, int batchSize, Conversion conversion) {
+        this(SamplesSource.of(stream), batchSize, conversion);
+    }
+
+    /**
+     * Constructeur de la classe lisant les octets des échantillons dans la source donnée
+     * (p. ex. un fichier projeté en mémoire), avec la conversion donnée.
+     *
+     * @param source     la source qui fournit les octets des échantillons à démoduler.
+     * @param batchSize  la taille de lot, c'est-à-dire le nombre d'échantillons à démoduler à la fois.
+     * @param conversion la conversion utilisée (échantillon par échantillon ou par lot).
+     * @throws IllegalArgumentException si la taille de lot n'est pas strictement positive (on utilise la méthode checkArgument()).
+     * @throws NullPointerException     si la source ou la conversion est nulle (on utilise la méthode requireNonNull()).
+     */
+    public SamplesDecoder(SamplesSource source, int batchSize, Conversion conversion) {
         Preconditions.checkArgument(batchSize > 0);
-        this.stream = Objects.requireNonNull(stream);
+        this.source = Objects.requireNonNull(source);
+        this.conversion = Objects.requireNonNull(conversion);
         this.batchSize = batchSize;
-        bytesBuffer = new byte[batchSize * 2];
     }
 
     /**
-     * Méthode qui lit une série d'octets depuis le flux d'entrée, puis les enregistre grâce
-     * à la méthode readNBytes() dans un buffer.
+     * Méthode qui lit une série d'octets depuis la source, tant que le lot n'est pas rempli
+     * et que la fin de la source n'est pas atteinte.
      * Elle convertit ensuite ces octets en échantillons de 12 bits (dans un short de 16 bits) et les enregistre
      * dans le tableau d'échantillons fourni (batch).
      * Elle renvoie enfin le nombre d'échantillons convertis.
      *
      * @param batch le tableau d'échantillons qui doit être rempli.
      * @return le nombre d'échantillons convertis dans le tableau fourni (batch).
-     * @throws IOException              si une erreur se produit lors de la lecture des octets à partir du flux d'entrée.
+     * @throws IOException              si une erreur se produit lors de la lecture des octets à partir de la source.
      * @throws IllegalArgumentException si la longueur du tableau d'échantillons fourni ne correspond pas à la
      *                                  taille de lot spécifiée lors de la création de l'objet SamplesDecoder
      *                                  (on utilise la méthode checkArgument()).
@@ -55,14 +101,54 @@ public final class SamplesDecoder {
 
         Preconditions.checkArgument(batch.length == batchSize);
 
-        int bytesRead = stream.readNBytes(bytesBuffer, 0, bytesBuffer.length);
+        int samplesRead = 0;
+        while (samplesRead < batchSize) {
+            ByteBuffer bytes = source.read((batchSize - samplesRead) * Short.BYTES);
+            int samplesCount = bytes.remaining() / Short.BYTES;
+            if (samplesCount == 0) break;
+
+            switch (conversion) {
+                case SCALAR -> convertScalar(bytes, batch, samplesRead, samplesCount);
+                case BULK -> convertBulk(bytes, batch, samplesRead, samplesCount);
+            }
+            samplesRead += samplesCount;
+        }
+        return samplesRead;
+    }
+
+    /**
+     * Méthode qui convertit les octets lus en échantillons, un échantillon à la fois.
+     *
+     * @param bytes        les octets lus.
+     * @param batch        le tableau d'échantillons qui doit être rempli.
+     * @param batchIndex   l'index du premier échantillon à remplir.
+     * @param samplesCount le nombre d'échantillons à convertir.
+     */
+    private static void convertScalar(ByteBuffer bytes, short[] batch, int batchIndex, int samplesCount) {
+        int start = bytes.position();
+        for (int i = 0; i < samplesCount; ++i) {
+            int byteIndex = start + i * Short.BYTES;
+            int sample = (Byte.toUnsignedInt(bytes.get(byteIndex + 1)) << Byte.SIZE)
+                       | (Byte.toUnsignedInt(bytes.get(byteIndex)));
+            batch[batchIndex + i] = (short) (sample - OFFSET);
+        }
+    }
 
-        for (int i = 0; i < bytesRead / Short.BYTES; ++i) {
-            int byteIndex = i * Short.BYTES;
-            int sample = (Byte.toUnsignedInt(bytesBuffer[byteIndex + 1]) << Byte.SIZE)
-                       | (Byte.toUnsignedInt(bytesBuffer[byteIndex]));
-            batch[i] = (short) (sample - OFFSET);
+    /**
+     * Méthode qui convertit les octets lus en échantillons par lot : les échantillons
+     * sont d'abord copiés d'un bloc depuis une vue petit-boutiste des octets, puis recentrés.
+     * La soustraction se faisant modulo 2^16, le résultat est identique à celui de la conversion
+     * échantillon par échantillon, quels que soient les octets lus.
+     *
+     * @param bytes        les octets lus (dans l'ordre petit-boutiste).
+     * @param batch        le tableau d'échantillons qui doit être rempli.
+     * @param batchIndex   l'index du premier échantillon à remplir.
+     * @param samplesCount le nombre d'échantillons à convertir.
+     */
+    private static void convertBulk(ByteBuffer bytes, short[] batch, int batchIndex, int samplesCount) {
+        bytes.asShortBuffer().get(batch, batchIndex, samplesCount);
+        for (int i = batchIndex; i < batchIndex + samplesCount; ++i) {
+            batch[i] -= OFFSET;
         }
-        return bytesRead / Short.BYTES;
     }
 }
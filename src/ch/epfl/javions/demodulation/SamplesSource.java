@@ -0,0 +1,66 @@
+package ch.epfl.javions.demodulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * L'interface SamplesSource, du sous-paquetage demodulation, représente une source des octets
+ * des échantillons à démoduler (un flot, un canal, ou un fichier projeté en mémoire).
+ * Contrairement à un flot, une source peut fournir ses octets sans les copier dans un tableau intermédiaire,
+ * ce qui permet par exemple de décoder un enregistrement directement depuis sa projection en mémoire.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public interface SamplesSource {
+
+    /**
+     * Méthode qui retourne un tampon (petit-boutiste) contenant au plus maxBytes octets suivants de la source,
+     * entre sa position et sa limite. Le tampon retourné n'est valide que jusqu'au prochain appel.
+     * Le tampon ne contient un nombre impair d'octets qu'à la fin de la source.
+     *
+     * @param maxBytes le nombre maximal d'octets à retourner, pair et strictement positif.
+     * @return un tampon contenant les octets suivants de la source, vide si la fin de la source est atteinte.
+     * @throws IOException si une erreur se produit lors de la lecture de la source.
+     */
+    ByteBuffer read(int maxBytes) throws IOException;
+
+    /**
+     * Méthode qui retourne une source lisant ses octets dans le flot donné.
+     *
+     * @param stream le flot d'entrée qui fournit les octets.
+     * @return une source lisant ses octets dans le flot donné.
+     * @throws NullPointerException si le flot est nul.
+     */
+    static SamplesSource of(InputStream stream) {
+        return new StreamSamplesSource(stream);
+    }
+
+    /**
+     * Méthode qui retourne une source lisant ses octets dans le canal donné,
+     * au moyen d'un tampon direct (donc sans passer par un tableau intermédiaire).
+     *
+     * @param channel le canal qui fournit les octets.
+     * @return une source lisant ses octets dans le canal donné.
+     * @throws NullPointerException si le canal est nul.
+     */
+    static SamplesSource of(ReadableByteChannel channel) {
+        return new ChannelSamplesSource(channel);
+    }
+
+    /**
+     * Méthode qui retourne une source fournissant les octets du fichier donné, projeté en mémoire.
+     * Les octets sont lus directement dans la projection, sans aucune copie intermédiaire.
+     * Le fichier peut être plus grand que 2 Go.
+     *
+     * @param path le chemin du fichier (p. ex. un enregistrement .bin de la radio).
+     * @return une source fournissant les octets du fichier donné.
+     * @throws IOException si une erreur se produit lors de l'ouverture ou de la projection du fichier.
+     */
+    static SamplesSource ofFile(Path path) throws IOException {
+        return new MappedSamplesSource(path);
+    }
+}
@@ -0,0 +1,41 @@
+package ch.epfl.javions.demodulation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * La classe StreamSamplesSource, du sous-paquetage demodulation, représente une source d'échantillons
+ * lisant ses octets dans un flot, au moyen de la méthode readNBytes().
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+final class StreamSamplesSource implements SamplesSource {
+    private final InputStream stream;
+    private byte[] bytesBuffer = new byte[0];
+    private ByteBuffer bytesView = ByteBuffer.wrap(bytesBuffer);
+
+    /**
+     * Constructeur de la classe StreamSamplesSource.
+     *
+     * @param stream le flot d'entrée qui fournit les octets.
+     * @throws NullPointerException si le flot est nul.
+     */
+    StreamSamplesSource(InputStream stream) {
+        this.stream = Objects.requireNonNull(stream);
+    }
+
+    @Override
+    public ByteBuffer read(int maxBytes) throws IOException {
+        /* Le tampon n'est réalloué que si le nombre d'octets demandé augmente. */
+        if (bytesBuffer.length < maxBytes) {
+            bytesBuffer = new byte[maxBytes];
+            bytesView = ByteBuffer.wrap(bytesBuffer).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        int bytesRead = stream.readNBytes(bytesBuffer, 0, maxBytes);
+        return bytesView.clear().limit(bytesRead);
+    }
+}
@@ -320,7 +320,8 @@ public final class AircraftController {
      * sa vitesse en kilomètres par heure et son altitude en mètres) et d'un rectangle.
      * Le texte possède un lien qui lui permet d'afficher les informations en temps réels de l'état de l'aéronef
      * passé en argument. Les lignes du texte sont obtenues par les méthodes getFirstLine() et getSecondLine().
-     * Ce lien déprend donc des propriétés de vitesse et d'altitude de l'aéronef passé en argument.
+     * Ce lien déprend donc des propriétés de vitesse, d'altitude, d'indicatif et de caractéristiques (qui peuvent
+     * devenir connues après la création de l'étiquette) de l'aéronef passé en argument.
      * Le rectangle possède également un lien lui permettant d'avoir les bonnes largeurs/longueurs par rapport au
      * texte affiché.
      * Enfin, le groupe possède lui aussi un lien par rapport à sa visibilité. Sa visibilité dépend du niveau
@@ -336,7 +337,8 @@ public final class AircraftController {
                 () -> getFirstLine(aircraftState) + "\n" + getSecondLine(aircraftState),
                 aircraftState.velocityProperty(),
                 aircraftState.altitudeProperty(),
-                aircraftState.callSignProperty()));
+                aircraftState.callSignProperty(),
+                aircraftState.dataProperty()));
 
         Rectangle r = new Rectangle();
         r.widthProperty().bind(t.layoutBoundsProperty().map(b -> b.getWidth() + RECT_OFFSET));
@@ -425,34 +427,37 @@ public final class AircraftController {
     /**
      * Méthode appelée dans icon().
      * Permet de mettre en place un lien sur la propriété AircraftIcon qui dépend
-     * de la catégorie de l'aéronef.
+     * de la catégorie et des caractéristiques de l'aéronef.
      *
      * @param aircraftState        L'état d'un aéronef.
      * @param aircraftIconProperty La propriété contenant l'objet AircraftIcon.
      */
     private void aircraftIconBinds(ObservableAircraftState aircraftState,
                                    ObjectProperty<AircraftIcon> aircraftIconProperty) {
-        aircraftIconProperty.bind(aircraftState.categoryProperty().map(
-                (category) -> {
+        aircraftIconProperty.bind(Bindings.createObjectBinding(
+                () -> {
                     AircraftIcon aircraftIcon;
+                    int category = aircraftState.getCategory();
                     AircraftData data = aircraftState.getData();
                     if (data != null) {
                         aircraftIcon = AircraftIcon.iconFor(
                                 data.typeDesignator(),
                                 data.description(),
-                                category.intValue(),
+                                category,
                                 data.wakeTurbulenceCategory()
                         );
                     } else {
                         aircraftIcon = AircraftIcon.iconFor(
                                 new AircraftTypeDesignator(EMPTY),
                                 new AircraftDescription(EMPTY),
-                                category.intValue(),
+                                category,
                                 WakeTurbulenceCategory.UNKNOWN
                         );
                     }
                     return aircraftIcon;
-                }));
+                },
+                aircraftState.categoryProperty(),
+                aircraftState.dataProperty()));
     }
 
     /**
@@ -0,0 +1,201 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.Preconditions;
+import ch.epfl.javions.aircraft.AircraftData;
+import ch.epfl.javions.aircraft.AircraftDatabase;
+import ch.epfl.javions.aircraft.IcaoAddress;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * La classe AircraftDataLoader du sous-paquetage gui, recherche les caractéristiques fixes des aéronefs
+ * dans une base de données et mémorise les résultats de ces recherches dans un cache mémoire.
+ * <p>
+ * Le cache, de taille bornée, mémorise aussi bien les aéronefs trouvés que ceux absents de la base de données,
+ * et supprime les résultats les moins récemment utilisés lorsqu'il est plein. Les erreurs ne sont en revanche
+ * pas mémorisées, afin que la recherche soit retentée lors d'une prochaine demande.
+ * <p>
+ * Un chargeur retourné par inBackground() effectue les recherches sur son propre fil d'exécution,
+ * et transmet leurs résultats au moyen de l'exécuteur donné (p. ex. sur le fil JavaFX avec Platform::runLater) :
+ * le fil qui demande une recherche n'accède donc jamais au disque. Plusieurs demandes concernant un même aéronef
+ * pendant sa recherche ne donnent lieu qu'à une seule recherche. Un chargeur retourné par synchronous() effectue
+ * au contraire les recherches sur le fil qui les demande.
+ *
+ * @author Adam AIT BOUSSELHAM (356365)
+ * @author Abdellah JANATI IDRISSI (362341)
+ */
+public final class AircraftDataLoader {
+
+    /**
+     * La taille par défaut du cache mémoire, en nombre d'aéronefs.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final String THREAD_NAME = "aircraft-data-loader";
+    private final AircraftDatabase database;
+    private final Executor lookupExecutor, resultExecutor;
+    private final int cacheCapacity;
+    /* Le cache, indexé par la valeur de l'adresse ICAO ; la valeur null représente un aéronef inconnu. */
+    private final Map<Integer, AircraftData> cache;
+    /* Les consommateurs des recherches en cours, indexés par la valeur de l'adresse ICAO. */
+    private final Map<Integer, List<Consumer<? super AircraftData>>> pending = new HashMap<>();
+
+    /**
+     * Constructeur de la classe AircraftDataLoader.
+     *
+     * @param database       La base de données des aéronefs.
+     * @param cacheCapacity  La taille du cache mémoire, en nombre d'aéronefs.
+     * @param lookupExecutor L'exécuteur des recherches, ou null pour les effectuer sur le fil qui les demande.
+     * @param resultExecutor L'exécuteur chargé de transmettre les résultats des recherches aux consommateurs,
+     *                       ignoré si lookupExecutor est null.
+     * @throws NullPointerException     Si la base de données est nulle, ou si seul resultExecutor l'est.
+     * @throws IllegalArgumentException Si la taille du cache n'est pas strictement positive.
+     */
+    AircraftDataLoader(AircraftDatabase database, int cacheCapacity, Executor lookupExecutor,
+                       Executor resultExecutor) {
+        Preconditions.checkArgument(cacheCapacity > 0);
+        this.database = Objects.requireNonNull(database);
+        this.cacheCapacity = cacheCapacity;
+        this.lookupExecutor = lookupExecutor;
+        this.resultExecutor = lookupExecutor == null ? null : Objects.requireNonNull(resultExecutor);
+        this.cache = new LinkedHashMap<>(cacheCapacity, DEFAULT_LOAD_FACTOR, true);
+    }
+
+    /**
+     * Retourne un chargeur effectuant les recherches sur le fil qui les demande.
+     *
+     * @param database La base de données des aéronefs.
+     * @return Le chargeur.
+     * @throws NullPointerException Si la base de données est nulle.
+     */
+    public static AircraftDataLoader synchronous(AircraftDatabase database) {
+        return new AircraftDataLoader(database, DEFAULT_CACHE_CAPACITY, null, null);
+    }
+
+    /**
+     * Retourne un chargeur effectuant les recherches sur son propre fil d'exécution (un fil démon,
+     * qui n'empêche pas l'application de se terminer), et transmettant leurs résultats au moyen de l'exécuteur donné.
+     *
+     * @param database       La base de données des aéronefs.
+     * @param cacheCapacity  La taille du cache mémoire, en nombre d'aéronefs.
+     * @param resultExecutor L'exécuteur chargé de transmettre les résultats des recherches aux consommateurs.
+     * @return Le chargeur.
+     * @throws NullPointerException     Si la base de données ou l'exécuteur est nul.
+     * @throws IllegalArgumentException Si la taille du cache n'est pas strictement positive.
+     */
+    public static AircraftDataLoader inBackground(AircraftDatabase database, int cacheCapacity,
+                                                  Executor resultExecutor) {
+        Objects.requireNonNull(resultExecutor);
+        Executor lookupExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new AircraftDataLoader(database, cacheCapacity, lookupExecutor, resultExecutor);
+    }
+
+    /**
+     * Méthode qui recherche les caractéristiques de l'aéronef d'adresse donnée et les transmet au consommateur
+     * donné (null si l'aéronef est absent de la base de données). Si elles figurent dans le cache, elles lui
+     * sont transmises immédiatement, sur le fil appelant ; sinon, elles le sont sur ce même fil pour un chargeur
+     * synchrone, ou ultérieurement, au moyen de l'exécuteur des résultats, pour un chargeur en arrière-plan
+     * (auquel cas une erreur, d'entrée/sortie ou non, se traduit par la transmission de null).
+     *
+     * @param address  L'adresse ICAO de l'aéronef.
+     * @param consumer Le consommateur des caractéristiques de l'aéronef.
+     * @throws IOException          Si une erreur d'entrée/sortie se produit lors d'une recherche synchrone.
+     * @throws NullPointerException Si l'adresse ou le consommateur est nul.
+     */
+    public void lookup(IcaoAddress address, Consumer<? super AircraftData> consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+        Integer key = address.value();
+        AircraftData data;
+        synchronized (this) {
+            if (cache.containsKey(key)) {
+                data = cache.get(key);
+            } else if (lookupExecutor == null) {
+                data = database.get(address);
+                addToCache(key, data);
+            } else {
+                List<Consumer<? super AircraftData>> consumers = pending.get(key);
+                if (consumers == null) {
+                    pending.put(key, new ArrayList<>(List.of(consumer)));
+                    lookupExecutor.execute(() -> lookupInBackground(address));
+                } else {
+                    consumers.add(consumer);
+                }
+                return;
+            }
+        }
+        consumer.accept(data);
+    }
+
+    /**
+     * Méthode retournant le nombre d'aéronefs (connus ou non) dans le cache.
+     *
+     * @return Le nombre d'aéronefs dans le cache.
+     */
+    synchronized int cacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Méthode exécutée par l'exécuteur des recherches, qui recherche l'aéronef d'adresse donnée puis fait transmettre
+     * le résultat aux consommateurs en attente par l'exécuteur des résultats, même si la recherche échoue.
+     *
+     * @param address L'adresse ICAO de l'aéronef.
+     */
+    private void lookupInBackground(IcaoAddress address) {
+        AircraftData data;
+        boolean found;
+        try {
+            data = database.get(address);
+            found = true;
+        } catch (IOException | RuntimeException e) {
+            /* Quelle que soit l'erreur, la recherche doit être terminée afin que les consommateurs en attente
+             * reçoivent un résultat et que les demandes suivantes donnent lieu à une nouvelle recherche. */
+            data = null;
+            found = false;
+        }
+        AircraftData result = data;
+        boolean cacheable = found;
+        resultExecutor.execute(() -> complete(address.value(), result, cacheable));
+    }
+
+    /**
+     * Méthode qui termine la recherche de l'aéronef d'adresse donnée, en mémorisant son résultat si demandé
+     * et en le transmettant aux consommateurs en attente.
+     *
+     * @param key       La valeur de l'adresse ICAO de l'aéronef.
+     * @param data      Les caractéristiques de l'aéronef, ou null.
+     * @param cacheable Vrai si le résultat doit être mémorisé (c.-à-d. s'il ne provient pas d'une erreur).
+     */
+    private void complete(Integer key, AircraftData data, boolean cacheable) {
+        List<Consumer<? super AircraftData>> consumers;
+        synchronized (this) {
+            consumers = pending.remove(key);
+            if (cacheable) addToCache(key, data);
+        }
+        for (Consumer<? super AircraftData> consumer : consumers) consumer.accept(data);
+    }
+
+    /**
+     * Méthode qui ajoute un résultat au cache, en supprimant le résultat le moins récemment utilisé si
+     * le cache est plein.
+     *
+     * @param key  La valeur de l'adresse ICAO de l'aéronef.
+     * @param data Les caractéristiques de l'aéronef, ou null.
+     */
+    private void addToCache(Integer key, AircraftData data) {
+        if (cache.size() == cacheCapacity) {
+            Iterator<Integer> it = cache.keySet().iterator();
+            it.next();
+            it.remove();
+        }
+        cache.put(key, data);
+    }
+}
@@ -1,39 +1,157 @@
 package ch.epfl.javions.gui;
 
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.Preconditions;
 import ch.epfl.javions.adsb.AircraftStateAccumulator;
 import ch.epfl.javions.adsb.Message;
+import ch.epfl.javions.adsb.PositionFilter;
 import ch.epfl.javions.aircraft.AircraftDatabase;
 import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.javions.aircraft.IcaoAddressMap;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 
 /**
  * La classe AircraftStateManager du sous-paquetage gui, a pour but de garder à jour les états
  * d'un ensemble d'aéronefs en fonction des messages reçus d'eux.
+ * <p>
+ * Les aéronefs sont chaînés dans deux listes (celle des aéronefs dont la position est connue et celle des autres),
+ * dans l'ordre de réception de leur dernier message : chaque message déplace son aéronef à la fin de sa liste.
+ * La purge n'examine donc que le début de chaque liste, jusqu'au premier aéronef encore actif, et son coût
+ * est proportionnel au nombre d'aéronefs supprimés, et non au nombre d'aéronefs suivis. Chacune des deux
+ * listes a sa propre durée de vie, c.-à-d. la durée sans message au-delà de laquelle ses aéronefs sont supprimés ;
+ * la purge étant appelée périodiquement, c'est la période de ses appels qui détermine la précision de la suppression.
+ * <p>
+ * Les caractéristiques fixes d'un aéronef sont recherchées, au moyen d'un AircraftDataLoader, lors de la réception
+ * de son premier message ; lorsque ce chargeur effectue ses recherches en arrière-plan, elles ne sont ajoutées à
+ * son état qu'une fois la recherche terminée, si bien que updateWithMessage n'accède jamais au disque.
  *
  * @author Adam AIT BOUSSELHAM (356365)
  * @author Abdellah JANATI IDRISSI (362341)
  */
 public final class AircraftStateManager {
     private static final long ONE_MINUTE_TIME_STAMP_NS = 60_000_000_000L;
-    private final Map<IcaoAddress, AircraftStateAccumulator<ObservableAircraftState>> table = new HashMap<>();
+    /* Les aéronefs suivis, indexés par la valeur de leur adresse ICAO. */
+    private final IcaoAddressMap<TrackedAircraft> table = new IcaoAddressMap<>();
+    private final ExpiryList withPosition, withoutPosition;
     private final ObservableSet<ObservableAircraftState> aircraftStatesPosition = FXCollections.observableSet();
     private final ObservableSet<ObservableAircraftState> unmodifiableAircraftStatesPosition
             = FXCollections.unmodifiableObservableSet(aircraftStatesPosition);
-    private final AircraftDatabase database;
+    private final AircraftDataLoader dataLoader;
+    private final PositionFilter positionFilter;
+    private final GeoPos receiverPosition;
     private long previousMessageTimeStampNs;
 
     /**
      * Constructeur public de AircraftStateManager.
      *
-     * @param database La base de données contenant les caractéristiques fixes des aéronefs.
+     * @param database La base de données contenant les caractéristiques fixes des aéronefs,
+     *                 interrogée sur le fil appelant updateWithMessage.
      */
     public AircraftStateManager(AircraftDatabase database) {
-        this.database = database;
+        this(database, PositionFilter.ACCEPT_ALL);
+    }
+
+    /**
+     * Constructeur public de AircraftStateManager, dont les aéronefs ne prennent en compte que les positions
+     * acceptées par le filtre de plausibilité donné.
+     *
+     * @param database       La base de données contenant les caractéristiques fixes des aéronefs,
+     *                       interrogée sur le fil appelant updateWithMessage.
+     * @param positionFilter Le filtre de plausibilité des positions décodées.
+     * @throws NullPointerException Si le filtre est nul.
+     */
+    public AircraftStateManager(AircraftDatabase database, PositionFilter positionFilter) {
+        this(database, positionFilter, ONE_MINUTE_TIME_STAMP_NS, ONE_MINUTE_TIME_STAMP_NS);
+    }
+
+    /**
+     * Constructeur public de AircraftStateManager, dont les aéronefs obtiennent leurs caractéristiques fixes au moyen
+     * du chargeur donné, et ne prennent en compte que les positions acceptées par le filtre de plausibilité donné.
+     *
+     * @param dataLoader     Le chargeur des caractéristiques fixes des aéronefs.
+     * @param positionFilter Le filtre de plausibilité des positions décodées.
+     * @throws NullPointerException Si le chargeur ou le filtre est nul.
+     */
+    public AircraftStateManager(AircraftDataLoader dataLoader, PositionFilter positionFilter) {
+        this(dataLoader, positionFilter, ONE_MINUTE_TIME_STAMP_NS, ONE_MINUTE_TIME_STAMP_NS);
+    }
+
+    /**
+     * Constructeur public de AircraftStateManager, dont les aéronefs obtiennent leurs caractéristiques fixes au moyen
+     * du chargeur donné, ne prennent en compte que les positions acceptées par le filtre de plausibilité donné, et
+     * décodent leur position à partir d'un seul message au moyen de la position du récepteur, tant qu'aucune position
+     * récente n'est connue (voir AircraftStateAccumulator).
+     *
+     * @param dataLoader       Le chargeur des caractéristiques fixes des aéronefs.
+     * @param positionFilter   Le filtre de plausibilité des positions décodées.
+     * @param receiverPosition La position du récepteur, ou null si elle est inconnue.
+     * @throws NullPointerException Si le chargeur ou le filtre est nul.
+     */
+    public AircraftStateManager(AircraftDataLoader dataLoader, PositionFilter positionFilter,
+                                GeoPos receiverPosition) {
+        this(dataLoader, positionFilter, receiverPosition, ONE_MINUTE_TIME_STAMP_NS, ONE_MINUTE_TIME_STAMP_NS);
+    }
+
+    /**
+     * Constructeur public de AircraftStateManager, dont les aéronefs sont supprimés après les durées sans
+     * message données, selon que leur position est connue ou non.
+     *
+     * @param database                  La base de données contenant les caractéristiques fixes des aéronefs,
+     *                                  interrogée sur le fil appelant updateWithMessage.
+     * @param positionFilter            Le filtre de plausibilité des positions décodées.
+     * @param timeToLiveWithPosition    La durée de vie (en nanosecondes) des aéronefs dont la position est connue.
+     * @param timeToLiveWithoutPosition La durée de vie (en nanosecondes) des autres aéronefs.
+     * @throws NullPointerException     Si le filtre est nul.
+     * @throws IllegalArgumentException Si l'une des durées de vie n'est pas strictement positive.
+     */
+    public AircraftStateManager(AircraftDatabase database, PositionFilter positionFilter,
+                                long timeToLiveWithPosition, long timeToLiveWithoutPosition) {
+        this(AircraftDataLoader.synchronous(database), positionFilter,
+                timeToLiveWithPosition, timeToLiveWithoutPosition);
+    }
+
+    /**
+     * Constructeur public de AircraftStateManager, dont les aéronefs obtiennent leurs caractéristiques fixes au moyen
+     * du chargeur donné, et sont supprimés après les durées sans message données, selon que leur position est connue
+     * ou non.
+     *
+     * @param dataLoader                Le chargeur des caractéristiques fixes des aéronefs.
+     * @param positionFilter            Le filtre de plausibilité des positions décodées.
+     * @param timeToLiveWithPosition    La durée de vie (en nanosecondes) des aéronefs dont la position est connue.
+     * @param timeToLiveWithoutPosition La durée de vie (en nanosecondes) des autres aéronefs.
+     * @throws NullPointerException     Si le chargeur ou le filtre est nul.
+     * @throws IllegalArgumentException Si l'une des durées de vie n'est pas strictement positive.
+     */
+    public AircraftStateManager(AircraftDataLoader dataLoader, PositionFilter positionFilter,
+                                long timeToLiveWithPosition, long timeToLiveWithoutPosition) {
+        this(dataLoader, positionFilter, null, timeToLiveWithPosition, timeToLiveWithoutPosition);
+    }
+
+    /**
+     * Constructeur public de AircraftStateManager, dont les aéronefs obtiennent leurs caractéristiques fixes au moyen
+     * du chargeur donné, décodent leur position au moyen de la position du récepteur donnée, et sont supprimés après
+     * les durées sans message données, selon que leur position est connue ou non.
+     *
+     * @param dataLoader                Le chargeur des caractéristiques fixes des aéronefs.
+     * @param positionFilter            Le filtre de plausibilité des positions décodées.
+     * @param receiverPosition          La position du récepteur, ou null si elle est inconnue.
+     * @param timeToLiveWithPosition    La durée de vie (en nanosecondes) des aéronefs dont la position est connue.
+     * @param timeToLiveWithoutPosition La durée de vie (en nanosecondes) des autres aéronefs.
+     * @throws NullPointerException     Si le chargeur ou le filtre est nul.
+     * @throws IllegalArgumentException Si l'une des durées de vie n'est pas strictement positive.
+     */
+    public AircraftStateManager(AircraftDataLoader dataLoader, PositionFilter positionFilter, GeoPos receiverPosition,
+                                long timeToLiveWithPosition, long timeToLiveWithoutPosition) {
+        Preconditions.checkArgument(timeToLiveWithPosition > 0 && timeToLiveWithoutPosition > 0);
+        this.dataLoader = Objects.requireNonNull(dataLoader);
+        this.positionFilter = Objects.requireNonNull(positionFilter);
+        this.receiverPosition = receiverPosition;
+        this.withPosition = new ExpiryList(timeToLiveWithPosition);
+        this.withoutPosition = new ExpiryList(timeToLiveWithoutPosition);
     }
 
     /**
@@ -46,55 +164,137 @@ public final class AircraftStateManager {
         return unmodifiableAircraftStatesPosition;
     }
 
+    /**
+     * Méthode retournant le nombre d'aéronefs suivis, que leur position soit connue ou non.
+     *
+     * @return Le nombre d'aéronefs suivis.
+     */
+    int trackedAircraftCount() {
+        return table.size();
+    }
+
     /**
      * Méthode prenant en argument n message et l'utilisant pour mettre à jour l'état de l'aéronef qui
      * l'a envoyé (créant cet état lorsque le message est le premier reçu de cet aéronef)
      *
      * @param message Le message utilisé pour mettre à jour l'état de l'aéronef qui l'a envoyé.
      * @throws IOException Si une erreur se produit lors de l'accès au fichier ZIP ou à un des
-     *                     fichiers CSV de la base de données.
+     *                     fichiers CSV de la base de données, pour un chargeur synchrone.
      */
     public void updateWithMessage(Message message) throws IOException {
         IcaoAddress address = message.icaoAddress();
-        table.putIfAbsent(address,
-                new AircraftStateAccumulator<>(new ObservableAircraftState(address,database.get(address))));
-
-        AircraftStateAccumulator<ObservableAircraftState> accumulator = table.get(address);
-        accumulator.update(message);
+        TrackedAircraft aircraft = table.get(address.value());
+        /* L'état (et donc la recherche dans la base de données) n'est créé qu'au premier message de l'aéronef. */
+        if (aircraft == null) {
+            ObservableAircraftState state = new ObservableAircraftState(address, null);
+            dataLoader.lookup(address, state::setData);
+            aircraft = new TrackedAircraft(new AircraftStateAccumulator<>(state, receiverPosition, positionFilter));
+            table.put(address.value(), aircraft);
+        } else {
+            aircraft.list.unlink(aircraft);
+        }
+        aircraft.accumulator.update(message);
 
-        ObservableAircraftState stateSetter = accumulator.stateSetter();
+        ObservableAircraftState stateSetter = aircraft.accumulator.stateSetter();
         previousMessageTimeStampNs = stateSetter.getLastMessageTimeStampNs();
         if (stateSetter.getPosition() != null) {
             aircraftStatesPosition.add(stateSetter);
+            withPosition.append(aircraft);
+        } else {
+            withoutPosition.append(aircraft);
         }
     }
 
     /**
      * Méthode supprimant de l'ensemble des états observables tous ceux
-     * correspondant à des aéronefs dont aucun message n'a été reçu dans la minute précédant
-     * la réception du dernier message passé à updateWithMessage.
+     * correspondant à des aéronefs dont aucun message n'a été reçu pendant leur durée de vie (par défaut
+     * une minute) précédant la réception du dernier message passé à updateWithMessage.
      */
     public void purge() {
-        table.entrySet().removeIf(entry -> {
-            ObservableAircraftState state = entry.getValue().stateSetter();
-            if (shouldBeRemoved(state)) {
-                aircraftStatesPosition.remove(state);
-                return true;
-            }
-            return false;
-        });
+        purge(withPosition);
+        purge(withoutPosition);
+    }
+
+    /**
+     * Méthode supprimant les aéronefs expirés du début de la liste donnée.
+     *
+     * @param list La liste des aéronefs, dans l'ordre de réception de leur dernier message.
+     */
+    private void purge(ExpiryList list) {
+        while (list.head != null && shouldBeRemoved(list.head.accumulator.stateSetter(), list.timeToLive)) {
+            TrackedAircraft aircraft = list.head;
+            list.unlink(aircraft);
+            ObservableAircraftState state = aircraft.accumulator.stateSetter();
+            table.remove(state.getAddress().value());
+            aircraftStatesPosition.remove(state);
+        }
     }
 
     /**
      * Méthode utilisée dans la méthode purge().
-     * Regarde si un aéronef n'a reçu aucun message dans la minute précédant
+     * Regarde si un aéronef n'a reçu aucun message pendant la durée donnée précédant
      * la réception du dernier message passé à updateWithMessage et retourne true si c'est vrai.
-     * @param state L'état d'un aéronef.
+     * @param state      L'état d'un aéronef.
+     * @param timeToLive La durée de vie de l'aéronef.
      * @return      Vrai si un aéronef doit être supprimé de la table et de
      *              l'ensemble des états observables, sinon faux.
      */
-    private boolean shouldBeRemoved(ObservableAircraftState state) {
-        return previousMessageTimeStampNs - state.getLastMessageTimeStampNs() >= ONE_MINUTE_TIME_STAMP_NS;
+    private boolean shouldBeRemoved(ObservableAircraftState state, long timeToLive) {
+        return previousMessageTimeStampNs - state.getLastMessageTimeStampNs() >= timeToLive;
     }
 
-}
\ No newline at end of file
+    /**
+     * Classe imbriquée TrackedAircraft représentant un aéronef suivi, qui est également
+     * un maillon de la liste (ExpiryList) à laquelle il appartient.
+     */
+    private static final class TrackedAircraft {
+        private final AircraftStateAccumulator<ObservableAircraftState> accumulator;
+        private ExpiryList list;
+        private TrackedAircraft previous, next;
+
+        private TrackedAircraft(AircraftStateAccumulator<ObservableAircraftState> accumulator) {
+            this.accumulator = accumulator;
+        }
+    }
+
+    /**
+     * Classe imbriquée ExpiryList représentant une liste doublement chaînée d'aéronefs suivis,
+     * dans l'ordre de réception de leur dernier message, ainsi que leur durée de vie.
+     */
+    private static final class ExpiryList {
+        private final long timeToLive;
+        private TrackedAircraft head, tail;
+
+        private ExpiryList(long timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        /**
+         * Ajoute l'aéronef donné, qui n'appartient à aucune liste, à la fin de la liste.
+         *
+         * @param aircraft L'aéronef.
+         */
+        private void append(TrackedAircraft aircraft) {
+            aircraft.list = this;
+            aircraft.previous = tail;
+            aircraft.next = null;
+            if (tail == null) head = aircraft;
+            else tail.next = aircraft;
+            tail = aircraft;
+        }
+
+        /**
+         * Retire l'aéronef donné, qui appartient à la liste, de la liste.
+         *
+         * @param aircraft L'aéronef.
+         */
+        private void unlink(TrackedAircraft aircraft) {
+            if (aircraft.previous == null) head = aircraft.next;
+            else aircraft.previous.next = aircraft.next;
+            if (aircraft.next == null) tail = aircraft.previous;
+            else aircraft.next.previous = aircraft.previous;
+            aircraft.list = null;
+            aircraft.previous = aircraft.next = null;
+        }
+    }
+}
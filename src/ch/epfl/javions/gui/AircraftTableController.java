@@ -6,7 +6,6 @@ import ch.epfl.javions.adsb.CallSign;
 import ch.epfl.javions.aircraft.AircraftData;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ObservableSet;
@@ -233,22 +232,22 @@ public final class AircraftTableController {
         TableColumn<ObservableAircraftState, String> registrationColumn = createTextualColumn(
                 REGISTRATION_COLUMN_TITLE,
                 REGISTRATION_PREF_WIDTH,
-                f -> new ReadOnlyObjectWrapper<>(f.getData()).map(d -> d.registration().string()));
+                f -> f.dataProperty().map(d -> d.registration().string()));
 
         TableColumn<ObservableAircraftState, String> modelColumn = createTextualColumn(
                 MODEL_COLUMN_TITLE,
                 MODEL_PREF_WIDTH,
-                f -> new ReadOnlyObjectWrapper<>(f.getData()).map(AircraftData::model));
+                f -> f.dataProperty().map(AircraftData::model));
 
         TableColumn<ObservableAircraftState, String> typeDesignator = createTextualColumn(
                 TYPE_DESIGNATOR_COLUMN_TITLE,
                 TYPE_DESIGNATOR_PREF_WIDTH,
-                f -> new ReadOnlyObjectWrapper<>(f.getData()).map(d -> d.typeDesignator().string()));
+                f -> f.dataProperty().map(d -> d.typeDesignator().string()));
 
         TableColumn<ObservableAircraftState, String> descriptionColumn = createTextualColumn(
                 DESCRIPTION_COLUMN_TITLE,
                 DESCRIPTION_PREF_WIDTH,
-                f -> new ReadOnlyObjectWrapper<>(f.getData()).map(d -> d.description().string()));
+                f -> f.dataProperty().map(d -> d.description().string()));
 
         TableColumn<ObservableAircraftState, String> longitudeColumn = createNumericalColumn(
                 LONGITUDE_COLUMN_TITLE,
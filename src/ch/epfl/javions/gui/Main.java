@@ -1,13 +1,18 @@
 package ch.epfl.javions.gui;
 
 import ch.epfl.javions.ByteString;
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.Units;
 import ch.epfl.javions.adsb.Message;
 import ch.epfl.javions.adsb.MessageParser;
+import ch.epfl.javions.adsb.PositionFilter;
 import ch.epfl.javions.adsb.RawMessage;
 import ch.epfl.javions.aircraft.AircraftDatabase;
 import ch.epfl.javions.demodulation.AdsbDemodulator;
+import ch.epfl.javions.demodulation.DemodulationPipeline;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -39,10 +44,18 @@ public final class Main extends Application {
     private static final int MIN_HEIGHT = 600;
     private static final int NS_TO_MS = 1_000_000;
     private static final long PURGE_UPDATE_NS = 1_000_000_000L;
+    /* Vitesse au-delà de laquelle un déplacement est jugé aberrant (environ Mach 3, en mètres par seconde). */
+    private static final double MAX_PLAUSIBLE_SPEED = 1_000d;
     private static final String TITLE = "Javions";
     private static final String DEFAULT_TILE_SERVER = "tile.openstreetmap.org";
     private static final String DEFAULT_CACHE_DIR = "tile-cache";
     private static final String DEFAULT_DATABASE_URI = "/aircraft.zip";
+    /* La base de donnée d'aéronefs compilée, (re)construite au démarrage si elle est plus ancienne que le fichier ZIP. */
+    private static final String DEFAULT_COMPILED_DATABASE = "aircraft.bin";
+    private static final String PIPELINE_PROPERTY = "javions.pipeline";
+    private static final String COMPILED_DATABASE_PROPERTY = "javions.compiledDatabase";
+    private static final String RECEIVER_LONGITUDE_PROPERTY = "javions.receiverLongitude";
+    private static final String RECEIVER_LATITUDE_PROPERTY = "javions.receiverLatitude";
 
     /**
      * Méthode main de la classe Main qui appelle la méthode launch de la classe abstraite
@@ -57,17 +70,62 @@ public final class Main extends Application {
     /**
      * Méthode qui démodule des messages reçus par une radio (connectée au périphérique actuel)
      * et les places directement dans une file de type ConcurrentLinkedQueue.
+     * Si la propriété système javions.pipeline vaut true, les étapes de la démodulation s'exécutent
+     * chacune sur son propre fil d'exécution (voir DemodulationPipeline).
      *
      * @throws IOException Si une erreur se produit lors de la lecture du flux.
      */
     private void readRadioMessages(ConcurrentLinkedQueue<RawMessage> queue) throws IOException {
-        AdsbDemodulator demodulator = new AdsbDemodulator(System.in);
         RawMessage nextMessage;
-        while ((nextMessage = demodulator.nextMessage()) != null) {
-            queue.add(nextMessage);
+        if (Boolean.getBoolean(PIPELINE_PROPERTY)) {
+            DemodulationPipeline pipeline = new DemodulationPipeline(System.in);
+            while ((nextMessage = pipeline.nextMessage()) != null) {
+                queue.add(nextMessage);
+            }
+        } else {
+            AdsbDemodulator demodulator = new AdsbDemodulator(System.in);
+            while ((nextMessage = demodulator.nextMessage()) != null) {
+                queue.add(nextMessage);
+            }
         }
     }
 
+    /**
+     * Méthode qui ouvre la base de données d'aéronefs compilée à partir du fichier ZIP donné, dont le chemin est
+     * donné par la propriété système javions.compiledDatabase (aircraft.bin, dans le répertoire courant, par défaut).
+     * Si la base de données compilée ne peut pas être construite ou ouverte (p. ex. si le répertoire n'est pas
+     * accessible en écriture), la base de données est chargée en mémoire à partir du fichier ZIP.
+     *
+     * @param fileName Le nom du fichier ZIP contenant la base de données.
+     * @return La base de données d'aéronefs.
+     * @throws IOException Si une erreur se produit lors de la lecture du fichier ZIP.
+     */
+    private static AircraftDatabase openDatabase(String fileName) throws IOException {
+        Path compiledFile = Path.of(System.getProperty(COMPILED_DATABASE_PROPERTY, DEFAULT_COMPILED_DATABASE));
+        try {
+            return AircraftDatabase.openCompiled(fileName, compiledFile);
+        } catch (IOException e) {
+            return AircraftDatabase.loadIndexed(fileName);
+        }
+    }
+
+    /**
+     * Méthode retournant la position du récepteur, donnée en degrés par les propriétés système
+     * javions.receiverLongitude et javions.receiverLatitude.
+     *
+     * @return La position du récepteur, ou null si l'une des deux propriétés n'est pas définie.
+     * @throws NumberFormatException    Si l'une des propriétés n'est pas un nombre.
+     * @throws IllegalArgumentException Si la latitude n'est pas comprise entre -90° et 90°.
+     */
+    private static GeoPos receiverPosition() {
+        String longitude = System.getProperty(RECEIVER_LONGITUDE_PROPERTY);
+        String latitude = System.getProperty(RECEIVER_LATITUDE_PROPERTY);
+        if (longitude == null || latitude == null) return null;
+        return new GeoPos(
+                (int) Math.rint(Units.convert(Double.parseDouble(longitude), Units.Angle.DEGREE, Units.Angle.T32)),
+                (int) Math.rint(Units.convert(Double.parseDouble(latitude), Units.Angle.DEGREE, Units.Angle.T32)));
+    }
+
     /**
      * Méthode qui démodule des messages provenant d'un fichier, ces derniers n'y sont placés
      * que lorsqu'une durée égale à leur horodatage s'est écoulée depuis le début de l'exécution du programme.
@@ -105,9 +163,10 @@ public final class Main extends Application {
      *
      * @param primaryStage La scène principale de cette application.
      * @throws URISyntaxException Si le chemin d'accès à la base de donnée d'aéronefs est invalide.
+     * @throws IOException        Si une erreur se produit lors du chargement de la base de donnée d'aéronefs.
      */
     @Override
-    public void start(Stage primaryStage) throws URISyntaxException {
+    public void start(Stage primaryStage) throws URISyntaxException, IOException {
 
         final ConcurrentLinkedQueue<RawMessage> queue = new ConcurrentLinkedQueue<>();
         List<String> args = getParameters().getRaw();
@@ -119,9 +178,13 @@ public final class Main extends Application {
         URL dbUrl = getClass().getResource(DEFAULT_DATABASE_URI);
         assert dbUrl != null;
         String f = Path.of(dbUrl.toURI()).toString();
-        AircraftDatabase db = new AircraftDatabase(f);
+        AircraftDatabase db = openDatabase(f).withPresenceFilter();
 
-        AircraftStateManager asm = new AircraftStateManager(db);
+        /* Les caractéristiques des aéronefs sont recherchées en arrière-plan et ajoutées à leur état sur le fil JavaFX */
+        AircraftDataLoader loader = AircraftDataLoader.inBackground(db, AircraftDataLoader.DEFAULT_CACHE_CAPACITY,
+                Platform::runLater);
+        AircraftStateManager asm = new AircraftStateManager(loader, PositionFilter.maxSpeed(MAX_PLAUSIBLE_SPEED),
+                receiverPosition());
         ObjectProperty<ObservableAircraftState> sap = new SimpleObjectProperty<>();
         AircraftController ac = new AircraftController(mp, asm.states(), sap);
         AircraftTableController atc = new AircraftTableController(asm.states(), sap);
@@ -21,7 +21,7 @@ import java.util.Objects;
 public final class ObservableAircraftState implements AircraftStateSetter {
 
     private final IcaoAddress address;
-    private final AircraftData data;
+    private final ObjectProperty<AircraftData> data;
     private final LongProperty lastMessageTimeStampNs = new SimpleLongProperty(-1L);
     private final IntegerProperty category = new SimpleIntegerProperty(0);
     private final ObjectProperty<CallSign> callSign = new SimpleObjectProperty<>(null);
@@ -40,13 +40,14 @@ public final class ObservableAircraftState implements AircraftStateSetter {
      * @param address L'adresse ICAO de l'aéronef dont l'état est destiné
      *                à être représenté par l'instance à créer.
      * @param data    Les caractéristiques fixes de cet aéronef,
-     *                provenant de la base de données mictronics.
+     *                provenant de la base de données mictronics, ou null si elles sont inconnues
+     *                (éventuellement car pas encore chargées, voir setData()).
      * @throws NullPointerException si L'adresse ICAO de l'aéronef passée en argument est nulle.
      */
     public ObservableAircraftState(IcaoAddress address, AircraftData data) {
         Objects.requireNonNull(address);
         this.address = address;
-        this.data = data;
+        this.data = new SimpleObjectProperty<>(data);
     }
 
     /**
@@ -63,12 +64,32 @@ public final class ObservableAircraftState implements AircraftStateSetter {
      * Méthode d'accès aux caractéristiques fixes de cet aéronef,
      * provenant de la base de données mictronics.
      *
-     * @return Les caractéristiques de l'aéronef.
+     * @return Les caractéristiques de l'aéronef, ou null si elles sont inconnues.
      */
     public AircraftData getData() {
+        return data.get();
+    }
+
+    /**
+     * Méthode d'accès à la propriété data en lecture seule, qui change lorsque les caractéristiques
+     * de l'aéronef, recherchées en arrière-plan, deviennent connues.
+     *
+     * @return La propriété data.
+     */
+    public ReadOnlyObjectProperty<AircraftData> dataProperty() {
         return data;
     }
 
+    /**
+     * Méthode de modification des caractéristiques fixes de l'aéronef, appelée lorsque leur recherche
+     * dans la base de données se termine.
+     *
+     * @param data Les caractéristiques de l'aéronef, ou null si elles sont inconnues.
+     */
+    void setData(AircraftData data) {
+        this.data.set(data);
+    }
+
     /**
      * Méthode d'accès à la propriété lastMessageTimeStampNs en lecture seule.
      *
@@ -0,0 +1,40 @@
+package ch.epfl.javions;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+// Compares the slicing-by-8 CRC with the byte-by-byte table-driven version it replaced, on 14-byte
+// (long) and 7-byte (short) frames, and on the data bytes of short frames read in place (no copy).
+// Not a JUnit test: run it with its main method.
+public final class Crc24Benchmark {
+    private static final int FRAMES_COUNT = 1 << 16;
+
+    private static byte[][] randomFrames(int length) {
+        var rng = TestRandomizer.newRandom();
+        var frames = new byte[FRAMES_COUNT][length];
+        for (var frame : frames) rng.nextBytes(frame);
+        return frames;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        for (var length : new int[]{14, 7}) {
+            var frames = randomFrames(length);
+            MicroBenchmark.measure("Crc24.crcBytewise (" + length + " bytes)", FRAMES_COUNT, "frames", () -> {
+                var sum = 0L;
+                for (var frame : frames) sum += crc24.crcBytewise(frame);
+                return sum;
+            });
+            MicroBenchmark.measure("Crc24.crc (" + length + " bytes)", FRAMES_COUNT, "frames", () -> {
+                var sum = 0L;
+                for (var frame : frames) sum += crc24.crc(frame);
+                return sum;
+            });
+            MicroBenchmark.measure("Crc24.crc (first " + (length - 3) + " bytes)", FRAMES_COUNT, "frames", () -> {
+                var sum = 0L;
+                for (var frame : frames) sum += crc24.crc(frame, 0, length - 3);
+                return sum;
+            });
+        }
+    }
+}
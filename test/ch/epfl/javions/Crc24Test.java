@@ -1,14 +1,17 @@
 package ch.epfl.javions;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class Crc24Test {
 
@@ -65,4 +68,65 @@ class Crc24Test {
             assertEquals(0, crc24.crc(m));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void crc24CrcIsEqualToBytewiseCrcForAllLengths() {
+        var rng = TestRandomizer.newRandom();
+        for (var generator : new int[]{Crc24.GENERATOR, 0xFACE51, 0xF00DAB}) {
+            var crc24 = new Crc24(generator);
+            for (var length = 0; length <= 40; length += 1) {
+                for (var i = 0; i < 25; i += 1) {
+                    var bytes = new byte[length];
+                    rng.nextBytes(bytes);
+                    assertEquals(crc24.crcBytewise(bytes), crc24.crc(bytes));
+                }
+            }
+        }
+    }
+
+    @Test
+    void crc24CrcWorksOnPartOfArray() {
+        var rng = TestRandomizer.newRandom();
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        var bytes = new byte[64];
+        rng.nextBytes(bytes);
+        for (var offset = 0; offset <= bytes.length; offset += 1) {
+            for (var length = 0; offset + length <= bytes.length; length += 1) {
+                var expected = crc24.crcBytewise(Arrays.copyOfRange(bytes, offset, offset + length));
+                assertEquals(expected, crc24.crc(bytes, offset, length));
+            }
+        }
+        for (var m : ADSB_MESSAGES) {
+            var padded = HEX_FORMAT.parseHex("0102" + m + "0304");
+            assertEquals(0, crc24.crc(padded, 2, m.length() / 2));
+        }
+    }
+
+    @Test
+    void crc24CrcThrowsIfPartIsOutOfBounds() {
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        var bytes = new byte[14];
+        assertThrows(IndexOutOfBoundsException.class, () -> crc24.crc(bytes, -1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> crc24.crc(bytes, 0, 15));
+        assertThrows(IndexOutOfBoundsException.class, () -> crc24.crc(bytes, 10, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> crc24.crc(bytes, 2, -1));
+    }
+
+    @Test
+    void crc24UpdateIsEqualToCrcOfAllBytes() {
+        var rng = TestRandomizer.newRandom();
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        for (var m : ADSB_MESSAGES) {
+            var crc = 0;
+            for (var b : HEX_FORMAT.parseHex(m)) crc = crc24.update(crc, b);
+            assertEquals(0, crc);
+        }
+        for (var length = 1; length <= 20; length += 1) {
+            var bytes = new byte[length];
+            rng.nextBytes(bytes);
+            var crc = 0;
+            for (var b : bytes) crc = crc24.update(crc, b);
+            assertEquals(crc24.crc(bytes), crc);
+        }
+    }
+}
@@ -144,4 +144,38 @@ class AirbornePositionMessageTest {
             assertNull(airbornePositionMessage);
         }
     }
-}
\ No newline at end of file
+
+    // Straightforward decoding of the ALT field, naming each of its bits:
+    // C1 A1 C2 A2 C4 A4 B1 Q/D1 B2 D2 B4 D4 (from the most to the least significant one).
+    private static double referenceAltitude(int alt) {
+        if ((alt & (1 << 4)) != 0) {
+            var n = ((alt >>> 5) << 4) | (alt & 0xF);
+            return (n * 25 - 1000) * 0.3048;
+        }
+        int[] grayBitsIndices = {4, 2, 0, 10, 8, 6, 5, 3, 1}; // D1 D2 D4 A1 A2 A4 B1 B2 B4
+        var gray500 = 0;
+        for (var i : grayBitsIndices) gray500 = (gray500 << 1) | ((alt >>> i) & 1);
+        var gray100 = ((alt >>> 11) & 1) << 2 | ((alt >>> 9) & 1) << 1 | ((alt >>> 7) & 1); // C1 C2 C4
+        var n500 = 0;
+        for (var g = gray500; g != 0; g >>>= 1) n500 ^= g;
+        var n100 = 0;
+        for (var g = gray100; g != 0; g >>>= 1) n100 ^= g;
+        if (n100 == 0 || n100 == 5 || n100 == 6) return Double.NaN;
+        if (n100 == 7) n100 = 5;
+        if (n500 % 2 == 1) n100 = 6 - n100;
+        return (n500 * 500 + n100 * 100 - 1300) * 0.3048;
+    }
+
+    @Test
+    void airbornePositionMessageAltitudeTableIsCorrectForAllCodes() {
+        var validCodes = 0;
+        for (var alt = 0; alt < 1 << 12; alt += 1) {
+            var payload = (long) alt << 36;
+            var expected = referenceAltitude(alt);
+            assertEquals(AirbornePositionMessage.decodeAltitude(alt), AirbornePositionMessage.altitude(payload));
+            assertEquals(expected, AirbornePositionMessage.altitude(payload), 1e-9);
+            if (!Double.isNaN(expected)) validCodes += 1;
+        }
+        assertEquals(2048 + 1280, validCodes);
+    }
+}
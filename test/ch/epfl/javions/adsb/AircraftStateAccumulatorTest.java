@@ -186,6 +186,132 @@ class AircraftStateAccumulatorTest {
         }
     }
 
+    @Test
+    void aircraftStateAccumulatorDecodesSingleMessagesAfterFirstFix() {
+        var icao = new IcaoAddress("ABCDEF");
+        var moreThan10s = 10_000_000_001L;
+        var stateSetter = new AircraftState();
+        var accumulator = new AircraftStateAccumulator<>(stateSetter);
+
+        var timeStampNs = 109L;
+        accumulator.update(new AirbornePositionMessage(timeStampNs, icao, 1000d, 0, cpr(98152), cpr(98838)));
+        assertNull(stateSetter.position);
+        timeStampNs += 1000L;
+        accumulator.update(new AirbornePositionMessage(timeStampNs, icao, 1000d, 1, cpr(95758), cpr(81899)));
+        var fix = stateSetter.position;
+        assertNotNull(fix);
+
+        // The opposite message is now too old, but the last position is recent enough to be a reference.
+        timeStampNs += moreThan10s;
+        accumulator.update(new AirbornePositionMessage(timeStampNs, icao, 1000d, 1, cpr(95758), cpr(81899)));
+        assertNotNull(stateSetter.position);
+        assertEquals(fix.latitudeT32(), stateSetter.position.latitudeT32());
+        assertEquals(fix.longitudeT32(), stateSetter.position.longitudeT32(), 1);
+
+        // Once the last position is too old, no reference is left.
+        stateSetter.position = null;
+        timeStampNs += 6 * moreThan10s;
+        accumulator.update(new AirbornePositionMessage(timeStampNs, icao, 1000d, 1, cpr(95758), cpr(81899)));
+        assertNull(stateSetter.position);
+    }
+
+    @Test
+    void aircraftStateAccumulatorDecodesFirstMessageAgainstReceiverPosition() {
+        var icao = new IcaoAddress("ABCDEF");
+        var receiver = new GeoPos((int) Math.rint(Math.scalb(6.5668 / 360, 32)),
+                (int) Math.rint(Math.scalb(46.5191 / 360, 32)));
+        var stateSetter = new AircraftState();
+        var accumulator = new AircraftStateAccumulator<>(stateSetter, receiver);
+
+        accumulator.update(new AirbornePositionMessage(109L, icao, 1000d, 1, cpr(95758), cpr(81899)));
+        var p = stateSetter.position;
+        assertNotNull(p);
+        assertEquals(6.57520, Math.toDegrees(p.longitude()), 5e-5);
+        assertEquals(46.52444, Math.toDegrees(p.latitude()), 5e-5);
+    }
+
+    @Test
+    void aircraftStateAccumulatorRejectsImplausiblePositions() {
+        var icao = new IcaoAddress("ABCDEF");
+        var epfl = new GeoPos((int) Math.rint(Math.scalb(6.5668 / 360, 32)),
+                (int) Math.rint(Math.scalb(46.5191 / 360, 32)));
+        var zurich = new GeoPos((int) Math.rint(Math.scalb(8.5417 / 360, 32)),
+                (int) Math.rint(Math.scalb(47.3769 / 360, 32)));
+
+        var stateSetter = new AircraftState();
+        var accumulator = new AircraftStateAccumulator<>(stateSetter, epfl, PositionFilter.maxRange(epfl, 50_000));
+        accumulator.update(new AirbornePositionMessage(109L, icao, 1000d, 1, cpr(95758), cpr(81899)));
+        assertNotNull(stateSetter.position);
+        assertEquals(0, accumulator.rejectedPositions());
+
+        var rejectingStateSetter = new AircraftState();
+        var rejectingAccumulator = new AircraftStateAccumulator<>(rejectingStateSetter, epfl,
+                PositionFilter.maxRange(zurich, 50_000));
+        for (var i = 0; i < 5; i += 1) {
+            rejectingAccumulator.update(new AirbornePositionMessage(109L + i, icao, 1000d, 1, cpr(95758), cpr(81899)));
+            assertNull(rejectingStateSetter.position);
+            assertEquals(i + 1, rejectingAccumulator.rejectedPositions());
+        }
+    }
+
+    @Test
+    void aircraftStateAccumulatorForgetsImplausibleLastPosition() {
+        var icao = new IcaoAddress("ABCDEF");
+        var stateSetter = new AircraftState();
+        // A filter accepting only the first position, then rejecting all moves.
+        PositionFilter filter = (lastPosition, lastTimeStampNs, position, timeStampNs) ->
+                lastPosition == null || lastPosition.equals(position);
+        var accumulator = new AircraftStateAccumulator<>(stateSetter, null, filter);
+
+        var timeStampNs = 109L;
+        accumulator.update(new AirbornePositionMessage(timeStampNs, icao, 1000d, 0, cpr(98152), cpr(98838)));
+        accumulator.update(new AirbornePositionMessage(timeStampNs += 1000L, icao, 1000d, 1, cpr(95758), cpr(81899)));
+        var first = stateSetter.position;
+        assertNotNull(first);
+
+        // More than 10 s apart, so that each message is decoded locally against the last position.
+        var moved = new int[][]{{98152, 106326}, {95758, 89262}, {95758, 106330}};
+        for (var i = 0; i < moved.length; i += 1) {
+            var m = moved[i];
+            accumulator.update(new AirbornePositionMessage(timeStampNs += 11_000_000_000L, icao, 1000d,
+                    i % 2 == 0 ? 0 : 1, cpr(m[0]), cpr(m[1])));
+        }
+        // The first two moves are rejected, the third one makes the accumulator forget the first position.
+        assertEquals(2, accumulator.rejectedPositions());
+        assertNotEquals(first, stateSetter.position);
+    }
+
+    @Test
+    void aircraftStateAccumulatorKeepsLastPositionWhenRejectedOutOfRange() {
+        var icao = new IcaoAddress("ABCDEF");
+        var epfl = new GeoPos((int) Math.rint(Math.scalb(6.5668 / 360, 32)),
+                (int) Math.rint(Math.scalb(46.5191 / 360, 32)));
+        var stateSetter = new AircraftState();
+        var filter = PositionFilter.maxRange(epfl, 50_000).and(PositionFilter.maxSpeed(1_000));
+        var accumulator = new AircraftStateAccumulator<>(stateSetter, null, filter);
+
+        var timeStampNs = 109L;
+        accumulator.update(new AirbornePositionMessage(timeStampNs, icao, 1000d, 0, cpr(98152), cpr(98838)));
+        accumulator.update(new AirbornePositionMessage(timeStampNs += 1000L, icao, 1000d, 1, cpr(95758), cpr(81899)));
+        var first = stateSetter.position;
+        assertNotNull(first);
+
+        // Positions far out of range, rejected whatever the last position is.
+        for (var i = 0; i < 4; i += 1) {
+            accumulator.update(new AirbornePositionMessage(timeStampNs += 11_000_000_000L, icao, 1000d, 0,
+                    cpr(98152), cpr(124_518)));
+            assertEquals(first, stateSetter.position);
+        }
+        assertEquals(4, accumulator.rejectedPositions());
+
+        // The last position was kept, so that a single message can still be decoded against it.
+        accumulator.update(new AirbornePositionMessage(timeStampNs += 11_000_000_000L, icao, 1000d, 0,
+                cpr(98152), cpr(98838)));
+        assertEquals(4, accumulator.rejectedPositions());
+        assertNotEquals(first, stateSetter.position);
+        assertTrue(PositionFilter.distance(first, stateSetter.position) < 1_000);
+    }
+
     private static final class AircraftState implements AircraftStateSetter {
         long lastMessageTimeStampNs = -1L;
         int category = -1;
@@ -0,0 +1,43 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+// Compares the decoding of the altitude of airborne position messages by the Gillham bit-permutation
+// algorithm with the lookup in the table built from it, on a replay made only of position messages
+// (random payloads whose altitude is valid), then measures the whole batch parsing of these messages.
+// Not a JUnit test: run it with its main method.
+public final class AltitudeDecodingBenchmark {
+    private static final int MESSAGES_COUNT = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var payloads = new long[MESSAGES_COUNT];
+        var rawMessages = new RawMessageBatch(MESSAGES_COUNT);
+        for (var i = 0; i < MESSAGES_COUNT; ) {
+            var payload = ((long) rng.nextInt(9, 19) << 51) | rng.nextLong(1L << 51);
+            if (Double.isNaN(AirbornePositionMessage.altitude(payload))) continue;
+            payloads[i++] = payload;
+            // DF17, capability 5, ICAO address 4D2228; the CRC is irrelevant to parsing.
+            var high = (0x8D4D2228L << 32) | (payload >>> 24);
+            rawMessages.add(i, high, (payload & 0xFFFFFF) << 24);
+        }
+        var messages = new MessageBatch(MESSAGES_COUNT);
+
+        MicroBenchmark.measure("Gillham decoding", MESSAGES_COUNT, "altitudes", () -> {
+            var sum = 0.0;
+            for (var payload : payloads)
+                sum += AirbornePositionMessage.decodeAltitude((int) (payload >>> 36) & 0xFFF);
+            return (long) sum;
+        });
+        MicroBenchmark.measure("Table lookup", MESSAGES_COUNT, "altitudes", () -> {
+            var sum = 0.0;
+            for (var payload : payloads) sum += AirbornePositionMessage.altitude(payload);
+            return (long) sum;
+        });
+        MicroBenchmark.measure("parse(RawMessageBatch, MessageBatch)", MESSAGES_COUNT, "messages", () -> {
+            messages.clear();
+            return MessageParser.parse(rawMessages, messages);
+        });
+    }
+}
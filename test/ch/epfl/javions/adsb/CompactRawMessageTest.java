@@ -0,0 +1,72 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRawMessageTest {
+    private static final List<String> MESSAGES = List.of(
+            "8D392AE499107FB5C00439035DB8",
+            "8D44095358BF06C19B95072CF116",
+            "8D4B1A5FF82300060049B8C4C7BD",
+            "8D4D22ABEA4A5864013C080E446F",
+            "8F4B1A3E990C13ACB0942207AEB2",
+            "8E3858BCE10A8000000000C5BA29");
+
+    @Test
+    void compactRawMessageConstructorThrowsWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactRawMessage(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CompactRawMessage(0, 0, 1L << 48));
+        assertDoesNotThrow(() -> new CompactRawMessage(0, -1, (1L << 48) - 1));
+    }
+
+    @Test
+    void compactRawMessageOfReturnsNullWithInvalidCrc() {
+        var bytes = HexFormat.of().parseHex(MESSAGES.get(0));
+        bytes[6] ^= 0x10;
+        assertNull(CompactRawMessage.of(0, bytes));
+        assertThrows(IllegalArgumentException.class, () -> CompactRawMessage.of(0, new byte[13]));
+    }
+
+    @Test
+    void compactRawMessageAccessorsAreEqualToRawMessageOnes() {
+        for (var hex : MESSAGES) {
+            var bytes = HexFormat.of().parseHex(hex);
+            var raw = RawMessage.of(1234, bytes);
+            var compact = CompactRawMessage.of(1234, bytes);
+            assertNotNull(compact);
+            assertEquals(1234, compact.timeStampNs());
+            assertEquals(raw.downLinkFormat(), compact.downLinkFormat());
+            assertEquals(raw.payload(), compact.payload());
+            assertEquals(raw.typeCode(), compact.typeCode());
+            assertEquals(Integer.parseInt(raw.icaoAddress().string(), 16), compact.icaoAddress());
+            for (var i = 0; i < RawMessage.LENGTH; i += 1)
+                assertEquals(raw.bytes().byteAt(i), compact.byteAt(i));
+        }
+    }
+
+    @Test
+    void compactRawMessageConversionsAreInverses() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var bytes = new byte[RawMessage.LENGTH];
+            rng.nextBytes(bytes);
+            var raw = new RawMessage(rng.nextLong(0, Long.MAX_VALUE), new ByteString(bytes));
+            var compact = CompactRawMessage.of(raw);
+            assertEquals(raw, compact.toRawMessage());
+            assertEquals(compact, CompactRawMessage.of(compact.toRawMessage()));
+        }
+    }
+
+    @Test
+    void compactRawMessageByteAtThrowsWithInvalidIndex() {
+        var compact = new CompactRawMessage(0, 0, 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> compact.byteAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> compact.byteAt(RawMessage.LENGTH));
+    }
+}
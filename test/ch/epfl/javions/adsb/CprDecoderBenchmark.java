@@ -0,0 +1,57 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+// Measures the CPR decoding throughput, on pairs of nearby even and odd positions (as those of a real
+// aircraft), with normalized and raw CPR values, and compares the computation of the number of longitude
+// zones by the trigonometric formula with the lookup in the transition latitudes table.
+// Not a JUnit test: run it with its main method.
+public final class CprDecoderBenchmark {
+    private static final int PAIRS_COUNT = 1 << 18;
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var raw = new int[4 * PAIRS_COUNT];
+        var normalized = new double[raw.length];
+        var latitudes = new double[PAIRS_COUNT];
+        for (var i = 0; i < PAIRS_COUNT; i += 1) {
+            var x0 = rng.nextInt(1 << 17);
+            var y0 = rng.nextInt(1 << 17);
+            raw[4 * i] = x0;
+            raw[4 * i + 1] = y0;
+            raw[4 * i + 2] = Math.floorMod(x0 + rng.nextInt(-3_000, 3_000), 1 << 17);
+            raw[4 * i + 3] = Math.floorMod(y0 + rng.nextInt(-3_000, 3_000), 1 << 17);
+            latitudes[i] = rng.nextDouble(-0.25, 0.25);
+        }
+        for (var i = 0; i < raw.length; i += 1) normalized[i] = Math.scalb((double) raw[i], -17);
+
+        MicroBenchmark.measure("computeLongitudeZones (formula)", PAIRS_COUNT, "latitudes", () -> {
+            var sum = 0L;
+            for (var latitude : latitudes) sum += CprDecoder.computeLongitudeZones(latitude);
+            return sum;
+        });
+        MicroBenchmark.measure("longitudeZones (table)", PAIRS_COUNT, "latitudes", () -> {
+            var sum = 0L;
+            for (var latitude : latitudes) sum += CprDecoder.longitudeZones(latitude);
+            return sum;
+        });
+        MicroBenchmark.measure("decodePosition", PAIRS_COUNT, "decodes", () -> {
+            var count = 0L;
+            for (var i = 0; i < normalized.length; i += 4) {
+                var p = CprDecoder.decodePosition(normalized[i], normalized[i + 1],
+                        normalized[i + 2], normalized[i + 3], 0);
+                if (p != null) count += 1;
+            }
+            return count;
+        });
+        MicroBenchmark.measure("decodeRawPosition", PAIRS_COUNT, "decodes", () -> {
+            var count = 0L;
+            for (var i = 0; i < raw.length; i += 4) {
+                var p = CprDecoder.decodeRawPosition(raw[i], raw[i + 1], raw[i + 2], raw[i + 3], 0);
+                if (p != null) count += 1;
+            }
+            return count;
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package ch.epfl.javions.adsb;
 
-import ch.epfl.javions.adsb.CprDecoder;
+import ch.epfl.javions.GeoPos;
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import static java.lang.Math.scalb;
@@ -93,4 +94,101 @@ class CprDecoderTest {
             assertNull(CprDecoder.decodePosition(x0, y0, x1, y1, 1));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void cprDecoderLongitudeZonesTableIsEqualToFormula() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < 100 * TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var latitudeTurn = rng.nextDouble(-0.5, 0.5);
+            assertEquals(CprDecoder.computeLongitudeZones(latitudeTurn), CprDecoder.longitudeZones(latitudeTurn));
+        }
+        // Around each transition, to the nearest representable latitude.
+        for (var zones = 2; zones < 60; zones += 1) {
+            var low = 0d;
+            var high = 0.25d;
+            for (var j = 0; j < 100; j += 1) {
+                var middle = (low + high) / 2;
+                if (CprDecoder.computeLongitudeZones(middle) < zones) high = middle;
+                else low = middle;
+            }
+            var latitudeTurn = low;
+            for (var j = 0; j < 1_000; j += 1) {
+                assertEquals(CprDecoder.computeLongitudeZones(latitudeTurn), CprDecoder.longitudeZones(latitudeTurn));
+                assertEquals(CprDecoder.computeLongitudeZones(-latitudeTurn), CprDecoder.longitudeZones(-latitudeTurn));
+                latitudeTurn = Math.nextUp(latitudeTurn);
+            }
+        }
+        assertEquals(59, CprDecoder.longitudeZones(0));
+        assertEquals(1, CprDecoder.longitudeZones(0.25));
+        assertEquals(1, CprDecoder.longitudeZones(-0.25));
+    }
+
+    @Test
+    void cprDecoderDecodeRawPositionIsEqualToDecodePosition() {
+        var rng = TestRandomizer.newRandom();
+        var decoded = 0;
+        for (var i = 0; i < 100 * TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var x0 = rng.nextInt(1 << 17);
+            var y0 = rng.nextInt(1 << 17);
+            // Half of the pairs are close to each other, as those of a real aircraft.
+            var x1 = i % 2 == 0 ? rng.nextInt(1 << 17) : Math.floorMod(x0 + rng.nextInt(-3_000, 3_000), 1 << 17);
+            var y1 = i % 2 == 0 ? rng.nextInt(1 << 17) : Math.floorMod(y0 + rng.nextInt(-3_000, 3_000), 1 << 17);
+            for (var mostRecent = 0; mostRecent <= 1; mostRecent += 1) {
+                var expected = CprDecoder.decodePosition(cpr(x0), cpr(y0), cpr(x1), cpr(y1), mostRecent);
+                assertEquals(expected, CprDecoder.decodeRawPosition(x0, y0, x1, y1, mostRecent));
+                if (expected != null) decoded += 1;
+            }
+        }
+        assertTrue(decoded > 0);
+    }
+
+    @Test
+    void cprDecoderDecodeRawPositionThrowsWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CprDecoder.decodeRawPosition(0, 0, 0, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> CprDecoder.decodeRawPosition(1 << 17, 0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> CprDecoder.decodeRawPosition(0, 0, 0, -1, 0));
+    }
+
+    @Test
+    void cprDecoderDecodeLocalPositionWorksOnKnownValues() {
+        var epfl = new GeoPos((int) Math.rint(scalb(6.5668 / 360, 32)), (int) Math.rint(scalb(46.5191 / 360, 32)));
+        var p = CprDecoder.decodeLocalPosition(cpr(95758), cpr(81899), 1, epfl);
+        assertNotNull(p);
+        assertEquals(6.57520, toDegrees(p.longitude()), 5e-5);
+        assertEquals(46.52444, toDegrees(p.latitude()), 5e-5);
+    }
+
+    @Test
+    void cprDecoderDecodeLocalPositionIsEqualToGlobalDecodingNearReference() {
+        var rng = TestRandomizer.newRandom();
+        var checked = 0;
+        for (var i = 0; i < 100 * TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var x0 = rng.nextInt(1 << 17);
+            var y0 = rng.nextInt(1 << 17);
+            var x1 = Math.floorMod(x0 + rng.nextInt(-3_000, 3_000), 1 << 17);
+            var y1 = Math.floorMod(y0 + rng.nextInt(-3_000, 3_000), 1 << 17);
+            var mostRecent = i % 2;
+            var expected = CprDecoder.decodePosition(cpr(x0), cpr(y0), cpr(x1), cpr(y1), mostRecent);
+            if (expected == null || Math.abs(toDegrees(expected.latitude())) > 85) continue;
+
+            // A reference less than about 0.5° away from the position.
+            var reference = new GeoPos(
+                    expected.longitudeT32() + rng.nextInt(-6_000_000, 6_000_000),
+                    Math.max(-(1 << 30), Math.min(1 << 30, expected.latitudeT32() + rng.nextInt(-6_000_000, 6_000_000))));
+            var actual = mostRecent == 0
+                    ? CprDecoder.decodeLocalPosition(cpr(x0), cpr(y0), 0, reference)
+                    : CprDecoder.decodeLocalPosition(cpr(x1), cpr(y1), 1, reference);
+            assertNotNull(actual);
+            assertEquals(expected.latitudeT32(), actual.latitudeT32());
+            assertEquals(expected.longitudeT32(), actual.longitudeT32(), 1);
+            checked += 1;
+        }
+        assertTrue(checked > 1_000);
+    }
+
+    @Test
+    void cprDecoderDecodeLocalPositionThrowsWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CprDecoder.decodeLocalPosition(0, 0, 2, new GeoPos(0, 0)));
+        assertThrows(NullPointerException.class, () -> CprDecoder.decodeLocalPosition(0, 0, 0, null));
+    }
+}
@@ -0,0 +1,55 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.util.HexFormat;
+
+// Measures the cost of the CRC syndrome error correction on the messages whose CRC is invalid
+// (the only ones it is applied to), compared with the CRC check that RawMessage.of already performs.
+// Half the messages have one flipped bit, a quarter two, and the rest are random (uncorrectable) bytes.
+// Not a JUnit test: run it with its main method.
+public final class ErrorCorrectorBenchmark {
+    private static final int MESSAGES_COUNT = 1 << 16;
+    private static final String VALID_MESSAGE = "8D392AE499107FB5C00439035DB8";
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var valid = HexFormat.of().parseHex(VALID_MESSAGE);
+        var messages = new byte[MESSAGES_COUNT][];
+        for (var i = 0; i < MESSAGES_COUNT; i += 1) {
+            var bytes = valid.clone();
+            switch (i % 4) {
+                case 0, 1 -> flip(bytes, 5 + rng.nextInt(107));
+                case 2 -> {
+                    flip(bytes, 5 + rng.nextInt(53));
+                    flip(bytes, 58 + rng.nextInt(54));
+                }
+                default -> rng.nextBytes(bytes);
+            }
+            messages[i] = bytes;
+        }
+        var copies = new byte[MESSAGES_COUNT][RawMessage.LENGTH];
+
+        MicroBenchmark.measure("RawMessage.of (CRC check only)", MESSAGES_COUNT, "messages", () -> {
+            var valids = 0L;
+            for (var bytes : messages) if (RawMessage.of(0, bytes) != null) valids += 1;
+            return valids;
+        });
+        for (var corrector : new ErrorCorrector[]{ErrorCorrector.SINGLE_BIT, ErrorCorrector.TWO_BITS}) {
+            var label = "ErrorCorrector (" + corrector.maxFlippedBits() + " bit(s))";
+            MicroBenchmark.measure(label, MESSAGES_COUNT, "messages", () -> {
+                var corrected = 0L;
+                for (var i = 0; i < MESSAGES_COUNT; i += 1) {
+                    System.arraycopy(messages[i], 0, copies[i], 0, RawMessage.LENGTH);
+                    if (corrector.correct(copies[i]) > 0) corrected += 1;
+                }
+                return corrected;
+            });
+        }
+    }
+
+    private static void flip(byte[] bytes, int bit) {
+        bytes[bit / Byte.SIZE] ^= (byte) (0x80 >>> (bit % Byte.SIZE));
+    }
+}
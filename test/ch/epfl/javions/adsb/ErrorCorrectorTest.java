@@ -0,0 +1,121 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorCorrectorTest {
+    private static final String VALID_MESSAGE = "8D392AE499107FB5C00439035DB8";
+    private static final int MESSAGE_BITS = RawMessage.LENGTH * Byte.SIZE;
+    private static final int DF_BITS = 5;
+
+    private static byte[] validMessage() {
+        return HexFormat.of().parseHex(VALID_MESSAGE);
+    }
+
+    private static void flip(byte[] bytes, int bit) {
+        bytes[bit / Byte.SIZE] ^= (byte) (0x80 >>> (bit % Byte.SIZE));
+    }
+
+    @Test
+    void errorCorrectorMaxFlippedBitsIsCorrect() {
+        assertEquals(1, ErrorCorrector.SINGLE_BIT.maxFlippedBits());
+        assertEquals(2, ErrorCorrector.TWO_BITS.maxFlippedBits());
+    }
+
+    @Test
+    void errorCorrectorCorrectThrowsWithInvalidLength() {
+        assertThrows(IllegalArgumentException.class, () -> ErrorCorrector.SINGLE_BIT.correct(new byte[13]));
+        assertThrows(IllegalArgumentException.class, () -> ErrorCorrector.TWO_BITS.correct(new byte[15]));
+    }
+
+    @Test
+    void errorCorrectorCorrectDoesNotModifyValidMessage() {
+        for (var corrector : new ErrorCorrector[]{ErrorCorrector.SINGLE_BIT, ErrorCorrector.TWO_BITS}) {
+            var bytes = validMessage();
+            assertEquals(0, corrector.correct(bytes));
+            assertArrayEquals(validMessage(), bytes);
+        }
+    }
+
+    @Test
+    void errorCorrectorCorrectsEverySingleBitError() {
+        for (var corrector : new ErrorCorrector[]{ErrorCorrector.SINGLE_BIT, ErrorCorrector.TWO_BITS}) {
+            for (var bit = DF_BITS; bit < MESSAGE_BITS; bit += 1) {
+                var bytes = validMessage();
+                flip(bytes, bit);
+                assertEquals(1, corrector.correct(bytes));
+                assertArrayEquals(validMessage(), bytes);
+            }
+        }
+    }
+
+    @Test
+    void errorCorrectorNeverCorrectsDownlinkFormat() {
+        for (var bit = 0; bit < DF_BITS; bit += 1) {
+            var bytes = validMessage();
+            flip(bytes, bit);
+            var corrupted = bytes.clone();
+            assertEquals(-1, ErrorCorrector.TWO_BITS.correct(bytes));
+            assertArrayEquals(corrupted, bytes);
+        }
+    }
+
+    @Test
+    void errorCorrectorCorrectsEveryTwoBitsError() {
+        for (var i = DF_BITS; i < MESSAGE_BITS; i += 1) {
+            for (var j = i + 1; j < MESSAGE_BITS; j += 1) {
+                var bytes = validMessage();
+                flip(bytes, i);
+                flip(bytes, j);
+                assertEquals(2, ErrorCorrector.TWO_BITS.correct(bytes));
+                assertArrayEquals(validMessage(), bytes);
+            }
+        }
+    }
+
+    @Test
+    void errorCorrectorSingleBitDoesNotCorrectTwoBitsErrors() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var first = DF_BITS + rng.nextInt(MESSAGE_BITS - DF_BITS);
+            var second = DF_BITS + rng.nextInt(MESSAGE_BITS - DF_BITS);
+            if (first == second) continue;
+            var bytes = validMessage();
+            flip(bytes, first);
+            flip(bytes, second);
+            var corrupted = bytes.clone();
+            assertEquals(-1, ErrorCorrector.SINGLE_BIT.correct(bytes));
+            assertArrayEquals(corrupted, bytes);
+        }
+    }
+
+    @Test
+    void errorCorrectorCorrectedMessagesHaveValidCrc() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var bytes = new byte[RawMessage.LENGTH];
+            rng.nextBytes(bytes);
+            var result = ErrorCorrector.TWO_BITS.correct(bytes);
+            assertTrue(-1 <= result && result <= 2);
+            if (result >= 0) assertNotNull(RawMessage.of(0, bytes));
+        }
+    }
+
+    @Test
+    void errorCorrectorCorrectWorksWithGivenSyndrome() {
+        var crc24 = new Crc24(Crc24.GENERATOR);
+        for (var bit = DF_BITS; bit < MESSAGE_BITS; bit += 7) {
+            var bytes = validMessage();
+            flip(bytes, bit);
+            assertEquals(1, ErrorCorrector.SINGLE_BIT.correct(bytes, crc24.crc(bytes)));
+            assertArrayEquals(validMessage(), bytes);
+        }
+        assertEquals(0, ErrorCorrector.SINGLE_BIT.correct(validMessage(), 0));
+        assertThrows(IllegalArgumentException.class, () -> ErrorCorrector.SINGLE_BIT.correct(new byte[7], 1));
+    }
+}
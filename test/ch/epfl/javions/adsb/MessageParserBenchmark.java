@@ -0,0 +1,70 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+// Compares the per-message MessageParser.parse(RawMessage), which allocates one record per message,
+// with the batch MessageParser.parse(RawMessageBatch, MessageBatch), which writes into primitive arrays.
+// The messages are random DF17 messages of the three parsed kinds, with a valid CRC.
+// Not a JUnit test: run it with its main method.
+public final class MessageParserBenchmark {
+    private static final int MESSAGES_COUNT = 1 << 20;
+
+    private static RawMessageBatch randomMessages() {
+        var crcComputer = new Crc24(Crc24.GENERATOR);
+        var rng = TestRandomizer.newRandom();
+        var batch = new RawMessageBatch(MESSAGES_COUNT);
+        var message = new byte[RawMessage.LENGTH];
+        while (!batch.isFull()) {
+            rng.nextBytes(message);
+            message[0] = (byte) 0x8D;
+            message[4] = (byte) (rng.nextInt(1, 23) << 3 | (message[4] & 0b111));
+            var crc = crcComputer.crc(Arrays.copyOfRange(message, 0, 11));
+            message[11] = (byte) (crc >> 16);
+            message[12] = (byte) (crc >> 8);
+            message[13] = (byte) crc;
+            batch.add(RawMessage.of(rng.nextLong(1L << 40), message));
+        }
+        return batch;
+    }
+
+    private static long parseSingle(RawMessage[] rawMessages) {
+        var count = 0L;
+        for (var rawMessage : rawMessages)
+            if (MessageParser.parse(rawMessage) != null) count += 1;
+        return count;
+    }
+
+    private static long parseBatch(RawMessageBatch rawMessages, MessageBatch messages) {
+        messages.clear();
+        return MessageParser.parse(rawMessages, messages);
+    }
+
+    public static void main(String[] args) throws Exception {
+        var batch = randomMessages();
+        var rawMessages = new RawMessage[batch.size()];
+        for (var i = 0; i < rawMessages.length; i += 1) rawMessages[i] = batch.rawMessage(i);
+        var messages = new MessageBatch(batch.capacity());
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var before = threads.getCurrentThreadAllocatedBytes();
+        MicroBenchmark.blackHole += parseSingle(rawMessages);
+        var singleAllocated = threads.getCurrentThreadAllocatedBytes() - before;
+        before = threads.getCurrentThreadAllocatedBytes();
+        MicroBenchmark.blackHole += parseBatch(batch, messages);
+        var batchAllocated = threads.getCurrentThreadAllocatedBytes() - before;
+        System.out.printf("%-40s %,16.1f bytes allocated per message%n",
+                "parse(RawMessage)", (double) singleAllocated / MESSAGES_COUNT);
+        System.out.printf("%-40s %,16.1f bytes allocated per message%n",
+                "parse(RawMessageBatch, MessageBatch)", (double) batchAllocated / MESSAGES_COUNT);
+
+        MicroBenchmark.measure("parse(RawMessage)", MESSAGES_COUNT, "messages",
+                () -> parseSingle(rawMessages));
+        MicroBenchmark.measure("parse(RawMessageBatch, MessageBatch)", MESSAGES_COUNT, "messages",
+                () -> parseBatch(batch, messages));
+    }
+}
@@ -1,6 +1,7 @@
 package ch.epfl.javions.adsb;
 
 import ch.epfl.javions.Crc24;
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -107,4 +108,67 @@ class MessageParserTest {
             assertNull(message);
         }
     }
+
+    @Test
+    void messageParserParsesBatchesLikeSingleMessages() {
+        var crcComputer = new Crc24(Crc24.GENERATOR);
+        var rng = TestRandomizer.newRandom();
+        var rawMessages = new RawMessageBatch(TestRandomizer.RANDOM_ITERATIONS);
+        var expected = new ArrayList<Message>();
+        var message = new byte[RawMessage.LENGTH];
+        while (!rawMessages.isFull()) {
+            rng.nextBytes(message);
+            message[0] = (byte) 0x8D;
+            message[4] = (byte) (rng.nextInt(1, 23) << 3 | (message[4] & 0b111));
+            var crc = crcComputer.crc(Arrays.copyOfRange(message, 0, 11));
+            message[11] = (byte) (crc >> 16);
+            message[12] = (byte) (crc >> 8);
+            message[13] = (byte) crc;
+            var rawMessage = RawMessage.of(rng.nextLong(1L << 40), message);
+            rawMessages.add(rawMessage);
+            var parsed = MessageParser.parse(rawMessage);
+            if (parsed != null) expected.add(parsed);
+        }
+
+        var messages = new MessageBatch(rawMessages.capacity());
+        assertEquals(expected.size(), MessageParser.parse(rawMessages, messages));
+        assertEquals(expected.size(), messages.size());
+        for (int i = 0; i < messages.size(); ++i) {
+            assertEquals(expected.get(i), messages.message(i));
+        }
+    }
+
+    @Test
+    void messageParserBatchFillsIrrelevantFieldsWithNaN() {
+        var rawMessages = new RawMessageBatch(2);
+        rawMessages.add(RawMessage.of(100, HexFormat.of().parseHex("8D3991E10B0464B1CD43206F07E8")));
+        rawMessages.add(RawMessage.of(200, HexFormat.of().parseHex("8D485020994409940838175B284F")));
+        var messages = new MessageBatch(2);
+        assertEquals(2, MessageParser.parse(rawMessages, messages));
+
+        assertEquals(MessageBatch.Kind.IDENTIFICATION, messages.kind(0));
+        assertEquals(0x3991E1, messages.icaoAddress(0));
+        var identification = (AircraftIdentificationMessage) MessageParser.parse(rawMessages.rawMessage(0));
+        assertEquals(identification.callSign(), messages.callSign(0));
+        assertEquals(identification.category(), messages.category(0));
+        assertTrue(Double.isNaN(messages.altitude(0)));
+        assertTrue(Double.isNaN(messages.speed(0)));
+        assertEquals(-1, messages.parity(0));
+
+        assertEquals(MessageBatch.Kind.VELOCITY, messages.kind(1));
+        assertEquals(200, messages.timeStampNs(1));
+        assertNull(messages.callSign(1));
+        assertEquals(-1, messages.category(1));
+        assertTrue(Double.isNaN(messages.x(1)));
+        assertFalse(Double.isNaN(messages.speed(1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> messages.kind(2));
+    }
+
+    @Test
+    void messageParserBatchThrowsIfOutputIsTooSmall() {
+        var rawMessages = new RawMessageBatch(2);
+        rawMessages.add(RawMessage.of(100, HexFormat.of().parseHex("8D3991E10B0464B1CD43206F07E8")));
+        rawMessages.add(RawMessage.of(200, HexFormat.of().parseHex("8D485020994409940838175B284F")));
+        assertThrows(IllegalArgumentException.class, () -> MessageParser.parse(rawMessages, new MessageBatch(1)));
+    }
 }
@@ -0,0 +1,136 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModeSFrameTest {
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+    private static final Set<Integer> SHORT_FORMATS = Set.of(0, 4, 5, 11);
+    private static final Set<Integer> LONG_FORMATS = Set.of(16, 17, 18, 20, 21);
+    private static final int ADDRESS = 0x4B17E5;
+
+    // Builds a frame of the given format, whose parity field is computed from the given address.
+    private static byte[] frame(int downlinkFormat, int address, int interrogator) {
+        var rng = TestRandomizer.newRandom();
+        var bytes = new byte[ModeSFrame.size((byte) (downlinkFormat << 3))];
+        rng.nextBytes(bytes);
+        bytes[0] = (byte) ((downlinkFormat << 3) | (bytes[0] & 0b111));
+        var inClear = downlinkFormat == 11 || downlinkFormat == 17 || downlinkFormat == 18;
+        if (inClear) {
+            bytes[1] = (byte) (address >> 16);
+            bytes[2] = (byte) (address >> 8);
+            bytes[3] = (byte) address;
+        }
+        var parity = CRC24.crc(Arrays.copyOf(bytes, bytes.length - 3)) ^ (inClear ? interrogator : address);
+        bytes[bytes.length - 3] = (byte) (parity >> 16);
+        bytes[bytes.length - 2] = (byte) (parity >> 8);
+        bytes[bytes.length - 1] = (byte) parity;
+        return bytes;
+    }
+
+    @Test
+    void modeSFrameSizeWorksForAllFirstBytes() {
+        for (var byte0 = 0; byte0 < 1 << 8; byte0 += 1) {
+            var df = byte0 >>> 3;
+            var expected = SHORT_FORMATS.contains(df) ? ModeSFrame.SHORT_LENGTH
+                    : LONG_FORMATS.contains(df) ? ModeSFrame.LONG_LENGTH
+                    : 0;
+            assertEquals(expected, ModeSFrame.size((byte) byte0));
+        }
+    }
+
+    @Test
+    void modeSFrameSizeIsConsistentWithRawMessageSizeForDF17() {
+        for (var byte0 = 0; byte0 < 1 << 8; byte0 += 1) {
+            var rawSize = RawMessage.size((byte) byte0);
+            if (rawSize != 0) assertEquals(rawSize, ModeSFrame.size((byte) byte0));
+        }
+    }
+
+    @Test
+    void modeSFrameConstructorThrowsWithInvalidArguments() {
+        var address = new IcaoAddress("4B17E5");
+        var df4 = new ByteString(frame(4, ADDRESS, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ModeSFrame(-1, df4, address));
+        assertThrows(IllegalArgumentException.class, () -> new ModeSFrame(0, new ByteString(new byte[14]), address));
+        assertThrows(IllegalArgumentException.class, () -> new ModeSFrame(0, new ByteString(new byte[0]), address));
+        assertThrows(NullPointerException.class, () -> new ModeSFrame(0, df4, null));
+        assertDoesNotThrow(() -> new ModeSFrame(0, df4, address));
+    }
+
+    @Test
+    void modeSFrameOfThrowsWithInvalidLength() {
+        var known = new BitSet();
+        assertThrows(IllegalArgumentException.class, () -> ModeSFrame.of(0, new byte[0], known));
+        assertThrows(IllegalArgumentException.class, () -> ModeSFrame.of(0, Arrays.copyOf(frame(17, ADDRESS, 0), 7), known));
+        assertThrows(IllegalArgumentException.class, () -> ModeSFrame.of(0, new byte[]{(byte) (24 << 3), 0, 0, 0, 0, 0, 0}, known));
+    }
+
+    @Test
+    void modeSFrameOfWorksOnExtendedSquitter() {
+        var known = new BitSet();
+        var bytes = HexFormat.of().parseHex("8D392AE499107FB5C00439035DB8");
+        var frame = ModeSFrame.of(100, bytes, known);
+        assertNotNull(frame);
+        assertEquals(17, frame.downLinkFormat());
+        assertEquals(new IcaoAddress("392AE4"), frame.icaoAddress());
+        assertEquals(100, frame.timeStampNs());
+        assertEquals(RawMessage.of(100, bytes), frame.rawMessage());
+        assertTrue(known.get(0x392AE4));
+
+        bytes[5] ^= 1;
+        assertNull(ModeSFrame.of(100, bytes, known));
+    }
+
+    @Test
+    void modeSFrameOfRecoversAddressOfAddressParityFormats() {
+        for (var df : new int[]{0, 4, 5, 16, 20, 21}) {
+            var known = new BitSet();
+            var bytes = frame(df, ADDRESS, 0);
+            assertNull(ModeSFrame.of(0, bytes, known));
+            known.set(ADDRESS);
+            var frame = ModeSFrame.of(0, bytes, known);
+            assertNotNull(frame);
+            assertEquals(df, frame.downLinkFormat());
+            assertEquals(new IcaoAddress("4B17E5"), frame.icaoAddress());
+            assertNull(frame.rawMessage());
+        }
+    }
+
+    @Test
+    void modeSFrameOfLearnsAddressesOnlyFromVerifiedParity() {
+        var known = new BitSet();
+        var df11WithInterrogator = frame(11, ADDRESS, 0x35);
+        var frame = ModeSFrame.of(0, df11WithInterrogator, known);
+        assertNotNull(frame);
+        assertEquals(new IcaoAddress("4B17E5"), frame.icaoAddress());
+        assertFalse(known.get(ADDRESS));
+
+        assertNull(ModeSFrame.of(0, frame(11, ADDRESS, 0x80), known));
+
+        assertNotNull(ModeSFrame.of(0, frame(11, ADDRESS, 0), known));
+        assertTrue(known.get(ADDRESS));
+
+        var df18 = new BitSet();
+        assertNotNull(ModeSFrame.of(0, frame(18, ADDRESS, 0), df18));
+        assertTrue(df18.get(ADDRESS));
+    }
+
+    @Test
+    void modeSFrameOfDoesNotLearnAddressesOfAddressParityFormats() {
+        var known = new BitSet();
+        known.set(ADDRESS);
+        assertNotNull(ModeSFrame.of(0, frame(4, ADDRESS, 0), known));
+        assertEquals(1, known.cardinality());
+    }
+}
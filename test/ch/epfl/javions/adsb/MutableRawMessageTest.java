@@ -0,0 +1,45 @@
+package ch.epfl.javions.adsb;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutableRawMessageTest {
+    private static final String MESSAGE = "8D4B1A5FF82300060049B8C4C7BD";
+
+    @Test
+    void mutableRawMessageSetThrowsWithInvalidArguments() {
+        var message = new MutableRawMessage();
+        assertThrows(IllegalArgumentException.class, () -> message.set(-1, new byte[14]));
+        assertThrows(IllegalArgumentException.class, () -> message.set(0, new byte[15]));
+        assertThrows(IllegalArgumentException.class, () -> message.set(0, 0, 1L << 48));
+    }
+
+    @Test
+    void mutableRawMessageAccessorsAreEqualToRawMessageOnes() {
+        var bytes = HexFormat.of().parseHex(MESSAGE);
+        var raw = RawMessage.of(100, bytes);
+        var message = new MutableRawMessage().set(100, bytes);
+        assertEquals(100, message.timeStampNs());
+        assertEquals(raw.downLinkFormat(), message.downLinkFormat());
+        assertEquals(raw.payload(), message.payload());
+        assertEquals(raw.typeCode(), message.typeCode());
+        assertEquals(0x4B1A5F, message.icaoAddress());
+        assertEquals(0xBD, message.byteAt(13));
+        assertEquals(raw, message.toRawMessage());
+        assertEquals(CompactRawMessage.of(100, bytes), message.toCompactRawMessage());
+    }
+
+    @Test
+    void mutableRawMessageIsReusable() {
+        var message = new MutableRawMessage();
+        var first = message.set(1, HexFormat.of().parseHex(MESSAGE)).toCompactRawMessage();
+        var second = CompactRawMessage.of(2, HexFormat.of().parseHex("8D392AE499107FB5C00439035DB8"));
+        assertSame(message, message.set(second.timeStampNs(), second.high(), second.low()));
+        assertEquals(second, message.toCompactRawMessage());
+        assertEquals(0x4B1A5F, first.icaoAddress());
+        assertEquals(0x392AE4, message.icaoAddress());
+    }
+}
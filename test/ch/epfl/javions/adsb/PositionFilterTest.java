@@ -0,0 +1,59 @@
+package ch.epfl.javions.adsb;
+
+import ch.epfl.javions.GeoPos;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionFilterTest {
+    private static GeoPos geoPos(double longitudeDeg, double latitudeDeg) {
+        return new GeoPos((int) Math.rint(Math.scalb(longitudeDeg / 360, 32)),
+                (int) Math.rint(Math.scalb(latitudeDeg / 360, 32)));
+    }
+
+    private static final GeoPos EPFL = geoPos(6.5668, 46.5191);
+    private static final GeoPos GENEVA = geoPos(6.1432, 46.2044);
+
+    @Test
+    void positionFilterDistanceWorksOnKnownValues() {
+        assertEquals(0, PositionFilter.distance(EPFL, EPFL), 1e-6);
+        assertEquals(47_760, PositionFilter.distance(EPFL, GENEVA), 100);
+        assertEquals(PositionFilter.distance(EPFL, GENEVA), PositionFilter.distance(GENEVA, EPFL), 1e-6);
+        // Half of the equator.
+        assertEquals(Math.PI * PositionFilter.EARTH_RADIUS, PositionFilter.distance(geoPos(0, 0), geoPos(-180, 0)), 1);
+    }
+
+    @Test
+    void positionFilterMaxRangeRejectsDistantPositions() {
+        var filter = PositionFilter.maxRange(EPFL, 40_000);
+        assertTrue(filter.isPlausible(null, 0, geoPos(6.6, 46.6), 0));
+        assertFalse(filter.isPlausible(null, 0, GENEVA, 0));
+        assertTrue(PositionFilter.maxRange(EPFL, 50_000).isPlausible(EPFL, 0, GENEVA, 0));
+    }
+
+    @Test
+    void positionFilterMaxSpeedRejectsFastMoves() {
+        var filter = PositionFilter.maxSpeed(300);
+        var oneMinute = 60_000_000_000L;
+        assertTrue(filter.isPlausible(null, 0, GENEVA, 0));
+        assertTrue(filter.isPlausible(EPFL, 0, EPFL, 0));
+        assertFalse(filter.isPlausible(EPFL, 0, GENEVA, oneMinute));
+        assertTrue(filter.isPlausible(EPFL, 0, GENEVA, 3 * oneMinute));
+    }
+
+    @Test
+    void positionFilterAndCombinesFilters() {
+        var filter = PositionFilter.maxSpeed(300).and(PositionFilter.maxRange(EPFL, 40_000));
+        assertFalse(filter.isPlausible(null, 0, GENEVA, 0));
+        assertFalse(filter.isPlausible(EPFL, 0, geoPos(6.6, 46.6), 0));
+        assertTrue(filter.isPlausible(EPFL, 0, geoPos(6.6, 46.6), 60_000_000_000L));
+        assertThrows(NullPointerException.class, () -> filter.and(null));
+    }
+
+    @Test
+    void positionFilterFactoriesThrowWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> PositionFilter.maxSpeed(0));
+        assertThrows(IllegalArgumentException.class, () -> PositionFilter.maxRange(EPFL, -1));
+        assertThrows(NullPointerException.class, () -> PositionFilter.maxRange(null, 1));
+    }
+}
@@ -0,0 +1,45 @@
+package ch.epfl.javions.adsb;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawMessageBatchTest {
+    private static final String MESSAGE = "8D4B1A5FF82300060049B8C4C7BD";
+
+    @Test
+    void rawMessageBatchConstructorThrowsWithInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RawMessageBatch(0));
+    }
+
+    @Test
+    void rawMessageBatchStoresMessages() {
+        var raw = RawMessage.of(100, HexFormat.of().parseHex(MESSAGE));
+        var batch = new RawMessageBatch(2);
+        assertEquals(0, batch.size());
+        batch.add(raw);
+        batch.add(new MutableRawMessage().set(200, HexFormat.of().parseHex(MESSAGE)));
+        assertTrue(batch.isFull());
+        assertEquals(raw, batch.rawMessage(0));
+        assertEquals(200, batch.timeStampNs(1));
+        assertEquals(CompactRawMessage.of(raw).high(), batch.high(1));
+        assertEquals(CompactRawMessage.of(raw).low(), batch.low(1));
+        assertThrows(IllegalStateException.class, () -> batch.add(raw));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.high(2));
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertEquals(2, batch.capacity());
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.timeStampNs(0));
+    }
+
+    @Test
+    void rawMessageBatchAddThrowsWithInvalidArguments() {
+        var batch = new RawMessageBatch(1);
+        assertThrows(IllegalArgumentException.class, () -> batch.add(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> batch.add(0, 0, 1L << 48));
+        assertEquals(0, batch.size());
+    }
+}
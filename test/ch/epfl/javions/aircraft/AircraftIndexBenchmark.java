@@ -0,0 +1,62 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.nio.file.Files;
+import java.util.Locale;
+
+// Reports the load time and the memory footprint of an indexed aircraft database of the size of
+// aircraft.zip (written with random aircraft), then compares its lookups with those of the ZIP scan.
+// Not a JUnit test: run it with its main method (with a heap of at least 1 GB).
+public final class AircraftIndexBenchmark {
+    private static final int AIRCRAFT_COUNT = 500_000;
+    private static final int LOOKUPS_COUNT = 1 << 20;
+    private static final int SCANNED_LOOKUPS_COUNT = 1 << 8;
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var directory = Files.createTempDirectory("javions");
+        var lines = SyntheticAircraftDatabase.write(directory, AIRCRAFT_COUNT, rng);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var addresses = new IcaoAddress[LOOKUPS_COUNT];
+        for (var i = 0; i < LOOKUPS_COUNT; i += 1) {
+            // Half of the lookups are for unknown aircraft.
+            addresses[i] = rng.nextBoolean()
+                    ? new IcaoAddress(lines.get(rng.nextInt(lines.size())).substring(0, 6))
+                    : IcaoAddress.of(rng.nextInt(1 << 24));
+        }
+
+        for (var i = 0; i < MicroBenchmark.WARMUP_ROUNDS; i += 1) AircraftIndex.load(file);
+        var usedBefore = usedMemory();
+        var start = System.nanoTime();
+        var database = AircraftDatabase.loadIndexed(file);
+        var loadNs = System.nanoTime() - start;
+        var footprint = usedMemory() - usedBefore;
+        System.out.printf(Locale.ROOT, "%-40s %,16.1f ms%n", "Indexed database load", loadNs / 1e6);
+        System.out.printf(Locale.ROOT, "%-40s %,16.1f MB (%,.0f bytes/aircraft)%n", "Indexed database footprint",
+                footprint / 1e6, (double) footprint / AIRCRAFT_COUNT);
+
+        var scanned = new AircraftDatabase(file);
+        MicroBenchmark.measure("AircraftDatabase.get (ZIP scan)", SCANNED_LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var i = 0; i < SCANNED_LOOKUPS_COUNT; i += 1) if (scanned.get(addresses[i]) != null) found += 1;
+            return found;
+        });
+        MicroBenchmark.measure("AircraftDatabase.get (indexed)", LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var address : addresses) if (database.get(address) != null) found += 1;
+            return found;
+        });
+        MicroBenchmark.blackHole += database.hashCode();
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        var runtime = Runtime.getRuntime();
+        for (var i = 0; i < 3; i += 1) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
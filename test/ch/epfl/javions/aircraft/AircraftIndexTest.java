@@ -0,0 +1,95 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AircraftIndexTest {
+    @Test
+    void aircraftIndexGetReturnsSameDataAsZipScan(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var lines = SyntheticAircraftDatabase.write(directory, 2_000, rng);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var scanned = new AircraftDatabase(file);
+        var indexed = AircraftDatabase.loadIndexed(file);
+
+        for (var line : lines) {
+            var address = new IcaoAddress(line.substring(0, 6));
+            var expected = AircraftDatabase.parse(line);
+            assertEquals(expected, scanned.get(address));
+            assertEquals(expected, indexed.get(address));
+        }
+    }
+
+    @Test
+    void aircraftIndexGetReturnsNullForUnknownAddresses(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var lines = SyntheticAircraftDatabase.write(directory, 2_000, rng);
+        var known = new HashSet<String>();
+        for (var line : lines) known.add(line.substring(0, 6));
+        var indexed = AircraftDatabase.loadIndexed(SyntheticAircraftDatabase.file(directory));
+
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var address = IcaoAddress.of(rng.nextInt(1 << 24));
+            if (!known.contains(address.string())) assertNull(indexed.get(address));
+        }
+        assertNull(indexed.get(new IcaoAddress("000000")));
+        assertNull(indexed.get(new IcaoAddress("FFFFFF")));
+    }
+
+    @Test
+    void aircraftIndexSharesRepeatedValues(@TempDir Path directory) throws IOException {
+        var lines = SyntheticAircraftDatabase.write(directory, 2_000, TestRandomizer.newRandom());
+        var index = AircraftIndex.load(SyntheticAircraftDatabase.file(directory));
+        assertEquals(lines.size(), index.size());
+        // Unique registrations, and at most 8 types, models and descriptions.
+        assertTrue(index.pooledValuesCount() <= lines.size() + 3 * 8);
+
+        var first = new IcaoAddress(lines.get(0).substring(0, 6));
+        assertSame(index.get(first).model(), index.get(first).model());
+    }
+
+    @Test
+    void aircraftIndexKeepsFirstLineOfDuplicateAddressesAndHandlesEmptyFields(@TempDir Path directory)
+            throws IOException {
+        var file = directory.resolve("aircraft.zip").toString();
+        try (var zip = new ZipOutputStream(new FileOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("01.csv"));
+            zip.write("""
+                    4B1801,HB-JCA,,,,
+                    4B1801,HB-JCB,BCS3,AIRBUS A-220-300,L2J,M
+                    4B1901,HB-JCC,BCS3,AIRBUS A-220-300,L2J,H
+                    """.getBytes(UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("README.txt"));
+            zip.write("Not an aircraft".getBytes(UTF_8));
+            zip.closeEntry();
+        }
+        var scanned = new AircraftDatabase(file);
+        var index = AircraftIndex.load(file);
+        assertEquals(2, index.size());
+
+        var duplicate = new IcaoAddress("4B1801");
+        assertEquals(scanned.get(duplicate), index.get(duplicate));
+        assertEquals(new AircraftRegistration("HB-JCA"), index.get(duplicate).registration());
+        assertEquals("", index.get(duplicate).model());
+        assertEquals(WakeTurbulenceCategory.UNKNOWN, index.get(duplicate).wakeTurbulenceCategory());
+        assertEquals(WakeTurbulenceCategory.HEAVY, index.get(new IcaoAddress("4B1901")).wakeTurbulenceCategory());
+    }
+
+    @Test
+    void aircraftDatabaseLoadIndexedThrowsOnMissingFile(@TempDir Path directory) {
+        assertThrows(IOException.class,
+                () -> AircraftDatabase.loadIndexed(directory.resolve("missing.zip").toString()));
+    }
+}
@@ -0,0 +1,62 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Locale;
+
+// Measures the lookups of aircraft absent from a database of the size of aircraft.zip (written with
+// random aircraft), with and without the presence filter, for the ZIP scan and the compiled database.
+// Not a JUnit test: run it with its main method (with a heap of at least 1 GB).
+public final class AircraftPresenceFilterBenchmark {
+    private static final int AIRCRAFT_COUNT = 500_000;
+    private static final int LOOKUPS_COUNT = 1 << 20;
+    private static final int SCANNED_LOOKUPS_COUNT = 1 << 8;
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var directory = Files.createTempDirectory("javions");
+        var lines = SyntheticAircraftDatabase.write(directory, AIRCRAFT_COUNT, rng);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var known = new HashSet<String>();
+        for (var line : lines) known.add(line.substring(0, 6));
+        var absent = new IcaoAddress[LOOKUPS_COUNT];
+        for (var i = 0; i < LOOKUPS_COUNT; ) {
+            var address = IcaoAddress.of(rng.nextInt(1 << 24));
+            if (!known.contains(address.string())) absent[i++] = address;
+        }
+
+        var scanned = new AircraftDatabase(file);
+        var start = System.nanoTime();
+        var filteredScanned = scanned.withPresenceFilter();
+        System.out.printf(Locale.ROOT, "%-40s %,16.1f ms%n", "Filter construction (ZIP)", (System.nanoTime() - start) / 1e6);
+        var compiled = AircraftDatabase.openCompiled(file, directory.resolve("aircraft.bin"));
+        start = System.nanoTime();
+        var filteredCompiled = compiled.withPresenceFilter();
+        System.out.printf(Locale.ROOT, "%-40s %,16.1f ms%n", "Filter construction (compiled)", (System.nanoTime() - start) / 1e6);
+
+        MicroBenchmark.measure("Absent aircraft: ZIP scan", SCANNED_LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var i = 0; i < SCANNED_LOOKUPS_COUNT; i += 1) if (scanned.get(absent[i]) != null) found += 1;
+            return found;
+        });
+        MicroBenchmark.measure("Absent aircraft: ZIP scan + filter", LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var address : absent) if (filteredScanned.get(address) != null) found += 1;
+            return found;
+        });
+        MicroBenchmark.measure("Absent aircraft: compiled", LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var address : absent) if (compiled.get(address) != null) found += 1;
+            return found;
+        });
+        MicroBenchmark.measure("Absent aircraft: compiled + filter", LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var address : absent) if (filteredCompiled.get(address) != null) found += 1;
+            return found;
+        });
+        System.out.println(filteredScanned.statistics());
+    }
+}
@@ -0,0 +1,94 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class AircraftPresenceFilterTest {
+    private static List<AircraftDatabase> filteredDatabases(Path directory) throws IOException {
+        var file = SyntheticAircraftDatabase.file(directory);
+        return List.of(
+                new AircraftDatabase(file).withPresenceFilter(),
+                AircraftDatabase.loadIndexed(file).withPresenceFilter(),
+                AircraftDatabase.openCompiled(file, directory.resolve("aircraft.bin")).withPresenceFilter());
+    }
+
+    @Test
+    void aircraftDatabaseWithPresenceFilterReturnsSameData(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var lines = SyntheticAircraftDatabase.write(directory, 1_000, rng);
+        var unfiltered = new AircraftDatabase(SyntheticAircraftDatabase.file(directory));
+        var addresses = new ArrayList<IcaoAddress>();
+        for (var line : lines) addresses.add(new IcaoAddress(line.substring(0, 6)));
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) addresses.add(IcaoAddress.of(rng.nextInt(1 << 24)));
+
+        for (var database : filteredDatabases(directory)) {
+            for (var address : addresses) assertEquals(unfiltered.get(address), database.get(address));
+        }
+    }
+
+    @Test
+    void aircraftDatabaseWithPresenceFilterCountsLookups(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var lines = SyntheticAircraftDatabase.write(directory, 1_000, rng);
+        var known = new HashSet<Integer>();
+        for (var line : lines) known.add(new IcaoAddress(line.substring(0, 6)).value());
+
+        for (var database : filteredDatabases(directory)) {
+            assertEquals(new AircraftDatabase.LookupStatistics(0, 0, 0), database.statistics());
+            var hits = 0;
+            for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+                var value = i % 2 == 0
+                        ? lines.get(rng.nextInt(lines.size())).substring(0, 6)
+                        : IcaoAddress.of(rng.nextInt(1 << 24)).string();
+                var address = new IcaoAddress(value);
+                database.get(address);
+                if (known.contains(address.value())) hits += 1;
+            }
+            var statistics = database.statistics();
+            assertEquals(TestRandomizer.RANDOM_ITERATIONS, statistics.lookups());
+            assertEquals(hits, statistics.hits());
+            assertEquals(TestRandomizer.RANDOM_ITERATIONS - hits, statistics.misses());
+            // Every miss is caught by the filter, as it is built from the database itself.
+            assertEquals(statistics.misses(), statistics.filteredMisses());
+        }
+    }
+
+    @Test
+    void aircraftDatabaseWithoutPresenceFilterDoesNotFilterMisses(@TempDir Path directory) throws IOException {
+        SyntheticAircraftDatabase.write(directory, 100, TestRandomizer.newRandom());
+        var database = AircraftDatabase.loadIndexed(SyntheticAircraftDatabase.file(directory));
+        assertNull(database.get(new IcaoAddress("000000")));
+        assertEquals(new AircraftDatabase.LookupStatistics(1, 0, 0), database.statistics());
+        assertEquals(1, database.statistics().misses());
+    }
+
+    @Test
+    void aircraftDatabaseWithPresenceFilterDoesNotReadFileForAbsentAircraft(@TempDir Path directory)
+            throws IOException {
+        var lines = SyntheticAircraftDatabase.write(directory, 100, TestRandomizer.newRandom());
+        var file = SyntheticAircraftDatabase.file(directory);
+        var database = new AircraftDatabase(file).withPresenceFilter();
+        var absent = new IcaoAddress("000000");
+        assumeAbsent(lines, absent);
+
+        Files.delete(Path.of(file));
+        assertNull(database.get(absent));
+        var present = new IcaoAddress(lines.get(0).substring(0, 6));
+        assertThrows(IOException.class, () -> database.get(present));
+    }
+
+    private static void assumeAbsent(List<String> lines, IcaoAddress address) {
+        for (var line : lines) assumeFalse(line.startsWith(address.string()));
+    }
+}
@@ -0,0 +1,53 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.nio.file.Files;
+import java.util.Locale;
+
+// Compares the startup cost of a compiled (memory-mapped) aircraft database with that of the indexed one,
+// for a database of the size of aircraft.zip (written with random aircraft), then their lookups.
+// Not a JUnit test: run it with its main method (with a heap of at least 1 GB).
+public final class CompiledAircraftDatabaseBenchmark {
+    private static final int AIRCRAFT_COUNT = 500_000;
+    private static final int LOOKUPS_COUNT = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var directory = Files.createTempDirectory("javions");
+        var lines = SyntheticAircraftDatabase.write(directory, AIRCRAFT_COUNT, rng);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var compiledFile = directory.resolve("aircraft.bin");
+        var addresses = new IcaoAddress[LOOKUPS_COUNT];
+        for (var i = 0; i < LOOKUPS_COUNT; i += 1) {
+            // Half of the lookups are for unknown aircraft.
+            addresses[i] = rng.nextBoolean()
+                    ? new IcaoAddress(lines.get(rng.nextInt(lines.size())).substring(0, 6))
+                    : IcaoAddress.of(rng.nextInt(1 << 24));
+        }
+
+        var start = System.nanoTime();
+        CompiledAircraftDatabase.compile(file, compiledFile);
+        System.out.printf(Locale.ROOT, "%-40s %,16.1f ms (%,.1f MB)%n", "Compilation (one-time)",
+                (System.nanoTime() - start) / 1e6, Files.size(compiledFile) / 1e6);
+
+        MicroBenchmark.measure("Startup: loadIndexed", 1, "startups", () ->
+                AircraftDatabase.loadIndexed(file).hashCode());
+        MicroBenchmark.measure("Startup: openCompiled (up to date)", 1, "startups", () ->
+                AircraftDatabase.openCompiled(file, compiledFile).hashCode());
+
+        var indexed = AircraftDatabase.loadIndexed(file);
+        var compiled = AircraftDatabase.openCompiled(file, compiledFile);
+        MicroBenchmark.measure("AircraftDatabase.get (indexed)", LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var address : addresses) if (indexed.get(address) != null) found += 1;
+            return found;
+        });
+        MicroBenchmark.measure("AircraftDatabase.get (compiled)", LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var address : addresses) if (compiled.get(address) != null) found += 1;
+            return found;
+        });
+    }
+}
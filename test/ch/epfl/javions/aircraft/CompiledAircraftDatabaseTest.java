@@ -0,0 +1,153 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledAircraftDatabaseTest {
+    @Test
+    void compiledAircraftDatabaseGetReturnsSameDataAsZipScan(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var lines = SyntheticAircraftDatabase.write(directory, 2_000, rng);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var scanned = new AircraftDatabase(file);
+        var compiled = AircraftDatabase.openCompiled(file, directory.resolve("aircraft.bin"));
+
+        var known = new HashSet<String>();
+        for (var line : lines) {
+            var address = new IcaoAddress(line.substring(0, 6));
+            known.add(address.string());
+            assertEquals(scanned.get(address), compiled.get(address));
+            assertNotNull(compiled.get(address));
+        }
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var address = IcaoAddress.of(rng.nextInt(1 << 24));
+            if (!known.contains(address.string())) assertNull(compiled.get(address));
+        }
+    }
+
+    @Test
+    void compiledAircraftDatabaseStoresRepeatedStringsOnce(@TempDir Path directory) throws IOException {
+        var lines = SyntheticAircraftDatabase.write(directory, 2_000, TestRandomizer.newRandom());
+        var compiledFile = directory.resolve("aircraft.bin");
+        CompiledAircraftDatabase.compile(SyntheticAircraftDatabase.file(directory), compiledFile);
+
+        // Header, key, 4 string offsets and category of each aircraft, plus a heap that is mostly made of
+        // the (unique) registrations.
+        var fixedSize = 12 + lines.size() * (4 + 16 + 1);
+        var heapSize = Files.size(compiledFile) - fixedSize;
+        assertTrue(heapSize < lines.size() * (2 + 8) + 1_000, "heap size: " + heapSize);
+    }
+
+    @Test
+    void compiledAircraftDatabaseIsNotRebuiltWhenUpToDate(@TempDir Path directory) throws IOException {
+        SyntheticAircraftDatabase.write(directory, 100, TestRandomizer.newRandom());
+        var file = SyntheticAircraftDatabase.file(directory);
+        var compiledFile = directory.resolve("aircraft.bin");
+        CompiledAircraftDatabase.open(file, compiledFile);
+        var modified = Files.getLastModifiedTime(compiledFile);
+
+        assertTrue(CompiledAircraftDatabase.isUpToDate(file, compiledFile));
+        CompiledAircraftDatabase.open(file, compiledFile);
+        assertEquals(modified, Files.getLastModifiedTime(compiledFile));
+    }
+
+    @Test
+    void compiledAircraftDatabaseIsRebuiltWhenZipIsNewer(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var zipDirectory = Files.createDirectory(directory.resolve("zip"));
+        var file = SyntheticAircraftDatabase.file(zipDirectory);
+        var compiledFile = directory.resolve("aircraft.bin");
+        SyntheticAircraftDatabase.write(zipDirectory, 100, rng);
+        CompiledAircraftDatabase.open(file, compiledFile);
+
+        var lines = SyntheticAircraftDatabase.write(zipDirectory, 200, rng);
+        Files.setLastModifiedTime(compiledFile, FileTime.from(Instant.now().minusSeconds(60)));
+        assertFalse(CompiledAircraftDatabase.isUpToDate(file, compiledFile));
+        var compiled = CompiledAircraftDatabase.open(file, compiledFile);
+        assertEquals(lines.size(), compiled.size());
+        assertTrue(CompiledAircraftDatabase.isUpToDate(file, compiledFile));
+    }
+
+    @Test
+    void compiledAircraftDatabaseIsRebuiltWhenInvalid(@TempDir Path directory) throws IOException {
+        var lines = SyntheticAircraftDatabase.write(directory, 100, TestRandomizer.newRandom());
+        var file = SyntheticAircraftDatabase.file(directory);
+        var compiledFile = directory.resolve("aircraft.bin");
+        Files.writeString(compiledFile, "Not a compiled aircraft database");
+
+        var compiled = CompiledAircraftDatabase.open(file, compiledFile);
+        assertEquals(lines.size(), compiled.size());
+        var address = new IcaoAddress(lines.get(0).substring(0, 6));
+        assertEquals(new AircraftDatabase(file).get(address), compiled.get(address));
+    }
+
+    @Test
+    void compiledAircraftDatabaseConcurrentCompilationsProduceValidFile(@TempDir Path directory) throws Exception {
+        var lines = SyntheticAircraftDatabase.write(directory, 2_000, TestRandomizer.newRandom());
+        var file = SyntheticAircraftDatabase.file(directory);
+        var compiledFile = directory.resolve("aircraft.bin");
+
+        var threads = new ArrayList<Thread>();
+        var errors = new ArrayList<Throwable>();
+        for (var i = 0; i < 4; i += 1) {
+            var thread = new Thread(() -> {
+                try {
+                    CompiledAircraftDatabase.compile(file, compiledFile);
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (var thread : threads) thread.join();
+        assertEquals(List.of(), errors);
+
+        var compiled = CompiledAircraftDatabase.open(file, compiledFile);
+        assertEquals(lines.size(), compiled.size());
+        try (var files = Files.list(directory)) {
+            assertEquals(Set.of("aircraft.bin", "aircraft.zip"),
+                    files.map(f -> f.getFileName().toString()).collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    void compiledAircraftDatabaseCompileDeletesTemporaryFileOnError(@TempDir Path directory) throws IOException {
+        SyntheticAircraftDatabase.write(directory, 100, TestRandomizer.newRandom());
+        // A non-empty directory cannot be replaced by the compiled file.
+        var compiledFile = directory.resolve("aircraft.bin");
+        Files.createDirectories(compiledFile.resolve("child"));
+
+        assertThrows(IOException.class,
+                () -> CompiledAircraftDatabase.compile(SyntheticAircraftDatabase.file(directory), compiledFile));
+        try (var files = Files.list(directory)) {
+            assertEquals(Set.of("aircraft.bin", "aircraft.zip"),
+                    files.map(f -> f.getFileName().toString()).collect(Collectors.toSet()));
+        }
+    }
+
+    @Test
+    void compiledAircraftDatabaseWorksWithEmptyDatabase(@TempDir Path directory) throws IOException {
+        SyntheticAircraftDatabase.write(directory, 0, TestRandomizer.newRandom());
+        var compiled = CompiledAircraftDatabase.open(SyntheticAircraftDatabase.file(directory),
+                directory.resolve("aircraft.bin"));
+        assertEquals(0, compiled.size());
+        assertNull(compiled.get(new IcaoAddress("4B1814")));
+    }
+}
@@ -0,0 +1,51 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// Compares the creation and hashing of ICAO addresses as done by RawMessage.icaoAddress() before
+// (hexadecimal formatting, regex validation, String hashing) and now (IcaoAddress.of on the int value).
+// The message stream repeats the addresses of a few hundred aircraft, as a real one does.
+// Not a JUnit test: run it with its main method.
+public final class IcaoAddressBenchmark {
+    private static final int MESSAGES_COUNT = 1 << 20;
+    private static final int AIRCRAFT_COUNT = 300;
+    private static final Pattern PATTERN = Pattern.compile("[0-9A-F]{6}");
+
+    // The former record: a String validated by a regex, with String equality and hashing.
+    private record StringIcaoAddress(String string) {
+        StringIcaoAddress {
+            if (!PATTERN.matcher(string).matches()) throw new IllegalArgumentException();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var aircraft = rng.ints(AIRCRAFT_COUNT, 0, 1 << 24).toArray();
+        var values = new int[MESSAGES_COUNT];
+        for (var i = 0; i < MESSAGES_COUNT; i += 1) values[i] = aircraft[rng.nextInt(AIRCRAFT_COUNT)];
+
+        var stringMap = new HashMap<StringIcaoAddress, Integer>();
+        var intMap = new HashMap<IcaoAddress, Integer>();
+        for (var value : aircraft) {
+            stringMap.put(new StringIcaoAddress(HexFormat.of().withUpperCase().toHexDigits(value, 6)), value);
+            intMap.put(IcaoAddress.of(value), value);
+        }
+
+        MicroBenchmark.measure("String address + HashMap.get", MESSAGES_COUNT, "messages", () -> {
+            var sum = 0L;
+            for (var value : values)
+                sum += stringMap.get(new StringIcaoAddress(HexFormat.of().withUpperCase().toHexDigits(value, 6)));
+            return sum;
+        });
+        MicroBenchmark.measure("IcaoAddress.of + HashMap.get", MESSAGES_COUNT, "messages", () -> {
+            var sum = 0L;
+            for (var value : values) sum += intMap.get(IcaoAddress.of(value));
+            return sum;
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.util.HashMap;
+
+// Compares the per-message lookup of an aircraft state, as done by AircraftStateManager, in a
+// HashMap<IcaoAddress, V> (with an address built from the message) and in an IcaoAddressMap<V>,
+// for 600 aircraft, then the scan of the table by a purge.
+// Not a JUnit test: run it with its main method.
+public final class IcaoAddressMapBenchmark {
+    private static final int AIRCRAFT_COUNT = 600;
+    private static final int MESSAGES_COUNT = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var aircraft = new int[AIRCRAFT_COUNT];
+        for (var i = 0; i < AIRCRAFT_COUNT; i += 1) aircraft[i] = rng.nextInt(1 << 24);
+        var messages = new int[MESSAGES_COUNT];
+        for (var i = 0; i < MESSAGES_COUNT; i += 1) messages[i] = aircraft[rng.nextInt(AIRCRAFT_COUNT)];
+
+        var hashMap = new HashMap<IcaoAddress, long[]>();
+        var icaoAddressMap = new IcaoAddressMap<long[]>();
+        for (var address : aircraft) {
+            hashMap.put(IcaoAddress.of(address), new long[1]);
+            icaoAddressMap.put(address, new long[1]);
+        }
+
+        MicroBenchmark.measure("HashMap<IcaoAddress, V>.get", MESSAGES_COUNT, "messages", () -> {
+            var sum = 0L;
+            for (var address : messages) sum += ++hashMap.get(IcaoAddress.of(address))[0];
+            return sum;
+        });
+        MicroBenchmark.measure("IcaoAddressMap<V>.get", MESSAGES_COUNT, "messages", () -> {
+            var sum = 0L;
+            for (var address : messages) sum += ++icaoAddressMap.get(address)[0];
+            return sum;
+        });
+
+        // A purge usually keeps every aircraft: this measures the scan of the table.
+        MicroBenchmark.measure("HashMap purge scan", AIRCRAFT_COUNT, "aircraft", () -> {
+            hashMap.entrySet().removeIf(e -> e.getValue()[0] < 0);
+            return hashMap.size();
+        });
+        MicroBenchmark.measure("IcaoAddressMap purge scan", AIRCRAFT_COUNT, "aircraft", () -> {
+            icaoAddressMap.removeIf(v -> v[0] < 0);
+            return icaoAddressMap.size();
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcaoAddressMapTest {
+    @Test
+    void icaoAddressMapWorksOnTrivialOperations() {
+        var map = new IcaoAddressMap<String>();
+        assertEquals(0, map.size());
+        assertNull(map.get(0x4B1814));
+        assertNull(map.put(0x4B1814, "a"));
+        assertEquals("a", map.put(0x4B1814, "b"));
+        assertEquals("b", map.get(0x4B1814));
+        assertEquals(1, map.size());
+        assertEquals("b", map.remove(0x4B1814));
+        assertNull(map.remove(0x4B1814));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void icaoAddressMapThrowsWithInvalidArguments() {
+        var map = new IcaoAddressMap<String>();
+        assertThrows(IllegalArgumentException.class, () -> map.get(-1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(1 << 24, "a"));
+        assertThrows(NullPointerException.class, () -> map.put(0, null));
+        assertThrows(NullPointerException.class, () -> map.removeIf(null));
+    }
+
+    @Test
+    void icaoAddressMapBehavesLikeHashMapOnRandomOperations() {
+        var rng = TestRandomizer.newRandom();
+        var map = new IcaoAddressMap<Integer>();
+        var expected = new HashMap<Integer, Integer>();
+        for (var i = 0; i < 200 * TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            // Few distinct addresses, so that clusters and removals are frequent.
+            var address = rng.nextInt(2_000) * 8_191 & 0xFFFFFF;
+            switch (rng.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(address, i), map.put(address, i));
+                case 1 -> assertEquals(expected.remove(address), map.remove(address));
+                default -> assertEquals(expected.get(address), map.get(address));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (var e : expected.entrySet()) assertEquals(e.getValue(), map.get(e.getKey()));
+    }
+
+    @Test
+    void icaoAddressMapRemoveIfTestsEachValueOnce() {
+        var rng = TestRandomizer.newRandom();
+        for (var round = 0; round < 100; round += 1) {
+            var map = new IcaoAddressMap<Integer>();
+            var expected = new HashMap<Integer, Integer>();
+            var count = rng.nextInt(1, 1_000);
+            for (var i = 0; i < count; i += 1) {
+                var address = rng.nextInt(1 << 24);
+                map.put(address, address);
+                expected.put(address, address);
+            }
+            var modulus = rng.nextInt(1, 4);
+            var tested = new ArrayList<Integer>();
+            var removed = map.removeIf(v -> {
+                tested.add(v);
+                return v % modulus == 0;
+            });
+            assertEquals(expected.size(), tested.size());
+            assertEquals(expected.keySet(), new HashSet<>(tested));
+            assertEquals(expected.values().removeIf(v -> v % modulus == 0), removed);
+            assertEquals(expected.size(), map.size());
+            for (var address : tested) assertEquals(expected.get(address), map.get(address));
+        }
+    }
+
+    @Test
+    void icaoAddressMapClearRemovesAllEntries() {
+        var map = new IcaoAddressMap<String>();
+        for (var i = 0; i < 100; i += 1) map.put(i, "v" + i);
+        map.clear();
+        assertEquals(0, map.size());
+        for (var i = 0; i < 100; i += 1) assertNull(map.get(i));
+    }
+}
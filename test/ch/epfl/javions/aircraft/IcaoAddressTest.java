@@ -1,9 +1,9 @@
 package ch.epfl.javions.aircraft;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 class IcaoAddressTest {
     @Test
@@ -26,4 +26,47 @@ class IcaoAddressTest {
             new IcaoAddress("ABCDEF");
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void icaoAddressConstructorThrowsWithInvalidLengthOrCharacters() {
+        for (var s : new String[]{"ABCDE", "ABCDEF0", "ABCDEG", "+BCDEF", " ABCDE", "abcdef"})
+            assertThrows(IllegalArgumentException.class, () -> new IcaoAddress(s));
+        assertThrows(NullPointerException.class, () -> new IcaoAddress(null));
+    }
+
+    @Test
+    void icaoAddressValueAndStringAreConsistent() {
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var value = rng.nextInt(1 << 24);
+            var string = String.format("%06X", value);
+            var fromString = new IcaoAddress(string);
+            var fromValue = IcaoAddress.of(value);
+            assertEquals(value, fromString.value());
+            assertEquals(string, fromValue.string());
+            assertEquals(fromString, fromValue);
+            assertEquals(fromString.hashCode(), fromValue.hashCode());
+            assertEquals(fromString.toString(), fromValue.toString());
+        }
+    }
+
+    @Test
+    void icaoAddressOfReturnsCanonicalInstance() {
+        assertSame(IcaoAddress.of(0x4B1A5F), IcaoAddress.of(0x4B1A5F));
+        assertSame(IcaoAddress.of(0), IcaoAddress.of(0));
+        assertSame(IcaoAddress.of(0xFFFFFF), IcaoAddress.of(0xFFFFFF));
+        assertNotEquals(IcaoAddress.of(0x4B1A5F), IcaoAddress.of(0x4B1A5E));
+    }
+
+    @Test
+    void icaoAddressOfThrowsWithInvalidValue() {
+        assertThrows(IllegalArgumentException.class, () -> IcaoAddress.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> IcaoAddress.of(1 << 24));
+    }
+
+    @Test
+    void icaoAddressToStringIsTheRecordOne() {
+        assertEquals("IcaoAddress[string=4B1A5F]", IcaoAddress.of(0x4B1A5F).toString());
+        assertEquals("IcaoAddress[string=00000A]", new IcaoAddress("00000A").toString());
+    }
+}
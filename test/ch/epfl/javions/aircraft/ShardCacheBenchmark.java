@@ -0,0 +1,79 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+// Compares the lookups of the aircraft seen by a receiver (a few hundred aircraft at a time, a third of them
+// absent from the database), in a database of the size of aircraft.zip (written with random aircraft),
+// for the ZIP scan, the shard cache with several memory budgets, and the fully loaded index.
+// As the aircraft seen at a given time are spread over all shards, a budget smaller than the whole database
+// makes the cache read shards again and again: each budget is therefore measured over a single pass,
+// starting from an empty cache, then (if every shard fits) once all shards are in memory.
+// Not a JUnit test: run it with its main method (with a heap of at least 1 GB).
+public final class ShardCacheBenchmark {
+    private static final int AIRCRAFT_COUNT = 500_000;
+    private static final int VISIBLE_AIRCRAFT_COUNT = 600;
+    private static final int LOOKUPS_COUNT = 1 << 14;
+    private static final int SCANNED_LOOKUPS_COUNT = 1 << 8;
+    private static final long[] BUDGETS = {1L << 25, 1L << 26, 1L << 27, Long.MAX_VALUE};
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var directory = Files.createTempDirectory("javions");
+        var lines = SyntheticAircraftDatabase.write(directory, AIRCRAFT_COUNT, rng);
+        var file = SyntheticAircraftDatabase.file(directory);
+
+        // The visible aircraft are slowly replaced by new ones.
+        var visible = new IcaoAddress[VISIBLE_AIRCRAFT_COUNT];
+        var addresses = new IcaoAddress[LOOKUPS_COUNT];
+        for (var i = 0; i < LOOKUPS_COUNT; i += 1) {
+            var slot = rng.nextInt(VISIBLE_AIRCRAFT_COUNT);
+            if (visible[slot] == null || rng.nextInt(16) == 0) {
+                visible[slot] = rng.nextInt(3) == 0
+                        ? IcaoAddress.of(rng.nextInt(1 << 24))
+                        : new IcaoAddress(lines.get(rng.nextInt(lines.size())).substring(0, 6));
+            }
+            addresses[i] = visible[slot];
+        }
+
+        var scanned = new AircraftDatabase(file);
+        MicroBenchmark.measure("ZIP scan", SCANNED_LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var i = 0; i < SCANNED_LOOKUPS_COUNT; i += 1) if (scanned.get(addresses[i]) != null) found += 1;
+            return found;
+        });
+
+        // Without prefetching, so that each shard read happens during the measured lookups.
+        Executor noPrefetch = r -> {};
+        for (var budget : BUDGETS) {
+            var cache = new ShardCache(file, budget, noPrefetch);
+            var label = "Shard cache, " + (budget == Long.MAX_VALUE ? "unlimited" : (budget >> 20) + " MB");
+            var start = System.nanoTime();
+            var found = 0L;
+            for (var address : addresses) if (cache.get(address) != null) found += 1;
+            var elapsedNs = System.nanoTime() - start;
+            MicroBenchmark.blackHole += found;
+            System.out.printf(Locale.ROOT, "%-40s %,16.0f lookups/s (first pass: %,d reads, %,d evictions, %,.1f MB)%n",
+                    label, LOOKUPS_COUNT * 1e9 / elapsedNs, cache.loadsCount(), cache.evictionsCount(),
+                    cache.memoryUsage() / 1e6);
+            if (cache.evictionsCount() == 0) {
+                MicroBenchmark.measure(label + " (warm)", LOOKUPS_COUNT, "lookups", () -> {
+                    var f = 0L;
+                    for (var address : addresses) if (cache.get(address) != null) f += 1;
+                    return f;
+                });
+            }
+        }
+
+        var indexed = AircraftDatabase.loadIndexed(file);
+        MicroBenchmark.measure("Fully loaded index", LOOKUPS_COUNT, "lookups", () -> {
+            var found = 0L;
+            for (var address : addresses) if (indexed.get(address) != null) found += 1;
+            return found;
+        });
+    }
+}
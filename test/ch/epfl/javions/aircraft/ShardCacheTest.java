@@ -0,0 +1,177 @@
+package ch.epfl.javions.aircraft;
+
+import ch.epfl.test.ManualExecutor;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardCacheTest {
+    private static List<IcaoAddress> addresses(List<String> lines) {
+        var addresses = new ArrayList<IcaoAddress>();
+        for (var line : lines) addresses.add(new IcaoAddress(line.substring(0, 6)));
+        return addresses;
+    }
+
+    @Test
+    void shardCacheGetReturnsSameDataAsZipScan(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var addresses = addresses(SyntheticAircraftDatabase.write(directory, 2_000, rng));
+        var file = SyntheticAircraftDatabase.file(directory);
+        var scanned = new AircraftDatabase(file);
+        var cache = new ShardCache(file, 1_000, new ManualExecutor());
+
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            var address = rng.nextBoolean()
+                    ? addresses.get(rng.nextInt(addresses.size()))
+                    : IcaoAddress.of(rng.nextInt(1 << 24));
+            assertEquals(scanned.get(address), cache.get(address));
+        }
+        assertEquals(scanned.get(addresses.get(0)), AircraftDatabase.openSharded(file, 1 << 20).get(addresses.get(0)));
+    }
+
+    @Test
+    void shardCacheReadsEachShardOnceWithinBudget(@TempDir Path directory) throws IOException {
+        var addresses = addresses(SyntheticAircraftDatabase.write(directory, 2_000, TestRandomizer.newRandom()));
+        var cache = new ShardCache(SyntheticAircraftDatabase.file(directory), Long.MAX_VALUE, new ManualExecutor());
+
+        for (var address : addresses) cache.get(address);
+        for (var address : addresses) cache.get(address);
+        assertEquals(256, cache.loadedShardsCount());
+        assertEquals(256, cache.loadsCount());
+        assertEquals(0, cache.evictionsCount());
+    }
+
+    @Test
+    void shardCacheRespectsMemoryBudget(@TempDir Path directory) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var addresses = addresses(SyntheticAircraftDatabase.write(directory, 2_000, rng));
+        var file = SyntheticAircraftDatabase.file(directory);
+        var unbounded = new ShardCache(file, Long.MAX_VALUE, new ManualExecutor());
+        for (var address : addresses) unbounded.get(address);
+        var budget = unbounded.memoryUsage() / 10;
+
+        var cache = new ShardCache(file, budget, new ManualExecutor());
+        for (var i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i += 1) {
+            cache.get(addresses.get(rng.nextInt(addresses.size())));
+            assertTrue(cache.memoryUsage() <= budget);
+        }
+        assertTrue(cache.loadedShardsCount() < 256);
+        assertEquals(cache.loadsCount() - cache.loadedShardsCount(), cache.evictionsCount());
+    }
+
+    @Test
+    void shardCacheKeepsHotShardsAndEvictsColdOnes(@TempDir Path directory) throws IOException {
+        var addresses = addresses(SyntheticAircraftDatabase.write(directory, 2_000, TestRandomizer.newRandom()));
+        var file = SyntheticAircraftDatabase.file(directory);
+        var unbounded = new ShardCache(file, Long.MAX_VALUE, new ManualExecutor());
+        for (var address : addresses) unbounded.get(address);
+        // Room for about half of the shards.
+        var cache = new ShardCache(file, unbounded.memoryUsage() / 2, new ManualExecutor());
+
+        var hot = addresses.get(0);
+        for (var i = 0; i < 100; i += 1) cache.get(hot);
+        for (var address : addresses) cache.get(address);
+        var loads = cache.loadsCount();
+        cache.get(hot);
+        assertEquals(loads, cache.loadsCount());
+        assertTrue(cache.evictionsCount() > 0);
+    }
+
+    @Test
+    void shardCachePrefetchesShardsInBackground(@TempDir Path directory) throws IOException {
+        var addresses = addresses(SyntheticAircraftDatabase.write(directory, 2_000, TestRandomizer.newRandom()));
+        var file = SyntheticAircraftDatabase.file(directory);
+        var executor = new ManualExecutor();
+        var cache = new ShardCache(file, Long.MAX_VALUE, executor);
+
+        cache.get(addresses.get(0));
+        assertEquals(1, cache.loadedShardsCount());
+        assertEquals(1, executor.size());
+        executor.runAll();
+        assertEquals(256, cache.loadedShardsCount());
+
+        // Every shard is now in memory, even without the file.
+        Files.delete(Path.of(file));
+        for (var address : addresses) assertNotNull(cache.get(address));
+    }
+
+    @Test
+    void shardCacheOnlyAdmitsShardsHotterThanColdestWhenFull(@TempDir Path directory) throws IOException {
+        var addresses = addresses(SyntheticAircraftDatabase.write(directory, 2_000, TestRandomizer.newRandom()));
+        var file = SyntheticAircraftDatabase.file(directory);
+        var scanned = new AircraftDatabase(file);
+        var executor = new ManualExecutor();
+        // A budget so small that only one shard is kept in memory.
+        var cache = new ShardCache(file, 1, executor);
+
+        var hot = addresses.get(0);
+        var cold = addresses.get(1);
+        assertNotEquals(hot.value() & 0xFF, cold.value() & 0xFF);
+        for (var i = 0; i < 10; i += 1) cache.get(hot);
+        executor.runAll();
+        assertEquals(1, cache.loadsCount());
+
+        // The cold shard is scanned until it becomes hotter than the hot one, which it then replaces.
+        for (var i = 0; i < 10; i += 1) assertEquals(scanned.get(cold), cache.get(cold));
+        executor.runAll();
+        assertEquals(1, cache.loadsCount());
+        assertEquals(scanned.get(cold), cache.get(cold));
+        assertEquals(2, cache.loadsCount());
+        assertEquals(1, cache.loadedShardsCount());
+        assertEquals(1, cache.evictionsCount());
+    }
+
+    @Test
+    void shardCacheKeepsFirstLineOfDuplicateAddresses(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("aircraft.zip").toString();
+        try (var zip = new ZipOutputStream(new FileOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("01.csv"));
+            zip.write("""
+                    4B1801,HB-JCA,BCS3,AIRBUS A-220-300,L2J,M
+                    4B1801,HB-JCB,BCS3,AIRBUS A-220-300,L2J,M
+                    4B1801,HB-JCC,BCS3,AIRBUS A-220-300,L2J,M
+                    4B1901,HB-JCD,BCS3,AIRBUS A-220-300,L2J,H
+                    """.getBytes(UTF_8));
+            zip.closeEntry();
+        }
+        var scanned = new AircraftDatabase(file);
+        var cache = new ShardCache(file, Long.MAX_VALUE, new ManualExecutor());
+
+        var duplicate = new IcaoAddress("4B1801");
+        assertEquals(scanned.get(duplicate), cache.get(duplicate));
+        assertEquals(new AircraftRegistration("HB-JCA"), cache.get(duplicate).registration());
+        assertEquals(new AircraftRegistration("HB-JCD"), cache.get(new IcaoAddress("4B1901")).registration());
+    }
+
+    @Test
+    void shardCacheRetriesAfterError(@TempDir Path directory) throws IOException {
+        var addresses = addresses(SyntheticAircraftDatabase.write(directory, 100, TestRandomizer.newRandom()));
+        var file = SyntheticAircraftDatabase.file(directory);
+        var content = Files.readAllBytes(Path.of(file));
+        var cache = new ShardCache(file, Long.MAX_VALUE, new ManualExecutor());
+
+        Files.delete(Path.of(file));
+        assertThrows(IOException.class, () -> cache.get(addresses.get(0)));
+        Files.write(Path.of(file), content);
+        assertNotNull(cache.get(addresses.get(0)));
+    }
+
+    @Test
+    void shardCacheConstructorThrowsWithInvalidBudget(@TempDir Path directory) {
+        var file = SyntheticAircraftDatabase.file(directory);
+        assertThrows(IllegalArgumentException.class, () -> new ShardCache(file, 0, new ManualExecutor()));
+        assertThrows(IllegalArgumentException.class, () -> AircraftDatabase.openSharded(file, -1));
+    }
+}
@@ -0,0 +1,63 @@
+package ch.epfl.javions.aircraft;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// Writes an aircraft database with the same layout as aircraft.zip (one CSV entry per value of the
+// last two hexadecimal digits of the address, sorted by address), but with random aircraft, for the
+// tests and benchmarks that cannot rely on the real database.
+public final class SyntheticAircraftDatabase {
+    private static final String[] TYPES = {"A320", "A20N", "B738", "BCS3", "C172", "E190", "DH8D", ""};
+    private static final String[] MODELS = {"AIRBUS A-320", "AIRBUS A-320neo", "BOEING 737-800",
+            "AIRBUS A-220-300", "CESSNA 172 Skyhawk", "EMBRAER ERJ-190", "DE HAVILLAND DHC-8-400", ""};
+    private static final String[] DESCRIPTIONS = {"L2J", "L2J", "L2J", "L2J", "L1P", "L2J", "L2T", ""};
+    private static final String[] CATEGORIES = {"M", "M", "M", "M", "L", "M", "M", ""};
+
+    private SyntheticAircraftDatabase() {}
+
+    // Writes a database of the given number of aircraft (with distinct random addresses) to the file
+    // aircraft.zip of the given directory, and returns its lines, sorted by address.
+    public static List<String> write(Path directory, int aircraftCount, RandomGenerator rng) throws IOException {
+        var lines = new TreeMap<Integer, String>();
+        while (lines.size() < aircraftCount) {
+            var address = rng.nextInt(1 << 24);
+            var model = rng.nextInt(TYPES.length);
+            lines.put(address, String.join(",",
+                    IcaoAddress.of(address).string(),
+                    "HB-" + Integer.toString(lines.size(), 36).toUpperCase(),
+                    TYPES[model],
+                    MODELS[model],
+                    DESCRIPTIONS[model],
+                    CATEGORIES[model]));
+        }
+
+        // Like aircraft.zip, the database has all 256 entries, even empty ones.
+        var entries = new TreeMap<String, StringBuilder>();
+        for (var i = 0; i < 1 << 8; i += 1) entries.put(AircraftDatabase.entryName(IcaoAddress.of(i)), new StringBuilder());
+        for (var e : lines.entrySet()) {
+            var name = AircraftDatabase.entryName(IcaoAddress.of(e.getKey()));
+            entries.get(name).append(e.getValue()).append("\r\n");
+        }
+        try (var zip = new ZipOutputStream(new FileOutputStream(file(directory)))) {
+            for (var e : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(e.getKey()));
+                zip.write(e.getValue().toString().getBytes(UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new ArrayList<>(lines.values());
+    }
+
+    public static String file(Path directory) {
+        return directory.resolve("aircraft.zip").toString();
+    }
+}
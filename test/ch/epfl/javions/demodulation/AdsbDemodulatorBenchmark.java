@@ -0,0 +1,59 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+// Measures the demodulator with and without the preamble pre-filter, for several noise floor factors,
+// and reports how many positions the filter skipped and how many messages it lost compared with the
+// full scan. Runs on a synthesized recording (with messages of random strength), or on the recording
+// whose path is given as argument (e.g. samples_20230304_1442.bin).
+// Not a JUnit test: run it with its main method.
+public final class AdsbDemodulatorBenchmark {
+    private static final int POWER_SAMPLES_COUNT = 20_000_000;
+    private static final double[] NOISE_FLOOR_FACTORS = {0, 1, 2, 4, 8, 16};
+
+    private static List<RawMessage> demodulate(Path file, double factor, long[] skippedPositions)
+            throws IOException {
+        var demodulator = new AdsbDemodulator(SamplesSource.ofFile(file));
+        demodulator.setNoiseFloorFactor(factor);
+        var messages = new ArrayList<RawMessage>();
+        RawMessage message;
+        while ((message = demodulator.nextMessage()) != null) messages.add(message);
+        skippedPositions[0] = demodulator.skippedPositions();
+        return messages;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var file = args.length > 0 ? Path.of(args[0]) : Files.createTempFile("samples", ".bin");
+        try {
+            if (args.length == 0) {
+                var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), POWER_SAMPLES_COUNT);
+                synthesizer.addRandomMessages(20_000, 4, 512);
+                Files.write(file, synthesizer.bytes());
+            }
+            var powerSamplesCount = Files.size(file) / (2 * Short.BYTES);
+            var skipped = new long[1];
+            var fullScan = new HashSet<>(demodulate(file, 0, skipped));
+
+            for (var factor : NOISE_FLOOR_FACTORS) {
+                var messages = demodulate(file, factor, skipped);
+                var lost = fullScan.stream().filter(m -> !messages.contains(m)).count();
+                var extra = messages.stream().filter(m -> !fullScan.contains(m)).count();
+                System.out.printf("factor %4.1f: %,d messages, %,d lost, %,d extra, %.1f%% positions skipped%n",
+                        factor, messages.size(), lost, extra, 100.0 * skipped[0] / powerSamplesCount);
+                MicroBenchmark.measure("  AdsbDemodulator", powerSamplesCount, "power samples",
+                        () -> demodulate(file, factor, new long[1]).size());
+            }
+        } finally {
+            if (args.length == 0) Files.delete(file);
+        }
+    }
+}
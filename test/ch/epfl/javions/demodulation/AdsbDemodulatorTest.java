@@ -1,11 +1,20 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.javions.ByteString;
+import ch.epfl.javions.adsb.ErrorCorrector;
+import ch.epfl.javions.adsb.ModeSFrame;
+import ch.epfl.javions.adsb.MutableRawMessage;
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.javions.adsb.RawMessageBatch;
 import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -568,4 +577,202 @@ class AdsbDemodulatorTest {
             assertNull(demodulator.nextMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void adsbDemodulatorSetNoiseFloorFactorThrowsWithInvalidFactor() throws IOException {
+        var demodulator = new AdsbDemodulator(InputStream.nullInputStream());
+        assertThrows(IllegalArgumentException.class, () -> demodulator.setNoiseFloorFactor(-1));
+        assertThrows(IllegalArgumentException.class, () -> demodulator.setNoiseFloorFactor(Double.NaN));
+    }
+
+    @Test
+    void adsbDemodulatorPreambleFilterIsDisabledByDefault() throws IOException {
+        var samples = Base64.getMimeDecoder().decode(SAMPLES_BASE64);
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(samples));
+        assertNotNull(demodulator.nextMessage());
+        assertNull(demodulator.nextMessage());
+        assertEquals(0, demodulator.skippedPositions());
+    }
+
+    @Test
+    void adsbDemodulatorPreambleFilterKeepsMessageOfTinySamples() throws IOException {
+        var samples = Base64.getMimeDecoder().decode(SAMPLES_BASE64);
+        for (var factor : new double[]{1, 2, 4}) {
+            var demodulator = new AdsbDemodulator(new ByteArrayInputStream(samples));
+            demodulator.setNoiseFloorFactor(factor);
+            var message = demodulator.nextMessage();
+            assertNotNull(message);
+            assertEquals(14100, message.timeStampNs());
+            assertEquals("8D44CE6858A3860B09465B3D3696", message.bytes().toString());
+            assertNull(demodulator.nextMessage());
+            assertTrue(demodulator.skippedPositions() > 0);
+        }
+    }
+
+    @Test
+    void adsbDemodulatorPreambleFilterSkipsDeadAirWithoutLosingMessages() throws IOException {
+        var powerSamplesCount = 1 << 20;
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), powerSamplesCount);
+        var expected = synthesizer.addRandomMessages(20_000);
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        demodulator.setNoiseFloorFactor(4);
+        for (var message : expected) assertEquals(message, demodulator.nextMessage());
+        assertNull(demodulator.nextMessage());
+        assertTrue(demodulator.skippedPositions() > powerSamplesCount / 2);
+    }
+
+    @Test
+    void adsbDemodulatorErrorCorrectionIsDisabledByDefault() throws IOException {
+        var samples = Base64.getMimeDecoder().decode(SAMPLES_BASE64);
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(samples));
+        assertNotNull(demodulator.nextMessage());
+        assertNull(demodulator.nextMessage());
+        assertEquals(0, demodulator.correctedMessages());
+    }
+
+    @Test
+    void adsbDemodulatorErrorCorrectionRecoversCorruptedMessages() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var powerSamplesCount = 1 << 16;
+        var synthesizer = new SamplesSynthesizer(rng, powerSamplesCount);
+        var expected = new ArrayList<RawMessage>();
+        for (var position = 100; position + 2 * AdsbDemodulator.WINDOW_SIZE < powerSamplesCount;
+             position += 2 * AdsbDemodulator.WINDOW_SIZE) {
+            var message = SamplesSynthesizer.randomMessage(rng, position);
+            var bytes = HexFormat.of().parseHex(message.bytes().toString());
+            var corruptedBit = 8 + rng.nextInt(RawMessage.LENGTH * Byte.SIZE - 8);
+            bytes[corruptedBit / Byte.SIZE] ^= (byte) (0x80 >>> (corruptedBit % Byte.SIZE));
+            synthesizer.add(new RawMessage(message.timeStampNs(), new ByteString(bytes)));
+            expected.add(message);
+        }
+        var samples = synthesizer.bytes();
+
+        var uncorrected = new AdsbDemodulator(new ByteArrayInputStream(samples));
+        assertNull(uncorrected.nextMessage());
+
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(samples));
+        demodulator.setErrorCorrector(ErrorCorrector.SINGLE_BIT);
+        for (var message : expected) assertEquals(message, demodulator.nextMessage());
+        assertNull(demodulator.nextMessage());
+        assertEquals(expected.size(), demodulator.correctedMessages());
+    }
+
+    @Test
+    void adsbDemodulatorNextFrameWorksOnTinySamples() throws IOException {
+        var samples = Base64.getMimeDecoder().decode(SAMPLES_BASE64);
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(samples));
+        var frame = demodulator.nextFrame();
+        assertNotNull(frame);
+        assertEquals(14100, frame.timeStampNs());
+        assertEquals("8D44CE6858A3860B09465B3D3696", frame.bytes().toString());
+        assertNull(demodulator.nextFrame());
+    }
+
+    @Test
+    void adsbDemodulatorNextFrameDemodulatesAllModeSFormats() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var known = 0x4B17E5;
+        var unknown = 0x3C6586;
+        int[][] frames = {
+                {0, known}, {17, known}, {0, known}, {4, known}, {5, unknown}, {11, unknown}, {5, unknown},
+                {16, known}, {18, unknown}, {20, unknown}, {21, known}, {24, known}, {4, known}
+        };
+        var synthesizer = new SamplesSynthesizer(rng, frames.length * 2 * AdsbDemodulator.WINDOW_SIZE);
+        var expected = new ArrayList<String>();
+        var knownAddresses = new HashSet<Integer>();
+        var position = 100;
+        for (var frame : frames) {
+            var df = frame[0];
+            var address = frame[1];
+            var bytes = df == 24
+                    ? new byte[]{(byte) (24 << 3), 1, 2, 3, 4, 5, 6}
+                    : SamplesSynthesizer.randomModeSFrame(rng, df, address);
+            synthesizer.add(position, bytes, 1 << 9);
+            var inClear = df == 11 || df == 17 || df == 18;
+            if (inClear) knownAddresses.add(address);
+            if (df != 24 && (inClear || knownAddresses.contains(address)))
+                expected.add(position * 100 + " " + HexFormat.of().withUpperCase().formatHex(bytes));
+            position += 2 * AdsbDemodulator.WINDOW_SIZE;
+        }
+
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        var actual = new ArrayList<String>();
+        ModeSFrame frame;
+        while ((frame = demodulator.nextFrame()) != null)
+            actual.add(frame.timeStampNs() + " " + frame.bytes());
+        assertEquals(expected, actual);
+
+        var adsbOnly = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        assertEquals(17, adsbOnly.nextMessage().downLinkFormat());
+        assertNull(adsbOnly.nextMessage());
+    }
+
+    @Test
+    void adsbDemodulatorNextFrameCorrectsOneBitErrorInDf18Frames() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var synthesizer = new SamplesSynthesizer(rng, 4 * AdsbDemodulator.WINDOW_SIZE);
+        var bytes = SamplesSynthesizer.randomModeSFrame(rng, 18, 0x3C6586);
+        var expected = HexFormat.of().withUpperCase().formatHex(bytes);
+        var corruptedBit = 8 + rng.nextInt(ModeSFrame.LONG_LENGTH * Byte.SIZE - 8);
+        bytes[corruptedBit / Byte.SIZE] ^= (byte) (0x80 >>> (corruptedBit % Byte.SIZE));
+        synthesizer.add(100, bytes, 1 << 9);
+
+        var uncorrected = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        assertNull(uncorrected.nextFrame());
+
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        demodulator.setErrorCorrector(ErrorCorrector.SINGLE_BIT);
+        var frame = demodulator.nextFrame();
+        assertNotNull(frame);
+        assertEquals(18, frame.downLinkFormat());
+        assertEquals(expected, frame.bytes().toString());
+        assertNull(demodulator.nextFrame());
+        assertEquals(1, demodulator.correctedMessages());
+    }
+
+    @Test
+    void adsbDemodulatorNextFrameDemodulatesCloseShortFrames() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var synthesizer = new SamplesSynthesizer(rng, 4 * AdsbDemodulator.WINDOW_SIZE);
+        var first = SamplesSynthesizer.randomModeSFrame(rng, 11, 0x4B17E5);
+        var second = SamplesSynthesizer.randomModeSFrame(rng, 11, 0x3C6586);
+        synthesizer.add(100, first, 1 << 9);
+        synthesizer.add(100 + 700, second, 1 << 9);
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        assertEquals(HexFormat.of().withUpperCase().formatHex(first), demodulator.nextFrame().bytes().toString());
+        assertEquals(HexFormat.of().withUpperCase().formatHex(second), demodulator.nextFrame().bytes().toString());
+        assertNull(demodulator.nextFrame());
+    }
+
+    @Test
+    void adsbDemodulatorNextMessageIntoMutableMessageWorks() throws IOException {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), 1 << 18);
+        var expected = synthesizer.addRandomMessages(5_000);
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        var message = new MutableRawMessage();
+        for (var m : expected) {
+            assertTrue(demodulator.nextMessage(message));
+            assertEquals(m, message.toRawMessage());
+        }
+        var last = message.toCompactRawMessage();
+        assertFalse(demodulator.nextMessage(message));
+        assertEquals(last, message.toCompactRawMessage());
+        assertThrows(NullPointerException.class, () -> demodulator.nextMessage(null));
+    }
+
+    @Test
+    void adsbDemodulatorNextMessagesFillsBatches() throws IOException {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), 1 << 18);
+        var expected = synthesizer.addRandomMessages(5_000);
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(synthesizer.bytes()));
+        var batch = new RawMessageBatch(64);
+        var actual = new ArrayList<RawMessage>();
+        int count;
+        while ((count = demodulator.nextMessages(batch)) != 0) {
+            assertEquals(batch.size(), count);
+            for (int i = 0; i < batch.size(); ++i) actual.add(batch.rawMessage(i));
+            batch.clear();
+        }
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,75 @@
+package ch.epfl.javions.demodulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRingBufferTest {
+    private static final int BATCH_SIZE = 16;
+
+    @Test
+    void batchRingBufferConstructorThrowsWithInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRingBuffer<>(0, () -> new int[BATCH_SIZE]));
+        assertThrows(IllegalArgumentException.class, () -> new BatchRingBuffer<>(6, () -> new int[BATCH_SIZE]));
+    }
+
+    @Test
+    void batchRingBufferTransfersBatchesInOrderBetweenThreads() throws Exception {
+        var queue = new BatchRingBuffer<>(4, () -> new int[BATCH_SIZE]);
+        var batchesCount = 10_000;
+        var producer = new Thread(() -> {
+            try {
+                for (var i = 0; i < batchesCount; i += 1) {
+                    var batch = queue.nextFreeBatch();
+                    for (var j = 0; j < BATCH_SIZE; j += 1) batch[j] = i * BATCH_SIZE + j;
+                    queue.publish(i % BATCH_SIZE + 1);
+                }
+                queue.close();
+            } catch (IOException e) {
+                queue.fail(e);
+            }
+        });
+        producer.start();
+
+        var batch = new int[BATCH_SIZE];
+        for (var i = 0; i < batchesCount; i += 1) {
+            assertEquals(i % BATCH_SIZE + 1, queue.readBatch(batch));
+            for (var j = 0; j <= i % BATCH_SIZE; j += 1) assertEquals(i * BATCH_SIZE + j, batch[j]);
+        }
+        assertEquals(0, queue.readBatch(batch));
+        assertEquals(0, queue.readBatch(batch));
+        producer.join();
+        assertEquals(0, queue.overflowCount());
+    }
+
+    @Test
+    void batchRingBufferTryNextFreeBatchCountsOverflows() throws IOException {
+        var queue = new BatchRingBuffer<>(2, () -> new int[BATCH_SIZE]);
+        assertNotNull(queue.tryNextFreeBatch());
+        queue.publish(1);
+        assertNotNull(queue.tryNextFreeBatch());
+        queue.publish(2);
+        assertNull(queue.tryNextFreeBatch());
+        assertNull(queue.tryNextFreeBatch());
+        assertEquals(2, queue.overflowCount());
+
+        assertEquals(1, queue.readBatch(new int[BATCH_SIZE]));
+        assertNotNull(queue.tryNextFreeBatch());
+    }
+
+    @Test
+    void batchRingBufferRethrowsProducerFailureAfterPublishedBatches() throws IOException {
+        var queue = new BatchRingBuffer<>(2, () -> new short[BATCH_SIZE]);
+        queue.nextFreeBatch()[0] = 42;
+        queue.publish(1);
+        queue.fail(new IOException("failure"));
+
+        var batch = new short[BATCH_SIZE];
+        assertEquals(1, queue.readBatch(batch));
+        assertEquals(42, batch[0]);
+        var e = assertThrows(IOException.class, () -> queue.readBatch(batch));
+        assertEquals("failure", e.getMessage());
+    }
+}
@@ -0,0 +1,100 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DemodulationPipelineTest {
+    private static final int POWER_SAMPLES_COUNT = 1 << 20;
+
+    private static List<RawMessage> demodulateSequentially(byte[] bytes) throws IOException {
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(bytes));
+        var messages = new ArrayList<RawMessage>();
+        RawMessage message;
+        while ((message = demodulator.nextMessage()) != null) messages.add(message);
+        return messages;
+    }
+
+    private static List<RawMessage> demodulateWithPipeline(DemodulationPipeline pipeline) throws IOException {
+        var messages = new ArrayList<RawMessage>();
+        RawMessage message;
+        while ((message = pipeline.nextMessage()) != null) messages.add(message);
+        return messages;
+    }
+
+    @Test
+    void demodulationPipelineConstructorThrowsWithInvalidArguments() {
+        var stream = InputStream.nullInputStream();
+        assertThrows(IllegalArgumentException.class,
+                () -> new DemodulationPipeline(stream, 0, DemodulationPipeline.OverflowPolicy.BLOCK));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DemodulationPipeline(stream, 3, DemodulationPipeline.OverflowPolicy.BLOCK));
+        assertThrows(NullPointerException.class, () -> new DemodulationPipeline(stream, 4, null));
+        assertThrows(NullPointerException.class, () -> new DemodulationPipeline(null));
+    }
+
+    @Test
+    void demodulationPipelineWorksOnGivenSamples() throws IOException {
+        var bytes = Base64.getDecoder().decode(PowerComputerTest.SAMPLES_BIN_BASE64);
+        var pipeline = new DemodulationPipeline(new ByteArrayInputStream(bytes));
+        assertEquals(demodulateSequentially(bytes), demodulateWithPipeline(pipeline));
+    }
+
+    @Test
+    void demodulationPipelineFindsSynthesizedMessages() throws IOException {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), POWER_SAMPLES_COUNT);
+        var messages = synthesizer.addRandomMessages(5_000);
+        var bytes = synthesizer.bytes();
+        for (var capacity : new int[]{1, 2, 32}) {
+            var pipeline = new DemodulationPipeline(
+                    new ByteArrayInputStream(bytes), capacity, DemodulationPipeline.OverflowPolicy.BLOCK);
+            assertEquals(messages, demodulateWithPipeline(pipeline));
+            assertEquals(0, pipeline.overflowCount());
+        }
+    }
+
+    @Test
+    void demodulationPipelineDropsBatchesWhenFull() throws IOException {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), POWER_SAMPLES_COUNT);
+        var messages = synthesizer.addRandomMessages(5_000);
+        var pipeline = new DemodulationPipeline(
+                new ByteArrayInputStream(synthesizer.bytes()), 1, DemodulationPipeline.OverflowPolicy.DROP);
+        try {
+            // The consumer is idle while the whole input is decoded, so most batches are dropped.
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            throw new Error(e);
+        }
+        var received = demodulateWithPipeline(pipeline);
+        assertTrue(pipeline.overflowCount() > 0);
+        assertTrue(received.size() < messages.size());
+        // Time stamps are shifted by the dropped batches, but the messages themselves are intact.
+        var sentBytes = messages.stream().map(RawMessage::bytes).toList();
+        for (var message : received) assertTrue(sentBytes.contains(message.bytes()));
+    }
+
+    @Test
+    void demodulationPipelinePropagatesErrors() throws IOException {
+        var failingStream = new InputStream() {
+            private int bytesLeft = 1 << 20;
+
+            @Override
+            public int read() throws IOException {
+                if (bytesLeft-- == 0) throw new IOException("radio disconnected");
+                return 0;
+            }
+        };
+        var pipeline = new DemodulationPipeline(failingStream);
+        var e = assertThrows(IOException.class, () -> demodulateWithPipeline(pipeline));
+        assertEquals("radio disconnected", e.getMessage());
+    }
+}
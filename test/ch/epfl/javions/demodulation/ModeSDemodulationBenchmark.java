@@ -0,0 +1,63 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Compares the demodulation of ADS-B messages only (nextMessage) with that of all supported Mode S
+// frames (nextFrame), in yield and throughput. Runs on a synthesized recording in which a few aircraft
+// send, for every extended squitter, three short or long frames of other formats, or on the recording
+// whose path is given as argument (e.g. samples_20230304_1442.bin).
+// Not a JUnit test: run it with its main method.
+public final class ModeSDemodulationBenchmark {
+    private static final int POWER_SAMPLES_COUNT = 20_000_000;
+    private static final int AIRCRAFT_COUNT = 50;
+    private static final int[] OTHER_FORMATS = {0, 4, 5, 11, 16, 18, 20, 21};
+
+    private static long countMessages(Path file) throws IOException {
+        var demodulator = new AdsbDemodulator(SamplesSource.ofFile(file));
+        var count = 0L;
+        while (demodulator.nextMessage() != null) count += 1;
+        return count;
+    }
+
+    private static long countFrames(Path file) throws IOException {
+        var demodulator = new AdsbDemodulator(SamplesSource.ofFile(file));
+        var count = 0L;
+        while (demodulator.nextFrame() != null) count += 1;
+        return count;
+    }
+
+    private static void synthesize(Path file) throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var synthesizer = new SamplesSynthesizer(rng, POWER_SAMPLES_COUNT);
+        var addresses = rng.ints(AIRCRAFT_COUNT, 0, 1 << 24).toArray();
+        var position = 100L;
+        for (var i = 0; position + 2 * AdsbDemodulator.WINDOW_SIZE < POWER_SAMPLES_COUNT; i += 1) {
+            var address = addresses[rng.nextInt(AIRCRAFT_COUNT)];
+            var df = i % 4 == 0 ? 17 : OTHER_FORMATS[rng.nextInt(OTHER_FORMATS.length)];
+            var bytes = SamplesSynthesizer.randomModeSFrame(rng, df, address);
+            synthesizer.add(position, bytes, 4 + rng.nextInt(509));
+            position += 2 * AdsbDemodulator.WINDOW_SIZE + rng.nextInt(20_000);
+        }
+        Files.write(file, synthesizer.bytes());
+    }
+
+    public static void main(String[] args) throws Exception {
+        var file = args.length > 0 ? Path.of(args[0]) : Files.createTempFile("samples", ".bin");
+        try {
+            if (args.length == 0) synthesize(file);
+            var powerSamplesCount = Files.size(file) / (2 * Short.BYTES);
+            System.out.printf("%,d ADS-B messages, %,d Mode S frames%n", countMessages(file), countFrames(file));
+            MicroBenchmark.measure("AdsbDemodulator.nextMessage", powerSamplesCount, "power samples",
+                    () -> countMessages(file));
+            MicroBenchmark.measure("AdsbDemodulator.nextFrame", powerSamplesCount, "power samples",
+                    () -> countFrames(file));
+        } finally {
+            if (args.length == 0) Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.MutableRawMessage;
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+// Compares the allocations and throughput of the demodulator when every message is materialized
+// (RawMessage, ByteString and byte[]) with those of the reusable MutableRawMessage flyweight.
+// The recording is synthesized in memory, densely packed with messages.
+// Not a JUnit test: run it with its main method.
+public final class MutableRawMessageBenchmark {
+    private static final int POWER_SAMPLES_COUNT = 4_000_000;
+
+    @FunctionalInterface
+    private interface Demodulation {
+        long run(AdsbDemodulator demodulator) throws IOException;
+    }
+
+    private static long demodulateRawMessages(AdsbDemodulator demodulator) throws IOException {
+        var sum = 0L;
+        for (var m = demodulator.nextMessage(); m != null; m = demodulator.nextMessage())
+            sum += m.typeCode();
+        return sum;
+    }
+
+    private static long demodulateMutableMessages(AdsbDemodulator demodulator) throws IOException {
+        var message = new MutableRawMessage();
+        var sum = 0L;
+        while (demodulator.nextMessage(message)) sum += message.typeCode();
+        return sum;
+    }
+
+    // Prints the bytes allocated while demodulating, excluding the construction of the demodulator.
+    private static void printAllocations(String label, byte[] samples, Demodulation demodulation, int messagesCount)
+            throws IOException {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (var i = 0; i < MicroBenchmark.WARMUP_ROUNDS; i += 1)
+            demodulation.run(new AdsbDemodulator(new ByteArrayInputStream(samples)));
+        var demodulator = new AdsbDemodulator(new ByteArrayInputStream(samples));
+        var before = threads.getCurrentThreadAllocatedBytes();
+        MicroBenchmark.blackHole += demodulation.run(demodulator);
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        System.out.printf("%-40s %,16d bytes allocated (%,.1f per message)%n",
+                label, allocated, (double) allocated / messagesCount);
+    }
+
+    private static void measure(String label, byte[] samples, Demodulation demodulation, int messagesCount)
+            throws Exception {
+        MicroBenchmark.measure(label, messagesCount, "messages",
+                () -> demodulation.run(new AdsbDemodulator(new ByteArrayInputStream(samples))));
+    }
+
+    public static void main(String[] args) throws Exception {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), POWER_SAMPLES_COUNT);
+        var messagesCount = synthesizer.addRandomMessages(0).size();
+        var samples = synthesizer.bytes();
+        System.out.printf("%,d messages%n", messagesCount);
+
+        printAllocations("RawMessage", samples, MutableRawMessageBenchmark::demodulateRawMessages, messagesCount);
+        printAllocations("MutableRawMessage", samples, MutableRawMessageBenchmark::demodulateMutableMessages,
+                messagesCount);
+        measure("RawMessage", samples, MutableRawMessageBenchmark::demodulateRawMessages, messagesCount);
+        measure("MutableRawMessage", samples, MutableRawMessageBenchmark::demodulateMutableMessages, messagesCount);
+    }
+}
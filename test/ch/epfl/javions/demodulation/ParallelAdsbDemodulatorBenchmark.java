@@ -0,0 +1,43 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+
+// Compares the sequential demodulator with the parallel one, for increasing numbers of cores,
+// on a synthesized recording of about 10 seconds.
+// Not a JUnit test: run it with its main method.
+public final class ParallelAdsbDemodulatorBenchmark {
+    private static final int POWER_SAMPLES_COUNT = 100_000_000;
+
+    public static void main(String[] args) throws Exception {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), POWER_SAMPLES_COUNT);
+        var messagesCount = synthesizer.addRandomMessages(20_000).size();
+        var file = Files.createTempFile("samples", ".bin");
+        try {
+            Files.write(file, synthesizer.bytes());
+            System.out.printf("%,d messages, %d available cores%n",
+                    messagesCount, Runtime.getRuntime().availableProcessors());
+
+            MicroBenchmark.measure("AdsbDemodulator", POWER_SAMPLES_COUNT, "power samples", () -> {
+                var demodulator = new AdsbDemodulator(SamplesSource.ofFile(file));
+                var count = 0L;
+                while (demodulator.nextMessage() != null) count += 1;
+                return count;
+            });
+
+            var maxParallelism = Runtime.getRuntime().availableProcessors();
+            for (var parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+                var pool = new ForkJoinPool(parallelism);
+                MicroBenchmark.measure("ParallelAdsbDemodulator, " + parallelism + " thread(s)",
+                        POWER_SAMPLES_COUNT, "power samples",
+                        () -> ParallelAdsbDemodulator.demodulate(file, pool).size());
+                pool.shutdown();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
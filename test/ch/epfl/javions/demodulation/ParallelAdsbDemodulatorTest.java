@@ -0,0 +1,78 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.adsb.RawMessage;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelAdsbDemodulatorTest {
+    private static final int POWER_SAMPLES_COUNT = 1 << 19;
+
+    private static List<RawMessage> demodulateSequentially(Path file) throws IOException {
+        var demodulator = new AdsbDemodulator(SamplesSource.ofFile(file));
+        var messages = new ArrayList<RawMessage>();
+        RawMessage message;
+        while ((message = demodulator.nextMessage()) != null) messages.add(message);
+        return messages;
+    }
+
+    private static void assertParallelEqualsSequential(byte[] bytes, List<RawMessage> expected) throws IOException {
+        var file = Files.createTempFile("samples", ".bin");
+        var pool = new ForkJoinPool(4);
+        try {
+            Files.write(file, bytes);
+            var sequential = demodulateSequentially(file);
+            if (expected != null) assertEquals(expected, sequential);
+
+            assertEquals(sequential, ParallelAdsbDemodulator.demodulate(file, pool));
+            for (var chunkSize : new long[]{997, 1200, 4096, 50_000, 1 << 20}) {
+                assertEquals(sequential, ParallelAdsbDemodulator.demodulate(file, pool, chunkSize));
+            }
+        } finally {
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void parallelAdsbDemodulatorWorksOnGivenSamples() throws IOException {
+        var bytes = Base64.getDecoder().decode(PowerComputerTest.SAMPLES_BIN_BASE64);
+        assertParallelEqualsSequential(bytes, null);
+    }
+
+    @Test
+    void parallelAdsbDemodulatorWorksOnEmptyFile() throws IOException {
+        assertParallelEqualsSequential(new byte[0], List.of());
+    }
+
+    @Test
+    void parallelAdsbDemodulatorFindsSynthesizedMessages() throws IOException {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), POWER_SAMPLES_COUNT);
+        var messages = synthesizer.addRandomMessages(5_000);
+        assertFalse(messages.isEmpty());
+        assertParallelEqualsSequential(synthesizer.bytes(), messages);
+    }
+
+    @Test
+    void parallelAdsbDemodulatorWorksWithCloseMessages() throws IOException {
+        var synthesizer = new SamplesSynthesizer(TestRandomizer.newRandom(), POWER_SAMPLES_COUNT / 4);
+        var messages = synthesizer.addRandomMessages(3);
+        assertParallelEqualsSequential(synthesizer.bytes(), messages);
+    }
+
+    @Test
+    void parallelAdsbDemodulatorWorksOnNoise() throws IOException {
+        var bytes = new byte[POWER_SAMPLES_COUNT * 2 * Short.BYTES];
+        TestRandomizer.newRandom().nextBytes(bytes);
+        assertParallelEqualsSequential(bytes, null);
+    }
+}
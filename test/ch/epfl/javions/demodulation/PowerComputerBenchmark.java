@@ -0,0 +1,51 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.io.ByteArrayInputStream;
+
+// Compares the original floating-point power computation with PowerComputer's integer kernel,
+// first on already decoded samples, then through the whole PowerComputer (decoding included).
+// Not a JUnit test: run it with its main method.
+public final class PowerComputerBenchmark {
+    private static final int BATCH_SIZE = 1 << 16;
+    private static final int BATCHES = 32;
+
+    public static void main(String[] args) throws Exception {
+        var rng = TestRandomizer.newRandom();
+        var samples = new short[BATCH_SIZE * 2];
+        for (var i = 0; i < samples.length; i += 1)
+            samples[i] = (short) (rng.nextInt(1 << 12) - (1 << 11));
+        var powers = new int[BATCH_SIZE];
+        var powerSamples = (long) BATCH_SIZE * BATCHES;
+
+        MicroBenchmark.measure("Kernel, Math.pow (before)", powerSamples, "power samples", () -> {
+            var sum = 0L;
+            for (var i = 0; i < BATCHES; i += 1) {
+                sum += PowerComputerTest.referencePowers(samples)[BATCH_SIZE - 1];
+            }
+            return sum;
+        });
+
+        var computer = new PowerComputer(new ByteArrayInputStream(new byte[0]), BATCH_SIZE);
+        MicroBenchmark.measure("Kernel, integer (after)", powerSamples, "power samples", () -> {
+            var sum = 0L;
+            for (var i = 0; i < BATCHES; i += 1) {
+                sum += computer.computePowers(samples, samples.length, powers);
+            }
+            return sum + powers[BATCH_SIZE - 1];
+        });
+
+        var bytes = new byte[BATCH_SIZE * BATCHES * 2 * Short.BYTES];
+        rng.nextBytes(bytes);
+        MicroBenchmark.measure("PowerComputer.readBatch", powerSamples, "power samples", () -> {
+            var powerComputer = new PowerComputer(new ByteArrayInputStream(bytes), BATCH_SIZE);
+            var sum = 0L;
+            for (var i = 0; i < BATCHES; i += 1) {
+                sum += powerComputer.readBatch(powers);
+            }
+            return sum;
+        });
+    }
+}
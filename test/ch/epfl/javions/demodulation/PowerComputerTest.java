@@ -1,5 +1,6 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
@@ -271,4 +272,64 @@ class PowerComputerTest {
             }
         }
     }
+
+    // Reference implementation: the original floating-point power computation.
+    static int[] referencePowers(short[] samples) {
+        var circularBuffer = new short[8];
+        var powers = new int[samples.length / 2];
+        for (var i = 0; i < powers.length; i += 1) {
+            circularBuffer[(2 * i) % 8] = samples[2 * i];
+            circularBuffer[(2 * i + 1) % 8] = samples[2 * i + 1];
+            var power = Math.pow(circularBuffer[0] - circularBuffer[2] + circularBuffer[4] - circularBuffer[6], 2)
+                    + Math.pow(circularBuffer[1] - circularBuffer[3] + circularBuffer[5] - circularBuffer[7], 2);
+            powers[i] = (int) power;
+        }
+        return powers;
+    }
+
+    @Test
+    void powerComputerMatchesReferenceOnGivenSamples() throws IOException {
+        var samples = new short[POWER_SAMPLES.length * 2];
+        try (var samplesStream = getSamplesStream()) {
+            new SamplesDecoder(samplesStream, samples.length).readBatch(samples);
+        }
+        assertArrayEquals(POWER_SAMPLES, referencePowers(samples));
+    }
+
+    @Test
+    void powerComputerMatchesReferenceOnRandomSamples() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var batchSize = 1 << 8;
+        var batches = 16;
+        var bytes = new byte[batchSize * batches * 2 * Short.BYTES];
+        rng.nextBytes(bytes);
+
+        var samples = new short[bytes.length / Short.BYTES];
+        new SamplesDecoder(new ByteArrayInputStream(bytes), samples.length).readBatch(samples);
+        var expected = referencePowers(samples);
+
+        var actual = new int[expected.length];
+        var batch = new int[batchSize];
+        var powerComputer = new PowerComputer(new ByteArrayInputStream(bytes), batchSize);
+        for (var i = 0; i < batches; i += 1) {
+            assertEquals(batchSize, powerComputer.readBatch(batch));
+            System.arraycopy(batch, 0, actual, i * batchSize, batchSize);
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void powerComputerSaturatesWhenBothSumsAreMinimal() throws IOException {
+        // Both sums of the first power sample are -2^15, so that the sum of their squares is 2^31.
+        var samples = new short[]{Short.MIN_VALUE, Short.MIN_VALUE};
+        BatchReader<short[]> reader = batch -> {
+            System.arraycopy(samples, 0, batch, 0, samples.length);
+            return samples.length;
+        };
+        var powerComputer = new PowerComputer(reader, 8);
+        var batch = new int[8];
+        assertEquals(1, powerComputer.readBatch(batch));
+        assertEquals(Integer.MAX_VALUE, batch[0]);
+        assertEquals(referencePowers(samples)[0], batch[0]);
+    }
 }
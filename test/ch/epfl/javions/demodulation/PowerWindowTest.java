@@ -1,5 +1,6 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
@@ -137,6 +138,40 @@ class PowerWindowTest {
         }
     }
 
+    @Test
+    void powerWindowAdvanceByIsEquivalentToRepeatedAdvance() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var bytes = new byte[BATCH_SIZE_BYTES * 3 + 1234];
+        rng.nextBytes(bytes);
+        for (var windowSize : new int[]{1, STANDARD_WINDOW_SIZE, BATCH_SIZE}) {
+            var w1 = new PowerWindow(new ByteArrayInputStream(bytes), windowSize);
+            var w2 = new PowerWindow(new ByteArrayInputStream(bytes), windowSize);
+            while (w1.isFull()) {
+                var offset = rng.nextInt(3 * windowSize / 2 + 1);
+                w1.advanceBy(offset);
+                for (var i = 0; i < offset; i += 1) w2.advance();
+                assertEquals(w2.position(), w1.position());
+                assertEquals(w2.isFull(), w1.isFull());
+                if (!w1.isFull()) break;
+                for (var i = 0; i < windowSize; i += 1) assertEquals(w2.get(i), w1.get(i));
+            }
+        }
+    }
+
+    @Test
+    void powerWindowPowerSamplesViewMatchesGet() throws IOException {
+        var bytes = new byte[BATCH_SIZE_BYTES * 2];
+        TestRandomizer.newRandom().nextBytes(bytes);
+        var w = new PowerWindow(new ByteArrayInputStream(bytes), STANDARD_WINDOW_SIZE);
+        var powerSamples = w.powerSamples();
+        for (var step = 0; step < 200; step += 1) {
+            for (var i = 0; i < STANDARD_WINDOW_SIZE; i += 1)
+                assertEquals(w.get(i), powerSamples[w.startIndex() + i]);
+            w.advanceBy(BATCH_SIZE / 199);
+            assertSame(powerSamples, w.powerSamples());
+        }
+    }
+
     private static byte[] bytesForZeroSamples(int batchesCount) {
         var bytes = new byte[BATCH_SIZE_BYTES * batchesCount];
 
@@ -0,0 +1,29 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.test.MicroBenchmark;
+import ch.epfl.test.TestRandomizer;
+
+import java.io.ByteArrayInputStream;
+
+// Compares the scalar and the bulk conversions of SamplesDecoder.
+// Not a JUnit test: run it with its main method.
+public final class SamplesDecoderBenchmark {
+    private static final int BATCH_SIZE = 1 << 17;
+    private static final int BATCHES = 64;
+
+    public static void main(String[] args) throws Exception {
+        var bytes = new byte[BATCH_SIZE * BATCHES * Short.BYTES];
+        TestRandomizer.newRandom().nextBytes(bytes);
+
+        for (var conversion : SamplesDecoder.Conversion.values()) {
+            var batch = new short[BATCH_SIZE];
+            MicroBenchmark.measure("SamplesDecoder " + conversion, (long) BATCH_SIZE * BATCHES, "samples", () -> {
+                var decoder = new SamplesDecoder(new ByteArrayInputStream(bytes), BATCH_SIZE, conversion);
+                var read = 0L;
+                for (var i = 0; i < BATCHES; i += 1)
+                    read += decoder.readBatch(batch);
+                return read + batch[BATCH_SIZE - 1];
+            });
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ch.epfl.javions.demodulation;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
@@ -89,4 +90,28 @@ class SamplesDecoderTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void samplesDecoderConversionsProduceSameSamples() throws IOException {
+        var rng = TestRandomizer.newRandom();
+        var bytes = new byte[SAMPLES_COUNT * Short.BYTES + 1];
+        rng.nextBytes(bytes);
+
+        for (var batchSize = 1; batchSize <= SAMPLES_COUNT; batchSize *= 4) {
+            try (var scalarStream = new ByteArrayInputStream(bytes);
+                 var bulkStream = new ByteArrayInputStream(bytes)) {
+                var scalarDecoder = new SamplesDecoder(scalarStream, batchSize, SamplesDecoder.Conversion.SCALAR);
+                var bulkDecoder = new SamplesDecoder(bulkStream, batchSize, SamplesDecoder.Conversion.BULK);
+                var scalarBatch = new short[batchSize];
+                var bulkBatch = new short[batchSize];
+                int scalarRead, bulkRead;
+                do {
+                    scalarRead = scalarDecoder.readBatch(scalarBatch);
+                    bulkRead = bulkDecoder.readBatch(bulkBatch);
+                    assertEquals(scalarRead, bulkRead);
+                    assertArrayEquals(scalarBatch, bulkBatch);
+                } while (scalarRead == batchSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplesSourceTest {
+    private static final int BATCH_SIZE = 1 << 10;
+
+    private static byte[] randomBytes(int count) {
+        var bytes = new byte[count];
+        TestRandomizer.newRandom().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static short[] readAllSamples(SamplesSource source, int batchSize) throws IOException {
+        var decoder = new SamplesDecoder(source, batchSize, SamplesDecoder.Conversion.BULK);
+        var batch = new short[batchSize];
+        var samples = new short[0];
+        int read;
+        do {
+            read = decoder.readBatch(batch);
+            samples = Arrays.copyOf(samples, samples.length + read);
+            System.arraycopy(batch, 0, samples, samples.length - read, read);
+        } while (read == batchSize);
+        return samples;
+    }
+
+    @Test
+    void samplesSourceOfThrowsWithNullArguments() {
+        assertThrows(NullPointerException.class, () -> SamplesSource.of((InputStream) null));
+        assertThrows(NullPointerException.class, () -> SamplesSource.of((ReadableByteChannel) null));
+    }
+
+    @Test
+    void samplesSourceReadReturnsEmptyBufferAtEnd() throws IOException {
+        var source = SamplesSource.of(new ByteArrayInputStream(new byte[6]));
+        assertEquals(6, source.read(8).remaining());
+        assertEquals(0, source.read(8).remaining());
+    }
+
+    @Test
+    void samplesSourcesAllProduceTheSameSamples() throws IOException {
+        var bytes = randomBytes(BATCH_SIZE * 7 * Short.BYTES + 3);
+        var file = Files.createTempFile("samples", ".bin");
+        try {
+            Files.write(file, bytes);
+            var expected = readAllSamples(SamplesSource.of(new ByteArrayInputStream(bytes)), BATCH_SIZE);
+            assertEquals(bytes.length / Short.BYTES, expected.length);
+
+            var fromChannel = readAllSamples(
+                    SamplesSource.of(Channels.newChannel(new ByteArrayInputStream(bytes))), BATCH_SIZE);
+            assertArrayEquals(expected, fromChannel);
+
+            var fromFile = readAllSamples(SamplesSource.ofFile(file), BATCH_SIZE);
+            assertArrayEquals(expected, fromFile);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void powerComputerWorksOnMappedFile() throws IOException {
+        var bytes = Base64.getDecoder().decode(PowerComputerTest.SAMPLES_BIN_BASE64);
+        var file = Files.createTempFile("samples", ".bin");
+        try {
+            Files.write(file, bytes);
+            var batch = new int[1200];
+            var powerComputer = new PowerComputer(SamplesSource.ofFile(file), batch.length);
+            assertEquals(batch.length, powerComputer.readBatch(batch));
+            assertArrayEquals(PowerComputerTest.POWER_SAMPLES, batch);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
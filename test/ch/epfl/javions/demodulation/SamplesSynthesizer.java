@@ -0,0 +1,132 @@
+package ch.epfl.javions.demodulation;
+
+import ch.epfl.javions.Crc24;
+import ch.epfl.javions.adsb.ModeSFrame;
+import ch.epfl.javions.adsb.RawMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Synthesizes the bytes of a recording (as produced by the radio) containing the given
+// ADS-B messages, with their preamble and PPM-encoded bits, over some low-level noise.
+// A pulse is "on" for 4 consecutive power samples, so that the power computed from the
+// last 4 I/Q pairs peaks at exactly one position per pulse.
+final class SamplesSynthesizer {
+    private static final int BIAS = 1 << 11;
+    private static final int AMPLITUDE = 1 << 9;
+    private static final int NOISE = 1 << 3;
+    private static final int PULSE_LENGTH = 4;
+    private static final int[] PREAMBLE_PULSES = {0, 10, 35, 45};
+    private static final int BITS_START = 80;
+    private static final int MIN_GAP = 2 * AdsbDemodulator.WINDOW_SIZE;
+    private static final Crc24 CRC24 = new Crc24(Crc24.GENERATOR);
+
+    private final RandomGenerator rng;
+    private final int[] amplitudes;
+
+    SamplesSynthesizer(RandomGenerator rng, int powerSamplesCount) {
+        this.rng = rng;
+        this.amplitudes = new int[powerSamplesCount];
+    }
+
+    // Returns a random DF17 message with a valid CRC, time-stamped as the demodulator would.
+    static RawMessage randomMessage(RandomGenerator rng, long position) {
+        var bytes = new byte[RawMessage.LENGTH];
+        rng.nextBytes(bytes);
+        bytes[0] = (byte) ((17 << 3) | (bytes[0] & 0b111));
+        var crc = CRC24.crc(Arrays.copyOf(bytes, RawMessage.LENGTH - 3));
+        bytes[11] = (byte) (crc >> 16);
+        bytes[12] = (byte) (crc >> 8);
+        bytes[13] = (byte) crc;
+        return RawMessage.of(position * 100, bytes);
+    }
+
+    // Returns the random bytes of a Mode S frame of the given downlink format, sent by the aircraft of
+    // the given address: in clear, followed by the parity, for DF11/17/18, or overlaid on it otherwise.
+    static byte[] randomModeSFrame(RandomGenerator rng, int downlinkFormat, int address) {
+        var bytes = new byte[ModeSFrame.size((byte) (downlinkFormat << 3))];
+        rng.nextBytes(bytes);
+        bytes[0] = (byte) ((downlinkFormat << 3) | (bytes[0] & 0b111));
+        var inClear = downlinkFormat == 11 || downlinkFormat == 17 || downlinkFormat == 18;
+        if (inClear) {
+            bytes[1] = (byte) (address >> 16);
+            bytes[2] = (byte) (address >> 8);
+            bytes[3] = (byte) address;
+        }
+        var parity = CRC24.crc(Arrays.copyOf(bytes, bytes.length - 3)) ^ (inClear ? 0 : address);
+        bytes[bytes.length - 3] = (byte) (parity >> 16);
+        bytes[bytes.length - 2] = (byte) (parity >> 8);
+        bytes[bytes.length - 1] = (byte) parity;
+        return bytes;
+    }
+
+    // Adds the given message, whose preamble is detected at the given power sample position.
+    void add(RawMessage message) {
+        add(message, AMPLITUDE);
+    }
+
+    // Adds the given message, with the given (I/Q sample) amplitude.
+    void add(RawMessage message, int amplitude) {
+        var bytes = new byte[RawMessage.LENGTH];
+        for (var i = 0; i < bytes.length; i += 1) bytes[i] = (byte) message.bytes().byteAt(i);
+        add(message.timeStampNs() / 100, bytes, amplitude);
+    }
+
+    // Adds a frame of any length made of the given bytes, whose preamble is detected at the given position.
+    void add(long position, byte[] bytes, int amplitude) {
+        for (var pulse : PREAMBLE_PULSES) pulse((int) position + pulse, amplitude);
+        for (var i = 0; i < bytes.length * Byte.SIZE; i += 1) {
+            var bit = (bytes[i / Byte.SIZE] >> (7 - i % Byte.SIZE)) & 1;
+            pulse((int) position + BITS_START + 10 * i + (bit == 1 ? 0 : 5), amplitude);
+        }
+    }
+
+    // Adds random messages separated by random gaps until the end of the recording, and returns them.
+    List<RawMessage> addRandomMessages(int maxExtraGap) {
+        return addRandomMessages(maxExtraGap, AMPLITUDE, AMPLITUDE);
+    }
+
+    // Same as above, each message having a random amplitude between the given bounds (inclusive).
+    List<RawMessage> addRandomMessages(int maxExtraGap, int minAmplitude, int maxAmplitude) {
+        var messages = new ArrayList<RawMessage>();
+        var position = (long) rng.nextInt(MIN_GAP);
+        while (position + MIN_GAP < amplitudes.length) {
+            var message = randomMessage(rng, position);
+            add(message, minAmplitude + rng.nextInt(maxAmplitude - minAmplitude + 1));
+            messages.add(message);
+            position += MIN_GAP + rng.nextInt(maxExtraGap + 1);
+        }
+        return messages;
+    }
+
+    // Returns the bytes of the recording (two little-endian 12-bit samples per power sample).
+    byte[] bytes() {
+        var bytes = new byte[amplitudes.length * 2 * Short.BYTES];
+        for (var i = 0; i < amplitudes.length; i += 1) {
+            var inPhase = ((i & 1) == 0 ? amplitudes[i] : -amplitudes[i]) + noise();
+            var quadrature = noise();
+            putSample(bytes, 2 * i, inPhase);
+            putSample(bytes, 2 * i + 1, quadrature);
+        }
+        return bytes;
+    }
+
+    // A pulse whose power peaks at the given position is on for the PULSE_LENGTH samples ending there.
+    private void pulse(int peakPosition, int amplitude) {
+        for (var i = peakPosition - PULSE_LENGTH + 1; i <= peakPosition; i += 1) {
+            if (0 <= i && i < amplitudes.length) amplitudes[i] = amplitude;
+        }
+    }
+
+    private int noise() {
+        return rng.nextInt(2 * NOISE + 1) - NOISE;
+    }
+
+    private static void putSample(byte[] bytes, int index, int sample) {
+        var biased = sample + BIAS;
+        bytes[2 * index] = (byte) biased;
+        bytes[2 * index + 1] = (byte) (biased >> Byte.SIZE);
+    }
+}
@@ -0,0 +1,213 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.adsb.AirbornePositionMessage;
+import ch.epfl.javions.adsb.PositionFilter;
+import ch.epfl.javions.aircraft.AircraftData;
+import ch.epfl.javions.aircraft.AircraftDatabase;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import ch.epfl.javions.aircraft.SyntheticAircraftDatabase;
+import ch.epfl.test.ManualExecutor;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AircraftDataLoaderTest {
+    private static final IcaoAddress UNKNOWN = new IcaoAddress("000000");
+
+    private static List<IcaoAddress> knownAddresses(Path directory, int count) throws IOException {
+        var lines = SyntheticAircraftDatabase.write(directory, count, TestRandomizer.newRandom());
+        var addresses = new ArrayList<IcaoAddress>();
+        for (var line : lines) {
+            if (!line.startsWith(UNKNOWN.string())) addresses.add(new IcaoAddress(line.substring(0, 6)));
+        }
+        return addresses;
+    }
+
+    @Test
+    void aircraftDataLoaderSynchronousDeliversImmediately(@TempDir Path directory) throws IOException {
+        var addresses = knownAddresses(directory, 100);
+        var database = new AircraftDatabase(SyntheticAircraftDatabase.file(directory));
+        var loader = AircraftDataLoader.synchronous(database);
+        for (var address : addresses) {
+            var result = new AtomicReference<AircraftData>();
+            loader.lookup(address, result::set);
+            assertNotNull(result.get());
+            assertEquals(database.get(address), result.get());
+        }
+        var result = new AtomicReference<AircraftData>(database.get(addresses.get(0)));
+        loader.lookup(UNKNOWN, result::set);
+        assertNull(result.get());
+    }
+
+    @Test
+    void aircraftDataLoaderRemembersHitsAndMisses(@TempDir Path directory) throws IOException {
+        var addresses = knownAddresses(directory, 100);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var database = new AircraftDatabase(file);
+        var loader = AircraftDataLoader.synchronous(database);
+        var expected = database.get(addresses.get(0));
+        loader.lookup(addresses.get(0), d -> {});
+        loader.lookup(UNKNOWN, d -> {});
+        assertEquals(2, loader.cacheSize());
+
+        // Without the file, only cached results can be obtained.
+        Files.delete(Path.of(file));
+        var result = new AtomicReference<AircraftData>();
+        loader.lookup(addresses.get(0), result::set);
+        assertEquals(expected, result.get());
+        loader.lookup(UNKNOWN, result::set);
+        assertNull(result.get());
+        assertThrows(IOException.class, () -> loader.lookup(addresses.get(1), d -> {}));
+    }
+
+    @Test
+    void aircraftDataLoaderCacheIsBoundedAndEvictsLeastRecentlyUsed(@TempDir Path directory) throws IOException {
+        var addresses = knownAddresses(directory, 100);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var loader = new AircraftDataLoader(new AircraftDatabase(file), 2, null, null);
+        loader.lookup(addresses.get(0), d -> {});
+        loader.lookup(addresses.get(1), d -> {});
+        loader.lookup(addresses.get(0), d -> {});
+        loader.lookup(addresses.get(2), d -> {});
+        assertEquals(2, loader.cacheSize());
+
+        Files.delete(Path.of(file));
+        loader.lookup(addresses.get(0), d -> {});
+        loader.lookup(addresses.get(2), d -> {});
+        assertThrows(IOException.class, () -> loader.lookup(addresses.get(1), d -> {}));
+    }
+
+    @Test
+    void aircraftDataLoaderInBackgroundDefersAndMergesLookups(@TempDir Path directory) throws IOException {
+        var addresses = knownAddresses(directory, 100);
+        var database = new AircraftDatabase(SyntheticAircraftDatabase.file(directory));
+        var lookups = new ManualExecutor();
+        var results = new ManualExecutor();
+        var loader = new AircraftDataLoader(database, 16, lookups, results);
+
+        var received = new ArrayList<AircraftData>();
+        loader.lookup(addresses.get(0), received::add);
+        loader.lookup(addresses.get(0), received::add);
+        assertEquals(1, lookups.size());
+        assertTrue(received.isEmpty());
+
+        lookups.runAll();
+        assertTrue(received.isEmpty());
+        results.runAll();
+        assertEquals(2, received.size());
+        assertEquals(database.get(addresses.get(0)), received.get(0));
+        assertSame(received.get(0), received.get(1));
+
+        // Cached results are delivered immediately.
+        loader.lookup(addresses.get(0), received::add);
+        assertEquals(3, received.size());
+        assertTrue(lookups.isEmpty());
+    }
+
+    @Test
+    void aircraftDataLoaderInBackgroundDoesNotCacheErrors(@TempDir Path directory) throws IOException {
+        var addresses = knownAddresses(directory, 100);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var lookups = new ManualExecutor();
+        var results = new ManualExecutor();
+        var loader = new AircraftDataLoader(new AircraftDatabase(file), 16, lookups, results);
+
+        Files.delete(Path.of(file));
+        var received = new AtomicReference<AircraftData>();
+        loader.lookup(addresses.get(0), received::set);
+        lookups.runAll();
+        results.runAll();
+        assertNull(received.get());
+        assertEquals(0, loader.cacheSize());
+    }
+
+    @Test
+    void aircraftDataLoaderInBackgroundCompletesAndRetriesAfterRuntimeException(@TempDir Path directory)
+            throws IOException {
+        var addresses = knownAddresses(directory, 100);
+        var file = SyntheticAircraftDatabase.file(directory);
+        var lookups = new ManualExecutor();
+        var results = new ManualExecutor();
+        var loader = new AircraftDataLoader(new AircraftDatabase(file), 16, lookups, results);
+
+        // Without its CSV entry, looking up an aircraft throws a NullPointerException.
+        try (var zip = new ZipOutputStream(Files.newOutputStream(Path.of(file)))) {
+            zip.putNextEntry(new ZipEntry("readme.txt"));
+        }
+        var received = new ArrayList<AircraftData>();
+        loader.lookup(addresses.get(0), received::add);
+        lookups.runAll();
+        results.runAll();
+        assertEquals(1, received.size());
+        assertNull(received.get(0));
+        assertEquals(0, loader.cacheSize());
+
+        // The failed lookup is no longer pending, so a later one is retried.
+        loader.lookup(addresses.get(0), received::add);
+        assertEquals(1, lookups.size());
+        lookups.runAll();
+        results.runAll();
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    void aircraftDataLoaderInBackgroundRunsOnItsOwnThread(@TempDir Path directory) throws Exception {
+        var addresses = knownAddresses(directory, 100);
+        var database = new AircraftDatabase(SyntheticAircraftDatabase.file(directory));
+        var resultThread = new AtomicReference<Thread>();
+        var loader = AircraftDataLoader.inBackground(database, 16, r -> {
+            resultThread.set(Thread.currentThread());
+            r.run();
+        });
+        var latch = new CountDownLatch(1);
+        var received = new AtomicReference<AircraftData>();
+        loader.lookup(addresses.get(0), d -> {
+            received.set(d);
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(database.get(addresses.get(0)), received.get());
+        assertNotSame(Thread.currentThread(), resultThread.get());
+    }
+
+    @Test
+    void aircraftStateManagerFillsDataWhenLookupCompletes(@TempDir Path directory) throws IOException {
+        var addresses = knownAddresses(directory, 100);
+        var address = addresses.get(0);
+        var database = new AircraftDatabase(SyntheticAircraftDatabase.file(directory));
+        var lookups = new ManualExecutor();
+        var results = new ManualExecutor();
+        var manager = new AircraftStateManager(new AircraftDataLoader(database, 16, lookups, results),
+                PositionFilter.ACCEPT_ALL);
+
+        manager.updateWithMessage(new AirbornePositionMessage(0, address, 1000, 0, cpr(98152), cpr(98838)));
+        manager.updateWithMessage(new AirbornePositionMessage(1, address, 1000, 1, cpr(95758), cpr(81899)));
+        assertEquals(1, lookups.size());
+        var state = manager.states().iterator().next();
+        assertNull(state.getData());
+
+        var changes = new ArrayList<AircraftData>();
+        state.dataProperty().addListener((p, o, n) -> changes.add(n));
+        lookups.runAll();
+        results.runAll();
+        assertEquals(List.of(database.get(address)), changes);
+        assertEquals(database.get(address), state.getData());
+    }
+
+    private static double cpr(int v) {
+        return Math.scalb((double) v, -17);
+    }
+}
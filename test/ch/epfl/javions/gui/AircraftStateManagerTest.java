@@ -0,0 +1,127 @@
+package ch.epfl.javions.gui;
+
+import ch.epfl.javions.GeoPos;
+import ch.epfl.javions.adsb.AirbornePositionMessage;
+import ch.epfl.javions.adsb.AirborneVelocityMessage;
+import ch.epfl.javions.adsb.PositionFilter;
+import ch.epfl.javions.aircraft.AircraftDatabase;
+import ch.epfl.javions.aircraft.IcaoAddress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AircraftStateManagerTest {
+    private static final long ONE_SECOND = 1_000_000_000L;
+    private static final IcaoAddress A = new IcaoAddress("4B1A00");
+    private static final IcaoAddress B = new IcaoAddress("4B1B01");
+    private static final IcaoAddress C = new IcaoAddress("4B1C02");
+
+    // An aircraft database without any aircraft, but with the entries of the addresses above.
+    private static AircraftDatabase emptyDatabase(Path directory) throws IOException {
+        var file = directory.resolve("aircraft.zip").toString();
+        try (var zip = new ZipOutputStream(new FileOutputStream(file))) {
+            for (var address : new IcaoAddress[]{A, B, C}) {
+                zip.putNextEntry(new ZipEntry(address.string().substring(4) + ".csv"));
+                zip.closeEntry();
+            }
+        }
+        return new AircraftDatabase(file);
+    }
+
+    private static double cpr(int v) {
+        return Math.scalb((double) v, -17);
+    }
+
+    private static void sendPosition(AircraftStateManager manager, IcaoAddress address, long timeStampNs)
+            throws IOException {
+        manager.updateWithMessage(new AirbornePositionMessage(timeStampNs, address, 1000, 0, cpr(98152), cpr(98838)));
+        manager.updateWithMessage(new AirbornePositionMessage(timeStampNs, address, 1000, 1, cpr(95758), cpr(81899)));
+    }
+
+    private static void sendVelocity(AircraftStateManager manager, IcaoAddress address, long timeStampNs)
+            throws IOException {
+        manager.updateWithMessage(new AirborneVelocityMessage(timeStampNs, address, 100, 1));
+    }
+
+    @Test
+    void aircraftStateManagerDecodesSingleMessageAgainstReceiverPosition(@TempDir Path directory)
+            throws IOException {
+        var receiver = new GeoPos((int) Math.rint(Math.scalb(6.5668 / 360, 32)),
+                (int) Math.rint(Math.scalb(46.5191 / 360, 32)));
+        var loader = AircraftDataLoader.synchronous(emptyDatabase(directory));
+        var message = new AirbornePositionMessage(0, A, 1000, 1, cpr(95758), cpr(81899));
+
+        var withoutReceiver = new AircraftStateManager(loader, PositionFilter.ACCEPT_ALL);
+        withoutReceiver.updateWithMessage(message);
+        assertTrue(withoutReceiver.states().isEmpty());
+
+        var withReceiver = new AircraftStateManager(loader, PositionFilter.ACCEPT_ALL, receiver);
+        withReceiver.updateWithMessage(message);
+        assertEquals(1, withReceiver.states().size());
+        var position = withReceiver.states().iterator().next().getPosition();
+        assertEquals(6.57520, Math.toDegrees(position.longitude()), 5e-5);
+        assertEquals(46.52444, Math.toDegrees(position.latitude()), 5e-5);
+    }
+
+    @Test
+    void aircraftStateManagerPurgesSilentAircraftAfterOneMinute(@TempDir Path directory) throws IOException {
+        var manager = new AircraftStateManager(emptyDatabase(directory));
+        sendPosition(manager, A, 0);
+        sendVelocity(manager, B, ONE_SECOND);
+        sendVelocity(manager, C, 2 * ONE_SECOND);
+        sendVelocity(manager, A, 30 * ONE_SECOND);
+        assertEquals(3, manager.trackedAircraftCount());
+        assertEquals(1, manager.states().size());
+
+        sendVelocity(manager, C, 61 * ONE_SECOND);
+        manager.purge();
+        assertEquals(2, manager.trackedAircraftCount());
+        assertEquals(1, manager.states().size());
+
+        sendVelocity(manager, C, 90 * ONE_SECOND);
+        manager.purge();
+        assertEquals(1, manager.trackedAircraftCount());
+        assertTrue(manager.states().isEmpty());
+    }
+
+    @Test
+    void aircraftStateManagerUsesTimeToLiveOfEachList(@TempDir Path directory) throws IOException {
+        var manager = new AircraftStateManager(emptyDatabase(directory), PositionFilter.ACCEPT_ALL,
+                20 * ONE_SECOND, 5 * ONE_SECOND);
+        sendPosition(manager, A, 0);
+        sendVelocity(manager, B, 0);
+        sendVelocity(manager, C, 6 * ONE_SECOND);
+        manager.purge();
+        // B has no position and has been silent for more than 5 s.
+        assertEquals(2, manager.trackedAircraftCount());
+        assertEquals(1, manager.states().size());
+
+        sendVelocity(manager, C, 10 * ONE_SECOND);
+        sendPosition(manager, C, 19 * ONE_SECOND);
+        manager.purge();
+        assertEquals(2, manager.trackedAircraftCount());
+
+        sendVelocity(manager, C, 20 * ONE_SECOND);
+        manager.purge();
+        // C now has a position and the longer time to live, A has expired.
+        assertEquals(1, manager.trackedAircraftCount());
+        assertEquals(1, manager.states().size());
+        assertEquals(C, manager.states().iterator().next().getAddress());
+    }
+
+    @Test
+    void aircraftStateManagerConstructorThrowsWithInvalidTimeToLive(@TempDir Path directory) throws IOException {
+        var database = emptyDatabase(directory);
+        assertThrows(IllegalArgumentException.class,
+                () -> new AircraftStateManager(database, PositionFilter.ACCEPT_ALL, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AircraftStateManager(database, PositionFilter.ACCEPT_ALL, 1, -1));
+    }
+}
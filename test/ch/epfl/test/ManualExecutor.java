@@ -0,0 +1,28 @@
+package ch.epfl.test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+// An executor that only runs its tasks when asked to, on the calling thread.
+public final class ManualExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable command) {
+        tasks.add(command);
+    }
+
+    // Runs the pending tasks, including those they submit, until none is left.
+    public void runAll() {
+        while (!tasks.isEmpty()) tasks.remove().run();
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public boolean isEmpty() {
+        return tasks.isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package ch.epfl.test;
+
+import java.util.Locale;
+
+// Minimal timing harness for the *Benchmark programs (the project has no JMH dependency).
+// Each measured operation is run for a few warm-up rounds, so that the JIT compiles it,
+// before being timed; the best round is reported, which filters out GC and scheduling noise.
+public final class MicroBenchmark {
+    public final static int WARMUP_ROUNDS = 5;
+    public final static int MEASURED_ROUNDS = 10;
+
+    // Result sink, so that the JIT cannot eliminate the measured work.
+    public static volatile long blackHole;
+
+    @FunctionalInterface
+    public interface Operation {
+        long run() throws Exception;
+    }
+
+    private MicroBenchmark() {}
+
+    public static double measure(String label, long unitsPerRound, String unitName, Operation operation)
+            throws Exception {
+        for (var i = 0; i < WARMUP_ROUNDS; i += 1)
+            blackHole += operation.run();
+
+        var bestNs = Long.MAX_VALUE;
+        for (var i = 0; i < MEASURED_ROUNDS; i += 1) {
+            var start = System.nanoTime();
+            blackHole += operation.run();
+            bestNs = Math.min(bestNs, System.nanoTime() - start);
+        }
+
+        var unitsPerSecond = unitsPerRound * 1e9 / bestNs;
+        System.out.printf(Locale.ROOT, "%-40s %,16.0f %s/s (%,.3f ms/round)%n",
+                label, unitsPerSecond, unitName, bestNs / 1e6);
+        return unitsPerSecond;
+    }
+}